@@ -34,6 +34,23 @@ public interface EventBus {
      */
     <T extends SierraAbstractEvent> void subscribe(Class<T> eventType, Consumer<T> event, ListenerPriority priority);
 
+    /**
+     * Subscribes a consumer to receive the events of a specific type in batches.
+     * <p>
+     * The events are collected while they are published and handed to the consumer as one list per interval, on a
+     * single async task for all batched subscriptions. This keeps the work per event small for consumers that only
+     * aggregate events, like detection statistics. A batch is only delivered after its events were published, so a
+     * batched consumer can not cancel them.
+     *
+     * @param <T>       the type of event to subscribe to, must extend {@link SierraAbstractEvent}
+     * @param eventType the class object representing the type of event to subscribe to
+     * @param batch     the consumer of the batches, never called with an empty list
+     * @param interval  the time between two batches in milliseconds, at least 50
+     *
+     * @throws IllegalArgumentException if eventType or batch is null
+     */
+    <T extends SierraAbstractEvent> void subscribeBatched(Class<T> eventType, Consumer<List<T>> batch, long interval);
+
     /**
      * Publishes an event to the event bus.
      *
@@ -45,12 +62,16 @@ public interface EventBus {
     <T extends SierraAbstractEvent> void publish(T event);
 
     /**
-     * Dispatches an event to all the subscribers that are subscribed to the event type.
+     * Dispatches an event to the given subscribers, in the order of the list.
      *
      * @param <T>              the type of the event, must extend {@link SierraAbstractEvent}
      * @param event            the event to be dispatched
      * @param eventSubscribers the list of event subscribers to send the event to
+     *
+     * @deprecated use {@link #publish(SierraAbstractEvent)}, which dispatches the event to the subscribers of its type
+     * and its supertypes in the order of their priority. This method will be removed in the next major version.
      */
+    @Deprecated
     <T extends SierraAbstractEvent> void dispatchEventToSubscribers(T event,
                                                                     List<EventSubscriber<?>> eventSubscribers);
 }
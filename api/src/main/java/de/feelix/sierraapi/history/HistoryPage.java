@@ -0,0 +1,39 @@
+package de.feelix.sierraapi.history;
+
+import java.util.List;
+
+/**
+ * The HistoryPage interface represents one page of the action history, newest entries first.
+ * <p>
+ * Pages are addressed by a cursor instead of a page number, so new entries do not shift the following pages. The
+ * first page is requested with {@link #FIRST}, every following page with the {@link #cursor()} of the page before.
+ */
+@SuppressWarnings("unused")
+public interface HistoryPage {
+
+    /**
+     * The cursor of the first page, which starts at the newest entry.
+     */
+    long FIRST = Long.MAX_VALUE;
+
+    /**
+     * Returns the entries of this page.
+     *
+     * @return The entries, newest first. The list is empty if there are no more entries.
+     */
+    List<History> entries();
+
+    /**
+     * Returns the cursor of the next page, which starts at the entry after the last entry of this page.
+     *
+     * @return The cursor of the next page
+     */
+    long cursor();
+
+    /**
+     * Checks whether there are entries after this page.
+     *
+     * @return true if the next page is not empty
+     */
+    boolean hasMore();
+}
@@ -1,5 +1,8 @@
 package de.feelix.sierraapi.server;
 
+import de.feelix.sierraapi.timing.TimingStatistics;
+
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -21,4 +24,27 @@ public interface SierraServer {
      * @return the TPS of the server as a double value
      */
     double tps();
+
+    /**
+     * Returns whether Sierra is in attack mode, because the server is flooded with detections or new connections.
+     *
+     * @return true if the server is under attack
+     */
+    boolean underAttack();
+
+    /**
+     * Returns the time spent in every check and packet processor, summed up over all players since the start of the
+     * server, keyed by the name of the check.
+     *
+     * @return an unmodifiable map of the names of the checks to their timing statistics
+     */
+    Map<String, TimingStatistics> checkTimings();
+
+    /**
+     * Returns the time spent on every packet type, summed up over all players since the start of the server, keyed
+     * by the direction and name of the packet type.
+     *
+     * @return an unmodifiable map of the packet types to their timing statistics
+     */
+    Map<String, TimingStatistics> packetTimings();
 }
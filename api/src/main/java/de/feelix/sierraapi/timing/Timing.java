@@ -27,4 +27,11 @@ public interface Timing {
      * @return the delay measured by the Timing object as a double
      */
     double delay();
+
+    /**
+     * Returns the distribution of all delays measured by the Timing object.
+     *
+     * @return the statistics of all measured delays
+     */
+    TimingStatistics statistics();
 }
@@ -1,5 +1,7 @@
 package de.feelix.sierraapi.timing;
 
+import java.util.Map;
+
 /**
  * The TimingHandler interface represents an object that provides timing tasks for various operations.
  * The implementation of this interface should provide methods to retrieve different Timing objects
@@ -43,4 +45,19 @@ public interface TimingHandler {
      * @see Timing
      */
     Timing getFrequencyTask();
+
+    /**
+     * Retrieves the time spent in every check and packet processor, keyed by their name.
+     *
+     * @return an unmodifiable map of the names of the checks to their timing statistics
+     */
+    Map<String, TimingStatistics> checkTimings();
+
+    /**
+     * Retrieves the time spent on every packet type, keyed by the direction and name of the packet type, for example
+     * {@code "Ingoing PLAYER_POSITION"}. Packet types that were never handled are left out.
+     *
+     * @return an unmodifiable map of the packet types to their timing statistics
+     */
+    Map<String, TimingStatistics> packetTimings();
 }
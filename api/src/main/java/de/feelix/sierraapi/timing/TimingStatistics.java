@@ -0,0 +1,50 @@
+package de.feelix.sierraapi.timing;
+
+/**
+ * The TimingStatistics interface represents the distribution of all measured durations of a task, instead of only
+ * the last one. All durations are in milliseconds.
+ */
+public interface TimingStatistics {
+
+    /**
+     * Returns the number of measured durations.
+     *
+     * @return the number of measured durations
+     */
+    long count();
+
+    /**
+     * Returns the mean of the measured durations.
+     *
+     * @return the mean duration in milliseconds, or 0 if nothing has been measured
+     */
+    double mean();
+
+    /**
+     * Returns the median of the measured durations.
+     *
+     * @return the 50th percentile in milliseconds, or 0 if nothing has been measured
+     */
+    double p50();
+
+    /**
+     * Returns the duration that 99 percent of the measurements do not exceed.
+     *
+     * @return the 99th percentile in milliseconds, or 0 if nothing has been measured
+     */
+    double p99();
+
+    /**
+     * Returns the longest measured duration.
+     *
+     * @return the maximum duration in milliseconds, or 0 if nothing has been measured
+     */
+    double max();
+
+    /**
+     * Returns the sum of all measured durations, which is where the time actually went.
+     *
+     * @return the total duration in milliseconds
+     */
+    double total();
+}
@@ -1,6 +1,8 @@
 package de.feelix.sierraapi.user;
 
 import de.feelix.sierraapi.history.History;
+import de.feelix.sierraapi.history.HistoryPage;
+import de.feelix.sierraapi.history.HistoryType;
 import de.feelix.sierraapi.user.impl.SierraUser;
 
 import java.util.List;
@@ -43,4 +45,43 @@ public interface UserRepository {
      * @return A List of History objects representing the user's action history. The list may be empty if no history is available.
      */
     List<History> getLocalActionHistory();
+
+    /**
+     * Retrieves a page of the local action history, newest entries first.
+     *
+     * @param cursor the cursor of the page, {@link HistoryPage#FIRST} for the newest entries
+     * @param limit  the maximum number of entries on the page
+     * @return the HistoryPage starting at the cursor
+     */
+    HistoryPage getLocalActionHistory(long cursor, int limit);
+
+    /**
+     * Retrieves a page of the local action history of a single user, newest entries first.
+     *
+     * @param username the name of the user, ignoring case
+     * @param cursor   the cursor of the page, {@link HistoryPage#FIRST} for the newest entries
+     * @param limit    the maximum number of entries on the page
+     * @return the HistoryPage starting at the cursor
+     */
+    HistoryPage getLocalActionHistory(String username, long cursor, int limit);
+
+    /**
+     * Retrieves a page of the local action history of a single HistoryType, newest entries first.
+     *
+     * @param historyType the type of the entries
+     * @param cursor      the cursor of the page, {@link HistoryPage#FIRST} for the newest entries
+     * @param limit       the maximum number of entries on the page
+     * @return the HistoryPage starting at the cursor
+     */
+    HistoryPage getLocalActionHistory(HistoryType historyType, long cursor, int limit);
+
+    /**
+     * Retrieves a page of the local action history that happened at or after a point in time, newest entries first.
+     *
+     * @param timestamp the earliest time of the entries in milliseconds since the epoch
+     * @param cursor    the cursor of the page, {@link HistoryPage#FIRST} for the newest entries
+     * @param limit     the maximum number of entries on the page
+     * @return the HistoryPage starting at the cursor
+     */
+    HistoryPage getLocalActionHistorySince(long timestamp, long cursor, int limit);
 }
@@ -0,0 +1,58 @@
+package de.feelix.sierraapi.user.impl;
+
+/**
+ * The LatencyDistribution interface represents the latency of a user over the last samples, instead of only the
+ * latest one. All values are in milliseconds and are {@code -1} as long as no sample has been recorded.
+ */
+public interface LatencyDistribution {
+
+    /**
+     * Retrieves the number of samples the distribution currently holds.
+     *
+     * @return The number of samples, at most the size of the window.
+     */
+    int samples();
+
+    /**
+     * Retrieves the latest sample.
+     *
+     * @return The latest latency in milliseconds.
+     */
+    int latest();
+
+    /**
+     * Retrieves the latency that the given share of the samples does not exceed.
+     *
+     * @param percentile The percentile between 0 and 100.
+     * @return The latency in milliseconds.
+     */
+    int percentile(double percentile);
+
+    /**
+     * Retrieves the median latency.
+     *
+     * @return The 50th percentile in milliseconds.
+     */
+    int p50();
+
+    /**
+     * Retrieves the latency that 95 percent of the samples do not exceed.
+     *
+     * @return The 95th percentile in milliseconds.
+     */
+    int p95();
+
+    /**
+     * Retrieves the latency that 99 percent of the samples do not exceed.
+     *
+     * @return The 99th percentile in milliseconds.
+     */
+    int p99();
+
+    /**
+     * Retrieves the jitter, the mean difference between two consecutive samples.
+     *
+     * @return The jitter in milliseconds.
+     */
+    double jitter();
+}
@@ -47,6 +47,21 @@ public interface SierraUser {
      */
     int ping();
 
+    /**
+     * Retrieves the distribution of the round trip times of the last keep alive packets.
+     *
+     * @return The keep alive latency distribution as an instance of {@link LatencyDistribution}.
+     */
+    LatencyDistribution pingDistribution();
+
+    /**
+     * Retrieves the distribution of the round trip times of the last transactions, which are sent every tick and
+     * therefore react faster to a change of the connection than the keep alive ping.
+     *
+     * @return The transaction latency distribution as an instance of {@link LatencyDistribution}.
+     */
+    LatencyDistribution transactionDistribution();
+
     /**
      * Returns the number of ticks that the instance has existed for.
      *
@@ -0,0 +1,180 @@
+package de.feelix.sierra.benchmark;
+
+import com.github.retrooper.packetevents.protocol.item.ItemStack;
+import com.github.retrooper.packetevents.protocol.item.type.ItemType;
+import com.github.retrooper.packetevents.protocol.item.type.ItemTypes;
+import com.github.retrooper.packetevents.protocol.nbt.NBTByte;
+import com.github.retrooper.packetevents.protocol.nbt.NBTCompound;
+import com.github.retrooper.packetevents.protocol.nbt.NBTList;
+import com.github.retrooper.packetevents.protocol.nbt.NBTShort;
+import com.github.retrooper.packetevents.protocol.nbt.NBTString;
+import com.github.retrooper.packetevents.protocol.nbt.NBTType;
+
+/**
+ * The BenchmarkItems class builds the item stacks of the benchmarks, from items a player carries every day to the
+ * payloads of known crash clients.
+ */
+public final class BenchmarkItems {
+
+    private static final int CONTAINER_SLOTS = 27;
+
+    private BenchmarkItems() {
+    }
+
+    /**
+     * A sword with a custom name, lore and enchantments, like a reward from a crate.
+     *
+     * @return The item stack
+     */
+    public static ItemStack enchantedSword() {
+        NBTList<NBTCompound> enchantments = new NBTList<>(NBTType.COMPOUND);
+        enchantments.addTag(enchantment("minecraft:sharpness", 5));
+        enchantments.addTag(enchantment("minecraft:unbreaking", 3));
+        enchantments.addTag(enchantment("minecraft:looting", 3));
+
+        NBTList<NBTString> lore = new NBTList<>(NBTType.STRING);
+        lore.addTag(new NBTString("{\"text\":\"Forged in the nether\",\"color\":\"gray\",\"italic\":false}"));
+        lore.addTag(new NBTString("{\"text\":\"Season 4\",\"color\":\"dark_gray\"}"));
+
+        NBTCompound display = new NBTCompound();
+        display.setTag("Name", new NBTString("{\"text\":\"Blade of Embers\",\"color\":\"gold\",\"bold\":true}"));
+        display.setTag("Lore", lore);
+
+        NBTCompound nbt = new NBTCompound();
+        nbt.setTag("Enchantments", enchantments);
+        nbt.setTag("display", display);
+        return item(ItemTypes.DIAMOND_SWORD, 1, nbt);
+    }
+
+    /**
+     * A signed book with the given number of pages of text.
+     *
+     * @param pages The number of pages
+     * @return The item stack
+     */
+    public static ItemStack writtenBook(int pages) {
+        NBTList<NBTString> list = new NBTList<>(NBTType.STRING);
+        for (int i = 0; i < pages; i++) {
+            list.addTag(new NBTString("{\"text\":\"" + page(i) + "\"}"));
+        }
+
+        NBTCompound nbt = new NBTCompound();
+        nbt.setTag("title", new NBTString("Travel Journal"));
+        nbt.setTag("author", new NBTString("Benchmark"));
+        nbt.setTag("pages", list);
+        return item(ItemTypes.WRITTEN_BOOK, 1, nbt);
+    }
+
+    /**
+     * A shulker box filled with stacks of stone.
+     *
+     * @return The item stack
+     */
+    public static ItemStack filledShulker() {
+        return nestedShulker(1);
+    }
+
+    /**
+     * A shulker box that holds a shulker box, that holds a shulker box, and so on. Every level is filled with stacks
+     * of stone and one more shulker box.
+     *
+     * @param depth The number of nested shulker boxes
+     * @return The item stack
+     */
+    public static ItemStack nestedShulker(int depth) {
+        NBTCompound blockEntityTag = null;
+        for (int level = 0; level < depth; level++) {
+            NBTList<NBTCompound> items = new NBTList<>(NBTType.COMPOUND);
+            for (int slot = 0; slot < CONTAINER_SLOTS - 1; slot++) {
+                items.addTag(slot(slot, "minecraft:stone", 64, null));
+            }
+            if (blockEntityTag != null) {
+                NBTCompound tag = new NBTCompound();
+                tag.setTag("BlockEntityTag", blockEntityTag);
+                items.addTag(slot(CONTAINER_SLOTS - 1, "minecraft:shulker_box", 1, tag));
+            }
+
+            blockEntityTag = new NBTCompound();
+            blockEntityTag.setTag("Items", items);
+        }
+
+        NBTCompound nbt = new NBTCompound();
+        nbt.setTag("BlockEntityTag", blockEntityTag);
+        return item(ItemTypes.SHULKER_BOX, 1, nbt);
+    }
+
+    /**
+     * A piece of paper with compounds nested into each other, to exhaust the stack of the server.
+     *
+     * @param depth The number of nested compounds
+     * @return The item stack
+     */
+    public static ItemStack nestedCompounds(int depth) {
+        NBTCompound nbt = new NBTCompound();
+        for (int i = 0; i < depth; i++) {
+            NBTCompound parent = new NBTCompound();
+            parent.setTag("a", nbt);
+            nbt = parent;
+        }
+        return item(ItemTypes.PAPER, 1, nbt);
+    }
+
+    /**
+     * A piece of paper with a lore of long lines, to exhaust the memory of the server and the clients around.
+     *
+     * @param lines The number of lines
+     * @param width The length of every line
+     * @return The item stack
+     */
+    public static ItemStack oversizedLore(int lines, int width) {
+        StringBuilder builder = new StringBuilder(width);
+        for (int i = 0; i < width; i++) {
+            builder.append((char) ('a' + i % 26));
+        }
+
+        NBTList<NBTString> lore = new NBTList<>(NBTType.STRING);
+        for (int i = 0; i < lines; i++) {
+            lore.addTag(new NBTString("{\"text\":\"" + builder + "\"}"));
+        }
+
+        NBTCompound display = new NBTCompound();
+        display.setTag("Lore", lore);
+
+        NBTCompound nbt = new NBTCompound();
+        nbt.setTag("display", display);
+        return item(ItemTypes.PAPER, 1, nbt);
+    }
+
+    /**
+     * Creates the text of a book page that differs from the other pages.
+     *
+     * @param index The index of the page
+     * @return The text of the page
+     */
+    public static String page(int index) {
+        return "Day " + (index + 1) + ": We left the village at dawn and followed the river north, past the old mill "
+               + "and the birch forest, until we reached the mountains before the sun went down.";
+    }
+
+    private static NBTCompound enchantment(String id, int level) {
+        NBTCompound compound = new NBTCompound();
+        compound.setTag("id", new NBTString(id));
+        compound.setTag("lvl", new NBTShort((short) level));
+        return compound;
+    }
+
+    private static NBTCompound slot(int slot, String id, int count, NBTCompound tag) {
+        NBTCompound compound = new NBTCompound();
+        compound.setTag("Slot", new NBTByte((byte) slot));
+        compound.setTag("id", new NBTString(id));
+        compound.setTag("Count", new NBTByte((byte) count));
+        if (tag != null) {
+            compound.setTag("tag", tag);
+        }
+        return compound;
+    }
+
+    private static ItemStack item(ItemType type, int amount, NBTCompound nbt) {
+        return ItemStack.builder().type(type).amount(amount).nbt(nbt).build();
+    }
+}
@@ -0,0 +1,74 @@
+package de.feelix.sierra.benchmark;
+
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.player.GameMode;
+import com.github.retrooper.packetevents.wrapper.play.client.WrapperPlayClientEditBook;
+import de.feelix.sierra.check.impl.book.BookValidation;
+import de.feelix.sierra.manager.packet.PacketReceiveContext;
+import de.feelix.sierra.manager.storage.PlayerData;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the page validation of the {@link BookValidation} on edited books with the maximum of 50 pages.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BookValidationBenchmark {
+
+    private static final int PAGES = 50;
+
+    public enum Content {
+        TEXT,
+        UNICODE,
+        FORMATTED
+    }
+
+    @Param
+    public Content content;
+
+    private PlayerData     playerData;
+    private BookValidation check;
+    private EncodedPacket  packet;
+
+    @Setup
+    public void setup() {
+        playerData = SierraBenchmarkEnvironment.player(GameMode.SURVIVAL);
+        check = new BookValidation(playerData);
+
+        List<String> pages = new ArrayList<>(PAGES);
+        for (int i = 0; i < PAGES; i++) {
+            pages.add(page(i));
+        }
+        packet = SierraBenchmarkEnvironment.encode(
+            new WrapperPlayClientEditBook(0, pages, null), PacketType.Play.Client.EDIT_BOOK);
+    }
+
+    private String page(int index) {
+        switch (content) {
+            case UNICODE:
+                return "第" + (index + 1) + "天：我们在黎明时分离开了村庄，沿着河向北走，经过了旧磨坊和白桦林，"
+                       + "直到太阳下山之前才到达山脚。";
+            case FORMATTED:
+                return "§l" + BenchmarkItems.page(index).replace(", ", "§r, §o");
+            default:
+                return BenchmarkItems.page(index);
+        }
+    }
+
+    @Benchmark
+    public void editBook(Blackhole blackhole) {
+        PacketReceiveContext context = SierraBenchmarkEnvironment.receive(packet, playerData);
+        try {
+            check.handle(context, playerData);
+            blackhole.consume(context.getEvent().isCancelled());
+        } finally {
+            SierraBenchmarkEnvironment.release(context);
+        }
+    }
+}
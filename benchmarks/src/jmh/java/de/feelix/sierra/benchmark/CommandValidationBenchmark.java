@@ -0,0 +1,107 @@
+package de.feelix.sierra.benchmark;
+
+import com.github.retrooper.packetevents.protocol.chat.LastSeenMessages;
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.player.GameMode;
+import com.github.retrooper.packetevents.util.crypto.MessageSignData;
+import com.github.retrooper.packetevents.util.crypto.SaltSignature;
+import com.github.retrooper.packetevents.wrapper.play.client.WrapperPlayClientChatCommand;
+import com.github.retrooper.packetevents.wrapper.play.client.WrapperPlayClientChatMessage;
+import de.feelix.sierra.check.impl.command.CommandValidation;
+import de.feelix.sierra.manager.packet.PacketReceiveContext;
+import de.feelix.sierra.manager.storage.PlayerData;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Instant;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the {@link CommandValidation} on chat messages and commands. Every invocation sends one of a few
+ * different lines, so the repetition checks see a player chatting instead of a spam bot.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CommandValidationBenchmark {
+
+    private static final int VARIANTS = 16;
+
+    public enum Input {
+        CHAT,
+        COMMAND,
+        LONG_COMMAND,
+        WORLDEDIT_EXPLOIT
+    }
+
+    @Param
+    public Input input;
+
+    private PlayerData        playerData;
+    private CommandValidation check;
+    private EncodedPacket[]   packets;
+    private int               index;
+
+    @Setup
+    public void setup() {
+        playerData = SierraBenchmarkEnvironment.player(GameMode.SURVIVAL);
+        check = new CommandValidation(playerData);
+
+        packets = new EncodedPacket[VARIANTS];
+        for (int i = 0; i < VARIANTS; i++) {
+            packets[i] = encode(i);
+        }
+    }
+
+    private EncodedPacket encode(int variant) {
+        MessageSignData signData = new MessageSignData(
+            new SaltSignature(variant, new byte[0]), Instant.now(), false);
+        LastSeenMessages.Update lastSeen = new LastSeenMessages.Update(0, new BitSet(20));
+
+        switch (input) {
+            case CHAT:
+                return SierraBenchmarkEnvironment.encode(
+                    new WrapperPlayClientChatMessage("does anyone have " + variant + " iron for a trade?", signData,
+                                                     lastSeen
+                    ),
+                    PacketType.Play.Client.CHAT_MESSAGE
+                );
+            case LONG_COMMAND:
+                return command(
+                    "msg Notch meet me at the nether portal near spawn at " + variant
+                    + " o'clock and bring the diamonds, the elytra and the shulker box with the rockets", signData,
+                    lastSeen
+                );
+            case WORLDEDIT_EXPLOIT:
+                return command(
+                    "/calc for(i=0;i<256;i++){for(a=0;a<256;a++){for(b=0;b<" + variant + ";b++){}}}", signData,
+                    lastSeen
+                );
+            default:
+                return command("home base" + variant, signData, lastSeen);
+        }
+    }
+
+    private EncodedPacket command(String command, MessageSignData signData, LastSeenMessages.Update lastSeen) {
+        return SierraBenchmarkEnvironment.encode(
+            new WrapperPlayClientChatCommand(command, signData, Collections.emptyList(), lastSeen),
+            PacketType.Play.Client.CHAT_COMMAND
+        );
+    }
+
+    @Benchmark
+    public void chat(Blackhole blackhole) {
+        EncodedPacket packet = packets[index];
+        index = (index + 1) % packets.length;
+
+        PacketReceiveContext context = SierraBenchmarkEnvironment.receive(packet, playerData);
+        try {
+            check.handle(context, playerData);
+            blackhole.consume(context.getEvent().isCancelled());
+        } finally {
+            SierraBenchmarkEnvironment.release(context);
+        }
+    }
+}
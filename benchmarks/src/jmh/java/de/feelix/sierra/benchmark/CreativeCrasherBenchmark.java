@@ -0,0 +1,50 @@
+package de.feelix.sierra.benchmark;
+
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.player.GameMode;
+import com.github.retrooper.packetevents.wrapper.play.client.WrapperPlayClientCreativeInventoryAction;
+import de.feelix.sierra.check.impl.creative.CreativeCrasher;
+import de.feelix.sierra.manager.packet.PacketReceiveContext;
+import de.feelix.sierra.manager.storage.PlayerData;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the recursion of the {@link CreativeCrasher} through shulker boxes nested into each other, up to its
+ * recursion limit.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CreativeCrasherBenchmark {
+
+    @Param({"1", "8", "30"})
+    public int depth;
+
+    private PlayerData      playerData;
+    private CreativeCrasher check;
+    private EncodedPacket   packet;
+
+    @Setup
+    public void setup() {
+        playerData = SierraBenchmarkEnvironment.player(GameMode.CREATIVE);
+        check = new CreativeCrasher(playerData);
+        packet = SierraBenchmarkEnvironment.encode(
+            new WrapperPlayClientCreativeInventoryAction(36, BenchmarkItems.nestedShulker(depth)),
+            PacketType.Play.Client.CREATIVE_INVENTORY_ACTION
+        );
+    }
+
+    @Benchmark
+    public void nestedShulker(Blackhole blackhole) {
+        PacketReceiveContext context = SierraBenchmarkEnvironment.receive(packet, playerData);
+        try {
+            check.handle(context, playerData);
+            blackhole.consume(context.getEvent().isCancelled());
+        } finally {
+            SierraBenchmarkEnvironment.release(context);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package de.feelix.sierra.benchmark;
+
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
+
+/**
+ * The EncodedPacket class holds a client packet as it arrives from the decoder, so every benchmark invocation reads
+ * the packet again like a live connection does.
+ */
+public final class EncodedPacket {
+
+    private final PacketTypeCommon packetType;
+    private final int              packetId;
+    private final byte[]           payload;
+
+    EncodedPacket(PacketTypeCommon packetType, int packetId, byte[] payload) {
+        this.packetType = packetType;
+        this.packetId = packetId;
+        this.payload = payload;
+    }
+
+    public PacketTypeCommon getPacketType() {
+        return packetType;
+    }
+
+    public int getPacketId() {
+        return packetId;
+    }
+
+    public byte[] getPayload() {
+        return payload;
+    }
+}
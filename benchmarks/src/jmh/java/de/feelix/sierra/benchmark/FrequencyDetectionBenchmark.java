@@ -0,0 +1,63 @@
+package de.feelix.sierra.benchmark;
+
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.player.GameMode;
+import com.github.retrooper.packetevents.protocol.player.InteractionHand;
+import com.github.retrooper.packetevents.util.Vector3d;
+import com.github.retrooper.packetevents.wrapper.play.client.WrapperPlayClientAnimation;
+import com.github.retrooper.packetevents.wrapper.play.client.WrapperPlayClientPlayerPosition;
+import de.feelix.sierra.check.impl.frequency.FrequencyDetection;
+import de.feelix.sierra.manager.packet.PacketReceiveContext;
+import de.feelix.sierra.manager.storage.PlayerData;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the {@link FrequencyDetection} on a packet that is rate limited and on a flying packet, which is only
+ * checked for timer cheats. The rate limited packet is sent far above its limit, so the benchmark measures the
+ * detection path of a spamming client once the limiter is saturated.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FrequencyDetectionBenchmark {
+
+    private PlayerData         playerData;
+    private FrequencyDetection check;
+    private EncodedPacket      animation;
+    private EncodedPacket      position;
+
+    @Setup
+    public void setup() {
+        playerData = SierraBenchmarkEnvironment.player(GameMode.SURVIVAL);
+        check = new FrequencyDetection(playerData);
+        animation = SierraBenchmarkEnvironment.encode(
+            new WrapperPlayClientAnimation(InteractionHand.MAIN_HAND), PacketType.Play.Client.ANIMATION);
+        position = SierraBenchmarkEnvironment.encode(
+            new WrapperPlayClientPlayerPosition(new Vector3d(120.5, 64, -340.5), true),
+            PacketType.Play.Client.PLAYER_POSITION
+        );
+    }
+
+    @Benchmark
+    public void rateLimited(Blackhole blackhole) {
+        handle(animation, blackhole);
+    }
+
+    @Benchmark
+    public void flying(Blackhole blackhole) {
+        handle(position, blackhole);
+    }
+
+    private void handle(EncodedPacket packet, Blackhole blackhole) {
+        PacketReceiveContext context = SierraBenchmarkEnvironment.receive(packet, playerData);
+        try {
+            check.handle(context, playerData);
+            blackhole.consume(context.getEvent().isCancelled());
+        } finally {
+            SierraBenchmarkEnvironment.release(context);
+        }
+    }
+}
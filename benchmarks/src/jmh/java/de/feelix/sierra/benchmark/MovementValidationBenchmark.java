@@ -0,0 +1,74 @@
+package de.feelix.sierra.benchmark;
+
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.player.GameMode;
+import com.github.retrooper.packetevents.util.Vector3d;
+import com.github.retrooper.packetevents.wrapper.play.client.WrapperPlayClientPlayerPosition;
+import com.github.retrooper.packetevents.wrapper.play.client.WrapperPlayClientPlayerPositionAndRotation;
+import de.feelix.sierra.check.impl.move.MovementValidation;
+import de.feelix.sierra.manager.packet.PacketReceiveContext;
+import de.feelix.sierra.manager.storage.PlayerData;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the {@link MovementValidation} on the flying packets of a player walking back and forth. The packets
+ * arrive far faster than once per tick, so the timer check flags them, like it does for a timer cheat.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MovementValidationBenchmark {
+
+    private static final int    STEPS = 32;
+    private static final double SPEED = 0.21585;
+
+    @Param({"true", "false"})
+    public boolean rotation;
+
+    private PlayerData         playerData;
+    private MovementValidation check;
+    private EncodedPacket[]    packets;
+    private int                index;
+
+    @Setup
+    public void setup() {
+        playerData = SierraBenchmarkEnvironment.player(GameMode.SURVIVAL);
+        check = new MovementValidation(playerData);
+
+        // Walk forwards and back again, so the distance between two packets is always a single step
+        packets = new EncodedPacket[STEPS * 2];
+        for (int step = 0; step < packets.length; step++) {
+            int    offset = step < STEPS ? step : packets.length - step - 1;
+            double x      = 120.5 + offset * SPEED;
+            packets[step] = encode(new Vector3d(x, 64, -340.5), step < STEPS ? -90 : 90);
+        }
+    }
+
+    private EncodedPacket encode(Vector3d position, float yaw) {
+        if (rotation) {
+            return SierraBenchmarkEnvironment.encode(
+                new WrapperPlayClientPlayerPositionAndRotation(position, yaw, 12.5f, true),
+                PacketType.Play.Client.PLAYER_POSITION_AND_ROTATION
+            );
+        }
+        return SierraBenchmarkEnvironment.encode(
+            new WrapperPlayClientPlayerPosition(position, true), PacketType.Play.Client.PLAYER_POSITION);
+    }
+
+    @Benchmark
+    public void flying(Blackhole blackhole) {
+        EncodedPacket packet = packets[index];
+        index = (index + 1) % packets.length;
+
+        PacketReceiveContext context = SierraBenchmarkEnvironment.receive(packet, playerData);
+        try {
+            check.handle(context, playerData);
+            blackhole.consume(context.getEvent().isCancelled());
+        } finally {
+            SierraBenchmarkEnvironment.release(context);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package de.feelix.sierra.benchmark;
+
+import com.github.retrooper.packetevents.protocol.item.ItemStack;
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.player.GameMode;
+import com.github.retrooper.packetevents.wrapper.play.client.WrapperPlayClientCreativeInventoryAction;
+import de.feelix.sierra.check.impl.protocol.ProtocolValidation;
+import de.feelix.sierra.manager.packet.PacketReceiveContext;
+import de.feelix.sierra.manager.storage.PlayerData;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the item stack validation of the {@link ProtocolValidation} on creative inventory actions, with the
+ * realistic items of a survival server and the items of crash clients.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ProtocolValidationBenchmark {
+
+    public enum Item {
+        ENCHANTED_SWORD,
+        WRITTEN_BOOK,
+        FILLED_SHULKER,
+        NESTED_COMPOUNDS,
+        OVERSIZED_LORE;
+
+        private ItemStack create() {
+            switch (this) {
+                case ENCHANTED_SWORD:
+                    return BenchmarkItems.enchantedSword();
+                case WRITTEN_BOOK:
+                    return BenchmarkItems.writtenBook(50);
+                case FILLED_SHULKER:
+                    return BenchmarkItems.filledShulker();
+                case NESTED_COMPOUNDS:
+                    return BenchmarkItems.nestedCompounds(64);
+                default:
+                    return BenchmarkItems.oversizedLore(200, 250);
+            }
+        }
+    }
+
+    @Param
+    public Item item;
+
+    private PlayerData         playerData;
+    private ProtocolValidation check;
+    private EncodedPacket      packet;
+
+    @Setup
+    public void setup() {
+        playerData = SierraBenchmarkEnvironment.player(GameMode.CREATIVE);
+        check = new ProtocolValidation(playerData);
+        packet = SierraBenchmarkEnvironment.encode(
+            new WrapperPlayClientCreativeInventoryAction(36, item.create()),
+            PacketType.Play.Client.CREATIVE_INVENTORY_ACTION
+        );
+    }
+
+    @Benchmark
+    public void creativeInventoryAction(Blackhole blackhole) {
+        // Every iteration sends the same packet, so the byte budget would run out after a few of them
+        check.getByteBudget().reset();
+
+        PacketReceiveContext context = SierraBenchmarkEnvironment.receive(packet, playerData);
+        try {
+            check.handle(context, playerData);
+            blackhole.consume(context.getEvent().isCancelled());
+        } finally {
+            SierraBenchmarkEnvironment.release(context);
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package de.feelix.sierra.benchmark;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.PacketEventsAPI;
+import com.github.retrooper.packetevents.event.PacketReceiveEvent;
+import com.github.retrooper.packetevents.exception.PacketProcessException;
+import com.github.retrooper.packetevents.injector.ChannelInjector;
+import com.github.retrooper.packetevents.manager.player.PlayerManager;
+import com.github.retrooper.packetevents.manager.protocol.ProtocolManager;
+import com.github.retrooper.packetevents.manager.server.ServerManager;
+import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import com.github.retrooper.packetevents.netty.NettyManager;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.netty.buffer.UnpooledByteBufAllocationHelper;
+import com.github.retrooper.packetevents.protocol.ConnectionState;
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.protocol.player.GameMode;
+import com.github.retrooper.packetevents.protocol.player.User;
+import com.github.retrooper.packetevents.protocol.player.UserProfile;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import de.feelix.sierra.Sierra;
+import de.feelix.sierra.manager.alert.ViolationDispatcher;
+import de.feelix.sierra.manager.attack.AttackMode;
+import de.feelix.sierra.manager.config.PunishmentConfig;
+import de.feelix.sierra.manager.config.SierraConfigEngine;
+import de.feelix.sierra.manager.config.SierraSettings;
+import de.feelix.sierra.manager.packet.PacketReceiveContext;
+import de.feelix.sierra.manager.metrics.MetricsRegistry;
+import de.feelix.sierra.manager.storage.PlayerData;
+import de.feelix.sierra.manager.storage.logger.SierraLogWriter;
+import io.github.retrooper.packetevents.impl.netty.NettyManagerImpl;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.plugin.java.JavaPlugin;
+import sun.misc.Unsafe;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * The SierraBenchmarkEnvironment class sets up just enough of the plugin to run the checks outside a server.
+ * <p>
+ * PacketEvents is replaced by an API that only knows the server version and the netty helpers, and the plugin is
+ * created without its constructor, carrying the default sierra.yml, a log writer and a violation dispatcher that are
+ * never started. Benchmark players are marked as punished, so a detection only cancels the packet and queues its log
+ * line, and never kicks.
+ */
+public final class SierraBenchmarkEnvironment {
+
+    /**
+     * The version of the benchmark server. It is recent enough to carry items as NBT, which are the expensive ones.
+     */
+    public static final ServerVersion SERVER_VERSION = ServerVersion.V_1_20_4;
+    public static final ClientVersion CLIENT_VERSION = SERVER_VERSION.toClientVersion();
+
+    private static boolean initialized;
+
+    private SierraBenchmarkEnvironment() {
+    }
+
+    /**
+     * Sets up PacketEvents and the plugin, once per benchmark fork.
+     */
+    public static synchronized void initialize() {
+        if (initialized) return;
+
+        PacketEvents.setAPI(new BenchmarkPacketEventsAPI());
+
+        try {
+            Unsafe unsafe = unsafe();
+            Sierra sierra = (Sierra) unsafe.allocateInstance(Sierra.class);
+
+            SierraConfigEngine configEngine = (SierraConfigEngine) unsafe.allocateInstance(SierraConfigEngine.class);
+
+            setField(Sierra.class, null, "plugin", sierra);
+            setField(Sierra.class, sierra, "sierraConfigEngine", configEngine);
+            setField(Sierra.class, sierra, "sierraLogWriter", new SierraLogWriter());
+            setField(Sierra.class, sierra, "violationDispatcher", new ViolationDispatcher());
+            setField(Sierra.class, sierra, "metricsRegistry", new MetricsRegistry());
+            setField(Sierra.class, sierra, "attackMode", new AttackMode());
+            setField(Sierra.class, sierra, "punishmentConfig", PunishmentConfig.HARD);
+            setField(SierraConfigEngine.class, configEngine, "settings", SierraSettings.compile(defaultConfig()));
+        } catch (ReflectiveOperationException exception) {
+            throw new IllegalStateException("Unable to set up the benchmark environment", exception);
+        }
+
+        initialized = true;
+    }
+
+    /**
+     * Creates a player in the play state that is not connected to anything.
+     *
+     * @param gameMode The game mode of the player
+     * @return The PlayerData of the player
+     */
+    public static PlayerData player(GameMode gameMode) {
+        initialize();
+
+        UUID uuid = UUID.randomUUID();
+        User user = new User(null, ConnectionState.PLAY, CLIENT_VERSION, new UserProfile(uuid, "Benchmark"));
+
+        PlayerData playerData = new PlayerData(user);
+        playerData.setGameMode(gameMode);
+        playerData.setReceivedPunishment(true);
+        return playerData;
+    }
+
+    /**
+     * Encodes the fields of a client wrapper, the way they arrive after the packet id.
+     *
+     * @param wrapper    The wrapper to encode
+     * @param packetType The type of the packet
+     * @return The encoded packet
+     */
+    public static EncodedPacket encode(PacketWrapper<?> wrapper, PacketTypeCommon packetType) {
+        initialize();
+
+        Object buffer = UnpooledByteBufAllocationHelper.buffer();
+        try {
+            wrapper.setClientVersion(CLIENT_VERSION);
+            wrapper.setServerVersion(SERVER_VERSION);
+            wrapper.setBuffer(buffer);
+            wrapper.write();
+            return new EncodedPacket(packetType, packetType.getId(CLIENT_VERSION), ByteBufHelper.copyBytes(buffer));
+        } finally {
+            ByteBufHelper.release(buffer);
+        }
+    }
+
+    /**
+     * Wraps an encoded packet into a fresh receive context of a player, like the listener does for every packet.
+     * The buffer of the context has to be handed back with {@link #release(PacketReceiveContext)}.
+     *
+     * @param packet     The encoded packet
+     * @param playerData The player receiving the packet
+     * @return The receive context
+     */
+    public static PacketReceiveContext receive(EncodedPacket packet, PlayerData playerData) {
+        Object buffer = UnpooledByteBufAllocationHelper.wrappedBuffer(packet.getPayload());
+        return new PacketReceiveContext(
+            new BenchmarkReceiveEvent(packet, playerData.getUser(), buffer), playerData);
+    }
+
+    /**
+     * Releases the buffer of a receive context, unless cancelling the event already did.
+     *
+     * @param context The receive context
+     */
+    public static void release(PacketReceiveContext context) {
+        Object buffer = context.getEvent().getByteBuf();
+        if (ByteBufHelper.refCnt(buffer) > 0) ByteBufHelper.release(buffer);
+    }
+
+    private static YamlConfiguration defaultConfig() {
+        InputStream stream = Sierra.class.getClassLoader().getResourceAsStream("sierra.yml");
+        if (stream == null) {
+            throw new IllegalStateException("sierra.yml is missing from the classpath");
+        }
+        return YamlConfiguration.loadConfiguration(new InputStreamReader(stream, StandardCharsets.UTF_8));
+    }
+
+    private static void setField(Class<?> owner, Object target, String name, Object value)
+        throws ReflectiveOperationException {
+        Field field = owner.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+
+    private static Unsafe unsafe() throws ReflectiveOperationException {
+        Field field = Unsafe.class.getDeclaredField("theUnsafe");
+        field.setAccessible(true);
+        return (Unsafe) field.get(null);
+    }
+
+    /**
+     * A received packet that is read from an encoded packet instead of a channel.
+     */
+    private static final class BenchmarkReceiveEvent extends PacketReceiveEvent {
+
+        private BenchmarkReceiveEvent(EncodedPacket packet, User user, Object buffer) throws PacketProcessException {
+            super(packet.getPacketId(), packet.getPacketType(), SERVER_VERSION, null, user, null, buffer);
+        }
+    }
+
+    /**
+     * The PacketEvents API of the benchmarks. Only the server version and the netty helpers are available.
+     */
+    private static final class BenchmarkPacketEventsAPI extends PacketEventsAPI<JavaPlugin> {
+
+        private final ServerManager serverManager = () -> SERVER_VERSION;
+        private final NettyManager  nettyManager  = new NettyManagerImpl();
+
+        @Override
+        public void load() {
+        }
+
+        @Override
+        public boolean isLoaded() {
+            return true;
+        }
+
+        @Override
+        public void init() {
+        }
+
+        @Override
+        public boolean isInitialized() {
+            return true;
+        }
+
+        @Override
+        public void terminate() {
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public JavaPlugin getPlugin() {
+            return Sierra.getPlugin();
+        }
+
+        @Override
+        public ServerManager getServerManager() {
+            return serverManager;
+        }
+
+        @Override
+        public ProtocolManager getProtocolManager() {
+            return null;
+        }
+
+        @Override
+        public PlayerManager getPlayerManager() {
+            return null;
+        }
+
+        @Override
+        public NettyManager getNettyManager() {
+            return nettyManager;
+        }
+
+        @Override
+        public ChannelInjector getInjector() {
+            return null;
+        }
+    }
+}
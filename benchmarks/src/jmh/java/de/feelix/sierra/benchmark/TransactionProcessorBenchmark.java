@@ -0,0 +1,52 @@
+package de.feelix.sierra.benchmark;
+
+import com.github.retrooper.packetevents.protocol.player.GameMode;
+import de.feelix.sierra.manager.storage.PlayerData;
+import de.feelix.sierra.manager.storage.processor.TransactionProcessor;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the {@link TransactionProcessor#addTransactionResponse} with a number of transactions in flight. Every
+ * operation writes and encodes a new transaction and receives the response to the oldest one, so the number of
+ * transactions in flight stays the same, like on a connection with a steady ping.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TransactionProcessorBenchmark {
+
+    @Param({"1", "20", "200"})
+    public int inFlight;
+
+    private TransactionProcessor processor;
+    private int                  counter;
+
+    @Setup
+    public void setup() {
+        PlayerData playerData = SierraBenchmarkEnvironment.player(GameMode.SURVIVAL);
+        processor = playerData.getTransactionProcessor();
+
+        for (counter = 0; counter < inFlight; counter++) {
+            send(counter);
+        }
+    }
+
+    private void send(int counter) {
+        processor.addTransactionSend(id(counter));
+        processor.confirmTransactionSend(id(counter));
+    }
+
+    private static short id(int counter) {
+        return (short) (-1 * (counter & 0x7FFF));
+    }
+
+    @Benchmark
+    public boolean addTransactionResponse() {
+        send(counter);
+        short oldest = id(counter - inFlight);
+        counter++;
+        return processor.addTransactionResponse(oldest);
+    }
+}
@@ -1,13 +1,18 @@
 package de.feelix.sierra;
 
 import de.feelix.sierra.compatibility.CompatibilityHandler;
+import de.feelix.sierra.manager.alert.ViolationDispatcher;
 import de.feelix.sierra.manager.event.AbstractEventBus;
 import de.feelix.sierra.manager.config.PunishmentConfig;
 import de.feelix.sierra.manager.config.SierraConfigEngine;
 import de.feelix.sierra.manager.init.InitManager;
+import de.feelix.sierra.manager.attack.AttackMode;
+import de.feelix.sierra.manager.metrics.MetricsEndpoint;
+import de.feelix.sierra.manager.metrics.MetricsRegistry;
 import de.feelix.sierra.manager.server.SierraServerManager;
 import de.feelix.sierra.manager.storage.AddressStorage;
 import de.feelix.sierra.manager.storage.SierraDataManager;
+import de.feelix.sierra.manager.storage.logger.SierraLogWriter;
 import de.feelix.sierra.utilities.message.ConfigValue;
 import de.feelix.sierra.utilities.update.UpdateChecker;
 import de.feelix.sierraapi.LoaderAPI;
@@ -89,7 +94,7 @@ public final class Sierra extends JavaPlugin implements SierraApi {
     /**
      * Represents an event bus that allows events to be published and subscribed to.
      */
-    private final EventBus eventBus = new AbstractEventBus();
+    private final AbstractEventBus eventBus = new AbstractEventBus();
 
     /**
      * The Server interface represents a server and defines its properties and behaviors.
@@ -122,6 +127,32 @@ public final class Sierra extends JavaPlugin implements SierraApi {
      */
     private AddressStorage addressStorage = new AddressStorage();
 
+    /**
+     * The ViolationDispatcher processes detections on an async consumer, so alerts, console logs and histories never
+     * run on the netty threads.
+     */
+    private final ViolationDispatcher violationDispatcher = new ViolationDispatcher();
+
+    /**
+     * The AttackMode switches Sierra into a cheaper mode of operation while the server is under attack.
+     */
+    private final AttackMode attackMode = new AttackMode();
+
+    /**
+     * The SierraLogWriter writes the logs of all players on a single background thread.
+     */
+    private final SierraLogWriter sierraLogWriter = new SierraLogWriter();
+
+    /**
+     * The MetricsRegistry counts detections, punishments and packets for bStats and the metrics endpoint.
+     */
+    private final MetricsRegistry metricsRegistry = new MetricsRegistry();
+
+    /**
+     * The MetricsEndpoint serves the metrics over HTTP on the loopback address, if enabled.
+     */
+    private final MetricsEndpoint metricsEndpoint = new MetricsEndpoint();
+
     /**
      * This method is called when the plugin is being enabled.
      * It initializes various components of the Sierra plugin,
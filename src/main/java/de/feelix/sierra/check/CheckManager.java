@@ -1,7 +1,8 @@
 package de.feelix.sierra.check;
 
-import com.github.retrooper.packetevents.event.PacketReceiveEvent;
-import com.github.retrooper.packetevents.event.PacketSendEvent;
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
+import de.feelix.sierra.Sierra;
 import de.feelix.sierra.check.impl.book.BookValidation;
 import de.feelix.sierra.check.impl.command.CommandValidation;
 import de.feelix.sierra.check.impl.creative.CreativeCrasher;
@@ -11,13 +12,17 @@ import de.feelix.sierra.check.impl.protocol.ProtocolValidation;
 import de.feelix.sierra.check.impl.frequency.FrequencyDetection;
 import de.feelix.sierra.manager.packet.IngoingProcessor;
 import de.feelix.sierra.manager.packet.OutgoingProcessor;
+import de.feelix.sierra.manager.packet.PacketDispatchTable;
+import de.feelix.sierra.manager.packet.PacketReceiveContext;
+import de.feelix.sierra.manager.packet.PacketSendContext;
+import de.feelix.sierra.manager.packet.TimedProcessor;
 import de.feelix.sierra.manager.storage.PlayerData;
+import de.feelix.sierra.manager.storage.timings.TimingHistogram;
 import de.feelix.sierraapi.check.impl.SierraCheck;
 import lombok.Getter;
 import de.feelix.sierraapi.check.CheckRepository;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 
 /**
  * The CheckManager class is responsible for managing packet checks for a player.
@@ -28,6 +33,17 @@ public class CheckManager implements CheckRepository {
     private final List<SierraCheck> packetChecks = new ArrayList<>();
     private final PlayerData        playerData;
 
+    private final PacketDispatchTable<IngoingProcessor> receiveTable = new PacketDispatchTable<>(
+        IngoingProcessor.class, PacketType.Play.Client.class);
+    private final PacketDispatchTable<OutgoingProcessor> sendTable = new PacketDispatchTable<>(
+        OutgoingProcessor.class, PacketType.Play.Server.class);
+
+    /**
+     * The time spent in every check and processor of this player, keyed by its name. The map is filled while the
+     * dispatch tables are built and never changes afterwards.
+     */
+    private final Map<String, TimingHistogram> checkTimings = new LinkedHashMap<>();
+
     // Todo: Create anti-bot mechanism in next update
 
     public CheckManager(PlayerData playerData) {
@@ -39,21 +55,96 @@ public class CheckManager implements CheckRepository {
         packetChecks.add(new CreativeCrasher(playerData));
         packetChecks.add(new PostCheck(playerData));
         packetChecks.add(new CommandValidation(playerData));
+        buildDispatchTables();
     }
 
-    public void processAvailableChecksReceive(PacketReceiveEvent event) {
-        for (SierraCheck availableCheck : packetChecks) {
-            if (availableCheck instanceof IngoingProcessor) {
-                ((IngoingProcessor) availableCheck).handle(event, playerData);
+    /**
+     * Builds the per packet type dispatch tables for this player. The processors are registered first, so they
+     * update the player state before any check looks at the packet. Every handler is wrapped in a
+     * {@link TimedProcessor}, which records the time it takes into the histogram of its name.
+     */
+    private void buildDispatchTables() {
+        registerReceive(
+            "Brand Processor",
+            (context, data) -> data.getBrandProcessor().process(context),
+            Collections.singletonList(PacketType.Play.Client.PLUGIN_MESSAGE)
+        );
+        registerReceive(
+            "Ping Processor",
+            (context, data) -> data.getPingProcessor().handlePacketReceive(context),
+            Collections.singletonList(PacketType.Play.Client.KEEP_ALIVE)
+        );
+
+        registerSend(
+            "Teleport Processor",
+            (context, data) -> data.getTeleportProcessor().handle(context),
+            Collections.singletonList(PacketType.Play.Server.PLAYER_POSITION_AND_LOOK)
+        );
+        registerSend(
+            "Transaction Processor",
+            (context, data) -> data.getTransactionProcessor().handleTransactionSend(context),
+            Arrays.asList(PacketType.Play.Server.PING, PacketType.Play.Server.WINDOW_CONFIRMATION)
+        );
+        registerSend(
+            "GameMode Processor",
+            (context, data) -> data.getGameModeProcessor().process(context),
+            Arrays.asList(
+                PacketType.Play.Server.CHANGE_GAME_STATE,
+                PacketType.Play.Server.JOIN_GAME,
+                PacketType.Play.Server.RESPAWN
+            )
+        );
+        registerSend(
+            "Ping Processor",
+            (context, data) -> data.getPingProcessor().handlePacketSend(context),
+            Collections.singletonList(PacketType.Play.Server.KEEP_ALIVE)
+        );
+
+        for (SierraCheck check : packetChecks) {
+            String name = check.checkType().getFriendlyName();
+            if (check instanceof IngoingProcessor) {
+                IngoingProcessor processor = (IngoingProcessor) check;
+                registerReceive(name, processor, processor.ingoingPacketTypes());
+            }
+            if (check instanceof OutgoingProcessor) {
+                OutgoingProcessor processor = (OutgoingProcessor) check;
+                registerSend(name, processor, processor.outgoingPacketTypes());
             }
         }
     }
 
-    public void processAvailableChecksSend(PacketSendEvent event) {
-        for (SierraCheck availableCheck : packetChecks) {
-            if (availableCheck instanceof OutgoingProcessor) {
-                ((OutgoingProcessor) availableCheck).handle(event, playerData);
-            }
+    private void registerReceive(String name, IngoingProcessor processor,
+                                 Collection<? extends PacketTypeCommon> types) {
+        receiveTable.register(TimedProcessor.ingoing(name, histogram(name), processor), types);
+    }
+
+    private void registerSend(String name, OutgoingProcessor processor,
+                              Collection<? extends PacketTypeCommon> types) {
+        sendTable.register(TimedProcessor.outgoing(name, histogram(name), processor), types);
+    }
+
+    private TimingHistogram histogram(String name) {
+        return checkTimings.computeIfAbsent(name, key -> new TimingHistogram());
+    }
+
+    /**
+     * Runs the processors and checks of an incoming packet. While the server is under attack, the remaining checks
+     * are skipped as soon as one of them cancelled the packet.
+     *
+     * @param context The context of the packet
+     */
+    public void processAvailableChecksReceive(PacketReceiveContext context) {
+        boolean stopOnVerdict = Sierra.getPlugin().getAttackMode().isActive() && !context.getEvent().isCancelled();
+
+        for (IngoingProcessor processor : receiveTable.handlers(context.getPacketType())) {
+            processor.handle(context, playerData);
+            if (stopOnVerdict && context.getEvent().isCancelled()) return;
+        }
+    }
+
+    public void processAvailableChecksSend(PacketSendContext context) {
+        for (OutgoingProcessor processor : sendTable.handlers(context.getPacketType())) {
+            processor.handle(context, playerData);
         }
     }
 
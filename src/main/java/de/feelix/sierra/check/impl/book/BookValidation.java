@@ -18,8 +18,8 @@ import de.feelix.sierra.check.SierraDetection;
 import de.feelix.sierra.check.violation.Debug;
 import de.feelix.sierra.check.violation.ViolationDocument;
 import de.feelix.sierra.manager.packet.IngoingProcessor;
+import de.feelix.sierra.manager.packet.PacketReceiveContext;
 import de.feelix.sierra.manager.storage.PlayerData;
-import de.feelix.sierra.utilities.CastUtil;
 import de.feelix.sierra.utilities.FieldReader;
 import de.feelix.sierra.utilities.FormatUtils;
 import de.feelix.sierra.utilities.Triple;
@@ -38,30 +38,44 @@ public class BookValidation extends SierraDetection implements IngoingProcessor
     private int lastContentCount = 0;
     private static final String[] MOJANG_CRASH_TRANSLATIONS = {"translation.test.invalid", "translation.test.invalid2"};
 
+    private static final List<PacketTypeCommon> INGOING_TYPES = Arrays.asList(
+        PacketType.Play.Client.EDIT_BOOK,
+        PacketType.Play.Client.PLUGIN_MESSAGE,
+        PacketType.Play.Client.PLAYER_BLOCK_PLACEMENT,
+        PacketType.Play.Client.CREATIVE_INVENTORY_ACTION,
+        PacketType.Play.Client.CLICK_WINDOW
+    );
+
     public BookValidation(PlayerData playerData) {
         super(playerData);
     }
 
     @Override
-    public void handle(PacketReceiveEvent event, PlayerData data) {
-        if (!configEngine().config().getBoolean("prevent-book-crasher", true)) {
+    public Collection<PacketTypeCommon> ingoingPacketTypes() {
+        return INGOING_TYPES;
+    }
+
+    @Override
+    public void handle(PacketReceiveContext context, PlayerData data) {
+        PacketReceiveEvent event = context.getEvent();
+        if (!configEngine().settings().isPreventBookCrasher()) {
             return;
         }
 
-        boolean blockBooks = configEngine().config().getBoolean("disable-books-completely", false);
+        boolean blockBooks = configEngine().settings().isDisableBooksCompletely();
         List<String> pageList = new ArrayList<>();
 
         PacketTypeCommon packetType = event.getPacketType();
         if (packetType == PacketType.Play.Client.EDIT_BOOK) {
-            handleEditBook(event, data, blockBooks, pageList);
+            handleEditBook(context, data, blockBooks, pageList);
         } else if (packetType == PacketType.Play.Client.PLUGIN_MESSAGE) {
-            handlePluginMessage(event, data, blockBooks, pageList);
+            handlePluginMessage(context, data, blockBooks, pageList);
         } else if (packetType == PacketType.Play.Client.PLAYER_BLOCK_PLACEMENT) {
-            handleBlockPlacement(event, data, blockBooks, pageList);
+            handleBlockPlacement(context, data, blockBooks, pageList);
         } else if (packetType == PacketType.Play.Client.CREATIVE_INVENTORY_ACTION) {
-            handleCreativeInventoryAction(event, data, blockBooks, pageList);
+            handleCreativeInventoryAction(context, data, blockBooks, pageList);
         } else if (packetType == PacketType.Play.Client.CLICK_WINDOW) {
-            handleClickWindow(event, data, blockBooks, pageList);
+            handleClickWindow(context, data, blockBooks, pageList);
         }
 
         Triple<String, MitigationStrategy, List<Debug<?>>> invalid = validatePages(pageList);
@@ -75,7 +89,8 @@ public class BookValidation extends SierraDetection implements IngoingProcessor
         }
     }
 
-    private void handleEditBook(PacketReceiveEvent event, PlayerData data, boolean blockBooks, List<String> pageList) {
+    private void handleEditBook(PacketReceiveContext context, PlayerData data, boolean blockBooks, List<String> pageList) {
+        PacketReceiveEvent event = context.getEvent();
         if (blockBooks) {
             this.dispatch(event, ViolationDocument.builder()
                 .description("used book while disabled")
@@ -85,14 +100,15 @@ public class BookValidation extends SierraDetection implements IngoingProcessor
             return;
         }
 
-        pageList.addAll(CastUtil.getSupplier(
-            () -> new WrapperPlayClientEditBook(event), data::exceptionDisconnect).getPages());
+        pageList.addAll(context.wrapper(
+            WrapperPlayClientEditBook.class, WrapperPlayClientEditBook::new).getPages());
     }
 
-    private void handlePluginMessage(PacketReceiveEvent event, PlayerData data, boolean blockBooks,
+    private void handlePluginMessage(PacketReceiveContext context, PlayerData data, boolean blockBooks,
                                      List<String> pageList) {
-        WrapperPlayClientPluginMessage wrapper = CastUtil.getSupplier(
-            () -> new WrapperPlayClientPluginMessage(event), data::exceptionDisconnect);
+        PacketReceiveEvent event = context.getEvent();
+        WrapperPlayClientPluginMessage wrapper = context.wrapper(
+            WrapperPlayClientPluginMessage.class, WrapperPlayClientPluginMessage::new);
 
         if (wrapper.getChannelName().contains("MC|BEdit") || wrapper.getChannelName().contains("MC|BSign")) {
             processPluginMessage(event, blockBooks, pageList, wrapper);
@@ -123,10 +139,11 @@ public class BookValidation extends SierraDetection implements IngoingProcessor
         }
     }
 
-    private void handleBlockPlacement(PacketReceiveEvent event, PlayerData data, boolean blockBooks,
+    private void handleBlockPlacement(PacketReceiveContext context, PlayerData data, boolean blockBooks,
                                       List<String> pageList) {
-        WrapperPlayClientPlayerBlockPlacement wrapper = CastUtil.getSupplier(
-            () -> new WrapperPlayClientPlayerBlockPlacement(event), data::exceptionDisconnect);
+        PacketReceiveEvent event = context.getEvent();
+        WrapperPlayClientPlayerBlockPlacement wrapper = context.wrapper(
+            WrapperPlayClientPlayerBlockPlacement.class, WrapperPlayClientPlayerBlockPlacement::new);
 
         if (wrapper.getItemStack().isPresent()) {
             ItemStack itemStack = wrapper.getItemStack().get();
@@ -134,8 +151,9 @@ public class BookValidation extends SierraDetection implements IngoingProcessor
         }
     }
 
-    private void handleCreativeInventoryAction(PacketReceiveEvent event, PlayerData data, boolean blockBooks,
+    private void handleCreativeInventoryAction(PacketReceiveContext context, PlayerData data, boolean blockBooks,
                                                List<String> pageList) {
+        PacketReceiveEvent event = context.getEvent();
         if (playerData != null && playerData.getGameMode() != GameMode.CREATIVE) {
             this.dispatch(event, ViolationDocument.builder()
                 .description("spoofed his game-mode")
@@ -148,8 +166,8 @@ public class BookValidation extends SierraDetection implements IngoingProcessor
             return;
         }
 
-        WrapperPlayClientCreativeInventoryAction wrapper = CastUtil.getSupplier(
-            () -> new WrapperPlayClientCreativeInventoryAction(event), data::exceptionDisconnect);
+        WrapperPlayClientCreativeInventoryAction wrapper = context.wrapper(
+            WrapperPlayClientCreativeInventoryAction.class, WrapperPlayClientCreativeInventoryAction::new);
 
         int slot = wrapper.getSlot();
 
@@ -195,10 +213,11 @@ public class BookValidation extends SierraDetection implements IngoingProcessor
         return itemStack.getType() != ItemTypes.WRITABLE_BOOK && itemStack.getType() != ItemTypes.WRITTEN_BOOK;
     }
 
-    private void handleClickWindow(PacketReceiveEvent event, PlayerData data, boolean blockBooks,
+    private void handleClickWindow(PacketReceiveContext context, PlayerData data, boolean blockBooks,
                                    List<String> pageList) {
-        WrapperPlayClientClickWindow wrapper = CastUtil.getSupplier(
-            () -> new WrapperPlayClientClickWindow(event), data::exceptionDisconnect);
+        PacketReceiveEvent event = context.getEvent();
+        WrapperPlayClientClickWindow wrapper = context.wrapper(
+            WrapperPlayClientClickWindow.class, WrapperPlayClientClickWindow::new);
 
         if (wrapper == null) return;
 
@@ -353,8 +372,8 @@ public class BookValidation extends SierraDetection implements IngoingProcessor
     private static @Nullable Triple<String, MitigationStrategy, List<Debug<?>>> checkFieldReadable(String pageContent) {
         if (FieldReader.isReadable(pageContent) && !pageContent.isEmpty() && !Sierra.getPlugin()
             .getSierraConfigEngine()
-            .config()
-            .getBoolean("skip-book-readable-check", false)) {
+            .settings()
+            .isSkipBookReadableCheck()) {
             return new Triple<>(
                 "interacted with an invalid item", MitigationStrategy.MITIGATE,
                 Collections.singletonList(new Debug<>("Tag", "Not readable"))
@@ -10,8 +10,8 @@ import de.feelix.sierra.check.violation.Debug;
 import de.feelix.sierra.check.violation.ViolationDocument;
 import de.feelix.sierra.manager.config.SierraConfigEngine;
 import de.feelix.sierra.manager.packet.IngoingProcessor;
+import de.feelix.sierra.manager.packet.PacketReceiveContext;
 import de.feelix.sierra.manager.storage.PlayerData;
-import de.feelix.sierra.utilities.CastUtil;
 import de.feelix.sierraapi.check.SierraCheckData;
 import de.feelix.sierraapi.check.CheckType;
 import de.feelix.sierraapi.violation.MitigationStrategy;
@@ -20,6 +20,8 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.Collection;
+import java.util.List;
 
 @SierraCheckData(checkType = CheckType.COMMAND_VALIDATION)
 public class CommandValidation extends SierraDetection implements IngoingProcessor {
@@ -36,43 +38,56 @@ public class CommandValidation extends SierraDetection implements IngoingProcess
     private long   lastEntry            = 0;
     private int    commandSpamBuffer    = 0;
 
+    private static final List<PacketTypeCommon> INGOING_TYPES = Arrays.asList(
+        PacketType.Play.Client.UPDATE_COMMAND_BLOCK,
+        PacketType.Play.Client.CHAT_MESSAGE,
+        PacketType.Play.Client.NAME_ITEM,
+        PacketType.Play.Client.CHAT_COMMAND
+    );
+
     public CommandValidation(PlayerData playerData) {
         super(playerData);
     }
 
     @Override
-    public void handle(PacketReceiveEvent event, PlayerData playerData) {
-        if (!configEngine().config().getBoolean("block-disallowed-commands", true)) {
+    public Collection<PacketTypeCommon> ingoingPacketTypes() {
+        return INGOING_TYPES;
+    }
+
+    @Override
+    public void handle(PacketReceiveContext context, PlayerData playerData) {
+        PacketReceiveEvent event = context.getEvent();
+        if (!configEngine().settings().isBlockDisallowedCommands()) {
             return;
         }
 
         PacketTypeCommon packetType = event.getPacketType();
         if (packetType.equals(PacketType.Play.Client.UPDATE_COMMAND_BLOCK)) {
 
-            WrapperPlayClientUpdateCommandBlock commandBlockWrapper = CastUtil.getSupplier(
-                () -> new WrapperPlayClientUpdateCommandBlock(event), playerData::exceptionDisconnect);
+            WrapperPlayClientUpdateCommandBlock commandBlockWrapper = context.wrapper(
+                WrapperPlayClientUpdateCommandBlock.class, WrapperPlayClientUpdateCommandBlock::new);
 
             checkDisallowedCommand(event, commandBlockWrapper.getCommand().toLowerCase().replaceAll("\\s+",
                                                                                                     " "));
 
         } else if (packetType.equals(PacketType.Play.Client.CHAT_MESSAGE)) {
 
-            WrapperPlayClientChatMessage chatMessageWrapper = CastUtil.getSupplier(
-                () -> new WrapperPlayClientChatMessage(event), playerData::exceptionDisconnect);
+            WrapperPlayClientChatMessage chatMessageWrapper = context.wrapper(
+                WrapperPlayClientChatMessage.class, WrapperPlayClientChatMessage::new);
 
             handleChatMessage(event, chatMessageWrapper.getMessage().toLowerCase().replaceAll("\\s+",
                                                                                               " "));
         } else if (packetType.equals(PacketType.Play.Client.NAME_ITEM)) {
 
-            WrapperPlayClientNameItem nameItemWrapper = CastUtil.getSupplier(
-                () -> new WrapperPlayClientNameItem(event), playerData::exceptionDisconnect);
+            WrapperPlayClientNameItem nameItemWrapper = context.wrapper(
+                WrapperPlayClientNameItem.class, WrapperPlayClientNameItem::new);
 
             checkForLog4J(event, nameItemWrapper.getItemName().toLowerCase().replaceAll("\\s+",
                                                                                         " "));
         } else if (packetType.equals(PacketType.Play.Client.CHAT_COMMAND)) {
 
-            WrapperPlayClientChatCommand chatCommandWrapper = CastUtil.getSupplier(
-                () -> new WrapperPlayClientChatCommand(event), playerData::exceptionDisconnect);
+            WrapperPlayClientChatCommand chatCommandWrapper = context.wrapper(
+                WrapperPlayClientChatCommand.class, WrapperPlayClientChatCommand::new);
 
             handleChatMessage(event, chatCommandWrapper.getCommand().toLowerCase().replaceAll("\\s+",
                                                                                               " "));
@@ -148,8 +163,8 @@ public class CommandValidation extends SierraDetection implements IngoingProcess
     private void checkDisallowedCommand(PacketReceiveEvent event, String commandLine) {
         for (String disallowedCommand : Sierra.getPlugin()
             .getSierraConfigEngine()
-            .config()
-            .getStringList("disallowed-commands")) {
+            .settings()
+            .getDisallowedCommands()) {
             if (commandLine.contains(disallowedCommand)) {
                 if (playerHasNoPermission()) {
                     this.dispatch(event, ViolationDocument.builder()
@@ -199,8 +214,8 @@ public class CommandValidation extends SierraDetection implements IngoingProcess
     private void checkForDoubleCommands(PacketReceiveEvent event, String message) {
         for (String disallowedCommand : Sierra.getPlugin()
             .getSierraConfigEngine()
-            .config()
-            .getStringList("disallowed-commands")) {
+            .settings()
+            .getDisallowedCommands()) {
             if (message.contains(disallowedCommand)) {
                 if (playerHasNoPermission()) {
                     this.dispatch(event, ViolationDocument.builder()
@@ -245,12 +260,12 @@ public class CommandValidation extends SierraDetection implements IngoingProcess
      * @return true if the player does not have the necessary permission, false otherwise
      * @see Sierra#getPlugin()
      * @see Sierra#getSierraConfigEngine()
-     * @see SierraConfigEngine#config()
+     * @see SierraConfigEngine#settings()
      * @see PlayerData#hasBypassPermission()
      */
     private boolean playerHasNoPermission() {
-        return !configEngine().config()
-            .getBoolean("enable-bypass-permission", false) || !playerData.hasBypassPermission();
+        return !configEngine().settings()
+            .isEnableBypassPermission() || !playerData.hasBypassPermission();
     }
 
     private boolean isInvalidMultiverseCommand(String testString) {
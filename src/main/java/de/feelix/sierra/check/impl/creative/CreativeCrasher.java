@@ -7,16 +7,13 @@ import com.github.retrooper.packetevents.protocol.nbt.NBTList;
 import com.github.retrooper.packetevents.protocol.packettype.PacketType;
 import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
 import com.github.retrooper.packetevents.protocol.player.GameMode;
-import com.github.retrooper.packetevents.wrapper.play.client.WrapperPlayClientClickWindow;
-import com.github.retrooper.packetevents.wrapper.play.client.WrapperPlayClientCreativeInventoryAction;
-import com.github.retrooper.packetevents.wrapper.play.client.WrapperPlayClientPlayerBlockPlacement;
 import de.feelix.sierra.check.SierraDetection;
 import de.feelix.sierra.check.impl.creative.impl.*;
 import de.feelix.sierra.check.violation.Debug;
 import de.feelix.sierra.check.violation.ViolationDocument;
 import de.feelix.sierra.manager.packet.IngoingProcessor;
+import de.feelix.sierra.manager.packet.PacketReceiveContext;
 import de.feelix.sierra.manager.storage.PlayerData;
-import de.feelix.sierra.utilities.CastUtil;
 import de.feelix.sierra.utilities.Triple;
 import de.feelix.sierraapi.check.SierraCheckData;
 import de.feelix.sierraapi.check.CheckType;
@@ -25,6 +22,7 @@ import de.feelix.sierraapi.violation.MitigationStrategy;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Collection;
 
 @SierraCheckData(checkType = CheckType.CREATIVE)
 public class CreativeCrasher extends SierraDetection implements IngoingProcessor {
@@ -38,11 +36,22 @@ public class CreativeCrasher extends SierraDetection implements IngoingProcessor
     private final List<ItemCheck> checks         = new ArrayList<>();
     private       int             recursionCount = 0;
 
+    private static final List<PacketTypeCommon> INGOING_TYPES = Arrays.asList(
+        PacketType.Play.Client.CREATIVE_INVENTORY_ACTION,
+        PacketType.Play.Client.CLICK_WINDOW,
+        PacketType.Play.Client.PLAYER_BLOCK_PLACEMENT
+    );
+
     public CreativeCrasher(PlayerData playerData) {
         super(playerData);
         initializeChecks();
     }
 
+    @Override
+    public Collection<PacketTypeCommon> ingoingPacketTypes() {
+        return INGOING_TYPES;
+    }
+
     private void initializeChecks() {
         addCreativeChecks(
             new CreativeMap(),
@@ -54,7 +63,7 @@ public class CreativeCrasher extends SierraDetection implements IngoingProcessor
             new InvalidPlainNbt()
         );
 
-        if (configEngine().config().getInt("max-enchantment-level", 5) != -1) {
+        if (configEngine().settings().getMaxEnchantmentLevel() != -1) {
             addCreativeChecks(new EnchantLimit());
         }
 
@@ -62,46 +71,36 @@ public class CreativeCrasher extends SierraDetection implements IngoingProcessor
     }
 
     @Override
-    public void handle(PacketReceiveEvent event, PlayerData playerData) {
-        if (!configEngine().config().getBoolean("prevent-creative-crasher", true)
+    public void handle(PacketReceiveContext context, PlayerData playerData) {
+        if (!configEngine().settings().isPreventCreativeCrasher()
             || playerData == null) {
             return;
         }
 
-        ItemStack itemStack = getItemStackFromEvent(event, playerData);
+        ItemStack itemStack = getItemStackFromEvent(context, playerData);
         if (itemStack == null) return;
 
         NBTCompound compound = itemStack.getNBT();
         if (compound != null && compound.getTags().containsKey(BLOCK_ENTITY_TAG_KEY)) {
             recursionCount = 0;
             NBTCompound blockEntityTag = compound.getCompoundTagOrNull(BLOCK_ENTITY_TAG_KEY);
-            recursion(event, playerData, itemStack, blockEntityTag);
+            recursion(context, playerData, itemStack, blockEntityTag);
         } else if (compound != null) {
-            performItemChecks(event, itemStack, compound, playerData);
+            performItemChecks(context, itemStack, compound, playerData);
         }
     }
 
-    private ItemStack getItemStackFromEvent(PacketReceiveEvent event, PlayerData playerData) {
-        PacketTypeCommon packetType = event.getPacketType();
-        if (packetType.equals(PacketType.Play.Client.CREATIVE_INVENTORY_ACTION)) {
-            if (playerData.getGameMode() != GameMode.CREATIVE) return null;
-            return CastUtil.getSupplier(
-                    () -> new WrapperPlayClientCreativeInventoryAction(event), playerData::exceptionDisconnect)
-                .getItemStack();
-        } else if (packetType.equals(PacketType.Play.Client.CLICK_WINDOW)) {
-            WrapperPlayClientClickWindow clickWrapper = CastUtil.getSupplier(
-                () -> new WrapperPlayClientClickWindow(event), playerData::exceptionDisconnect);
-            return clickWrapper != null ? clickWrapper.getCarriedItemStack() : null;
-        } else if (packetType.equals(PacketType.Play.Client.PLAYER_BLOCK_PLACEMENT)) {
-            WrapperPlayClientPlayerBlockPlacement blockPlacementWrapper = CastUtil.getSupplier(
-                () -> new WrapperPlayClientPlayerBlockPlacement(event), playerData::exceptionDisconnect);
-            return blockPlacementWrapper != null ? blockPlacementWrapper.getItemStack().orElse(null) : null;
+    private ItemStack getItemStackFromEvent(PacketReceiveContext context, PlayerData playerData) {
+        if (context.getPacketType() == PacketType.Play.Client.CREATIVE_INVENTORY_ACTION
+            && playerData.getGameMode() != GameMode.CREATIVE) {
+            return null;
         }
-        return null;
+        return context.getItemStack();
     }
 
-    private void recursion(PacketReceiveEvent event, PlayerData data, ItemStack clickedItem,
+    private void recursion(PacketReceiveContext context, PlayerData data, ItemStack clickedItem,
                            NBTCompound blockEntityTag) {
+        PacketReceiveEvent event = context.getEvent();
 
         if (exceededRecursionMax() || !blockEntityTag.getTags().containsKey(ITEMS_KEY)) {
             return;
@@ -124,7 +123,7 @@ public class CreativeCrasher extends SierraDetection implements IngoingProcessor
             return;
         }
 
-        processItems(event, data, clickedItem, items);
+        processItems(context, data, clickedItem, items);
     }
 
     private boolean exceededRecursionMax() {
@@ -135,36 +134,36 @@ public class CreativeCrasher extends SierraDetection implements IngoingProcessor
         return items.size() > MAX_ITEMS;
     }
 
-    private void processItems(PacketReceiveEvent event, PlayerData data, ItemStack clickedItem,
+    private void processItems(PacketReceiveContext context, PlayerData data, ItemStack clickedItem,
                               NBTList<NBTCompound> items) {
         for (NBTCompound item : items.getTags()) {
             if (item.getTags().containsKey(TAG_KEY)) {
                 NBTCompound tag = item.getCompoundTagOrNull(TAG_KEY);
-                if (tag == null || processTaggedItem(event, data, clickedItem, tag)) {
+                if (tag == null || processTaggedItem(context, data, clickedItem, tag)) {
                     return;
                 }
-            } else if (performItemChecks(event, clickedItem, item, data)) {
+            } else if (performItemChecks(context, clickedItem, item, data)) {
                 return;
             }
         }
     }
 
-    private boolean processTaggedItem(PacketReceiveEvent event, PlayerData data, ItemStack clickedItem,
+    private boolean processTaggedItem(PacketReceiveContext context, PlayerData data, ItemStack clickedItem,
                                       NBTCompound tag) {
-        if (performItemChecks(event, clickedItem, tag, data)) {
+        if (performItemChecks(context, clickedItem, tag, data)) {
             return true;
         }
 
         if (tag.getTags().containsKey(BLOCK_ENTITY_TAG_KEY)) {
             NBTCompound recursionBlockEntityTag = tag.getCompoundTagOrNull(BLOCK_ENTITY_TAG_KEY);
-            recursion(event, data, clickedItem, recursionBlockEntityTag);
+            recursion(context, data, clickedItem, recursionBlockEntityTag);
         }
         return false;
     }
 
-    private boolean performItemChecks(PacketReceiveEvent event, ItemStack item, NBTCompound tag, PlayerData data) {
+    private boolean performItemChecks(PacketReceiveContext context, ItemStack item, NBTCompound tag, PlayerData data) {
         for (ItemCheck check : checks) {
-            Triple<String, MitigationStrategy, List<Debug<?>>> crashDetails = check.handleCheck(event, item, tag, data);
+            Triple<String, MitigationStrategy, List<Debug<?>>> crashDetails = check.handleCheck(context, item, tag, data);
             if (crashDetails != null) {
                 List<Debug<?>> debugs = crashDetails.getThird();
 
@@ -173,7 +172,7 @@ public class CreativeCrasher extends SierraDetection implements IngoingProcessor
                     new Debug<>("Recursion", recursionCount)
                 ));
 
-                this.dispatch(event, ViolationDocument.builder()
+                this.dispatch(context.getEvent(), ViolationDocument.builder()
                     .mitigationStrategy(crashDetails.getSecond())
                     .description(crashDetails.getFirst())
                     .debugs(debugs)
@@ -1,9 +1,9 @@
 package de.feelix.sierra.check.impl.creative;
 
-import com.github.retrooper.packetevents.event.PacketReceiveEvent;
 import com.github.retrooper.packetevents.protocol.item.ItemStack;
 import com.github.retrooper.packetevents.protocol.nbt.NBTCompound;
 import de.feelix.sierra.check.violation.Debug;
+import de.feelix.sierra.manager.packet.PacketReceiveContext;
 import de.feelix.sierra.manager.storage.PlayerData;
 import de.feelix.sierra.utilities.Triple;
 import de.feelix.sierraapi.violation.MitigationStrategy;
@@ -15,6 +15,6 @@ import java.util.List;
  */
 public interface ItemCheck {
 
-    Triple<String, MitigationStrategy, List<Debug<?>>> handleCheck(PacketReceiveEvent event, ItemStack clickedStack,
-                                                                   NBTCompound nbtCompound, PlayerData playerData);
+    Triple<String, MitigationStrategy, List<Debug<?>>> handleCheck(PacketReceiveContext context, ItemStack clickedStack,
+                                                                     NBTCompound nbtCompound, PlayerData playerData);
 }
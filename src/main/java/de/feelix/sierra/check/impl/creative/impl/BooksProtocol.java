@@ -1,12 +1,12 @@
 package de.feelix.sierra.check.impl.creative.impl;
 
-import com.github.retrooper.packetevents.event.PacketReceiveEvent;
 import com.github.retrooper.packetevents.protocol.item.ItemStack;
 import com.github.retrooper.packetevents.protocol.item.type.ItemTypes;
 import com.github.retrooper.packetevents.protocol.nbt.NBTCompound;
 import de.feelix.sierra.Sierra;
 import de.feelix.sierra.check.impl.creative.ItemCheck;
 import de.feelix.sierra.check.violation.Debug;
+import de.feelix.sierra.manager.packet.PacketReceiveContext;
 import de.feelix.sierra.manager.storage.PlayerData;
 import de.feelix.sierra.utilities.Triple;
 import de.feelix.sierraapi.violation.MitigationStrategy;
@@ -22,10 +22,10 @@ public class BooksProtocol implements ItemCheck {
 
 
     @Override
-    public Triple<String, MitigationStrategy, List<Debug<?>>> handleCheck(PacketReceiveEvent event, ItemStack clickedStack,
-                                                                          NBTCompound nbtCompound, PlayerData playerData) {
+    public Triple<String, MitigationStrategy, List<Debug<?>>> handleCheck(PacketReceiveContext context, ItemStack clickedStack,
+                                                                            NBTCompound nbtCompound, PlayerData playerData) {
 
-        if (!Sierra.getPlugin().getSierraConfigEngine().config().getBoolean("disable-books-completely", false)) {
+        if (!Sierra.getPlugin().getSierraConfigEngine().settings().isDisableBooksCompletely()) {
             return null;
         }
 
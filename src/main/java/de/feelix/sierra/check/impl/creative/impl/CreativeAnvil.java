@@ -1,12 +1,12 @@
 package de.feelix.sierra.check.impl.creative.impl;
 
-import com.github.retrooper.packetevents.event.PacketReceiveEvent;
 import com.github.retrooper.packetevents.protocol.item.ItemStack;
 import com.github.retrooper.packetevents.protocol.item.type.ItemTypes;
 import com.github.retrooper.packetevents.protocol.nbt.NBTCompound;
 import com.github.retrooper.packetevents.protocol.nbt.NBTNumber;
 import de.feelix.sierra.check.impl.creative.ItemCheck;
 import de.feelix.sierra.check.violation.Debug;
+import de.feelix.sierra.manager.packet.PacketReceiveContext;
 import de.feelix.sierra.manager.storage.PlayerData;
 import de.feelix.sierra.manager.storage.SierraDataManager;
 import de.feelix.sierra.utilities.Triple;
@@ -21,8 +21,8 @@ import java.util.List;
 public class CreativeAnvil implements ItemCheck {
 
     @Override
-    public Triple<String, MitigationStrategy, List<Debug<?>>> handleCheck(PacketReceiveEvent event, ItemStack clickedStack,
-                                                                          NBTCompound nbtCompound, PlayerData playerData) {
+    public Triple<String, MitigationStrategy, List<Debug<?>>> handleCheck(PacketReceiveContext context, ItemStack clickedStack,
+                                                                            NBTCompound nbtCompound, PlayerData playerData) {
 
         // This prevents the creation of buggy anvils that crash the client when placed
         // https://bugs.mojang.com/browse/MC-82677
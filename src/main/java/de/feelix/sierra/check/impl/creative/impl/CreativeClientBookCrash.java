@@ -1,12 +1,12 @@
 package de.feelix.sierra.check.impl.creative.impl;
 
-import com.github.retrooper.packetevents.event.PacketReceiveEvent;
 import com.github.retrooper.packetevents.protocol.item.ItemStack;
 import com.github.retrooper.packetevents.protocol.nbt.NBTCompound;
 import com.github.retrooper.packetevents.protocol.nbt.NBTList;
 import com.github.retrooper.packetevents.protocol.nbt.NBTString;
 import de.feelix.sierra.check.impl.creative.ItemCheck;
 import de.feelix.sierra.check.violation.Debug;
+import de.feelix.sierra.manager.packet.PacketReceiveContext;
 import de.feelix.sierra.manager.storage.PlayerData;
 import de.feelix.sierra.utilities.Triple;
 import de.feelix.sierraapi.violation.MitigationStrategy;
@@ -30,8 +30,8 @@ public class CreativeClientBookCrash implements ItemCheck {
     private static final Pattern PATTERN = Pattern.compile("\\s");
 
     @Override
-    public Triple<String, MitigationStrategy, List<Debug<?>>> handleCheck(PacketReceiveEvent event, ItemStack clickedStack,
-                                                                          NBTCompound nbtCompound, PlayerData playerData) {
+    public Triple<String, MitigationStrategy, List<Debug<?>>> handleCheck(PacketReceiveContext context, ItemStack clickedStack,
+                                                                            NBTCompound nbtCompound, PlayerData playerData) {
         List<String> pages = getPages(nbtCompound);
         if (pages.isEmpty()) {
             return null;
@@ -1,6 +1,5 @@
 package de.feelix.sierra.check.impl.creative.impl;
 
-import com.github.retrooper.packetevents.event.PacketReceiveEvent;
 import com.github.retrooper.packetevents.protocol.item.ItemStack;
 import com.github.retrooper.packetevents.protocol.nbt.NBTByte;
 import com.github.retrooper.packetevents.protocol.nbt.NBTCompound;
@@ -8,6 +7,7 @@ import com.github.retrooper.packetevents.protocol.nbt.NBTList;
 import com.github.retrooper.packetevents.protocol.nbt.NBTType;
 import de.feelix.sierra.check.impl.creative.ItemCheck;
 import de.feelix.sierra.check.violation.Debug;
+import de.feelix.sierra.manager.packet.PacketReceiveContext;
 import de.feelix.sierra.manager.storage.PlayerData;
 import de.feelix.sierra.utilities.Triple;
 import de.feelix.sierraapi.violation.MitigationStrategy;
@@ -21,8 +21,8 @@ public class CreativeMap implements ItemCheck {
 
 
     @Override
-    public Triple<String, MitigationStrategy, List<Debug<?>>> handleCheck(PacketReceiveEvent event, ItemStack clickedStack,
-                                                                          NBTCompound nbtCompound, PlayerData playerData) {
+    public Triple<String, MitigationStrategy, List<Debug<?>>> handleCheck(PacketReceiveContext context, ItemStack clickedStack,
+                                                                            NBTCompound nbtCompound, PlayerData playerData) {
         if (nbtCompound.getTags().containsKey("Decorations")) {
             NBTList<NBTCompound> decorations = nbtCompound.getCompoundListTagOrNull("Decorations");
 
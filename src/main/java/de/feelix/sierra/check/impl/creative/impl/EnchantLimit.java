@@ -1,7 +1,6 @@
 package de.feelix.sierra.check.impl.creative.impl;
 
 import com.github.retrooper.packetevents.PacketEvents;
-import com.github.retrooper.packetevents.event.PacketReceiveEvent;
 import com.github.retrooper.packetevents.protocol.item.ItemStack;
 import com.github.retrooper.packetevents.protocol.nbt.NBTCompound;
 import com.github.retrooper.packetevents.protocol.nbt.NBTList;
@@ -10,6 +9,7 @@ import com.github.retrooper.packetevents.protocol.player.ClientVersion;
 import de.feelix.sierra.Sierra;
 import de.feelix.sierra.check.impl.creative.ItemCheck;
 import de.feelix.sierra.check.violation.Debug;
+import de.feelix.sierra.manager.packet.PacketReceiveContext;
 import de.feelix.sierra.manager.storage.PlayerData;
 import de.feelix.sierra.utilities.Triple;
 import de.feelix.sierraapi.violation.MitigationStrategy;
@@ -29,8 +29,8 @@ public class EnchantLimit implements ItemCheck {
         .toClientVersion();
 
     @Override
-    public Triple<String, MitigationStrategy, List<Debug<?>>> handleCheck(PacketReceiveEvent event, ItemStack clickedStack,
-                                                                          NBTCompound nbtCompound, PlayerData playerData) {
+    public Triple<String, MitigationStrategy, List<Debug<?>>> handleCheck(PacketReceiveContext context, ItemStack clickedStack,
+                                                                            NBTCompound nbtCompound, PlayerData playerData) {
 
         //This is "version safe", since we check both the older 'ench' and the newer 'Enchantments' tag
         //Not a very clean approach. A way to get items within pe itemstacks would certainly be helpful
@@ -50,11 +50,11 @@ public class EnchantLimit implements ItemCheck {
 
                     if ((number.getAsInt() < 0 && !Sierra.getPlugin()
                         .getSierraConfigEngine()
-                        .config()
-                        .getBoolean("allow-negative-enchantments", false)) || number.getAsInt() > Sierra.getPlugin()
+                        .settings()
+                        .isAllowNegativeEnchantments()) || number.getAsInt() > Sierra.getPlugin()
                         .getSierraConfigEngine()
-                        .config()
-                        .getInt("max-enchantment-level", 5)) {
+                        .settings()
+                        .getMaxEnchantmentLevel()) {
 
                         return new Triple<>(
                             "interacted on an item with invalid level", MitigationStrategy.KICK,
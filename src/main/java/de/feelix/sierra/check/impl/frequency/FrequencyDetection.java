@@ -16,19 +16,22 @@ import de.feelix.sierra.Sierra;
 import de.feelix.sierra.check.SierraDetection;
 import de.feelix.sierra.check.violation.Debug;
 import de.feelix.sierra.check.violation.ViolationDocument;
+import de.feelix.sierra.manager.config.SierraSettings;
 import de.feelix.sierra.manager.packet.IngoingProcessor;
 import de.feelix.sierra.manager.packet.OutgoingProcessor;
+import de.feelix.sierra.manager.packet.PacketReceiveContext;
+import de.feelix.sierra.manager.packet.PacketSendContext;
 import de.feelix.sierra.manager.storage.PlayerData;
-import de.feelix.sierra.utilities.CastUtil;
 import de.feelix.sierra.manager.init.impl.start.Ticker;
 import de.feelix.sierraapi.check.SierraCheckData;
 import de.feelix.sierraapi.check.CheckType;
 import de.feelix.sierraapi.violation.MitigationStrategy;
-import org.bukkit.configuration.file.YamlConfiguration;
+import lombok.Getter;
 
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.List;
 
 @SierraCheckData(checkType = CheckType.FREQUENCY)
 public class FrequencyDetection extends SierraDetection implements IngoingProcessor, OutgoingProcessor {
@@ -46,62 +49,70 @@ public class FrequencyDetection extends SierraDetection implements IngoingProces
     private static final long BAL_RESET = -50;
     private static final long BAL_SUB_ON_TP = 50;
 
-    private final HashMap<PacketTypeCommon, Integer> packetCounts = new HashMap<>();
+    @Getter
+    private final PacketRateLimiter rateLimiter = new PacketRateLimiter();
+
+    private static final List<PacketTypeCommon> OUTGOING_TYPES = Arrays.asList(
+        PacketType.Play.Server.PLAYER_POSITION_AND_LOOK,
+        PacketType.Play.Server.ENTITY_VELOCITY,
+        PacketType.Play.Server.OPEN_WINDOW
+    );
 
     public FrequencyDetection(PlayerData playerData) {
         super(playerData);
     }
 
     @Override
-    public void handle(PacketReceiveEvent event, PlayerData playerData) {
+    public Collection<PacketTypeCommon> outgoingPacketTypes() {
+        return OUTGOING_TYPES;
+    }
+
+    @Override
+    public void handle(PacketReceiveContext context, PlayerData playerData) {
+        PacketReceiveEvent event = context.getEvent();
 
-        if (!configEngine().config().getBoolean("prevent-packet-frequency", true)) {
+        if (!configEngine().settings().isPreventPacketFrequency()) {
             return;
         }
 
         playerData.getTimingProcessor().getFrequencyTask().prepare();
         PacketTypeCommon packetType = event.getPacketType();
 
-        if (!WrapperPlayClientPlayerFlying.isFlying(event.getPacketType())) {
+        if (!WrapperPlayClientPlayerFlying.isFlying(event.getPacketType()) && !context.isTransactionResponse()) {
 
-            YamlConfiguration configuration = Sierra.getPlugin().getSierraConfigEngine().config();
-            if (configuration.getStringList("excluded-packets-from-limit").contains(packetType.getName())) return;
+            SierraSettings settings = configEngine().settings();
+            if (settings.isExcludedFromLimit(packetType)) return;
 
-            long current = System.currentTimeMillis();
+            long    current = context.timeMillis();
+            boolean attack  = Sierra.getPlugin().getAttackMode().isActive();
+            int     window  = rateLimiter.acquire(settings, packetType, current, attack);
 
-            packetCounts.merge(packetType, 1, Integer::sum);
-
-            int limit = retrieveLimitFromConfiguration(packetType);
-            int packetCount = packetCounts.getOrDefault(packetType, 0);
-
-            if (packetCount > limit) {
+            if (window != -1) {
                 this.dispatch(event, ViolationDocument.builder()
                     .description("is sending packets too frequent")
                     .mitigationStrategy(MitigationStrategy.KICK)
                     .debugs(Arrays.asList(
                         new Debug<>("Packet", packetType.getName()),
-                        new Debug<>("Limit", limit),
-                        new Debug<>("Count", packetCount),
+                        new Debug<>("Window", rateLimiter.duration(window) + "ms"),
+                        new Debug<>("Limit", rateLimiter.limit(packetType, window, attack)),
+                        new Debug<>("Count", rateLimiter.count(packetType, window, current)),
                         new Debug<>("Alive", playerData.getPingProcessor().getPing()),
                         new Debug<>("Transaction", playerData.getTransactionProcessor().getTransactionPing()),
-                        new Debug<>("Version", playerData.getClientVersion().getReleaseName()),
-                        new Debug<>("Delay", (System.currentTimeMillis() - current) + "ms")
+                        new Debug<>("Version", playerData.getClientVersion().getReleaseName())
                     ))
                     .build());
                 return;
             }
-        } else {
-            this.packetCounts.clear();
         }
 
         if (packetType.equals(PacketType.Play.Client.EDIT_BOOK)) {
             handleEditBook(event);
         } else if (packetType.equals(PacketType.Play.Client.PLUGIN_MESSAGE)) {
-            handlePluginMessage(event, playerData);
+            handlePluginMessage(context, playerData);
         } else if (packetType.equals(PacketType.Play.Client.CRAFT_RECIPE_REQUEST)) {
             handleCraftRecipeRequest(event);
         } else if (packetType.equals(PacketType.Play.Client.PLAYER_DIGGING)) {
-            handlePlayerDigging(event, playerData);
+            handlePlayerDigging(context, playerData);
         } else if (WrapperPlayClientPlayerFlying.isFlying(event.getPacketType())) {
             handleFlyingDelay(event, playerData);
         }
@@ -110,7 +121,7 @@ public class FrequencyDetection extends SierraDetection implements IngoingProces
     }
 
     private void handleFlyingDelay(PacketReceiveEvent event, PlayerData data) {
-        if (!configEngine().config().getBoolean("prevent-timer-cheats", true)) {
+        if (!configEngine().settings().isPreventTimerCheats()) {
             return;
         }
 
@@ -144,20 +155,6 @@ public class FrequencyDetection extends SierraDetection implements IngoingProces
         lastFlyingTime = timeMillis;
     }
 
-    private int retrieveLimitFromConfiguration(PacketTypeCommon packetType) {
-
-        int limit = configEngine().config().getInt("generic-packet-frequency-default", 50);
-        for (String string : configEngine().config().getStringList("generic-packet-frequency-limit")) {
-
-            String[] parts = string.split(":");
-            if (parts[0].equals(packetType.getName())) {
-                limit = Integer.parseInt(parts[1]);
-                break;
-            }
-        }
-        return limit;
-    }
-
     private void handleEditBook(PacketReceiveEvent event) {
         if (isSpamming(lastBookEditTick)) {
             this.dispatch(event, ViolationDocument.builder()
@@ -168,9 +165,10 @@ public class FrequencyDetection extends SierraDetection implements IngoingProces
         }
     }
 
-    private void handlePluginMessage(PacketReceiveEvent event, PlayerData playerData) {
-        WrapperPlayClientPluginMessage wrapper = CastUtil.getSupplier(
-            () -> new WrapperPlayClientPluginMessage(event), playerData::exceptionDisconnect);
+    private void handlePluginMessage(PacketReceiveContext context, PlayerData playerData) {
+        PacketReceiveEvent event = context.getEvent();
+        WrapperPlayClientPluginMessage wrapper = context.wrapper(
+            WrapperPlayClientPluginMessage.class, WrapperPlayClientPluginMessage::new);
 
         String channelName = wrapper.getChannelName();
         if (channelName.contains("MC|BEdit") || channelName.contains("MC|BSign")) {
@@ -198,9 +196,10 @@ public class FrequencyDetection extends SierraDetection implements IngoingProces
         }
     }
 
-    private void handlePlayerDigging(PacketReceiveEvent event, PlayerData playerData) {
-        WrapperPlayClientPlayerDigging wrapper = CastUtil.getSupplier(
-            () -> new WrapperPlayClientPlayerDigging(event), playerData::exceptionDisconnect);
+    private void handlePlayerDigging(PacketReceiveContext context, PlayerData playerData) {
+        PacketReceiveEvent event = context.getEvent();
+        WrapperPlayClientPlayerDigging wrapper = context.wrapper(
+            WrapperPlayClientPlayerDigging.class, WrapperPlayClientPlayerDigging::new);
 
         if (wrapper.getAction() == DiggingAction.DROP_ITEM) {
             int currentTick = Ticker.getInstance().getCurrentTick();
@@ -233,13 +232,14 @@ public class FrequencyDetection extends SierraDetection implements IngoingProces
     }
 
     @Override
-    public void handle(PacketSendEvent event, PlayerData playerData) {
+    public void handle(PacketSendContext context, PlayerData playerData) {
+        PacketSendEvent event = context.getEvent();
         if (event.getPacketType() == PacketType.Play.Server.PLAYER_POSITION_AND_LOOK
             || event.getPacketType() == PacketType.Play.Server.ENTITY_VELOCITY) {
             balance -= BAL_SUB_ON_TP;
         } else if (event.getPacketType() == PacketType.Play.Server.OPEN_WINDOW) {
-            WrapperPlayServerOpenWindow window = CastUtil.getSupplier(
-                () -> new WrapperPlayServerOpenWindow(event), playerData::exceptionDisconnect);
+            WrapperPlayServerOpenWindow window = context.wrapper(
+                WrapperPlayServerOpenWindow.class, WrapperPlayServerOpenWindow::new);
             this.containerId = window.getContainerId();
         }
     }
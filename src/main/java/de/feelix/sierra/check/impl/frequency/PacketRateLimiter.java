@@ -0,0 +1,173 @@
+package de.feelix.sierra.check.impl.frequency;
+
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
+import de.feelix.sierra.manager.config.SierraSettings;
+
+/**
+ * The PacketRateLimiter class counts the packets of a single player in sliding time windows.
+ * <p>
+ * Every client packet type owns one counter slot per configured window, indexed by the ordinal of the packet type.
+ * Packet types that are not play packets share one extra slot. Each slot keeps the count of the current and the
+ * previous window, and the rate is estimated by weighting the previous count with the part of it that still overlaps
+ * the sliding window. Acquiring a packet is therefore a constant amount of array accesses and never allocates.
+ * <p>
+ * The limiter is bound to the {@link SierraSettings} snapshot it was built from. When a reload publishes a new
+ * snapshot, the limits are recompiled and all counters start over.
+ * <p>
+ * While the server is under attack, the packets are checked against tightened limits, which are compiled together
+ * with the regular ones. Responses to transactions keep their regular limits, since a client has to answer every
+ * transaction of the server and its plugins, at least 20 per second, no matter whether the server is attacked.
+ */
+public class PacketRateLimiter {
+
+    private static final PacketType.Play.Client[] CLIENT_TYPES = PacketType.Play.Client.values();
+    private static final int                      SLOTS        = CLIENT_TYPES.length + 1;
+
+    private SierraSettings settings;
+    private int            windows;
+    private long[]         durations;
+    private int[]          limits;
+    private int[]          attackLimits;
+    private long[]         buckets;
+    private int[]          current;
+    private int[]          previous;
+
+    /**
+     * Counts a packet in every window and checks it against the limits of the given settings.
+     *
+     * @param settings   The current settings snapshot
+     * @param packetType The type of the packet
+     * @param now        The current time in milliseconds
+     * @param attack     Whether the tightened limits of the attack mode apply
+     * @return The index of the first window whose limit is exceeded, or {@code -1} if the packet is within all limits
+     */
+    public int acquire(SierraSettings settings, PacketTypeCommon packetType, long now, boolean attack) {
+        if (this.settings != settings) {
+            rebuild(settings);
+        }
+
+        int[] limits   = attack ? attackLimits : this.limits;
+        int   slot     = slotOf(packetType);
+        int   exceeded = -1;
+        for (int window = 0; window < windows; window++) {
+            int index = window * SLOTS + slot;
+            roll(index, now);
+            current[index]++;
+            if (exceeded == -1 && estimate(index, now) > limits[index]) {
+                exceeded = window;
+            }
+        }
+        return exceeded;
+    }
+
+    /**
+     * Retrieves the estimated amount of packets of the given type within one of the windows.
+     *
+     * @param packetType The type of the packet
+     * @param window     The index of the window
+     * @param now        The current time in milliseconds
+     * @return The estimated amount of packets within the window
+     */
+    public int count(PacketTypeCommon packetType, int window, long now) {
+        if (window < 0 || window >= windows) return 0;
+        int index = window * SLOTS + slotOf(packetType);
+        roll(index, now);
+        return estimate(index, now);
+    }
+
+    /**
+     * Retrieves the estimated rate of the given packet type within one of the windows.
+     *
+     * @param packetType The type of the packet
+     * @param window     The index of the window
+     * @param now        The current time in milliseconds
+     * @return The estimated amount of packets per second
+     */
+    public double rate(PacketTypeCommon packetType, int window, long now) {
+        if (window < 0 || window >= windows) return 0;
+        return count(packetType, window, now) * 1000.0 / durations[window];
+    }
+
+    /**
+     * Retrieves the limit of the given packet type within one of the windows.
+     *
+     * @param packetType The type of the packet
+     * @param window     The index of the window
+     * @param attack     Whether the tightened limits of the attack mode apply
+     * @return The maximum amount of packets allowed within the window
+     */
+    public int limit(PacketTypeCommon packetType, int window, boolean attack) {
+        if (window < 0 || window >= windows) return 0;
+        return (attack ? attackLimits : limits)[window * SLOTS + slotOf(packetType)];
+    }
+
+    /**
+     * Retrieves the length of one of the windows.
+     *
+     * @param window The index of the window
+     * @return The length of the window in milliseconds
+     */
+    public long duration(int window) {
+        if (window < 0 || window >= windows) return 0;
+        return durations[window];
+    }
+
+    /**
+     * Retrieves the amount of windows the limiter counts in.
+     *
+     * @return The amount of windows
+     */
+    public int windows() {
+        return windows;
+    }
+
+    private void rebuild(SierraSettings settings) {
+        this.settings = settings;
+        this.windows = settings.getFrequencyWindowCount();
+        this.durations = new long[windows];
+        this.limits = new int[windows * SLOTS];
+        this.attackLimits = new int[windows * SLOTS];
+        this.buckets = new long[windows * SLOTS];
+        this.current = new int[windows * SLOTS];
+        this.previous = new int[windows * SLOTS];
+
+        for (int window = 0; window < windows; window++) {
+            durations[window] = settings.frequencyWindowDuration(window);
+            for (int slot = 0; slot < SLOTS; slot++) {
+                PacketTypeCommon type = slot < CLIENT_TYPES.length ? CLIENT_TYPES[slot] : null;
+                int limit = settings.frequencyLimit(type, window);
+                limits[window * SLOTS + slot] = limit;
+                attackLimits[window * SLOTS + slot] = isTransactionResponse(type)
+                    ? limit
+                    : Math.max(1, (int) (limit * settings.getAttackModeFrequencyFactor()));
+            }
+        }
+    }
+
+    private void roll(int index, long now) {
+        long bucket = now / durations[index / SLOTS];
+        long passed = bucket - buckets[index];
+        if (passed == 0) return;
+
+        previous[index] = passed == 1 ? current[index] : 0;
+        current[index] = 0;
+        buckets[index] = bucket;
+    }
+
+    private int estimate(int index, long now) {
+        long duration = durations[index / SLOTS];
+        long overlap  = duration - now % duration;
+        return current[index] + (int) (previous[index] * overlap / duration);
+    }
+
+    private static boolean isTransactionResponse(PacketTypeCommon packetType) {
+        return packetType == PacketType.Play.Client.WINDOW_CONFIRMATION || packetType == PacketType.Play.Client.PONG;
+    }
+
+    private int slotOf(PacketTypeCommon packetType) {
+        return packetType instanceof PacketType.Play.Client
+            ? ((PacketType.Play.Client) packetType).ordinal()
+            : CLIENT_TYPES.length;
+    }
+}
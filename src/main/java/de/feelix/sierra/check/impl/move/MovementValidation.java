@@ -12,9 +12,9 @@ import de.feelix.sierra.check.SierraDetection;
 import de.feelix.sierra.check.violation.Debug;
 import de.feelix.sierra.check.violation.ViolationDocument;
 import de.feelix.sierra.manager.packet.IngoingProcessor;
+import de.feelix.sierra.manager.packet.PacketReceiveContext;
 import de.feelix.sierra.manager.storage.PlayerData;
 import de.feelix.sierra.manager.storage.SierraDataManager;
-import de.feelix.sierra.utilities.CastUtil;
 import de.feelix.sierra.utilities.FormatUtils;
 import de.feelix.sierraapi.check.CheckType;
 import de.feelix.sierraapi.check.SierraCheckData;
@@ -22,6 +22,8 @@ import de.feelix.sierraapi.violation.MitigationStrategy;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Collection;
+import java.util.List;
 
 @SierraCheckData(checkType = CheckType.MOVEMENT_VALIDATION)
 public class MovementValidation extends SierraDetection implements IngoingProcessor {
@@ -42,13 +44,29 @@ public class MovementValidation extends SierraDetection implements IngoingProces
     long limitAbuseOverPing = 1000;
     boolean hasGottenMovementAfterTransaction = false;
 
+    private static final List<PacketTypeCommon> INGOING_TYPES = Arrays.asList(
+        PacketType.Play.Client.PLAYER_FLYING,
+        PacketType.Play.Client.PLAYER_POSITION,
+        PacketType.Play.Client.PLAYER_ROTATION,
+        PacketType.Play.Client.PLAYER_POSITION_AND_ROTATION,
+        PacketType.Play.Client.VEHICLE_MOVE,
+        PacketType.Play.Client.PONG,
+        PacketType.Play.Client.WINDOW_CONFIRMATION
+    );
+
     public MovementValidation(PlayerData playerData) {
         super(playerData);
     }
 
     @Override
-    public void handle(PacketReceiveEvent event, PlayerData data) {
-        if (!configEngine().config().getBoolean("prevent-protocol-move", true)) {
+    public Collection<PacketTypeCommon> ingoingPacketTypes() {
+        return INGOING_TYPES;
+    }
+
+    @Override
+    public void handle(PacketReceiveContext context, PlayerData data) {
+        PacketReceiveEvent event = context.getEvent();
+        if (!configEngine().settings().isPreventProtocolMove()) {
             return;
         }
 
@@ -56,17 +74,18 @@ public class MovementValidation extends SierraDetection implements IngoingProces
         handleLatencyAbuse(event, data);
 
         if (WrapperPlayClientPlayerFlying.isFlying(event.getPacketType())) {
-            handleFlyingPacket(event, data);
+            handleFlyingPacket(context, data);
         } else if (event.getPacketType() == PacketType.Play.Client.VEHICLE_MOVE) {
-            handleVehicleMove(event, data);
+            handleVehicleMove(context, data);
         }
 
         data.getTimingProcessor().getMovementTask().end();
     }
 
-    private void handleFlyingPacket(PacketReceiveEvent event, PlayerData playerData) {
-        WrapperPlayClientPlayerFlying wrapper = CastUtil.getSupplier(
-            () -> new WrapperPlayClientPlayerFlying(event), playerData::exceptionDisconnect);
+    private void handleFlyingPacket(PacketReceiveContext context, PlayerData playerData) {
+        PacketReceiveEvent event = context.getEvent();
+        WrapperPlayClientPlayerFlying wrapper = context.wrapper(
+            WrapperPlayClientPlayerFlying.class, WrapperPlayClientPlayerFlying::new);
 
         if (wrapper.hasRotationChanged()) {
             checkInvalidRotation(wrapper, event);
@@ -91,7 +110,7 @@ public class MovementValidation extends SierraDetection implements IngoingProces
     }
 
     private void handleLatencyAbuse(PacketReceiveEvent event, PlayerData data) {
-        if (!configEngine().config().getBoolean("prevent-timer-cheats", true)) {
+        if (!configEngine().settings().isPreventTimerCheats()) {
             return;
         }
 
@@ -110,7 +129,8 @@ public class MovementValidation extends SierraDetection implements IngoingProces
     }
 
     public void doCheck(final PacketReceiveEvent event) {
-        final double transactionPing = playerData.getTransactionProcessor().getTransactionPing();
+        // A single late transaction says little about the connection, so use the 95th percentile of the last ones
+        final int transactionPing = playerData.transactionDistribution().p95();
         // Limit using transaction ping if over 1000ms (default)
         final boolean needsAdjustment = limitAbuseOverPing != -1 && transactionPing >= limitAbuseOverPing;
         final boolean wouldFailNormal = timerBalanceRealTime > System.nanoTime();
@@ -147,9 +167,10 @@ public class MovementValidation extends SierraDetection implements IngoingProces
         return WrapperPlayClientPlayerFlying.isFlying(packetType);
     }
 
-    private void handleVehicleMove(PacketReceiveEvent event, PlayerData data) {
-        WrapperPlayClientVehicleMove wrapper = CastUtil.getSupplier(
-            () -> new WrapperPlayClientVehicleMove(event), data::exceptionDisconnect);
+    private void handleVehicleMove(PacketReceiveContext context, PlayerData data) {
+        PacketReceiveEvent event = context.getEvent();
+        WrapperPlayClientVehicleMove wrapper = context.wrapper(
+            WrapperPlayClientVehicleMove.class, WrapperPlayClientVehicleMove::new);
 
         Vector3d location = wrapper.getPosition();
 
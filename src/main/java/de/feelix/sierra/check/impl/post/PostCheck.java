@@ -15,6 +15,8 @@ import de.feelix.sierra.check.violation.Debug;
 import de.feelix.sierra.check.violation.ViolationDocument;
 import de.feelix.sierra.manager.packet.IngoingProcessor;
 import de.feelix.sierra.manager.packet.OutgoingProcessor;
+import de.feelix.sierra.manager.packet.PacketReceiveContext;
+import de.feelix.sierra.manager.packet.PacketSendContext;
 import de.feelix.sierra.manager.storage.PlayerData;
 import de.feelix.sierra.utilities.EvictingQueue;
 import de.feelix.sierraapi.check.CheckType;
@@ -26,23 +28,56 @@ import java.util.ArrayDeque;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
+import java.util.Arrays;
+import java.util.Collection;
 
 import static com.github.retrooper.packetevents.protocol.packettype.PacketType.Play.Client.*;
 
 @SierraCheckData(checkType = CheckType.POST)
 public class PostCheck extends SierraDetection implements IngoingProcessor, OutgoingProcessor {
 
+    private static final List<PacketTypeCommon> INGOING_TYPES = Arrays.asList(
+        PacketType.Play.Client.PLAYER_FLYING,
+        PacketType.Play.Client.PLAYER_POSITION,
+        PacketType.Play.Client.PLAYER_ROTATION,
+        PacketType.Play.Client.PLAYER_POSITION_AND_ROTATION,
+        PacketType.Play.Client.PONG,
+        PacketType.Play.Client.WINDOW_CONFIRMATION,
+        PacketType.Play.Client.PLAYER_ABILITIES,
+        PacketType.Play.Client.INTERACT_ENTITY,
+        PacketType.Play.Client.PLAYER_BLOCK_PLACEMENT,
+        PacketType.Play.Client.USE_ITEM,
+        PacketType.Play.Client.PLAYER_DIGGING,
+        PacketType.Play.Client.CLICK_WINDOW,
+        PacketType.Play.Client.ANIMATION,
+        PacketType.Play.Client.ENTITY_ACTION
+    );
+
+    private static final List<PacketTypeCommon> OUTGOING_TYPES = Arrays.asList(
+        PacketType.Play.Server.ENTITY_ANIMATION
+    );
+
     public PostCheck(PlayerData playerData) {
         super(playerData);
     }
 
+    @Override
+    public Collection<PacketTypeCommon> ingoingPacketTypes() {
+        return INGOING_TYPES;
+    }
+
+    @Override
+    public Collection<PacketTypeCommon> outgoingPacketTypes() {
+        return OUTGOING_TYPES;
+    }
+
     private int exemptFromSwingingCheck = Integer.MIN_VALUE;
     private final ArrayDeque<PacketTypeCommon> postQueue = new ArrayDeque<>();
     private final List<String> flags = new EvictingQueue<>(10);
     private boolean hasSentFlyingPacket = false;
 
     private void handleFlyingPacket(PacketReceiveEvent event) {
-        if (!flags.isEmpty() && configEngine().config().getBoolean("prevent-post-packets", true) && event.getUser()
+        if (!flags.isEmpty() && configEngine().settings().isPreventPostPackets() && event.getUser()
             .getClientVersion()
             .isOlderThan(ClientVersion.V_1_9)) {
 
@@ -79,13 +114,13 @@ public class PostCheck extends SierraDetection implements IngoingProcessor, Outg
         hasSentFlyingPacket = false;
     }
 
-    private void handleOtherPackets(PacketTypeCommon packetType, PacketReceiveEvent event) {
-        if (shouldQueuePostCheck(packetType, event)) {
+    private void handleOtherPackets(PacketTypeCommon packetType, PacketReceiveContext context) {
+        if (shouldQueuePostCheck(packetType, context)) {
             postQueue.add(packetType);
         }
     }
 
-    private boolean shouldQueuePostCheck(PacketTypeCommon packetType, PacketReceiveEvent event) {
+    private boolean shouldQueuePostCheck(PacketTypeCommon packetType, PacketReceiveContext context) {
         return hasSentFlyingPacket && (
             (packetType.equals(PLAYER_ABILITIES)
              || packetType.equals(INTERACT_ENTITY)
@@ -94,12 +129,13 @@ public class PostCheck extends SierraDetection implements IngoingProcessor, Outg
              || packetType.equals(PLAYER_DIGGING))
             || (packetType.equals(CLICK_WINDOW) && playerData.getClientVersion().isOlderThan(ClientVersion.V_1_13))
             || (packetType.equals(ANIMATION) && shouldHandleAnimation())
-            || (packetType.equals(ENTITY_ACTION) && shouldHandleEntityAction(event))
+            || (packetType.equals(ENTITY_ACTION) && shouldHandleEntityAction(context))
         );
     }
 
-    private boolean shouldHandleEntityAction(PacketReceiveEvent event) {
-        WrapperPlayClientEntityAction entityAction = new WrapperPlayClientEntityAction(event);
+    private boolean shouldHandleEntityAction(PacketReceiveContext context) {
+        WrapperPlayClientEntityAction entityAction = context.wrapper(
+            WrapperPlayClientEntityAction.class, WrapperPlayClientEntityAction::new);
         return playerData.getClientVersion().isNewerThanOrEquals(ClientVersion.V_1_9)
                || entityAction.getAction() != WrapperPlayClientEntityAction.Action.START_FLYING_WITH_ELYTRA
                   && !isRidingEntityInNewVersion();
@@ -125,7 +161,8 @@ public class PostCheck extends SierraDetection implements IngoingProcessor, Outg
     }
 
     @Override
-    public void handle(PacketReceiveEvent event, PlayerData playerData) {
+    public void handle(PacketReceiveContext context, PlayerData playerData) {
+        PacketReceiveEvent event = context.getEvent();
         PacketTypeCommon packetType = event.getPacketType();
 
         if (WrapperPlayClientPlayerFlying.isFlying(packetType)) {
@@ -133,7 +170,7 @@ public class PostCheck extends SierraDetection implements IngoingProcessor, Outg
         } else if (isTransaction(packetType)) {
             handleTransactionPacket();
         } else {
-            handleOtherPackets(packetType, event);
+            handleOtherPackets(packetType, context);
         }
     }
 
@@ -148,9 +185,11 @@ public class PostCheck extends SierraDetection implements IngoingProcessor, Outg
     }
 
     @Override
-    public void handle(PacketSendEvent event, PlayerData playerData) {
+    public void handle(PacketSendContext context, PlayerData playerData) {
+        PacketSendEvent event = context.getEvent();
         if (event.getPacketType() == PacketType.Play.Server.ENTITY_ANIMATION) {
-            WrapperPlayServerEntityAnimation animation = new WrapperPlayServerEntityAnimation(event);
+            WrapperPlayServerEntityAnimation animation = context.wrapper(
+                WrapperPlayServerEntityAnimation.class, WrapperPlayServerEntityAnimation::new);
             if (animation.getEntityId() == playerData.entityId()) {
                 if (isSwingAnimation(animation)) {
                     exemptFromSwingingCheck = playerData.getTransactionProcessor().lastTransactionSent.get();
@@ -0,0 +1,60 @@
+package de.feelix.sierra.check.impl.protocol;
+
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import de.feelix.sierra.manager.config.SierraSettings;
+
+/**
+ * The ByteTokenBucket class limits the amount of bytes a single connection may send.
+ * <p>
+ * The bucket holds up to the burst rate of the client version in bytes and refills with its sustained rate per
+ * second. It is refilled lazily from the monotonic clock reading of every packet, so there is no task resetting the
+ * budget of all players and no fixed window an attacker could straddle. A bucket is only used by the netty thread of
+ * its connection.
+ */
+public class ByteTokenBucket {
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    private double tokens      = -1;
+    private long   lastRefill;
+
+    /**
+     * Takes the bytes of a packet from the bucket.
+     *
+     * @param settings The current settings snapshot
+     * @param version  The client version of the connection
+     * @param bytes    The size of the packet in bytes
+     * @param now      The monotonic clock time of the packet in nanoseconds
+     * @return true if the bucket held enough bytes, false if the packet exceeds the budget
+     */
+    public boolean consume(SierraSettings settings, ClientVersion version, int bytes, long now) {
+        int burst = settings.byteRateBurst(version);
+        if (tokens < 0) {
+            tokens = burst;
+        } else {
+            double refill = (now - lastRefill) / NANOS_PER_SECOND * settings.byteRateSustained(version);
+            tokens = Math.min(burst, tokens + refill);
+        }
+        lastRefill = now;
+
+        if (tokens < bytes) return false;
+        tokens -= bytes;
+        return true;
+    }
+
+    /**
+     * Retrieves the amount of bytes left in the bucket at its last refill.
+     *
+     * @return The remaining bytes
+     */
+    public int remaining() {
+        return (int) Math.max(0, tokens);
+    }
+
+    /**
+     * Fills the bucket up again on the next packet.
+     */
+    public void reset() {
+        tokens = -1;
+    }
+}
@@ -13,6 +13,7 @@ import com.github.retrooper.packetevents.protocol.item.type.ItemType;
 import com.github.retrooper.packetevents.protocol.item.type.ItemTypes;
 import com.github.retrooper.packetevents.protocol.nbt.*;
 import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
 import com.github.retrooper.packetevents.protocol.player.ClientVersion;
 import com.github.retrooper.packetevents.protocol.player.GameMode;
 import com.github.retrooper.packetevents.protocol.world.BlockFace;
@@ -26,31 +27,37 @@ import de.feelix.sierra.check.SierraDetection;
 import de.feelix.sierra.check.impl.command.CommandValidation;
 import de.feelix.sierra.check.violation.Debug;
 import de.feelix.sierra.check.violation.ViolationDocument;
+import de.feelix.sierra.manager.config.SierraSettings;
 import de.feelix.sierra.manager.packet.IngoingProcessor;
 import de.feelix.sierra.manager.packet.OutgoingProcessor;
+import de.feelix.sierra.manager.packet.PacketReceiveContext;
+import de.feelix.sierra.manager.packet.PacketSendContext;
 import de.feelix.sierra.manager.storage.PlayerData;
 import de.feelix.sierra.manager.storage.SierraDataManager;
 import de.feelix.sierra.manager.storage.menu.MenuType;
-import de.feelix.sierra.utilities.CastUtil;
 import de.feelix.sierra.utilities.FieldReader;
 import de.feelix.sierra.utilities.FormatUtils;
 import de.feelix.sierra.utilities.attributes.AttributeMapper;
+import de.feelix.sierra.utilities.nbt.NbtAnalysis;
+import de.feelix.sierra.utilities.nbt.NbtAnalyzer;
+import de.feelix.sierra.utilities.nbt.NbtToken;
 import de.feelix.sierra.utilities.types.BannerType;
 import de.feelix.sierra.utilities.types.ShulkerBoxType;
 import de.feelix.sierraapi.check.CheckType;
 import de.feelix.sierraapi.check.SierraCheckData;
 import de.feelix.sierraapi.violation.MitigationStrategy;
-import org.bukkit.configuration.file.YamlConfiguration;
+import lombok.Getter;
 import org.bukkit.entity.Player;
 
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.regex.Pattern;
+import java.util.Collection;
 
 import static com.github.retrooper.packetevents.protocol.nbt.NBTType.*;
 
@@ -66,22 +73,35 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
     private int containerType = -1;
     private int containerId = -1;
 
-    private static final String WURSTCLIENT_URL = "www.wurstclient.net";
+    @Getter
+    private final ByteTokenBucket byteBudget = new ByteTokenBucket();
+
     private static final int MAX_BYTE_SIZE = 262144;
     private static final int MAX_BANNER_LAYERS = 15;
     private static final int MAX_PATTERN_LENGTH = 50;
     private static final int MIN_VALID_COLOR = 0;
     private static final int MAX_SIGN_LENGTH = 45;
     private static final int MAX_VALID_COLOR = 255;
-    private final AtomicInteger listContent = new AtomicInteger(0);
+
+    private static final List<PacketTypeCommon> OUTGOING_TYPES = Arrays.asList(
+        PacketType.Play.Server.SET_EXPERIENCE,
+        PacketType.Play.Server.WINDOW_ITEMS,
+        PacketType.Play.Server.OPEN_WINDOW
+    );
 
     public ProtocolValidation(PlayerData playerData) {
         super(playerData);
     }
 
     @Override
-    public void handle(PacketReceiveEvent event, PlayerData playerData) {
-        if (!configEngine().config().getBoolean("prevent-protocol-packet", true)) {
+    public Collection<PacketTypeCommon> outgoingPacketTypes() {
+        return OUTGOING_TYPES;
+    }
+
+    @Override
+    public void handle(PacketReceiveContext context, PlayerData playerData) {
+        PacketReceiveEvent event = context.getEvent();
+        if (!configEngine().settings().isPreventProtocolPacket()) {
             return;
         }
 
@@ -97,45 +117,91 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
                 .build());
         }
 
-        int readableBytes = ByteBufHelper.readableBytes(event.getByteBuf());
-        int maxBytesPerSecond = 64000 * (playerData.getClientVersion().isOlderThan(ClientVersion.V_1_8) ? 2 : 1);
-        playerData.setBytesSent(playerData.getBytesSent() + readableBytes);
+        SierraSettings settings      = configEngine().settings();
+        ClientVersion  clientVersion = playerData.getClientVersion();
+        int            readableBytes = ByteBufHelper.readableBytes(event.getByteBuf());
 
-        if (playerData.getBytesSent() > maxBytesPerSecond) {
+        if (!byteBudget.consume(settings, clientVersion, readableBytes, context.nanoTime())) {
             dispatch(event, ViolationDocument.builder()
                 .mitigationStrategy(MitigationStrategy.KICK)
-                .description("sends too big packet in a second")
+                .description("sends too many bytes")
                 .debugs(Arrays.asList(
-                    new Debug<>("Bytes", playerData.getBytesSent()),
-                    new Debug<>("Max Bytes", maxBytesPerSecond)
+                    new Debug<>("Bytes", readableBytes),
+                    new Debug<>("Remaining", byteBudget.remaining()),
+                    new Debug<>("Rate", settings.byteRateSustained(clientVersion)),
+                    new Debug<>("Burst", settings.byteRateBurst(clientVersion))
                 ))
                 .build());
         }
 
-        handleAnvilInventory(event);
-        handleClientSettings(event, playerData);
-        handleCreativeInventoryAction(event, playerData);
-        handleEntityAction(event);
-        handleSpectate(event);
-        handleClickWindowButton(event);
-        handleChatMessage(event);
-        handleHeldItemChange(event);
-        handleTabComplete(event, playerData);
-        handleUpdateSign(event, playerData);
-        handlePlayerBlockPlacement(event, playerData);
-        handleSteerVehicle(event);
-        handleInteractEntity(event);
-        handleNameItem(event);
-        handlePlayerDigging(event, playerData);
-        handleUseItem(event, playerData);
-        handleClickWindow(event, playerData);
-        handlePluginMessage(event, playerData);
-    }
-
-    private void handleAnvilInventory(PacketReceiveEvent event) {
+        if (!(event.getPacketType() instanceof PacketType.Play.Client)) return;
+
+        switch ((PacketType.Play.Client) event.getPacketType()) {
+            case PLUGIN_MESSAGE:
+                handleAnvilInventory(context);
+                handlePluginMessage(context, playerData);
+                break;
+            case CLOSE_WINDOW:
+                handleAnvilInventory(context);
+                break;
+            case CLIENT_SETTINGS:
+                handleClientSettings(context, playerData);
+                break;
+            case CREATIVE_INVENTORY_ACTION:
+                handleCreativeInventoryAction(context, playerData);
+                break;
+            case ENTITY_ACTION:
+                handleEntityAction(context);
+                break;
+            case SPECTATE:
+                handleSpectate(event);
+                break;
+            case CLICK_WINDOW_BUTTON:
+                handleClickWindowButton(context);
+                break;
+            case CHAT_MESSAGE:
+                handleChatMessage(context);
+                break;
+            case HELD_ITEM_CHANGE:
+                handleHeldItemChange(context);
+                break;
+            case TAB_COMPLETE:
+                handleTabComplete(context, playerData);
+                break;
+            case UPDATE_SIGN:
+                handleUpdateSign(context, playerData);
+                break;
+            case PLAYER_BLOCK_PLACEMENT:
+                handlePlayerBlockPlacement(context, playerData);
+                break;
+            case STEER_VEHICLE:
+                handleSteerVehicle(context);
+                break;
+            case INTERACT_ENTITY:
+                handleInteractEntity(context);
+                break;
+            case NAME_ITEM:
+                handleNameItem(context);
+                break;
+            case PLAYER_DIGGING:
+                handlePlayerDigging(context, playerData);
+                break;
+            case USE_ITEM:
+                handleUseItem(context, playerData);
+                break;
+            case CLICK_WINDOW:
+                handleClickWindow(context, playerData);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void handleAnvilInventory(PacketReceiveContext context) {
+        PacketReceiveEvent event = context.getEvent();
         if (event.getPacketType() == PacketType.Play.Client.PLUGIN_MESSAGE) {
-            WrapperPlayClientPluginMessage wrapper = CastUtil.getSupplier(
-                () -> new WrapperPlayClientPluginMessage(event), playerData::exceptionDisconnect);
+            WrapperPlayClientPluginMessage wrapper = context.wrapper(
+                WrapperPlayClientPluginMessage.class, WrapperPlayClientPluginMessage::new);
 
             String channelName = wrapper.getChannelName();
 
@@ -152,10 +218,11 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
         }
     }
 
-    private void handleClientSettings(PacketReceiveEvent event, PlayerData playerData) {
+    private void handleClientSettings(PacketReceiveContext context, PlayerData playerData) {
+        PacketReceiveEvent event = context.getEvent();
         if (event.getPacketType() == PacketType.Play.Client.CLIENT_SETTINGS) {
-            WrapperPlayClientSettings wrapper = CastUtil.getSupplier(
-                () -> new WrapperPlayClientSettings(event), playerData::exceptionDisconnect);
+            WrapperPlayClientSettings wrapper = context.wrapper(
+                WrapperPlayClientSettings.class, WrapperPlayClientSettings::new);
 
             if (wrapper == null) return;
 
@@ -192,19 +259,21 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
         }
     }
 
-    private void handleCreativeInventoryAction(PacketReceiveEvent event, PlayerData playerData) {
+    private void handleCreativeInventoryAction(PacketReceiveContext context, PlayerData playerData) {
+        PacketReceiveEvent event = context.getEvent();
         if (event.getPacketType() == PacketType.Play.Client.CREATIVE_INVENTORY_ACTION) {
-            WrapperPlayClientCreativeInventoryAction wrapper = CastUtil.getSupplier(
-                () -> new WrapperPlayClientCreativeInventoryAction(event), playerData::exceptionDisconnect);
+            WrapperPlayClientCreativeInventoryAction wrapper = context.wrapper(
+                WrapperPlayClientCreativeInventoryAction.class, WrapperPlayClientCreativeInventoryAction::new);
             ItemStack itemStack = wrapper.getItemStack();
-            checkItemStack(event, itemStack);
+            checkItemStack(context, itemStack);
         }
     }
 
-    private void handleEntityAction(PacketReceiveEvent event) {
+    private void handleEntityAction(PacketReceiveContext context) {
+        PacketReceiveEvent event = context.getEvent();
         if (event.getPacketType() == PacketType.Play.Client.ENTITY_ACTION) {
-            WrapperPlayClientEntityAction wrapper = CastUtil.getSupplier(
-                () -> new WrapperPlayClientEntityAction(event), playerData::exceptionDisconnect);
+            WrapperPlayClientEntityAction wrapper = context.wrapper(
+                WrapperPlayClientEntityAction.class, WrapperPlayClientEntityAction::new);
             checkEntityAction(wrapper, event);
         }
     }
@@ -231,10 +300,11 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
         }
     }
 
-    private void handleClickWindowButton(PacketReceiveEvent event) {
+    private void handleClickWindowButton(PacketReceiveContext context) {
+        PacketReceiveEvent event = context.getEvent();
         if (event.getPacketType() == PacketType.Play.Client.CLICK_WINDOW_BUTTON) {
-            WrapperPlayClientClickWindowButton wrapper = CastUtil.getSupplier(
-                () -> new WrapperPlayClientClickWindowButton(event), playerData::exceptionDisconnect);
+            WrapperPlayClientClickWindowButton wrapper = context.wrapper(
+                WrapperPlayClientClickWindowButton.class, WrapperPlayClientClickWindowButton::new);
             if (wrapper.getButtonId() < 0 || wrapper.getWindowId() < 0) {
 
                 dispatch(event, ViolationDocument.builder()
@@ -249,10 +319,11 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
         }
     }
 
-    private void handleChatMessage(PacketReceiveEvent event) {
+    private void handleChatMessage(PacketReceiveContext context) {
+        PacketReceiveEvent event = context.getEvent();
         if (event.getPacketType() == PacketType.Play.Client.CHAT_MESSAGE) {
-            WrapperPlayClientChatMessage wrapper = CastUtil.getSupplier(
-                () -> new WrapperPlayClientChatMessage(event), playerData::exceptionDisconnect);
+            WrapperPlayClientChatMessage wrapper = context.wrapper(
+                WrapperPlayClientChatMessage.class, WrapperPlayClientChatMessage::new);
             if (wrapper.getMessage().contains("${")) {
 
                 dispatch(event, ViolationDocument.builder()
@@ -264,10 +335,11 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
         }
     }
 
-    private void handleHeldItemChange(PacketReceiveEvent event) {
+    private void handleHeldItemChange(PacketReceiveContext context) {
+        PacketReceiveEvent event = context.getEvent();
         if (event.getPacketType() == PacketType.Play.Client.HELD_ITEM_CHANGE) {
-            WrapperPlayClientHeldItemChange wrapper = CastUtil.getSupplier(
-                () -> new WrapperPlayClientHeldItemChange(event), playerData::exceptionDisconnect);
+            WrapperPlayClientHeldItemChange wrapper = context.wrapper(
+                WrapperPlayClientHeldItemChange.class, WrapperPlayClientHeldItemChange::new);
             checkHeldItemChange(wrapper, event);
         }
     }
@@ -302,10 +374,11 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
         this.lastSlot = slot;
     }
 
-    private void handleTabComplete(PacketReceiveEvent event, PlayerData playerData) {
+    private void handleTabComplete(PacketReceiveContext context, PlayerData playerData) {
+        PacketReceiveEvent event = context.getEvent();
         if (event.getPacketType() == PacketType.Play.Client.TAB_COMPLETE) {
-            WrapperPlayClientTabComplete wrapper = CastUtil.getSupplier(
-                () -> new WrapperPlayClientTabComplete(event), playerData::exceptionDisconnect);
+            WrapperPlayClientTabComplete wrapper = context.wrapper(
+                WrapperPlayClientTabComplete.class, WrapperPlayClientTabComplete::new);
             checkTabComplete(wrapper, event);
         }
     }
@@ -361,10 +434,11 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
         }
     }
 
-    private void handleUpdateSign(PacketReceiveEvent event, PlayerData playerData) {
+    private void handleUpdateSign(PacketReceiveContext context, PlayerData playerData) {
+        PacketReceiveEvent event = context.getEvent();
         if (event.getPacketType() == PacketType.Play.Client.UPDATE_SIGN) {
-            WrapperPlayClientUpdateSign wrapper = CastUtil.getSupplier(
-                () -> new WrapperPlayClientUpdateSign(event), playerData::exceptionDisconnect);
+            WrapperPlayClientUpdateSign wrapper = context.wrapper(
+                WrapperPlayClientUpdateSign.class, WrapperPlayClientUpdateSign::new);
             if (wrapper == null) return;
             checkUpdateSign(wrapper, event, playerData);
         }
@@ -399,10 +473,11 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
         }
     }
 
-    private void handlePluginMessage(PacketReceiveEvent event, PlayerData playerData) {
+    private void handlePluginMessage(PacketReceiveContext context, PlayerData playerData) {
+        PacketReceiveEvent event = context.getEvent();
         if (event.getPacketType() == PacketType.Play.Client.PLUGIN_MESSAGE) {
-            WrapperPlayClientPluginMessage wrapper = CastUtil.getSupplier(
-                () -> new WrapperPlayClientPluginMessage(event), playerData::exceptionDisconnect);
+            WrapperPlayClientPluginMessage wrapper = context.wrapper(
+                WrapperPlayClientPluginMessage.class, WrapperPlayClientPluginMessage::new);
             checkPluginMessage(wrapper, event, playerData);
         }
     }
@@ -497,18 +572,20 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
         }
     }
 
-    private void handlePlayerBlockPlacement(PacketReceiveEvent event, PlayerData playerData) {
+    private void handlePlayerBlockPlacement(PacketReceiveContext context, PlayerData playerData) {
+        PacketReceiveEvent event = context.getEvent();
         if (event.getPacketType() == PacketType.Play.Client.PLAYER_BLOCK_PLACEMENT) {
-            WrapperPlayClientPlayerBlockPlacement wrapper = CastUtil.getSupplier(
-                () -> new WrapperPlayClientPlayerBlockPlacement(event), playerData::exceptionDisconnect);
+            WrapperPlayClientPlayerBlockPlacement wrapper = context.wrapper(
+                WrapperPlayClientPlayerBlockPlacement.class, WrapperPlayClientPlayerBlockPlacement::new);
 
             if (wrapper == null) return;
 
-            checkBlockPlacement(wrapper, event);
+            checkBlockPlacement(wrapper, context);
         }
     }
 
-    private void checkBlockPlacement(WrapperPlayClientPlayerBlockPlacement wrapper, PacketReceiveEvent event) {
+    private void checkBlockPlacement(WrapperPlayClientPlayerBlockPlacement wrapper, PacketReceiveContext context) {
+        PacketReceiveEvent event = context.getEvent();
 
         Vector3d blockPosition = wrapper.getBlockPosition().toVector3d();
         double distanced = blockPosition.distanceSquared(playerData.getLastLocation().getPosition());
@@ -544,7 +621,7 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
         if (wrapper.getItemStack().isPresent()) {
             ItemStack itemStack = wrapper.getItemStack().get();
             checkBookUse(itemStack);
-            checkItemStack(event, itemStack);
+            checkItemStack(context, itemStack);
         }
     }
 
@@ -555,10 +632,11 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
         }
     }
 
-    private void handleSteerVehicle(PacketReceiveEvent event) {
+    private void handleSteerVehicle(PacketReceiveContext context) {
+        PacketReceiveEvent event = context.getEvent();
         if (event.getPacketType() == PacketType.Play.Client.STEER_VEHICLE) {
-            WrapperPlayClientSteerVehicle wrapper = CastUtil.getSupplier(
-                () -> new WrapperPlayClientSteerVehicle(event), playerData::exceptionDisconnect);
+            WrapperPlayClientSteerVehicle wrapper = context.wrapper(
+                WrapperPlayClientSteerVehicle.class, WrapperPlayClientSteerVehicle::new);
             checkSteerVehicle(wrapper, event);
         }
     }
@@ -582,10 +660,11 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
         }
     }
 
-    private void handleInteractEntity(PacketReceiveEvent event) {
+    private void handleInteractEntity(PacketReceiveContext context) {
+        PacketReceiveEvent event = context.getEvent();
         if (event.getPacketType() == PacketType.Play.Client.INTERACT_ENTITY) {
-            WrapperPlayClientInteractEntity wrapper = CastUtil.getSupplier(
-                () -> new WrapperPlayClientInteractEntity(event), playerData::exceptionDisconnect);
+            WrapperPlayClientInteractEntity wrapper = context.wrapper(
+                WrapperPlayClientInteractEntity.class, WrapperPlayClientInteractEntity::new);
             checkInteractEntity(wrapper, event);
         }
     }
@@ -605,10 +684,11 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
         }
     }
 
-    private void handleNameItem(PacketReceiveEvent event) {
+    private void handleNameItem(PacketReceiveContext context) {
+        PacketReceiveEvent event = context.getEvent();
         if (event.getPacketType() == PacketType.Play.Client.NAME_ITEM) {
-            WrapperPlayClientNameItem wrapper = CastUtil.getSupplier(
-                () -> new WrapperPlayClientNameItem(event), playerData::exceptionDisconnect);
+            WrapperPlayClientNameItem wrapper = context.wrapper(
+                WrapperPlayClientNameItem.class, WrapperPlayClientNameItem::new);
             checkNameItem(wrapper, event);
         }
     }
@@ -638,7 +718,8 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
         }
     }
 
-    private void handlePlayerDigging(PacketReceiveEvent event, PlayerData playerData) {
+    private void handlePlayerDigging(PacketReceiveContext context, PlayerData playerData) {
+        PacketReceiveEvent event = context.getEvent();
 
         ClientVersion playerVersion = event.getUser().getClientVersion();
         boolean isClientVersion19OrNewer = playerVersion.isNewerThanOrEquals(ClientVersion.V_1_19);
@@ -649,8 +730,8 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
         if (event.getPacketType() == PacketType.Play.Client.PLAYER_DIGGING
             && isClientVersion19OrNewer && isVersion19OrNewer) {
 
-            WrapperPlayClientPlayerDigging dig = CastUtil.getSupplier(
-                () -> new WrapperPlayClientPlayerDigging(event), playerData::exceptionDisconnect);
+            WrapperPlayClientPlayerDigging dig = context.wrapper(
+                WrapperPlayClientPlayerDigging.class, WrapperPlayClientPlayerDigging::new);
             checkPlayerDigging(dig, event);
         }
     }
@@ -670,7 +751,8 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
         }
     }
 
-    private void handleUseItem(PacketReceiveEvent event, PlayerData playerData) {
+    private void handleUseItem(PacketReceiveContext context, PlayerData playerData) {
+        PacketReceiveEvent event = context.getEvent();
         ClientVersion playerVersion = event.getUser().getClientVersion();
         boolean isClientVersionAtLeastV1_19 = playerVersion.isNewerThanOrEquals(ClientVersion.V_1_19);
 
@@ -680,8 +762,8 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
         if (event.getPacketType() == PacketType.Play.Client.USE_ITEM && isClientVersionAtLeastV1_19
             && isVersionAtLeastV1_19) {
 
-            WrapperPlayClientUseItem use = CastUtil.getSupplier(
-                () -> new WrapperPlayClientUseItem(event), playerData::exceptionDisconnect);
+            WrapperPlayClientUseItem use = context.wrapper(
+                WrapperPlayClientUseItem.class, WrapperPlayClientUseItem::new);
 
             if (use.getSequence() < 0) {
                 dispatch(event, ViolationDocument.builder()
@@ -693,19 +775,21 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
         }
     }
 
-    private void handleClickWindow(PacketReceiveEvent event, PlayerData playerData) {
+    private void handleClickWindow(PacketReceiveContext context, PlayerData playerData) {
+        PacketReceiveEvent event = context.getEvent();
         if (event.getPacketType() == PacketType.Play.Client.CLICK_WINDOW) {
 
-            WrapperPlayClientClickWindow wrapper = CastUtil.getSupplier(
-                () -> new WrapperPlayClientClickWindow(event), playerData::exceptionDisconnect);
+            WrapperPlayClientClickWindow wrapper = context.wrapper(
+                WrapperPlayClientClickWindow.class, WrapperPlayClientClickWindow::new);
 
             if (wrapper == null) return;
 
-            checkClickWindow(wrapper, event);
+            checkClickWindow(wrapper, context);
         }
     }
 
-    private void checkClickWindow(WrapperPlayClientClickWindow wrapper, PacketReceiveEvent event) {
+    private void checkClickWindow(WrapperPlayClientClickWindow wrapper, PacketReceiveContext context) {
+        PacketReceiveEvent event = context.getEvent();
         if (PacketEvents.getAPI().getServerManager().getVersion().isNewerThanOrEquals(ServerVersion.V_1_14)) {
 
             int clickType = wrapper.getWindowClickType().ordinal();
@@ -723,24 +807,63 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
 
         ItemStack carriedItemStack = wrapper.getCarriedItemStack();
         checkButtonClickPosition(event, wrapper);
-        checkItemStack(event, carriedItemStack);
+        checkItemStack(context, carriedItemStack);
         checkForInvalidSlot(event, wrapper);
         checkInvalidClick(wrapper, event);
     }
 
-    private void checkItemStack(PacketReceiveEvent event, ItemStack itemStack) {
+    private void checkItemStack(PacketReceiveContext context, ItemStack itemStack) {
         if (itemStack == null || itemStack.getNBT() == null) return;
-        checkItemStackTag(event, itemStack);
+
+        PacketReceiveEvent event = context.getEvent();
+        NbtAnalysis analysis = analyze(context, itemStack);
+
+        if (checkNbtBudget(event, analysis)) return;
+        if (checkItemStackTag(event, itemStack, analysis)) analysis = reanalyze(context, itemStack);
         checkGenericBookPages(event, itemStack);
-        checkGenericNBTLimit(event, itemStack);
-        checkLanguageExploit(event, itemStack);
+        checkGenericNBTLimit(event, analysis);
+        if (checkLanguageExploit(event, itemStack, analysis)) {
+            reanalyze(context, itemStack);
+            return;
+        }
         checkAttributes(event, itemStack);
         checkInvalidNbt(event, itemStack);
         checkForInvalidBanner(event, itemStack);
         checkForInvalidArmorStand(event, itemStack);
-        checkForInvalidContainer(event, itemStack);
-        checkForInvalidShulker(event, itemStack);
-        checkNbtTags(event, itemStack);
+        checkForInvalidContainer(event, itemStack, analysis);
+        checkForInvalidShulker(event, itemStack, analysis);
+        checkNbtTags(event, analysis);
+    }
+
+    private NbtAnalysis analyze(PacketReceiveContext context, ItemStack itemStack) {
+        return itemStack == context.getItemStack()
+            ? context.getNbtAnalysis()
+            : NbtAnalyzer.analyze(itemStack.getNBT(), configEngine().settings());
+    }
+
+    /**
+     * Analyzes the NBT of an item stack again after a check removed tags from it, so neither the following checks nor
+     * the memoized analysis of the packet describe the removed tags.
+     */
+    private NbtAnalysis reanalyze(PacketReceiveContext context, ItemStack itemStack) {
+        if (itemStack == context.getItemStack()) context.invalidateNbtAnalysis();
+        return analyze(context, itemStack);
+    }
+
+    private boolean checkNbtBudget(PacketReceiveEvent event, NbtAnalysis analysis) {
+        if (!analysis.isExceeded()) return false;
+
+        dispatch(event, ViolationDocument.builder()
+            .mitigationStrategy(MitigationStrategy.KICK)
+            .description("send item-stack exceeding the nbt budget")
+            .debugs(Arrays.asList(
+                new Debug<>("Budget", analysis.getExceededBudget()),
+                new Debug<>("Depth", analysis.getDepth()),
+                new Debug<>("Nodes", analysis.getNodes()),
+                new Debug<>("Size", analysis.getEncodedSize())
+            ))
+            .build());
+        return true;
     }
 
     private void checkGenericBookPages(PacketReceiveEvent event, ItemStack itemStack) {
@@ -779,26 +902,26 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
         return totalLength;
     }
 
-    private void checkLanguageExploit(PacketReceiveEvent event, ItemStack itemStack) {
-
-        if (itemStack == null || itemStack.getNBT() == null) return;
+    private boolean checkLanguageExploit(PacketReceiveEvent event, ItemStack itemStack, NbtAnalysis analysis) {
 
-        String mapped = FormatUtils.mapToString(itemStack.getNBT().getTags());
+        int translates = analysis.hits(NbtToken.TRANSLATE);
+        int snoopers = analysis.hits(NbtToken.SNOOPER);
 
-        if (mapped.contains("translate") || mapped.contains("options.snooper.desc")
-            || FormatUtils.countOccurrences(mapped, "translate") > 20) {
+        if (translates > 0 || snoopers > 0) {
 
             dispatch(event, ViolationDocument.builder()
                 .mitigationStrategy(MitigationStrategy.MITIGATE)
                 .description("send raw translate request")
                 .debugs(Arrays.asList(
-                    new Debug<>("Contains", mapped.contains("translate")),
-                    new Debug<>("Snooper", mapped.contains("options.snooper.desc")),
-                    new Debug<>("Count", FormatUtils.countOccurrences(mapped, "translate")),
+                    new Debug<>("Contains", translates > 0),
+                    new Debug<>("Snooper", snoopers > 0),
+                    new Debug<>("Count", translates),
                     new Debug<>("Max Count", 20)
                 )).build());
             itemStack.setNBT(new NBTCompound());
+            return true;
         }
+        return false;
     }
 
     private void checkAttributes(ProtocolPacketEvent event, ItemStack itemStack) {
@@ -827,14 +950,12 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
         return itemStack.getNBT().getCompoundListTagOrNull("AttributeModifiers").getTags();
     }
 
-    public void checkGenericNBTLimit(PacketReceiveEvent event, ItemStack itemStack) {
-        if (!configEngine().config().getBoolean("generic-nbt-limit", true)) {
+    public void checkGenericNBTLimit(PacketReceiveEvent event, NbtAnalysis analysis) {
+        if (!configEngine().settings().isGenericNbtLimit()) {
             return;
         }
 
-        if (itemStack == null || itemStack.getNBT() == null) return;
-
-        int length = FormatUtils.mapToString(itemStack.getNBT().getTags()).length();
+        int length = analysis.getRenderedLength();
 
         int limit = playerData.getClientVersion().isNewerThanOrEquals(ClientVersion.V_1_16) ? 30000 : 25000;
 
@@ -883,7 +1004,7 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
     }
 
     private boolean useVanillaAttributeMapping() {
-        return configEngine().config().getBoolean("use-vanilla-attribute-mapping", true);
+        return configEngine().settings().isUseVanillaAttributeMapping();
     }
 
     private boolean isAmountInvalid(boolean vanillaMapping, AttributeMapper attributeMapper, double amount) {
@@ -1036,13 +1157,10 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
         }
     }
 
-    private void checkForInvalidShulker(PacketReceiveEvent event, ItemStack itemStack) {
-
-        if (itemStack == null || itemStack.getNBT() == null) return;
+    private void checkForInvalidShulker(PacketReceiveEvent event, ItemStack itemStack, NbtAnalysis analysis) {
 
         if (isShulkerBox(itemStack)) {
-            String string = FormatUtils.mapToString(itemStack.getNBT().getTags());
-            int length = string.getBytes(StandardCharsets.UTF_8).length;
+            int length = analysis.getRenderedBytes();
             if (length > 10000) {
 
                 dispatch(event, ViolationDocument.builder()
@@ -1063,11 +1181,9 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
         }
     }
 
-    private void checkForInvalidContainer(PacketReceiveEvent event, ItemStack itemStack) {
+    private void checkForInvalidContainer(PacketReceiveEvent event, ItemStack itemStack, NbtAnalysis analysis) {
         if (isContainerItem(itemStack)) {
-            //noinspection DataFlowIssue
-            String string = FormatUtils.mapToString(itemStack.getNBT().getTags());
-            checkForInvalidSizeAndPresence(event, string);
+            checkForInvalidSizeAndPresence(event, analysis);
         }
     }
 
@@ -1076,18 +1192,18 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
                || itemStack.getType() == ItemTypes.HOPPER_MINECART || itemStack.getType() == ItemTypes.CHEST_MINECART;
     }
 
-    private void checkForInvalidSizeAndPresence(PacketReceiveEvent event, String string) {
-        if (string.getBytes(StandardCharsets.UTF_8).length > MAX_BYTE_SIZE) {
+    private void checkForInvalidSizeAndPresence(PacketReceiveEvent event, NbtAnalysis analysis) {
+        if (analysis.getRenderedBytes() > MAX_BYTE_SIZE) {
             dispatch(event, ViolationDocument.builder()
                 .description("send to big container")
                 .mitigationStrategy(MitigationStrategy.KICK)
                 .debugs(Arrays.asList(
-                    new Debug<>("Size", string.getBytes(StandardCharsets.UTF_8).length),
+                    new Debug<>("Size", analysis.getRenderedBytes()),
                     new Debug<>("Max", MAX_BYTE_SIZE)
                 ))
                 .build());
         }
-        if (string.contains(WURSTCLIENT_URL)) {
+        if (analysis.hits(NbtToken.WURST_CLIENT) > 0) {
             dispatch(event, ViolationDocument.builder()
                 .description("send invalid container")
                 .mitigationStrategy(MitigationStrategy.BAN)
@@ -1096,151 +1212,62 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
         }
     }
 
-    private void checkNbtTags(PacketReceiveEvent event, ItemStack itemStack) {
-        if (itemStack.getNBT() != null) {
-            itemStack.getNBT().getTags().forEach((s, nbt) -> {
-                NBTType<?> nbtType = nbt.getType();
-                if (nbtType.equals(LIST)) {
-                    checkList(s, event, itemStack);
-                } else if (nbtType.equals(INT_ARRAY)) {
-                    checkIntArray(s, event, itemStack);
-                } else if (nbtType.equals(LONG_ARRAY)) {
-                    checkLongArray(s, event, itemStack);
-                } else if (nbtType.equals(BYTE_ARRAY)) {
-                    checkByteArray(s, event, itemStack);
-                }
-            });
+    private void checkNbtTags(PacketReceiveEvent event, NbtAnalysis analysis) {
+        int listSize = analysis.getCompoundListMaxSize();
+        if (listSize > 50) {
+            dispatch(event, ViolationDocument.builder()
+                .description("send invalid nbt list size")
+                .mitigationStrategy(MitigationStrategy.KICK)
+                .debugs(Arrays.asList(new Debug<>("Size", listSize), new Debug<>("Max", 50)))
+                .build());
         }
-        this.listContent.set(0);
-    }
-
-    private void checkList(String s, PacketReceiveEvent event, ItemStack itemStack) {
-        //noinspection DataFlowIssue
-        NBTList<NBTCompound> tagOrNull = itemStack.getNBT().getCompoundListTagOrNull(s);
-        if (tagOrNull != null) {
-            if (tagOrNull.getTags().size() > 50) {
-                dispatch(event, ViolationDocument.builder()
-                    .description("send invalid nbt list size")
-                    .mitigationStrategy(MitigationStrategy.KICK)
-                    .debugs(Arrays.asList(new Debug<>("Size", tagOrNull.getTags().size()), new Debug<>("Max", 50)))
-                    .build());
-            }
-            for (NBTCompound tag : tagOrNull.getTags()) {
-                if (tag == null || tag.toString().equalsIgnoreCase("null") || tag.toString().length() > 900) {
 
-                    dispatch(event, ViolationDocument.builder()
-                        .description("send invalid nbt list")
-                        .mitigationStrategy(MitigationStrategy.KICK)
-                        .debugs(Arrays.asList(
-                            new Debug<>("Size", tagOrNull.getTags().size()),
-                            new Debug<>("Tag", "Null/Length")
-                        ))
-                        .build());
-                }
-            }
+        if (analysis.getCompoundListMaxElementLength() > 900) {
+            dispatch(event, ViolationDocument.builder()
+                .description("send invalid nbt list")
+                .mitigationStrategy(MitigationStrategy.KICK)
+                .debugs(Arrays.asList(
+                    new Debug<>("Size", listSize),
+                    new Debug<>("Tag", "Null/Length")
+                ))
+                .build());
         }
-        if (listContent.incrementAndGet() > 10) {
+
+        if (analysis.getTopLevelLists() > 10) {
             dispatch(event, ViolationDocument.builder()
                 .description("send too many invalid nbt list")
                 .mitigationStrategy(MitigationStrategy.KICK)
-                .debugs(Collections.singletonList(new Debug<>("Content", listContent.get())))
+                .debugs(Collections.singletonList(new Debug<>("Content", analysis.getTopLevelLists())))
                 .build());
         }
-    }
 
-    private void checkIntArray(String key, PacketReceiveEvent event, ItemStack itemStack) {
-        //noinspection DataFlowIssue
-        NBTList<NBTIntArray> tagListOfTypeOrNull = itemStack.getNBT().getTagListOfTypeOrNull(key, NBTIntArray.class);
-        if (tagListOfTypeOrNull != null) {
-            if (tagListOfTypeOrNull.size() > 50) {
-                dispatch(event, ViolationDocument.builder()
-                    .mitigationStrategy(MitigationStrategy.KICK)
-                    .description("send invalid int array")
-                    .debugs(Collections.singletonList(new Debug<>("Tag", "Size")))
-                    .build());
-            }
-            for (NBTIntArray tag : tagListOfTypeOrNull.getTags()) {
-                if (tag.getValue().length > 150) {
-                    dispatch(event, ViolationDocument.builder()
-                        .mitigationStrategy(MitigationStrategy.KICK)
-                        .description("send invalid int array")
-                        .debugs(Collections.singletonList(new Debug<>("Tag", "Length")))
-                        .build());
-                }
-                for (int i : tag.getValue()) {
-                    if (i == Integer.MAX_VALUE || i == Integer.MIN_VALUE) {
-                        dispatch(event, ViolationDocument.builder()
-                            .mitigationStrategy(MitigationStrategy.KICK)
-                            .description("send invalid int array")
-                            .debugs(Collections.singletonList(new Debug<>("Tag", "MAX")))
-                            .build());
-                    }
-                }
-            }
-        }
+        checkArrays(event, analysis, NbtAnalysis.ArrayKind.INT, "send invalid int array");
+        checkArrays(event, analysis, NbtAnalysis.ArrayKind.LONG, "send invalid long array");
+        checkArrays(event, analysis, NbtAnalysis.ArrayKind.BYTE, "send invalid byte array");
     }
 
-    private void checkLongArray(String key, PacketReceiveEvent event, ItemStack itemStack) {
-        //noinspection DataFlowIssue
-        NBTList<NBTLongArray> tagListOfTypeOrNull = itemStack.getNBT().getTagListOfTypeOrNull(key, NBTLongArray.class);
-        if (tagListOfTypeOrNull != null) {
-            if (tagListOfTypeOrNull.size() > 50) {
-                dispatch(event, ViolationDocument.builder()
-                    .mitigationStrategy(MitigationStrategy.KICK)
-                    .description("send invalid long array")
-                    .debugs(Collections.singletonList(new Debug<>("Tag", "Size")))
-                    .build());
-            }
-            for (NBTLongArray tag : tagListOfTypeOrNull.getTags()) {
-                if (tag.getValue().length > 150) {
-                    dispatch(event, ViolationDocument.builder()
-                        .mitigationStrategy(MitigationStrategy.KICK)
-                        .description("send invalid long array")
-                        .debugs(Collections.singletonList(new Debug<>("Tag", "Length")))
-                        .build());
-                }
-                for (long i : tag.getValue()) {
-                    if (i == Long.MAX_VALUE || i == Long.MIN_VALUE) {
-                        dispatch(event, ViolationDocument.builder()
-                            .mitigationStrategy(MitigationStrategy.KICK)
-                            .description("send invalid long array")
-                            .debugs(Collections.singletonList(new Debug<>("Tag", "Max")))
-                            .build());
-                    }
-                }
-            }
+    private void checkArrays(PacketReceiveEvent event, NbtAnalysis analysis, NbtAnalysis.ArrayKind kind,
+                             String description) {
+        if (analysis.arrayListMaxSize(kind) > 50) {
+            dispatch(event, ViolationDocument.builder()
+                .mitigationStrategy(MitigationStrategy.KICK)
+                .description(description)
+                .debugs(Collections.singletonList(new Debug<>("Tag", "Size")))
+                .build());
         }
-    }
-
-    private void checkByteArray(String key, PacketReceiveEvent event, ItemStack itemStack) {
-        //noinspection DataFlowIssue
-        NBTList<NBTByteArray> tagListOfTypeOrNull = itemStack.getNBT().getTagListOfTypeOrNull(key, NBTByteArray.class);
-        if (tagListOfTypeOrNull != null) {
-            if (tagListOfTypeOrNull.size() > 50) {
-                dispatch(event, ViolationDocument.builder()
-                    .mitigationStrategy(MitigationStrategy.KICK)
-                    .description("send invalid byte array")
-                    .debugs(Collections.singletonList(new Debug<>("Tag", "Size")))
-                    .build());
-            }
-            for (NBTByteArray tag : tagListOfTypeOrNull.getTags()) {
-                if (tag.getValue().length > 150) {
-                    dispatch(event, ViolationDocument.builder()
-                        .mitigationStrategy(MitigationStrategy.KICK)
-                        .description("send invalid byte array")
-                        .debugs(Collections.singletonList(new Debug<>("Tag", "Length")))
-                        .build());
-                }
-                for (byte i : tag.getValue()) {
-                    if (i == Byte.MAX_VALUE || i == Byte.MIN_VALUE) {
-                        dispatch(event, ViolationDocument.builder()
-                            .mitigationStrategy(MitigationStrategy.KICK)
-                            .description("send invalid byte array")
-                            .debugs(Collections.singletonList(new Debug<>("Tag", "Max")))
-                            .build());
-                    }
-                }
-            }
+        if (analysis.arrayMaxLength(kind) > 150) {
+            dispatch(event, ViolationDocument.builder()
+                .mitigationStrategy(MitigationStrategy.KICK)
+                .description(description)
+                .debugs(Collections.singletonList(new Debug<>("Tag", "Length")))
+                .build());
+        }
+        if (analysis.arrayExtremes(kind) > 0) {
+            dispatch(event, ViolationDocument.builder()
+                .mitigationStrategy(MitigationStrategy.KICK)
+                .description(description)
+                .debugs(Collections.singletonList(new Debug<>("Tag", "Max")))
+                .build());
         }
     }
 
@@ -1428,28 +1455,29 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
     }
 
     @Override
-    public void handle(PacketSendEvent event, PlayerData playerData) {
+    public void handle(PacketSendContext context, PlayerData playerData) {
+        PacketSendEvent event = context.getEvent();
 
-        if (!configEngine().config().getBoolean("prevent-protocol-packet", true)) {
+        if (!configEngine().settings().isPreventProtocolPacket()) {
             return;
         }
 
         if (event.getPacketType() == PacketType.Play.Server.SET_EXPERIENCE) {
 
-            WrapperPlayServerSetExperience wrapper = CastUtil.getSupplier(
-                () -> new WrapperPlayServerSetExperience(event), playerData::exceptionDisconnect);
+            WrapperPlayServerSetExperience wrapper = context.wrapper(
+                WrapperPlayServerSetExperience.class, WrapperPlayServerSetExperience::new);
             checkSetExperience(wrapper, event);
 
         } else if (event.getPacketType() == PacketType.Play.Server.WINDOW_ITEMS) {
 
-            WrapperPlayServerWindowItems wrapper = CastUtil.getSupplier(
-                () -> new WrapperPlayServerWindowItems(event), playerData::exceptionDisconnect);
+            WrapperPlayServerWindowItems wrapper = context.wrapper(
+                WrapperPlayServerWindowItems.class, WrapperPlayServerWindowItems::new);
 
             checkWindowItems(wrapper, event);
 
         } else if (event.getPacketType() == PacketType.Play.Server.OPEN_WINDOW) {
-            WrapperPlayServerOpenWindow window = CastUtil.getSupplier(
-                () -> new WrapperPlayServerOpenWindow(event), playerData::exceptionDisconnect);
+            WrapperPlayServerOpenWindow window = context.wrapper(
+                WrapperPlayServerOpenWindow.class, WrapperPlayServerOpenWindow::new);
 
             checkOpenWindow(window);
         }
@@ -1460,11 +1488,7 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
         boolean isLevelNegative = wrapper.getLevel() < 0;
         boolean totalExperienceNegative = wrapper.getTotalExperience() < 0;
 
-        YamlConfiguration configEngine = Sierra.getPlugin().getSierraConfigEngine().config();
-        boolean skipNegativeExperienceCheck = configEngine.getBoolean(
-            "skip-negative-experience-check",
-            false
-        );
+        boolean skipNegativeExperienceCheck = configEngine().settings().isSkipNegativeExperienceCheck();
         boolean skipNegativeCheck = wrapper.getExperienceBar() < 0 && !skipNegativeExperienceCheck;
 
         if (isLevelNegative || skipNegativeCheck || totalExperienceNegative) {
@@ -1508,14 +1532,11 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
         this.containerId = window.getContainerId();
     }
 
-    private void checkItemStackTag(PacketReceiveEvent event, ItemStack itemStack) {
-
-        // Check if references are null
-        if (itemStack == null || itemStack.getNBT() == null) return;
+    private boolean checkItemStackTag(PacketReceiveEvent event, ItemStack itemStack, NbtAnalysis analysis) {
 
         ItemType itemStackType = itemStack.getType();
         NBTCompound compound = itemStack.getNBT();
-        String formattedTags = FormatUtils.mapToString(compound.getTags());
+        int renderedLength = analysis.getRenderedLength();
 
         if (itemStackType == ItemTypes.WRITTEN_BOOK || itemStackType == ItemTypes.WRITABLE_BOOK) {
 
@@ -1546,7 +1567,7 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
                         .build());
                 }
             }
-            if (formattedTags.contains(":[{extra:[{")) {
+            if (analysis.hits(NbtToken.EXTRA_ARRAY) > 0) {
                 dispatch(event, ViolationDocument.builder()
                     .mitigationStrategy(MitigationStrategy.MITIGATE)
                     .description("send tag with invalid extra")
@@ -1559,22 +1580,22 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
         }
 
         if (itemStackType == ItemTypes.FIREWORK_ROCKET) {
-            if (formattedTags.length() > 300) {
+            if (renderedLength > 300) {
                 dispatch(event, ViolationDocument.builder()
                     .mitigationStrategy(MitigationStrategy.MITIGATE)
                     .description("send firework-tag with invalid length")
-                    .debugs(Collections.singletonList(new Debug<>("Length", formattedTags.length())))
+                    .debugs(Collections.singletonList(new Debug<>("Length", renderedLength)))
                     .build());
             }
         }
 
         if (itemStackType == ItemTypes.FIREWORK_STAR) {
-            if (formattedTags.length() > 800) {
+            if (renderedLength > 800) {
                 dispatch(event, ViolationDocument.builder()
                     .mitigationStrategy(MitigationStrategy.MITIGATE)
                     .description("send firework-tag with invalid length")
                     .debugs(Arrays.asList(
-                        new Debug<>("Length", formattedTags.length()),
+                        new Debug<>("Length", renderedLength),
                         new Debug<>("Tag", "Star")
                     ))
                     .build());
@@ -1582,7 +1603,7 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
         }
 
         if (itemStackType != ItemTypes.CHEST && itemStackType != ItemTypes.HOPPER && !isShulkerBox(itemStack)) {
-            int encodedLength = formattedTags.getBytes(StandardCharsets.UTF_8).length;
+            int encodedLength = analysis.getRenderedBytes();
             if (encodedLength > 10000) {
                 dispatch(event, ViolationDocument.builder()
                     .mitigationStrategy(MitigationStrategy.MITIGATE)
@@ -1592,60 +1613,26 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
             }
         }
 
-        AtomicInteger listAmount = new AtomicInteger(0);
-        compound.getTags().forEach((s, nbt) -> {
-            if (compound.getTagListOfTypeOrNull(s, nbt.getType().getNBTClass()) != null) {
-                NBTList<?> list = compound.getTagListOfTypeOrNull(s, nbt.getType().getNBTClass());
-
-                listAmount.set(listAmount.get() + 1);
+        if (analysis.getNestedListCount() > 10) {
+            dispatch(event, ViolationDocument.builder()
+                .mitigationStrategy(MitigationStrategy.MITIGATE)
+                .description("send tag with too many lists")
+                .debugs(Collections.singletonList(new Debug<>("Lists", analysis.getNestedListCount())))
+                .build());
+        }
 
-                if (listAmount.get() > 10) {
-                    dispatch(event, ViolationDocument.builder()
-                        .mitigationStrategy(MitigationStrategy.MITIGATE)
-                        .description("send tag with too many lists")
-                        .debugs(Collections.singletonList(new Debug<>("Lists", listAmount.get())))
-                        .build());
-                }
+        boolean modified = analysis.getNestedListMaxSize() > 20 && removeBigNestedLists(event, compound);
 
-                final int size = list.size();
-                if (size > 20) {
-                    dispatch(event, ViolationDocument.builder()
-                        .mitigationStrategy(MitigationStrategy.MITIGATE)
-                        .description("send tag with big list")
-                        .debugs(Arrays.asList(
-                            new Debug<>("Size", size),
-                            new Debug<>("Tag", s)
-                        ))
-                        .build());
-                    compound.removeTag(s);
-                }
-                for (int i = 0; i < list.size(); ++i) {
-                    final String content = String.valueOf(list.getTag(i));
-                    if (content == null || content.equalsIgnoreCase("null")) {
-                        dispatch(event, ViolationDocument.builder()
-                            .mitigationStrategy(MitigationStrategy.MITIGATE)
-                            .description("send tag with invalid list content")
-                            .debugs(Arrays.asList(
-                                new Debug<>("Size", size),
-                                new Debug<>("Tag", s),
-                                new Debug<>("Index", i)
-                            ))
-                            .build());
-                    }
-                    if (content.length() > 90) {
-                        dispatch(event, ViolationDocument.builder()
-                            .mitigationStrategy(MitigationStrategy.MITIGATE)
-                            .description("send tag with invalid list content")
-                            .debugs(Arrays.asList(
-                                new Debug<>("Size", size),
-                                new Debug<>("Tag", s),
-                                new Debug<>("Index", i),
-                                new Debug<>("Content", content.length())
-                            )).build());
-                    }
-                }
-            }
-        });
+        int contentLength = analysis.getNestedListMaxElementLength();
+        if (contentLength > 90) {
+            dispatch(event, ViolationDocument.builder()
+                .mitigationStrategy(MitigationStrategy.MITIGATE)
+                .description("send tag with invalid list content")
+                .debugs(Arrays.asList(
+                    new Debug<>("Size", analysis.getNestedListMaxSize()),
+                    new Debug<>("Content", contentLength)
+                )).build());
+        }
 
         if (compound.getTags().size() > 20) {
             dispatch(event, ViolationDocument.builder()
@@ -1654,6 +1641,30 @@ public class ProtocolValidation extends SierraDetection implements IngoingProces
                 .debugs(Collections.singletonList(new Debug<>("Tags", compound.getTags().size()))
                 ).build());
         }
+        return modified;
+    }
+
+    private boolean removeBigNestedLists(PacketReceiveEvent event, NBTCompound compound) {
+        boolean removed = false;
+        for (String name : new ArrayList<>(compound.getTagNames())) {
+            NBT tag = compound.getTagOrNull(name);
+            if (!(tag instanceof NBTList) || ((NBTList<?>) tag).getTagsType() != LIST) continue;
+
+            int size = ((NBTList<?>) tag).size();
+            if (size > 20) {
+                dispatch(event, ViolationDocument.builder()
+                    .mitigationStrategy(MitigationStrategy.MITIGATE)
+                    .description("send tag with big list")
+                    .debugs(Arrays.asList(
+                        new Debug<>("Size", size),
+                        new Debug<>("Tag", name)
+                    ))
+                    .build());
+                compound.removeTag(name);
+                removed = true;
+            }
+        }
+        return removed;
     }
 
     private void checkInvalidClick(WrapperPlayClientClickWindow wrapper, PacketReceiveEvent event) {
@@ -0,0 +1,85 @@
+package de.feelix.sierra.check.violation;
+
+import lombok.Getter;
+
+import java.util.Locale;
+
+/**
+ * The ViolationDecay class describes how the violation level of a check decays while it does not detect anything.
+ * <p>
+ * The level is not decayed by a task. Instead, a check keeps its level and the time it was last updated, and the
+ * current level is computed from both whenever it is read. The decay starts after a delay without detections and
+ * follows one of two profiles:
+ * <ul>
+ *     <li>{@link Profile#LINEAR} removes a fixed amount of violations per second</li>
+ *     <li>{@link Profile#EXPONENTIAL} halves the level once per half-life</li>
+ * </ul>
+ * Levels below {@link #EPSILON} count as no violations, so exponential decay reaches zero as well.
+ */
+@Getter
+public final class ViolationDecay {
+
+    private static final double EPSILON = 0.1;
+
+    private final Profile profile;
+    private final double  value;
+    private final long    delay;
+
+    /**
+     * Creates a decay.
+     *
+     * @param profile The profile of the decay
+     * @param value   The violations per second for {@link Profile#LINEAR}, or the half-life in seconds for
+     *                {@link Profile#EXPONENTIAL}
+     * @param delay   The time without detections in milliseconds after which the decay starts
+     */
+    public ViolationDecay(Profile profile, double value, long delay) {
+        this.profile = profile;
+        this.value = value;
+        this.delay = delay;
+    }
+
+    /**
+     * Parses a decay in the format {@code PROFILE:VALUE}, e.g. {@code EXPONENTIAL:30}.
+     *
+     * @param text  The text to parse
+     * @param delay The time without detections in milliseconds after which the decay starts
+     * @return The decay
+     * @throws IllegalArgumentException if the text is not a valid decay
+     */
+    public static ViolationDecay parse(String text, long delay) {
+        String[] parts = text.split(":");
+        if (parts.length != 2) throw new IllegalArgumentException("Expected PROFILE:VALUE");
+
+        Profile profile = Profile.valueOf(parts[0].trim().toUpperCase(Locale.ROOT));
+        double  value   = Double.parseDouble(parts[1].trim());
+        if (!(value > 0)) throw new IllegalArgumentException("The value must be positive");
+        return new ViolationDecay(profile, value, delay);
+    }
+
+    /**
+     * Computes the violation level at the given time.
+     *
+     * @param level   The violation level at its last update
+     * @param updated The time of the last update in milliseconds
+     * @param now     The current time in milliseconds
+     * @return The decayed violation level, never negative
+     */
+    public double decay(double level, long updated, long now) {
+        long elapsed = now - updated - delay;
+        if (elapsed <= 0 || level <= 0) return Math.max(0, level);
+
+        double seconds = elapsed / 1000.0;
+        double decayed = profile == Profile.LINEAR
+            ? level - value * seconds
+            : level * Math.pow(0.5, seconds / value);
+        return decayed < EPSILON ? 0 : decayed;
+    }
+
+    /**
+     * The profiles a violation level can decay with.
+     */
+    public enum Profile {
+        LINEAR, EXPONENTIAL
+    }
+}
@@ -0,0 +1,34 @@
+package de.feelix.sierra.check.violation;
+
+import de.feelix.sierra.check.SierraDetection;
+import de.feelix.sierra.manager.storage.PlayerData;
+import de.feelix.sierraapi.violation.MitigationStrategy;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The ViolationRecord class is a snapshot of a single detection, taken on the netty thread when the detection was
+ * dispatched. Everything the alerts, console logs and histories need later is captured here, so the record can be
+ * processed on another thread without reading state that has changed in the meantime.
+ */
+@Getter
+@AllArgsConstructor
+public class ViolationRecord {
+
+    private final SierraDetection   detection;
+    private final PlayerData        playerData;
+    private final ViolationDocument document;
+    private final String            username;
+    private final long              ping;
+    private final int               violations;
+    private final long              timestamp;
+
+    /**
+     * Checks if the detection punished the player.
+     *
+     * @return {@code true} if the player got kicked or banned, {@code false} otherwise
+     */
+    public boolean isPunishment() {
+        return document.getMitigationStrategy().mitigationOrdinal() >= MitigationStrategy.KICK.mitigationOrdinal();
+    }
+}
@@ -36,6 +36,8 @@ public class SierraCommand implements CommandExecutor, TabExecutor {
         COMMANDS.put("version", new VersionCommand());
         COMMANDS.put("monitor", new MonitorCommand());
         COMMANDS.put("history", new HistoryCommand());
+        COMMANDS.put("record", new RecordCommand());
+        COMMANDS.put("replay", new ReplayCommand());
     }
 
     @Override
@@ -44,7 +46,7 @@ public class SierraCommand implements CommandExecutor, TabExecutor {
 
         Player player = (Player) sender;
         User user = PacketEvents.getAPI().getPlayerManager().getUser(player);
-        PlayerData playerData = Sierra.getPlugin().getSierraDataManager().getPlayerData(user).get();
+        PlayerData playerData = Sierra.getPlugin().getSierraDataManager().getPlayerData(user);
 
         if (playerData == null || !sender.hasPermission("sierra.command")) {
             sendVersionOutputToUser(user);
@@ -4,9 +4,9 @@ package de.feelix.sierra.command.impl;
 import com.github.retrooper.packetevents.protocol.player.User;
 import de.feelix.sierra.Sierra;
 import de.feelix.sierra.manager.storage.history.HistoryDocument;
+import de.feelix.sierra.manager.storage.history.HistoryStore;
 import de.feelix.sierra.utilities.FormatUtils;
 import de.feelix.sierra.utilities.message.ConfigValue;
-import de.feelix.sierra.utilities.pagination.Pagination;
 import de.feelix.sierraapi.commands.*;
 import de.feelix.sierraapi.history.History;
 import de.feelix.sierraapi.user.impl.SierraUser;
@@ -16,19 +16,22 @@ import net.kyori.adventure.text.TextComponent;
 import net.kyori.adventure.text.event.ClickEvent;
 import net.kyori.adventure.text.event.HoverEvent;
 
-import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
 
 /**
  * The HistoryCommand class represents a command that retrieves and displays the history of a player's punishments.
  * It implements the ISierraCommand interface.
+ * <p>
+ * The history can be filtered by a player. A page is looked up by its cursor in the {@link HistoryStore}, so showing
+ * a page only reads its entries instead of sorting the whole history.
  */
 public class HistoryCommand implements ISierraCommand {
 
+    private static final int ITEMS_PER_PAGE = 5;
+
     /**
-     * This method processes the command by validating the arguments, setting up pagination,
+     * This method processes the command by validating the arguments, looking up the requested page,
      * sending the appropriate help syntax if arguments are protocol, sending the pagination message
      * to the sender, and sending the history messages.
      *
@@ -47,13 +50,18 @@ public class HistoryCommand implements ISierraCommand {
             return;
         }
 
-        Pagination<History> pagination = setupPagination();
+        HistoryStore historyStore = Sierra.getPlugin().getSierraDataManager().getHistoryStore();
+        String       username     = sierraArguments.getArguments().size() > 2
+            ? sierraArguments.getArguments().get(2) : null;
 
-        int page = correctPage(FormatUtils.toInt(sierraArguments.getArguments().get(1)), pagination.totalPages());
+        int entries    = historyStore.count(username);
+        int totalPages = (int) Math.ceil((double) entries / ITEMS_PER_PAGE);
+        int page       = correctPage(FormatUtils.toInt(sierraArguments.getArguments().get(1)), totalPages);
 
-        List<History> historyDocumentList = pagination.itemsForPage(page);
+        long          cursor              = historyStore.cursor(username, (page - 1) * ITEMS_PER_PAGE);
+        List<History> historyDocumentList = historyStore.page(username, cursor, ITEMS_PER_PAGE).entries();
 
-        sendPaginationMessage(user, page, pagination);
+        sendPaginationMessage(user, page, totalPages, entries, username);
         if (historyDocumentList.isEmpty()) {
             user.sendMessage(
                 new ConfigValue(
@@ -66,10 +74,11 @@ public class HistoryCommand implements ISierraCommand {
         sendHistoryMessages(user, historyDocumentList);
     }
 
-    private void sendPaginationMessage(User user, int currentPage, Pagination<History> pagination) {
+    private void sendPaginationMessage(User user, int currentPage, int totalPages, int entries, String username) {
 
-        boolean hasNextPage = pagination.totalPages() > currentPage;
+        boolean hasNextPage = totalPages > currentPage;
         boolean hasPreviousPage = currentPage > 1;
+        String filter = username != null ? " " + username : "";
 
         TextComponent component = LegacyComponentSerializer.legacy('&')
             .deserialize(new ConfigValue(
@@ -78,8 +87,8 @@ public class HistoryCommand implements ISierraCommand {
                 + "&3{entries} &7entries)",
                 true
             ).replacePrefix().replace("{current}", String.valueOf(currentPage))
-                             .replace("{total}", String.valueOf(pagination.totalPages()))
-                             .replace("{entries}", String.valueOf(pagination.getEntries().size()))
+                             .replace("{total}", String.valueOf(totalPages))
+                             .replace("{entries}", String.valueOf(entries))
                              .colorize()
                              .message())
             .append(Component.text(" "))
@@ -89,7 +98,7 @@ public class HistoryCommand implements ISierraCommand {
                             Component.text(hasPreviousPage ? "View previous page" : "No previous page available")))
                         .clickEvent(ClickEvent.clickEvent(
                             ClickEvent.Action.RUN_COMMAND,
-                            hasPreviousPage ? "/sierra history " + (currentPage - 1) : "/sierra history 1"
+                            "/sierra history " + (hasPreviousPage ? currentPage - 1 : 1) + filter
                         )))
             .append(Component.text(" "))
             .append(LegacyComponentSerializer.legacy('&')
@@ -98,7 +107,7 @@ public class HistoryCommand implements ISierraCommand {
                             Component.text(hasNextPage ? "View next page" : "No next page available")))
                         .clickEvent(ClickEvent.clickEvent(
                             ClickEvent.Action.RUN_COMMAND,
-                            hasNextPage ? "/sierra history " + (currentPage + 1) : "/sierra history " + currentPage
+                            "/sierra history " + (hasNextPage ? currentPage + 1 : currentPage) + filter
                         )));
 
         user.sendMessage(component);
@@ -135,17 +144,6 @@ public class HistoryCommand implements ISierraCommand {
         return sierraArguments.getArguments().size() > 1;
     }
 
-    /**
-     * Sets up pagination for the history documents.
-     *
-     * @return A Pagination object containing the sorted history documents.
-     */
-    private Pagination<History> setupPagination() {
-        List<History> list = new ArrayList<>(Sierra.getPlugin().getSierraDataManager().getHistories());
-        list.sort(Comparator.comparing(History::timestamp).reversed());
-        return new Pagination<>(list, 5);
-    }
-
     /**
      * Corrects the page number by ensuring it is within the valid range of pages.
      *
@@ -192,7 +190,7 @@ public class HistoryCommand implements ISierraCommand {
         user.sendMessage(
             new ConfigValue(
                 "commands.history.protocol",
-                "{prefix} &cInvalid usage, try /sierra history <page>",
+                "{prefix} &cInvalid usage, try /sierra history <page> [player]",
                 true
             ).replacePrefix()
                 .colorize()
@@ -104,7 +104,7 @@ public class InfoCommand implements ISierraCommand {
                     "{prefix}  &8- &7{checkType}: &b{violations}",
                     true
                 ).replacePrefix().replace("{checkType}", sierraCheck.checkType().getFriendlyName())
-                                     .replace("{violations}", String.valueOf(sierraCheck.violations())
+                                     .replace("{violations}", String.format("%.1f", sierraCheck.violations())
                                      ).colorize().message());
             }
         }
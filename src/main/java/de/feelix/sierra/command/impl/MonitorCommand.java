@@ -5,13 +5,16 @@ import de.feelix.sierra.Sierra;
 import de.feelix.sierra.manager.storage.PlayerData;
 import de.feelix.sierra.utilities.message.ConfigValue;
 import de.feelix.sierraapi.commands.*;
+import de.feelix.sierraapi.server.SierraServer;
 import de.feelix.sierraapi.timing.Timing;
 import de.feelix.sierraapi.timing.TimingHandler;
+import de.feelix.sierraapi.timing.TimingStatistics;
 import de.feelix.sierraapi.user.impl.SierraUser;
 
-import java.lang.ref.WeakReference;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 /**
  * MonitorCommand is a class that represents a command that prints monitoring information related to the player.
@@ -20,9 +23,14 @@ import java.util.List;
  */
 public class MonitorCommand implements ISierraCommand {
 
+    /**
+     * The maximum number of checks and packet types listed, the most expensive first.
+     */
+    private static final int MAX_ENTRIES = 8;
+
     /**
      * The process method is responsible for processing the command and printing the performance monitor information
-     * related to the player.
+     * related to the player, or to the whole server if the first argument is {@code server}.
      *
      * @param user            the User associated with the command execution
      * @param sierraUser      the SierraUser representing the user in the Sierra API
@@ -35,15 +43,21 @@ public class MonitorCommand implements ISierraCommand {
                         ISierraLabel sierraLabel,
                         ISierraArguments sierraArguments) {
 
+        List<String> arguments = sierraArguments.getArguments();
+        if (arguments.size() > 1 && arguments.get(1).equalsIgnoreCase("server")) {
+            printServerMonitor(user);
+            return;
+        }
+
         user.sendMessage(new ConfigValue(
             "commands.monitor.header",
             "{prefix} &fPerformance monitor &7(Your data)",
             true
         ).replacePrefix().colorize().message());
 
-        WeakReference<PlayerData> playerData = Sierra.getPlugin().getSierraDataManager().getPlayerData(user);
+        PlayerData playerData = Sierra.getPlugin().getSierraDataManager().getPlayerData(user);
 
-        if (playerData == null || playerData.get() == null) {
+        if (playerData == null) {
             user.sendMessage(
                 new ConfigValue(
                     "commands.monitor.nothing-found",
@@ -80,24 +94,95 @@ public class MonitorCommand implements ISierraCommand {
             ).replacePrefix().colorize().message());
         sendTiming(timingProcessor.getMovementTask(), "Movement Task", user);
         sendTiming(timingProcessor.getFrequencyTask(), "Frequency Task", user);
+        sendBreakdown(timingProcessor.checkTimings(), timingProcessor.packetTimings(), user);
+    }
+
+    /**
+     * Prints the time spent in every check and on every packet type, summed up over all players of the server.
+     *
+     * @param user the User associated with the command execution
+     */
+    private void printServerMonitor(User user) {
+        user.sendMessage(new ConfigValue(
+            "commands.monitor.server-header",
+            "{prefix} &fPerformance monitor &7(All players)",
+            true
+        ).replacePrefix().colorize().message());
+
+        SierraServer server = Sierra.getPlugin().server();
+        sendBreakdown(server.checkTimings(), server.packetTimings(), user);
+    }
+
+    /**
+     * Sends the checks and packet types that took the most netty thread time in total.
+     *
+     * @param checkTimings  the timing statistics of the checks
+     * @param packetTimings the timing statistics of the packet types
+     * @param user          the User object to send the message to
+     */
+    private void sendBreakdown(Map<String, TimingStatistics> checkTimings,
+                               Map<String, TimingStatistics> packetTimings, User user) {
+        user.sendMessage(
+            new ConfigValue(
+                "commands.monitor.checks-header",
+                "{prefix} &b&lChecks:",
+                true
+            ).replacePrefix().colorize().message());
+        sendMostExpensive(checkTimings, user);
+        user.sendMessage(
+            new ConfigValue(
+                "commands.monitor.packet-types-header",
+                "{prefix} &b&lPacket types:",
+                true
+            ).replacePrefix().colorize().message());
+        sendMostExpensive(packetTimings, user);
+    }
+
+    private void sendMostExpensive(Map<String, TimingStatistics> timings, User user) {
+        List<Map.Entry<String, TimingStatistics>> sorted = new ArrayList<>(timings.entrySet());
+        sorted.sort((first, second) -> Double.compare(second.getValue().total(), first.getValue().total()));
+
+        for (int i = 0; i < Math.min(sorted.size(), MAX_ENTRIES); i++) {
+            Map.Entry<String, TimingStatistics> entry = sorted.get(i);
+            if (entry.getValue().count() == 0) break;
+            sendStatistics(entry.getValue(), entry.getKey(), -1, user);
+        }
     }
 
     /**
      * Sends a timing message to the user.
      *
-     * @param packetReceiveTiming the Timing object representing the timing of the received packet
-     * @param title               the title of the timing message
-     * @param user                the User object to send the message to
+     * @param timing the Timing object representing the timing of the task
+     * @param title  the title of the timing message
+     * @param user   the User object to send the message to
+     */
+    private void sendTiming(Timing timing, String title, User user) {
+        sendStatistics(timing.statistics(), title, timing.delay(), user);
+    }
+
+    /**
+     * Sends a timing message with the distribution of the measured durations to the user.
+     *
+     * @param statistics the statistics of the measured durations
+     * @param title      the title of the timing message
+     * @param delay      the last measured duration, or -1 if there is none
+     * @param user       the User object to send the message to
      */
-    private void sendTiming(Timing packetReceiveTiming, String title, User user) {
+    private void sendStatistics(TimingStatistics statistics, String title, double delay, User user) {
         user.sendMessage(
             new ConfigValue(
                 "commands.monitor.entry",
-                "{prefix}  &8- &f{title} &7({delay}ms)",
+                "{prefix}  &8- &f{title} &7({count}x, avg {mean}ms, p50 {p50}ms, p99 {p99}ms, max {max}ms)",
                 true
             ).replacePrefix()
                 .replace("{title}", title)
-                .replace("{delay}", String.format("%.5f", packetReceiveTiming.delay()))
+                .replace("{delay}", String.format("%.5f", delay))
+                .replace("{count}", String.valueOf(statistics.count()))
+                .replace("{mean}", String.format("%.4f", statistics.mean()))
+                .replace("{p50}", String.format("%.4f", statistics.p50()))
+                .replace("{p99}", String.format("%.4f", statistics.p99()))
+                .replace("{max}", String.format("%.4f", statistics.max()))
+                .replace("{total}", String.format("%.2f", statistics.total()))
                 .colorize().message());
     }
 
@@ -112,6 +197,8 @@ public class MonitorCommand implements ISierraCommand {
     public List<String> fromId(int id, String[] args) {
         if (id == 1) {
             return Collections.singletonList("monitor");
+        } else if (id == 2 && args[0].equalsIgnoreCase("monitor")) {
+            return Collections.singletonList("server");
         }
         return Collections.emptyList();
     }
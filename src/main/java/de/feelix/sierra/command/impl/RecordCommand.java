@@ -0,0 +1,150 @@
+package de.feelix.sierra.command.impl;
+
+import com.github.retrooper.packetevents.protocol.player.User;
+import de.feelix.sierra.Sierra;
+import de.feelix.sierra.manager.replay.PacketRecorder;
+import de.feelix.sierra.manager.storage.PlayerData;
+import de.feelix.sierra.utilities.message.ConfigValue;
+import de.feelix.sierraapi.commands.*;
+import de.feelix.sierraapi.user.impl.SierraUser;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The RecordCommand class implements the ISierraCommand interface and represents a command that starts or stops the
+ * packet recording of a player. Recordings can be replayed with the {@link ReplayCommand}.
+ */
+public class RecordCommand implements ISierraCommand {
+
+    /**
+     * Processes the command by toggling the packet recording of the given player.
+     *
+     * @param user            the User object representing the user executing the command
+     * @param sierraUser      the SierraUser object representing the user executing the command
+     * @param abstractCommand the IBukkitAbstractCommand object representing the command being executed
+     * @param sierraLabel     the ISierraLabel object representing the label of the command
+     * @param sierraArguments the ISierraArguments object representing the arguments passed with the command
+     */
+    @Override
+    public void process(User user, SierraUser sierraUser, IBukkitAbstractCommand abstractCommand,
+                        ISierraLabel sierraLabel,
+                        ISierraArguments sierraArguments) {
+
+        if (sierraArguments.getArguments().size() < 2) {
+            sendHelpSyntax(user);
+            return;
+        }
+
+        String               playerName = sierraArguments.getArguments().get(1);
+        Optional<SierraUser> target     = Sierra.getPlugin().getSierraDataManager().queryUserByName(playerName);
+
+        if (!target.isPresent()) {
+            user.sendMessage(new ConfigValue(
+                "commands.record.not-found",
+                "{prefix} &cPlayer &b{playerName} &cis not online",
+                true
+            ).replacePrefix().replace("{playerName}", playerName).colorize().message());
+            return;
+        }
+
+        toggleRecording(user, (PlayerData) target.get());
+    }
+
+    /**
+     * Stops the running recording of a player, or starts a new one if none is running.
+     *
+     * @param user       the User object representing the user receiving the messages
+     * @param playerData the PlayerData of the player to record
+     */
+    private void toggleRecording(User user, PlayerData playerData) {
+        PacketRecorder recorder = playerData.getPacketRecorder();
+
+        if (recorder != null) {
+            playerData.setPacketRecorder(null);
+            recorder.stop();
+            user.sendMessage(new ConfigValue(
+                "commands.record.stopped",
+                "{prefix} &fStopped recording &b{playerName} &7({file}, {size} KB)",
+                true
+            ).replacePrefix()
+                                 .replace("{playerName}", playerData.username())
+                                 .replace("{file}", recorder.getFile().getFileName().toString())
+                                 .replace("{size}", String.valueOf(recorder.getWritten() / 1024))
+                                 .colorize().message());
+            return;
+        }
+
+        try {
+            recorder = PacketRecorder.start(playerData);
+        } catch (IOException exception) {
+            Sierra.getPlugin().getLogger().warning("Unable to start recording: " + exception.getMessage());
+            user.sendMessage(new ConfigValue(
+                "commands.record.failed",
+                "{prefix} &cUnable to start the recording, see the console",
+                true
+            ).replacePrefix().colorize().message());
+            return;
+        }
+        playerData.setPacketRecorder(recorder);
+
+        user.sendMessage(new ConfigValue(
+            "commands.record.started",
+            "{prefix} &fStarted recording &b{playerName} &7({file})",
+            true
+        ).replacePrefix()
+                             .replace("{playerName}", playerData.username())
+                             .replace("{file}", recorder.getFile().getFileName().toString())
+                             .colorize().message());
+    }
+
+    /**
+     * Sends the help syntax message to the given user.
+     *
+     * @param user the User object representing the user to send the message to
+     */
+    private void sendHelpSyntax(User user) {
+        user.sendMessage(new ConfigValue(
+            "commands.record.invalid",
+            "{prefix} &cInvalid usage, try /sierra record <name>",
+            true
+        ).replacePrefix().colorize().message());
+    }
+
+    /**
+     * Generate a list of strings based on the given ID and arguments.
+     *
+     * @param id   the ID used to generate the list of strings
+     * @param args an array of strings representing the arguments
+     * @return a list of strings generated based on the ID and arguments
+     */
+    @Override
+    public List<String> fromId(int id, String[] args) {
+        if (id == 1) {
+            return Collections.singletonList("record");
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * Returns the description of the method or command.
+     *
+     * @return the description of the method or command as a String
+     */
+    @Override
+    public String description() {
+        return "Record the packets of a player";
+    }
+
+    /**
+     * Returns the permission required to execute the method or command.
+     *
+     * @return the required permission as a String
+     */
+    @Override
+    public String permission() {
+        return "sierra.command.record";
+    }
+}
@@ -0,0 +1,261 @@
+package de.feelix.sierra.command.impl;
+
+import com.github.retrooper.packetevents.protocol.player.User;
+import de.feelix.sierra.Sierra;
+import de.feelix.sierra.manager.replay.PacketReplayer;
+import de.feelix.sierra.manager.replay.ReplayReport;
+import de.feelix.sierra.utilities.message.ConfigValue;
+import de.feelix.sierraapi.commands.*;
+import de.feelix.sierraapi.user.impl.SierraUser;
+import io.github.retrooper.packetevents.util.folia.FoliaScheduler;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The ReplayCommand class implements the ISierraCommand interface and represents a command that replays a packet
+ * recording of the {@link RecordCommand} through the checks and prints the verdicts and timings.
+ * <p>
+ * Recordings can be large, so the replay runs on its own async task and the report is sent on the scheduler of the
+ * player once it is done.
+ */
+public class ReplayCommand implements ISierraCommand {
+
+    private static final int MAX_LINES = 10;
+
+    /**
+     * Processes the command by starting the replay of the given recording.
+     *
+     * @param user            the User object representing the user executing the command
+     * @param sierraUser      the SierraUser object representing the user executing the command
+     * @param abstractCommand the IBukkitAbstractCommand object representing the command being executed
+     * @param sierraLabel     the ISierraLabel object representing the label of the command
+     * @param sierraArguments the ISierraArguments object representing the arguments passed with the command
+     */
+    @Override
+    public void process(User user, SierraUser sierraUser, IBukkitAbstractCommand abstractCommand,
+                        ISierraLabel sierraLabel,
+                        ISierraArguments sierraArguments) {
+
+        List<String> arguments = sierraArguments.getArguments();
+        if (arguments.size() < 2) {
+            sendHelpSyntax(user);
+            return;
+        }
+
+        Path file = PacketReplayer.resolveRecording(arguments.get(1));
+        if (file == null || !Files.isRegularFile(file)) {
+            user.sendMessage(new ConfigValue(
+                "commands.replay.not-found",
+                "{prefix} &cRecording &b{file} &cnot found",
+                true
+            ).replacePrefix().replace("{file}", arguments.get(1)).colorize().message());
+            return;
+        }
+
+        boolean continueAfterPunishment = arguments.size() > 2 && arguments.get(2).equalsIgnoreCase("all");
+
+        user.sendMessage(new ConfigValue(
+            "commands.replay.started",
+            "{prefix} &7Replaying &b{file}&7, the report follows once it is done",
+            true
+        ).replacePrefix().replace("{file}", arguments.get(1)).colorize().message());
+
+        FoliaScheduler.getAsyncScheduler().runNow(
+            Sierra.getPlugin(), o -> replay(user, file, continueAfterPunishment));
+    }
+
+    /**
+     * Replays a recording on the calling thread and sends the report to the user.
+     *
+     * @param user                    the User object representing the user receiving the report
+     * @param file                    the file of the recording
+     * @param continueAfterPunishment whether the packets are checked after a punishment
+     */
+    private void replay(User user, Path file, boolean continueAfterPunishment) {
+        ReplayReport report;
+        try {
+            report = PacketReplayer.replay(file, continueAfterPunishment);
+        } catch (IOException | RuntimeException exception) {
+            Sierra.getPlugin().getLogger().warning("Unable to replay " + file + ": " + exception.getMessage());
+            deliver(user, () -> user.sendMessage(new ConfigValue(
+                "commands.replay.failed",
+                "{prefix} &cUnable to replay the recording, see the console",
+                true
+            ).replacePrefix().colorize().message()));
+            return;
+        }
+
+        deliver(user, () -> sendReport(user, report));
+    }
+
+    /**
+     * Sends messages on the scheduler of the player. If the player left during the replay, nothing is sent.
+     *
+     * @param user     the User object representing the user receiving the messages
+     * @param messages sends the messages
+     */
+    private void deliver(User user, Runnable messages) {
+        Player player = Bukkit.getPlayer(user.getUUID());
+        if (player == null) return;
+
+        FoliaScheduler.getEntityScheduler().run(player, Sierra.getPlugin(), o -> messages.run(), null);
+    }
+
+    /**
+     * Sends the report of a replay to a user.
+     *
+     * @param user   the User object representing the user receiving the report
+     * @param report the report of the replay
+     */
+    private void sendReport(User user, ReplayReport report) {
+        user.sendMessage(new ConfigValue(
+            "commands.replay.header",
+            "{prefix} &fReplay of &b{username} &7({clientVersion}, {duration}s)",
+            true
+        ).replacePrefix()
+                             .replace("{username}", report.getUsername())
+                             .replace("{clientVersion}", report.getClientVersion())
+                             .replace("{duration}", String.format("%.1f", report.recordingNanos() / 1e9))
+                             .colorize().message());
+
+        user.sendMessage(new ConfigValue(
+            "commands.replay.summary",
+            "{prefix} &7Packets: &b{inbound} &7in, &b{outbound} &7out, &b{skipped} &7skipped, &b{unknown} &7unknown "
+            + "&8┃ &7Errors: &b{errors} &8┃ &7Took: &b{took}ms",
+            true
+        ).replacePrefix()
+                             .replace("{inbound}", String.valueOf(report.getInbound()))
+                             .replace("{outbound}", String.valueOf(report.getOutbound()))
+                             .replace("{skipped}", String.valueOf(report.getSkipped()))
+                             .replace("{unknown}", String.valueOf(report.getUnknown()))
+                             .replace("{errors}", String.valueOf(report.getErrors()))
+                             .replace("{took}", String.format("%.2f", report.getReplayNanos() / 1e6))
+                             .colorize().message());
+
+        if (report.getFirstError() != null) {
+            user.sendMessage(new ConfigValue(
+                "commands.replay.error",
+                "{prefix} &7First error: &c{error}",
+                true
+            ).replacePrefix().replace("{error}", report.getFirstError()).colorize().message());
+        }
+
+        if (report.getPunishment() != null) {
+            user.sendMessage(new ConfigValue(
+                "commands.replay.punished",
+                "{prefix} &7Punished with &c{mitigation} &7at packet &b#{packet}",
+                true
+            ).replacePrefix()
+                                 .replace("{mitigation}", report.getPunishment().friendlyMessage())
+                                 .replace("{packet}", String.valueOf(report.getPunishedAt()))
+                                 .colorize().message());
+        }
+
+        sendVerdicts(user, report);
+        sendTimings(user, report);
+    }
+
+    private void sendVerdicts(User user, ReplayReport report) {
+        user.sendMessage(new ConfigValue(
+            "commands.replay.verdicts-header",
+            "{prefix} &b&lVerdicts &7({count}):",
+            true
+        ).replacePrefix().replace("{count}", String.valueOf(report.getVerdicts().size())).colorize().message());
+
+        List<ReplayReport.Verdict> verdicts = report.getVerdicts();
+        for (int i = 0; i < Math.min(verdicts.size(), MAX_LINES); i++) {
+            ReplayReport.Verdict verdict = verdicts.get(i);
+            user.sendMessage(new ConfigValue(
+                "commands.replay.verdict",
+                "{prefix}  &8- &7#{packet} &8(&7{time}s&8) &b{checkname} &8┃ &f{mitigation} &8┃ &3x{violations} "
+                + "&7{description}",
+                true
+            ).replacePrefix()
+                                 .replace("{packet}", String.valueOf(verdict.getPacket()))
+                                 .replace("{time}", String.format("%.3f", verdict.getNanos() / 1e9))
+                                 .replace("{checkname}", verdict.getCheck())
+                                 .replace("{mitigation}", verdict.getMitigationStrategy().friendlyMessage())
+                                 .replace("{violations}", String.valueOf(verdict.getViolations()))
+                                 .replace("{description}", verdict.getDescription())
+                                 .colorize().message());
+        }
+    }
+
+    private void sendTimings(User user, ReplayReport report) {
+        user.sendMessage(new ConfigValue(
+            "commands.replay.timings-header",
+            "{prefix} &b&lTimings:",
+            true
+        ).replacePrefix().colorize().message());
+
+        List<ReplayReport.Timing> timings = report.sortedTimings();
+        for (int i = 0; i < Math.min(timings.size(), MAX_LINES); i++) {
+            ReplayReport.Timing timing = timings.get(i);
+            user.sendMessage(new ConfigValue(
+                "commands.replay.timing",
+                "{prefix}  &8- &f{title} &7(x{count}, total {total}ms, avg {average}µs, max {max}µs)",
+                true
+            ).replacePrefix()
+                                 .replace("{title}", timing.getName())
+                                 .replace("{count}", String.valueOf(timing.getCount()))
+                                 .replace("{total}", String.format("%.3f", timing.getTotalNanos() / 1e6))
+                                 .replace("{average}", String.format("%.2f", timing.averageNanos() / 1e3))
+                                 .replace("{max}", String.format("%.2f", timing.getMaxNanos() / 1e3))
+                                 .colorize().message());
+        }
+    }
+
+    /**
+     * Sends the help syntax message to the given user.
+     *
+     * @param user the User object representing the user to send the message to
+     */
+    private void sendHelpSyntax(User user) {
+        user.sendMessage(new ConfigValue(
+            "commands.replay.invalid",
+            "{prefix} &cInvalid usage, try /sierra replay <recording> [all]",
+            true
+        ).replacePrefix().colorize().message());
+    }
+
+    /**
+     * Generate a list of strings based on the given ID and arguments.
+     *
+     * @param id   the ID used to generate the list of strings
+     * @param args an array of strings representing the arguments
+     * @return a list of strings generated based on the ID and arguments
+     */
+    @Override
+    public List<String> fromId(int id, String[] args) {
+        if (id == 1) {
+            return Collections.singletonList("replay");
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * Returns the description of the method or command.
+     *
+     * @return the description of the method or command as a String
+     */
+    @Override
+    public String description() {
+        return "Replay a packet recording";
+    }
+
+    /**
+     * Returns the permission required to execute the method or command.
+     *
+     * @return the required permission as a String
+     */
+    @Override
+    public String permission() {
+        return "sierra.command.replay";
+    }
+}
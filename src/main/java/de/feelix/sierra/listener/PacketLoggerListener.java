@@ -100,6 +100,6 @@ public class PacketLoggerListener extends PacketListenerAbstract {
     }
 
     private PlayerData getPlayerData(ProtocolPacketEvent event) {
-        return SierraDataManager.getInstance().getPlayerData(event.getUser()).get();
+        return SierraDataManager.getInstance().getPlayerData(event.getUser());
     }
 }
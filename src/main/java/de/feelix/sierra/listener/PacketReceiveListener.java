@@ -7,15 +7,22 @@ import com.github.retrooper.packetevents.protocol.packettype.PacketType;
 import com.github.retrooper.packetevents.wrapper.play.client.WrapperPlayClientSettings;
 import de.feelix.sierra.Sierra;
 import de.feelix.sierra.check.violation.Debug;
+import de.feelix.sierra.manager.config.SierraSettings;
+import de.feelix.sierra.manager.packet.PacketReceiveContext;
+import de.feelix.sierra.manager.replay.PacketRecorder;
+import de.feelix.sierra.manager.replay.RecordedPacket;
 import de.feelix.sierra.manager.storage.PlayerData;
 import de.feelix.sierra.manager.storage.SierraDataManager;
 import de.feelix.sierra.manager.storage.logger.LogTag;
-import de.feelix.sierra.utilities.CastUtil;
+import de.feelix.sierra.manager.storage.logger.SlowPacketLog;
+import de.feelix.sierra.manager.storage.processor.TimingProcessor;
+import de.feelix.sierra.manager.storage.timings.PacketStageTrace;
 import de.feelix.sierra.utilities.FormatUtils;
+import de.feelix.sierra.utilities.nbt.NbtPreScanner;
 import de.feelix.sierraapi.violation.MitigationStrategy;
-import org.bukkit.configuration.file.YamlConfiguration;
 
 import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
 public class PacketReceiveListener extends PacketListenerAbstract {
@@ -32,53 +39,89 @@ public class PacketReceiveListener extends PacketListenerAbstract {
             return;
         }
 
+        long start = System.nanoTime();
         PlayerData playerData = getPlayerData(event);
+        long lookedUp = System.nanoTime();
 
         if (playerData == null) {
             event.getUser().closeConnection();
             return;
         }
 
+        int bytes = ByteBufHelper.readableBytes(event.getByteBuf());
+        Sierra.getPlugin().getMetricsRegistry().recordPacket(event.getPacketType(), bytes);
+
+        PacketRecorder recorder = playerData.getPacketRecorder();
+        if (recorder != null) recorder.record(RecordedPacket.Direction.INBOUND, event);
+
         if (isWeirdPacket(event, playerData)) return;
 
+        if (isOversizedItem(event, playerData)) return;
+
         if (bypassPermission(playerData)) {
             event.setCancelled(false);
             return;
         }
 
-        playerData.getTimingProcessor().getPacketReceiveTask().prepare();
+        TimingProcessor timingProcessor = playerData.getTimingProcessor();
+        PacketStageTrace trace = timingProcessor.getStageTrace();
+        trace.begin();
+        trace.stage("Lookup", lookedUp - start);
+        long stageStart = System.nanoTime();
+        trace.stage("Pre-checks", stageStart - lookedUp);
+
+        timingProcessor.getPacketReceiveTask().prepare();
 
         if (playerData.getClientVersion() == null) {
             playerData.setClientVersion(event.getUser().getClientVersion());
         }
 
-        playerData.getTransactionProcessor().handleTransactionClient(event);
+        PacketReceiveContext context = new PacketReceiveContext(event, playerData);
+
+        // A check that throws is exactly the kind of packet the slow packet log is for, so the trace is always ended
+        try {
+            playerData.getTransactionProcessor().handleTransactionClient(context);
 
-        handleLocale(event, playerData);
+            handleLocale(context, playerData);
+            trace.stage("Transactions", System.nanoTime() - stageStart);
 
-        if (handleExemptOrBlockedPlayer(playerData, event)) return;
+            if (handleExemptOrBlockedPlayer(playerData, event)) return;
 
-        playerData.getBrandProcessor().process(event);
-        playerData.getPingProcessor().handlePacketReceive(event);
-        playerData.getCheckManager().processAvailableChecksReceive(event);
+            playerData.getCheckManager().processAvailableChecksReceive(context);
 
-        playerData.getTimingProcessor().getPacketReceiveTask().end();
+            timingProcessor.getPacketReceiveTask().end();
+            timingProcessor.recordPacket(context.getPacketType(), timingProcessor.getPacketReceiveTask());
+        } finally {
+            trace.end();
+            reportSlowPacket(context, bytes, System.nanoTime() - start, trace);
+        }
     }
 
-    private void handleLocale(PacketReceiveEvent event, PlayerData playerData) {
-        if (event.getPacketType() == PacketType.Play.Client.CLIENT_SETTINGS) {
-            WrapperPlayClientSettings wrapper = CastUtil.getSupplier(
-                () -> new WrapperPlayClientSettings(event), playerData::exceptionDisconnect);
+    /**
+     * Writes the packet to the slow packet log if it took longer than the configured threshold. This is a single
+     * comparison for every packet that is not slow.
+     */
+    private void reportSlowPacket(PacketReceiveContext context, int bytes, long elapsed, PacketStageTrace trace) {
+        int threshold = Sierra.getPlugin().getSierraConfigEngine().settings().getSlowPacketThreshold();
+        if (threshold < 0 || elapsed <= TimeUnit.MILLISECONDS.toNanos(threshold)) return;
+
+        SlowPacketLog.log(context, bytes, elapsed, trace);
+    }
+
+    private void handleLocale(PacketReceiveContext context, PlayerData playerData) {
+        if (context.getPacketType() == PacketType.Play.Client.CLIENT_SETTINGS) {
+            WrapperPlayClientSettings wrapper = context.wrapper(
+                WrapperPlayClientSettings.class, WrapperPlayClientSettings::new);
+            if (wrapper == null) return;
             playerData.setLocale(wrapper.getLocale());
         }
     }
 
     private boolean isWeirdPacket(ProtocolPacketEvent event, PlayerData playerData) {
 
-        YamlConfiguration sierraConfig = Sierra.getPlugin().getSierraConfigEngine().config();
-
         int readableBytes = ByteBufHelper.readableBytes(event.getByteBuf());
-        int maxPacketSize = sierraConfig.getInt("generic-packet-size-limit", 6000);
+        int maxPacketSize = Sierra.getPlugin().getSierraConfigEngine().settings()
+            .packetSizeLimit(event.getPacketType());
         int capacity = ByteBufHelper.capacity(event.getByteBuf());
 
         boolean shouldCheck = maxPacketSize != -1;
@@ -108,6 +151,34 @@ public class PacketReceiveListener extends PacketListenerAbstract {
         return false;
     }
 
+    private boolean isOversizedItem(PacketReceiveEvent event, PlayerData playerData) {
+        SierraSettings settings = Sierra.getPlugin().getSierraConfigEngine().settings();
+        if (!settings.isPreventProtocolPacket()) return false;
+
+        String exceededBudget = NbtPreScanner.scan(event, settings);
+        if (exceededBudget == null) return false;
+
+        playerData.getSierraLogger().log(LogTag.PRE, FormatUtils.chainDebugs(Arrays.asList(
+            new Debug<>("Packet", event.getPacketType().getName()),
+            new Debug<>("Budget", exceededBudget),
+            new Debug<>("Bytes", ByteBufHelper.readableBytes(event.getByteBuf()))
+        )));
+
+        LOGGER.info(String.format("Disconnecting %s, item nbt exceeds the %s budget",
+                                  playerData.getUser().getName(), exceededBudget.toLowerCase()
+        ));
+        Sierra.getPlugin().getSierraDataManager().createMitigateHistory(
+            playerData.username(),
+            playerData.version(),
+            MitigationStrategy.KICK,
+            playerData.ping(),
+            String.format("Item nbt exceeds the %s budget", exceededBudget.toLowerCase())
+        );
+        playerData.cancelEvent(event);
+        playerData.punish(MitigationStrategy.KICK);
+        return true;
+    }
+
     private void logAndDisconnect(PlayerData playerData, int readableBytes, int capacity, int maxPacketSize) {
         LOGGER.info(String.format("Disconnecting %s, packet too big. Bytes: %d, capacity: %d, max: %d",
                                   playerData.getUser().getName(), readableBytes, capacity, maxPacketSize
@@ -126,12 +197,12 @@ public class PacketReceiveListener extends PacketListenerAbstract {
     }
 
     private boolean bypassPermission(PlayerData playerData) {
-        return Sierra.getPlugin().getSierraConfigEngine().config().getBoolean("enable-bypass-permission", false)
+        return Sierra.getPlugin().getSierraConfigEngine().settings().isEnableBypassPermission()
                && playerData.isBypassPermission();
     }
 
     private PlayerData getPlayerData(ProtocolPacketEvent event) {
-        return SierraDataManager.getInstance().getPlayerData(event.getUser()).get();
+        return SierraDataManager.getInstance().getPlayerData(event.getUser());
     }
 
     private boolean handleExemptOrBlockedPlayer(PlayerData playerData, ProtocolPacketEvent event) {
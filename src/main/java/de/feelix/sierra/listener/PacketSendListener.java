@@ -4,8 +4,12 @@ import com.github.retrooper.packetevents.event.PacketListenerAbstract;
 import com.github.retrooper.packetevents.event.PacketListenerPriority;
 import com.github.retrooper.packetevents.event.PacketSendEvent;
 import com.github.retrooper.packetevents.event.ProtocolPacketEvent;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
 import com.github.retrooper.packetevents.protocol.ConnectionState;
 import de.feelix.sierra.Sierra;
+import de.feelix.sierra.manager.packet.PacketSendContext;
+import de.feelix.sierra.manager.replay.PacketRecorder;
+import de.feelix.sierra.manager.replay.RecordedPacket;
 import de.feelix.sierra.manager.storage.PlayerData;
 import de.feelix.sierra.manager.storage.SierraDataManager;
 
@@ -23,7 +27,15 @@ public class PacketSendListener extends PacketListenerAbstract {
 
         PlayerData playerData = getPlayerData(event);
 
-        if (playerData == null || handleExemptOrBlockedPlayer(playerData, event)) return;
+        if (playerData == null) return;
+
+        Sierra.getPlugin().getMetricsRegistry().recordPacket(
+            event.getPacketType(), ByteBufHelper.readableBytes(event.getByteBuf()));
+
+        PacketRecorder recorder = playerData.getPacketRecorder();
+        if (recorder != null) recorder.record(RecordedPacket.Direction.OUTBOUND, event);
+
+        if (handleExemptOrBlockedPlayer(playerData, event)) return;
 
         if (bypassPermission(playerData)) {
             event.setCancelled(false);
@@ -32,18 +44,15 @@ public class PacketSendListener extends PacketListenerAbstract {
 
         playerData.getTimingProcessor().getPacketSendTask().prepare();
 
-        playerData.getTeleportProcessor().handle(event);
-        playerData.getTransactionProcessor().handleTransactionSend(event);
-        playerData.getGameModeProcessor().process(event);
-        playerData.getPingProcessor().handlePacketSend(event);
-
-        playerData.getCheckManager().processAvailableChecksSend(event);
+        playerData.getCheckManager().processAvailableChecksSend(new PacketSendContext(event, playerData));
 
         playerData.getTimingProcessor().getPacketSendTask().end();
+        playerData.getTimingProcessor().recordPacket(
+            event.getPacketType(), playerData.getTimingProcessor().getPacketSendTask());
     }
 
     private boolean bypassPermission(PlayerData playerData) {
-        return Sierra.getPlugin().getSierraConfigEngine().config().getBoolean("enable-bypass-permission", false)
+        return Sierra.getPlugin().getSierraConfigEngine().settings().isEnableBypassPermission()
                && playerData.isBypassPermission();
     }
 
@@ -60,6 +69,6 @@ public class PacketSendListener extends PacketListenerAbstract {
     }
 
     private PlayerData getPlayerData(ProtocolPacketEvent event) {
-        return SierraDataManager.getInstance().getPlayerData(event.getUser()).get();
+        return SierraDataManager.getInstance().getPlayerData(event.getUser());
     }
 }
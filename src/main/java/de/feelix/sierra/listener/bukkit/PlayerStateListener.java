@@ -0,0 +1,78 @@
+package de.feelix.sierra.listener.bukkit;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.protocol.player.GameMode;
+import com.github.retrooper.packetevents.protocol.player.User;
+import de.feelix.sierra.manager.storage.PlayerData;
+import de.feelix.sierra.manager.storage.SierraDataManager;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerGameModeChangeEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+
+/**
+ * This class pushes the state of the Bukkit player into its PlayerData, so the state does not have to be polled.
+ * <p>
+ * The Bukkit player is attached to the PlayerData of its connection when it joins. Game mode changes are taken from
+ * the event here and from the packets in the {@link de.feelix.sierra.manager.storage.processor.GameModeProcessor}.
+ * The bypass permission is looked up again when the player changes the world, as permissions may differ per world.
+ */
+public class PlayerStateListener implements Listener {
+
+    /**
+     * Attaches the Bukkit player to its PlayerData as soon as it joined.
+     *
+     * @param event The PlayerJoinEvent to handle.
+     */
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void handle(PlayerJoinEvent event) {
+        attach(event.getPlayer());
+    }
+
+    /**
+     * Updates the game mode of the PlayerData once the change went through.
+     *
+     * @param event The PlayerGameModeChangeEvent to handle.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void handle(PlayerGameModeChangeEvent event) {
+        PlayerData data = playerData(event.getPlayer());
+        if (data != null) {
+            data.setGameMode(GameMode.valueOf(event.getNewGameMode().name()));
+        }
+    }
+
+    /**
+     * Looks up the bypass permission again after the player changed the world.
+     *
+     * @param event The PlayerChangedWorldEvent to handle.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void handle(PlayerChangedWorldEvent event) {
+        PlayerData data = playerData(event.getPlayer());
+        if (data != null) {
+            data.refreshPermissions();
+        }
+    }
+
+    /**
+     * Attaches a Bukkit player to the PlayerData of its connection and indexes it.
+     *
+     * @param player The Bukkit player
+     */
+    public static void attach(Player player) {
+        PlayerData data = playerData(player);
+        if (data == null) return;
+
+        SierraDataManager.getInstance().indexPlayerData(data, player);
+        data.attach(player);
+    }
+
+    private static PlayerData playerData(Player player) {
+        User user = PacketEvents.getAPI().getPlayerManager().getUser(player);
+        return user != null ? SierraDataManager.getInstance().getPlayerData(user) : null;
+    }
+}
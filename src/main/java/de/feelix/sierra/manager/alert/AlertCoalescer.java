@@ -0,0 +1,151 @@
+package de.feelix.sierra.manager.alert;
+
+import de.feelix.sierra.check.SierraDetection;
+import de.feelix.sierra.check.violation.ViolationRecord;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * The AlertCoalescer class collapses floods of equal detections into periodic summaries.
+ * <p>
+ * Detections are equal if they come from the same check of the same player and share the description. The first
+ * detection of a window is emitted right away, every further detection within the window is only counted. Once the
+ * window is over, the counted detections are emitted as a single summary.
+ * <p>
+ * Punishments are never coalesced. The class is not thread-safe and is only used by the single consumer of the
+ * {@link ViolationDispatcher}.
+ */
+final class AlertCoalescer {
+
+    /**
+     * The output the coalesced detections are written to.
+     */
+    interface Sink {
+
+        /**
+         * Emits a single detection.
+         *
+         * @param record The record of the detection
+         */
+        void emit(ViolationRecord record);
+
+        /**
+         * Emits the summary of the detections that were counted within a window.
+         *
+         * @param last          The record of the last counted detection
+         * @param count         The amount of counted detections
+         * @param window        The length of the window in milliseconds
+         * @param maxViolations The highest violation level among the counted detections
+         */
+        void summarize(ViolationRecord last, int count, long window, int maxViolations);
+    }
+
+    private final Map<Key, Window> windows = new HashMap<>();
+    private final Sink             sink;
+
+    AlertCoalescer(Sink sink) {
+        this.sink = sink;
+    }
+
+    /**
+     * Emits a detection or counts it towards the summary of its window.
+     *
+     * @param record The record of the detection
+     * @param window The length of the window in milliseconds, or {@code 0} to emit every detection
+     */
+    void submit(ViolationRecord record, long window) {
+        if (window <= 0 || record.isPunishment()) {
+            sink.emit(record);
+            return;
+        }
+
+        Key    key     = new Key(record.getDetection(), record.getDocument().getDescription());
+        Window current = windows.get(key);
+
+        if (current != null && record.getTimestamp() - current.start < window) {
+            current.count++;
+            current.last = record;
+            current.maxViolations = Math.max(current.maxViolations, record.getViolations());
+            return;
+        }
+
+        if (current != null) summarize(current, window);
+        windows.put(key, new Window(record.getTimestamp()));
+        sink.emit(record);
+    }
+
+    /**
+     * Emits the summaries of all windows that are over.
+     *
+     * @param now    The current time in milliseconds
+     * @param window The length of the window in milliseconds
+     */
+    void flushExpired(long now, long window) {
+        if (windows.isEmpty()) return;
+
+        Iterator<Window> iterator = windows.values().iterator();
+        while (iterator.hasNext()) {
+            Window current = iterator.next();
+            if (now - current.start >= window) {
+                summarize(current, window);
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Emits the summaries of all windows, whether they are over or not.
+     *
+     * @param window The length of the window in milliseconds
+     */
+    void flushAll(long window) {
+        for (Window current : windows.values()) {
+            summarize(current, window);
+        }
+        windows.clear();
+    }
+
+    private void summarize(Window current, long window) {
+        if (current.count > 0) {
+            sink.summarize(current.last, current.count, window, current.maxViolations);
+        }
+    }
+
+    private static final class Window {
+
+        private final long            start;
+        private       int             count;
+        private       int             maxViolations;
+        private       ViolationRecord last;
+
+        private Window(long start) {
+            this.start = start;
+        }
+    }
+
+    private static final class Key {
+
+        private final SierraDetection detection;
+        private final String          description;
+
+        private Key(SierraDetection detection, String description) {
+            this.detection = detection;
+            this.description = description;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (this == object) return true;
+            if (!(object instanceof Key)) return false;
+            Key key = (Key) object;
+            return detection == key.detection && description.equals(key.description);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(detection) + description.hashCode();
+        }
+    }
+}
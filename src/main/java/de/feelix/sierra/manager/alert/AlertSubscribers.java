@@ -0,0 +1,73 @@
+package de.feelix.sierra.manager.alert;
+
+import com.github.retrooper.packetevents.protocol.player.User;
+import de.feelix.sierra.manager.storage.PlayerData;
+import de.feelix.sierraapi.violation.MitigationStrategy;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The AlertSubscribers class keeps track of the players that receive alerts, so an alert only visits its recipients
+ * instead of every online player.
+ * <p>
+ * The sets are updated whenever a player toggles their alert or mitigation settings, and a player is removed from
+ * both once they disconnect.
+ */
+public class AlertSubscribers {
+
+    private final Map<User, PlayerData> alerts      = new ConcurrentHashMap<>();
+    private final Map<User, PlayerData> mitigations = new ConcurrentHashMap<>();
+
+    /**
+     * Adds a player to or removes a player from the recipients of alerts.
+     *
+     * @param playerData The player
+     * @param enabled    {@code true} if the player should receive alerts
+     */
+    public void setAlerts(PlayerData playerData, boolean enabled) {
+        set(alerts, playerData, enabled);
+    }
+
+    /**
+     * Adds a player to or removes a player from the recipients of mitigation alerts.
+     *
+     * @param playerData The player
+     * @param enabled    {@code true} if the player should receive mitigation alerts
+     */
+    public void setMitigations(PlayerData playerData, boolean enabled) {
+        set(mitigations, playerData, enabled);
+    }
+
+    /**
+     * Removes a player from all recipients.
+     *
+     * @param user The user of the player
+     */
+    public void remove(User user) {
+        alerts.remove(user);
+        mitigations.remove(user);
+    }
+
+    /**
+     * Retrieves the recipients of an alert with the given mitigation strategy.
+     *
+     * @param mitigationStrategy The mitigation strategy of the detection
+     * @return A live view of the recipients
+     */
+    public Collection<PlayerData> recipients(MitigationStrategy mitigationStrategy) {
+        return mitigationStrategy == MitigationStrategy.MITIGATE ? mitigations.values() : alerts.values();
+    }
+
+    private void set(Map<User, PlayerData> subscribers, PlayerData playerData, boolean enabled) {
+        User user = playerData.getUser();
+        if (user == null) return;
+
+        if (enabled) {
+            subscribers.put(user, playerData);
+        } else {
+            subscribers.remove(user);
+        }
+    }
+}
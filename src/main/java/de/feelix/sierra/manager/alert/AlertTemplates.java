@@ -0,0 +1,78 @@
+package de.feelix.sierra.manager.alert;
+
+import de.feelix.sierra.utilities.message.MessageTemplate;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+/**
+ * The AlertTemplates class holds the alert layouts of the messages.yml file, compiled into {@link MessageTemplate}s.
+ * A new instance is compiled whenever the messages.yml file was reloaded.
+ */
+final class AlertTemplates {
+
+    static final String[] STAFF_ALERT_PLACEHOLDERS = {
+        "prefix", "username", "mitigation", "description", "checkname", "violations"
+    };
+
+    static final String[] STAFF_ALERT_SUMMARY_PLACEHOLDERS = {
+        "prefix", "username", "mitigation", "description", "checkname", "count", "window", "violations"
+    };
+
+    static final String[] ALERT_CONTENT_PLACEHOLDERS = {
+        "prefix", "username", "clientVersion", "brand", "ticksExisted", "gameMode", "tags", "description", "debugInfo"
+    };
+
+    static final String[] ALERT_COMMAND_PLACEHOLDERS = {"username"};
+
+    private final YamlConfiguration source;
+
+    final MessageTemplate staffAlert;
+    final MessageTemplate staffAlertSummary;
+    final MessageTemplate alertContent;
+    final MessageTemplate alertCommand;
+
+    private AlertTemplates(YamlConfiguration source) {
+        this.source = source;
+
+        this.staffAlert = MessageTemplate.compile(source.getString(
+            "layout.detection-message.staff-alert",
+            "{prefix} &b{username} &8┃ &f{mitigation} &b{checkname} &8┃ &3x{violations}"
+        ), STAFF_ALERT_PLACEHOLDERS);
+
+        this.staffAlertSummary = MessageTemplate.compile(source.getString(
+            "layout.detection-message.staff-alert-summary",
+            "{prefix} &b{username} &8┃ &f{mitigation} &b{checkname} &8┃ &3x{count} &fin &3{window}&8, &fmax VL "
+            + "&3{violations}"
+        ), STAFF_ALERT_SUMMARY_PLACEHOLDERS);
+
+        String alertNote = source.getString("layout.detection-message.alert-command-note", "&fClick to teleport");
+        this.alertContent = MessageTemplate.compile(source.getString(
+            "layout.detection-message.alert-content",
+            " &7Username: &b{username}{n} &7Version: &b{clientVersion}{n} &7Brand: &b{brand}{n} &7Exist since: "
+            + "&b{ticksExisted}{n} &7Game mode: &b{gameMode}{n} &7Tag: &b{tags}{n} &7Description: &b{description}{n} "
+            + "&7Debug info: &b{debugInfo}{n}{n} {alertNote}"
+        ).replace("{alertNote}", alertNote).replace("{n}", "\n"), ALERT_CONTENT_PLACEHOLDERS);
+
+        this.alertCommand = MessageTemplate.compile(source.getString(
+            "layout.detection-message.alert-command", "/tp {username}"), ALERT_COMMAND_PLACEHOLDERS);
+    }
+
+    /**
+     * Compiles the alert layouts of a messages.yml file.
+     *
+     * @param messages The messages.yml file
+     * @return The compiled templates
+     */
+    static AlertTemplates compile(YamlConfiguration messages) {
+        return new AlertTemplates(messages);
+    }
+
+    /**
+     * Checks if these templates were compiled from the given messages.yml file.
+     *
+     * @param messages The messages.yml file
+     * @return {@code true} if the templates are up to date, {@code false} otherwise
+     */
+    boolean isCompiledFrom(YamlConfiguration messages) {
+        return source == messages;
+    }
+}
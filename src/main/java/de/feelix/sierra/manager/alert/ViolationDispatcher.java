@@ -0,0 +1,350 @@
+package de.feelix.sierra.manager.alert;
+
+import de.feelix.sierra.Sierra;
+import de.feelix.sierra.check.SierraDetection;
+import de.feelix.sierra.check.violation.ViolationDocument;
+import de.feelix.sierra.check.violation.ViolationRecord;
+import de.feelix.sierra.manager.config.SierraSettings;
+import de.feelix.sierra.manager.storage.PlayerData;
+import de.feelix.sierra.manager.storage.history.HistoryDocument;
+import de.feelix.sierra.utilities.FormatUtils;
+import de.feelix.sierra.utilities.MpscArrayQueue;
+import de.feelix.sierra.utilities.message.MessageTemplate;
+import de.feelix.sierraapi.events.impl.AsyncUserDetectionEvent;
+import de.feelix.sierraapi.history.HistoryType;
+import de.feelix.sierraapi.violation.MitigationStrategy;
+import io.github.retrooper.packetevents.adventure.serializer.legacy.LegacyComponentSerializer;
+import io.github.retrooper.packetevents.util.folia.FoliaScheduler;
+import lombok.Getter;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.event.ClickEvent;
+import net.kyori.adventure.text.event.HoverEvent;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+
+/**
+ * The ViolationDispatcher class processes detections away from the netty threads.
+ * <p>
+ * {@link SierraDetection#dispatch} only records a {@link ViolationRecord} in a bounded queue. Once per tick, a single
+ * async consumer drains the queue in batches and does everything that is expensive: publishing the detection event,
+ * logging to the console, formatting and sending the staff alerts, and creating the histories. Alerts are rendered from
+ * precompiled {@link AlertTemplates} and only sent to the {@link AlertSubscribers}. Floods of equal detections are
+ * collapsed into periodic summaries by one {@link AlertCoalescer} for the staff chat and one for the console.
+ * <p>
+ * While the {@link de.feelix.sierra.manager.attack.AttackMode} is active, records without a punishment are processed
+ * without alerting or logging them to the console.
+ * <p>
+ * If the queue is full, records are dropped instead of blocking the netty thread. Punishments are applied on the
+ * netty thread regardless, and a dropped punishment is still counted. Its history is queued separately and created by
+ * the consumer as well.
+ */
+public class ViolationDispatcher {
+
+    private static final int CAPACITY         = 4096;
+    private static final int BATCH_SIZE       = 1024;
+    private static final int HISTORY_CAPACITY = 1024;
+
+    @Getter
+    private final AlertSubscribers                subscribers = new AlertSubscribers();
+    private final MpscArrayQueue<ViolationRecord> queue       = new MpscArrayQueue<>(CAPACITY);
+    private final MpscArrayQueue<ViolationRecord> histories   = new MpscArrayQueue<>(HISTORY_CAPACITY);
+    private final List<ViolationRecord>           batch       = new ArrayList<>(BATCH_SIZE);
+    private final StringBuilder                   builder     = new StringBuilder(256);
+    private final ReentrantLock                   draining    = new ReentrantLock();
+    private final AtomicLong                      dropped     = new AtomicLong();
+    private final AlertCoalescer                  chat        = new AlertCoalescer(new ChatSink());
+    private final AlertCoalescer                  console     = new AlertCoalescer(new ConsoleSink());
+    private       AlertTemplates                  templates;
+
+    /**
+     * Starts the consumer, which drains the queue once per tick.
+     */
+    public void start() {
+        FoliaScheduler.getAsyncScheduler().runAtFixedRate(Sierra.getPlugin(), o -> drain(), 1, 1);
+    }
+
+    /**
+     * Queues a detection for processing. Can be called from any thread and never blocks.
+     *
+     * @param record The record of the detection
+     */
+    public void submit(ViolationRecord record) {
+        if (queue.offer(record)) return;
+
+        dropped.incrementAndGet();
+        if (!record.isPunishment()) return;
+
+        Sierra.getPlugin().getMetricsRegistry().recordPunishment(record.getDetection().checkType());
+        if (!histories.offer(record)) {
+            Sierra.getPlugin().getSierraDataManager().createPunishmentHistory(
+                record.getUsername(), record.getPlayerData().version(),
+                record.getDocument().getMitigationStrategy(), record.getPing(),
+                FormatUtils.chainDebugs(record.getDocument().getDebugs())
+            );
+        }
+    }
+
+    /**
+     * Retrieves the amount of records that are waiting to be processed.
+     *
+     * @return The amount of pending records
+     */
+    public int pending() {
+        return queue.size();
+    }
+
+    /**
+     * Drains the queue in batches until it is empty and emits the summaries of all windows that are over. Only one
+     * thread drains at a time, if another thread is draining already, this returns immediately.
+     */
+    public void drain() {
+        if (!draining.tryLock()) return;
+        try {
+            drainQueues();
+
+            SierraSettings settings = Sierra.getPlugin().getSierraConfigEngine().settings();
+            long           now      = System.currentTimeMillis();
+            chat.flushExpired(now, settings.getAlertSummaryWindow());
+            console.flushExpired(now, settings.getConsoleSummaryWindow());
+            reportDropped();
+        } finally {
+            draining.unlock();
+        }
+    }
+
+    /**
+     * Drains the queue and emits the summaries of all windows, including the ones that are not over yet. Waits for
+     * a drain that is in progress on another thread.
+     */
+    public void shutdown() {
+        draining.lock();
+        try {
+            drainQueues();
+
+            SierraSettings settings = Sierra.getPlugin().getSierraConfigEngine().settings();
+            chat.flushAll(settings.getAlertSummaryWindow());
+            console.flushAll(settings.getConsoleSummaryWindow());
+            reportDropped();
+        } finally {
+            draining.unlock();
+        }
+    }
+
+    private void drainQueues() {
+        try {
+            while (queue.drain(batch::add, BATCH_SIZE) > 0) {
+                processBatch();
+                batch.clear();
+            }
+            histories.drain(this::storeDroppedHistory, HISTORY_CAPACITY);
+        } finally {
+            batch.clear();
+        }
+    }
+
+    private void storeDroppedHistory(ViolationRecord record) {
+        try {
+            storeHistory(record);
+        } catch (Exception exception) {
+            Sierra.getPlugin().getLogger().warning("Unable to store history: " + exception.getMessage());
+        }
+    }
+
+    private void processBatch() {
+        YamlConfiguration messages = Sierra.getPlugin().getSierraConfigEngine().messages();
+        if (templates == null || !templates.isCompiledFrom(messages)) {
+            templates = AlertTemplates.compile(messages);
+        }
+
+        SierraSettings settings = Sierra.getPlugin().getSierraConfigEngine().settings();
+        for (ViolationRecord record : batch) {
+            try {
+                process(record, settings);
+            } catch (Exception exception) {
+                Sierra.getPlugin().getLogger().warning("Unable to process violation: " + exception.getMessage());
+            }
+        }
+    }
+
+    private void process(ViolationRecord record, SierraSettings settings) {
+        ViolationDocument document = record.getDocument();
+
+        Sierra.getPlugin().getEventBus().publish(new AsyncUserDetectionEvent(
+            document, record.getPlayerData(), record.getDetection().checkType(), record.getViolations()));
+
+        if (Sierra.getPlugin().getAttackMode().isActive() && !record.isPunishment()) {
+            Sierra.getPlugin().getAttackMode().recordDropped();
+        } else {
+            if (settings.isLogViolationToConsole()
+                && document.getMitigationStrategy() != MitigationStrategy.MITIGATE) {
+                console.submit(record, settings.getConsoleSummaryWindow());
+            }
+            chat.submit(record, settings.getAlertSummaryWindow());
+        }
+
+        if (record.isPunishment()) {
+            Sierra.getPlugin().getMetricsRegistry().recordPunishment(record.getDetection().checkType());
+            storeHistory(record);
+        }
+    }
+
+    private void storeHistory(ViolationRecord record) {
+        ViolationDocument document = record.getDocument();
+        Sierra.getPlugin().getSierraDataManager().storeHistory(new HistoryDocument(
+            record.getUsername(), FormatUtils.chainDebugs(document.getDebugs()),
+            record.getPlayerData().version(), record.getPing(), document.getMitigationStrategy(),
+            HistoryType.PUNISH
+        ));
+    }
+
+    private void reportDropped() {
+        long amount = dropped.getAndSet(0);
+        if (amount > 0) {
+            Sierra.getPlugin().getLogger().warning("Dropped " + amount + " violation alerts, the queue is full");
+        }
+    }
+
+    /**
+     * Logs a detection to the console.
+     *
+     * @param record The record of the detection
+     */
+    private void logViolation(ViolationRecord record) {
+        ViolationDocument document = record.getDocument();
+        Logger            logger   = Sierra.getPlugin().getLogger();
+        logger.info(String.format("Player %s got %s sending a protocol packet", record.getUsername(),
+                                  document.getMitigationStrategy().friendlyMessage()
+        ));
+        logger.info(String.format("Debug information: %s", document.getDebugs().isEmpty()
+            ? "No debug available"
+            : document.debugInformation()));
+        logger.info(String.format("Check Information: %s/%d - VL: %d", record.getDetection().getFriendlyName(),
+                                  record.getDetection().getCheckId(), record.getViolations()
+        ));
+    }
+
+    /**
+     * Sends an alert message to the staff members with information about the detection.
+     *
+     * @param record The record of the detection
+     */
+    private void alertStaff(ViolationRecord record) {
+        Collection<PlayerData> recipients = subscribers.recipients(record.getDocument().getMitigationStrategy());
+        if (recipients.isEmpty()) return;
+
+        sendAlert(recipients, record, render(templates.staffAlert, staffAlertValues(record)));
+    }
+
+    /**
+     * Logs the summary of the detections that were held back within a window to the console.
+     */
+    private void logSummary(ViolationRecord last, int count, long window, int maxViolations) {
+        Sierra.getPlugin().getLogger().info(String.format(
+            "Player %s got %s x%d in %s by %s/%d, max VL %d: %s", last.getUsername(),
+            last.getDocument().getMitigationStrategy().friendlyMessage(), count, formatWindow(window),
+            last.getDetection().getFriendlyName(), last.getDetection().getCheckId(), maxViolations,
+            last.getDocument().getDescription()
+        ));
+    }
+
+    /**
+     * Sends the summary of the alerts that were held back within a window to the staff members.
+     */
+    private void alertSummary(ViolationRecord last, int count, long window, int maxViolations) {
+        Collection<PlayerData> recipients = subscribers.recipients(last.getDocument().getMitigationStrategy());
+        if (recipients.isEmpty()) return;
+
+        ViolationDocument document = last.getDocument();
+        String summary = render(templates.staffAlertSummary, Sierra.PREFIX, last.getUsername(),
+                                document.getMitigationStrategy().friendlyMessage(), document.getDescription(),
+                                last.getDetection().getFriendlyName(), String.valueOf(count), formatWindow(window),
+                                String.valueOf(maxViolations)
+        );
+        sendAlert(recipients, last, summary);
+    }
+
+    private void sendAlert(Collection<PlayerData> recipients, ViolationRecord record, String text) {
+        String command = render(templates.alertCommand, record.getUsername());
+        String content = render(templates.alertContent, alertContentValues(record));
+
+        Component message = LegacyComponentSerializer.legacy('&')
+            .deserialize(text)
+            .clickEvent(ClickEvent.clickEvent(ClickEvent.Action.RUN_COMMAND, command))
+            .hoverEvent(HoverEvent.showText(Component.text(content)));
+
+        for (PlayerData playerData : recipients) {
+            playerData.getUser().sendMessage(message);
+        }
+    }
+
+    private static String formatWindow(long window) {
+        return window % 1000 == 0
+            ? window / 1000 + "s"
+            : String.format("%.1fs", window / 1000.0);
+    }
+
+    private String render(MessageTemplate template, String... values) {
+        builder.setLength(0);
+        return template.render(builder, values).toString();
+    }
+
+    private String[] staffAlertValues(ViolationRecord record) {
+        ViolationDocument document = record.getDocument();
+        return new String[]{
+            Sierra.PREFIX,
+            record.getUsername(),
+            document.getMitigationStrategy().friendlyMessage(),
+            document.getDescription(),
+            record.getDetection().getFriendlyName(),
+            String.valueOf(record.getViolations())
+        };
+    }
+
+    private String[] alertContentValues(ViolationRecord record) {
+        PlayerData        playerData = record.getPlayerData();
+        ViolationDocument document   = record.getDocument();
+        return new String[]{
+            Sierra.PREFIX,
+            record.getUsername(),
+            playerData.getUser().getClientVersion().getReleaseName().replace("V_", "").replace("_", "."),
+            playerData.brand(),
+            playerData.ticksExisted() + " ticks",
+            playerData.gameMode().name(),
+            record.getDetection().getFriendlyName().toLowerCase(),
+            document.getDescription(),
+            FormatUtils.shortenString(document.debugInformation())
+        };
+    }
+
+    private final class ChatSink implements AlertCoalescer.Sink {
+
+        @Override
+        public void emit(ViolationRecord record) {
+            alertStaff(record);
+        }
+
+        @Override
+        public void summarize(ViolationRecord last, int count, long window, int maxViolations) {
+            alertSummary(last, count, window, maxViolations);
+        }
+    }
+
+    private final class ConsoleSink implements AlertCoalescer.Sink {
+
+        @Override
+        public void emit(ViolationRecord record) {
+            logViolation(record);
+        }
+
+        @Override
+        public void summarize(ViolationRecord last, int count, long window, int maxViolations) {
+            logSummary(last, count, window, maxViolations);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package de.feelix.sierra.manager.attack;
+
+import de.feelix.sierra.Sierra;
+import de.feelix.sierra.manager.config.SierraSettings;
+import de.feelix.sierra.manager.storage.PlayerData;
+import de.feelix.sierra.utilities.MpscArrayQueue;
+import io.github.retrooper.packetevents.util.folia.FoliaScheduler;
+import org.bukkit.Bukkit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * The AttackMode class watches the offender and connection rates of the whole server and switches Sierra into a
+ * cheaper mode of operation while a crash or bot wave is going on.
+ * <p>
+ * Offenders are live connections that were detected and not punished yet, each counted at most once per second, so a
+ * single client can not trigger the attack mode with the packets it still sends after its kick. Offenders and
+ * connections are counted in {@link LongAdder}s and evaluated once per second. If either rate reaches its threshold,
+ * the attack mode is entered. While it is active:
+ * <ul>
+ *     <li>detections that are not punished are dropped without logging, alerting or publishing them</li>
+ *     <li>the checks of a packet stop at the first check that cancels it</li>
+ *     <li>the packet frequency limits are tightened by the configured factor</li>
+ *     <li>ban commands are queued and dispatched in one batch per second</li>
+ * </ul>
+ * The attack mode is left once both rates stayed below their thresholds for the configured cooldown.
+ * <p>
+ * The state is a single volatile flag, so the netty threads read it without locking.
+ */
+public class AttackMode {
+
+    private static final int BAN_CAPACITY = 4096;
+
+    private final LongAdder              offenders   = new LongAdder();
+    private final LongAdder              connections = new LongAdder();
+    private final LongAdder              dropped     = new LongAdder();
+    private final MpscArrayQueue<String> bans        = new MpscArrayQueue<>(BAN_CAPACITY);
+
+    private volatile boolean active;
+    private volatile int     second;
+    private          long    activeSince;
+    private          int     calmSeconds;
+
+    /**
+     * Starts the evaluation of the rates, which runs once per second.
+     */
+    public void start() {
+        FoliaScheduler.getAsyncScheduler().runAtFixedRate(Sierra.getPlugin(), o -> evaluate(), 20, 20);
+    }
+
+    /**
+     * Checks whether the attack mode is active.
+     *
+     * @return true if the server is under attack
+     */
+    public boolean isActive() {
+        return active;
+    }
+
+    /**
+     * Counts a connection with a detection, unless it was already counted in the current second. Must be called on
+     * the netty thread of the connection.
+     *
+     * @param playerData The PlayerData of the connection
+     */
+    public void recordOffender(PlayerData playerData) {
+        int current = second;
+        if (playerData.getAttackModeSecond() == current) return;
+        playerData.setAttackModeSecond(current);
+        offenders.increment();
+    }
+
+    /**
+     * Counts a new connection.
+     */
+    public void recordConnection() {
+        connections.increment();
+    }
+
+    /**
+     * Counts a detection that was dropped without alerting it.
+     */
+    public void recordDropped() {
+        dropped.increment();
+    }
+
+    /**
+     * Queues a ban command, which is dispatched with the next batch. If the queue is full, the command is dispatched
+     * on its own.
+     *
+     * @param command The ban command, without a leading slash
+     */
+    public void queueBan(String command) {
+        if (bans.offer(command)) return;
+        FoliaScheduler.getGlobalRegionScheduler().run(
+            Sierra.getPlugin(), o -> Bukkit.dispatchCommand(Bukkit.getConsoleSender(), command));
+    }
+
+    /**
+     * Dispatches all queued ban commands on the calling thread. Only used when the plugin is disabled, as the
+     * scheduler does not run tasks anymore then.
+     */
+    public void shutdown() {
+        bans.drain(command -> Bukkit.dispatchCommand(Bukkit.getConsoleSender(), command), BAN_CAPACITY);
+    }
+
+    private void evaluate() {
+        SierraSettings settings       = Sierra.getPlugin().getSierraConfigEngine().settings();
+        long           offenderRate   = offenders.sumThenReset();
+        long           connectionRate = connections.sumThenReset();
+        second++;
+
+        boolean exceeded = settings.isAttackModeEnabled()
+                           && (offenderRate >= settings.getAttackModeOffenderRate()
+                               || connectionRate >= settings.getAttackModeConnectionRate());
+
+        if (!active) {
+            if (exceeded) activate(offenderRate, connectionRate);
+        } else if (exceeded) {
+            calmSeconds = 0;
+        } else if (++calmSeconds >= settings.getAttackModeCooldown() || !settings.isAttackModeEnabled()) {
+            deactivate();
+        }
+
+        dispatchBans();
+    }
+
+    private void activate(long offenderRate, long connectionRate) {
+        active = true;
+        activeSince = System.currentTimeMillis();
+        calmSeconds = 0;
+        Sierra.getPlugin().getLogger().warning(String.format(
+            "Entering attack mode: %d offenders/s, %d connections/s", offenderRate, connectionRate));
+    }
+
+    private void deactivate() {
+        active = false;
+        Sierra.getPlugin().getLogger().info(String.format(
+            "Leaving attack mode after %ds, %d detections were not alerted",
+            (System.currentTimeMillis() - activeSince) / 1000, dropped.sumThenReset()
+        ));
+    }
+
+    private void dispatchBans() {
+        if (bans.size() == 0) return;
+
+        List<String> batch = new ArrayList<>(bans.size());
+        bans.drain(batch::add, BAN_CAPACITY);
+
+        Logger logger = Sierra.getPlugin().getLogger();
+        FoliaScheduler.getGlobalRegionScheduler().run(Sierra.getPlugin(), o -> {
+            for (String command : batch) {
+                Bukkit.dispatchCommand(Bukkit.getConsoleSender(), command);
+            }
+            if (batch.size() > 1) logger.info("Dispatched " + batch.size() + " queued bans");
+        });
+    }
+}
@@ -28,16 +28,22 @@ public class SierraConfigEngine {
      */
     private static final Map<String, YamlConfiguration> cache = new ConcurrentHashMap<>();
 
+    /**
+     * The compiled snapshot of the sierra.yml file. It is replaced as a whole on reload, so readers always see a
+     * consistent set of values.
+     */
+    private volatile SierraSettings settings;
+
     /**
      * The SierraConfigEngine function is a constructor for the SierraConfigEngine class.
      * It loads the main configuration file and messages file into memory, so that they can be accessed by other
      * functions.
      */
     public SierraConfigEngine() {
-        //noinspection unused
         YamlConfiguration mainConfig = config();
         //noinspection unused
         YamlConfiguration messages   = messages();
+        this.settings = SierraSettings.compile(mainConfig);
     }
 
     /**
@@ -51,6 +57,16 @@ public class SierraConfigEngine {
         return getFileFromCache("sierra.yml");
     }
 
+    /**
+     * The settings method retrieves the compiled snapshot of the sierra.yml file.
+     * Prefer this over {@link #config()} on hot paths, as it does not touch the YAML tree.
+     *
+     * @return The current SierraSettings snapshot
+     */
+    public SierraSettings settings() {
+        return settings;
+    }
+
     /**
      * The messages method retrieves the "messages.yml" file from the cache.
      * If the file is not already in the cache, it will be loaded and added to the cache.
@@ -124,9 +140,11 @@ public class SierraConfigEngine {
     }
 
     /**
-     * The invalidateCache function clears the cache of all entries.
+     * The invalidateCache function clears the cache of all entries and compiles a new settings snapshot from the
+     * reloaded sierra.yml file.
      */
     public void invalidateCache() {
         cache.clear();
+        this.settings = SierraSettings.compile(config());
     }
 }
@@ -0,0 +1,405 @@
+package de.feelix.sierra.manager.config;
+
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import de.feelix.sierra.Sierra;
+import de.feelix.sierra.check.violation.ViolationDecay;
+import de.feelix.sierraapi.check.CheckType;
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * The SierraSettings class is an immutable, typed snapshot of the sierra.yml file.
+ * <p>
+ * A snapshot is compiled once when the plugin starts and again on every reload, and then published as a whole by
+ * the {@link SierraConfigEngine}. Checks running on the netty threads read plain fields from the snapshot instead of
+ * walking the YAML tree for every packet. The packet frequency limits are parsed into tables indexed by the ordinal
+ * of the client packet type, so looking up a limit is a single array access.
+ */
+@Getter
+public final class SierraSettings {
+
+    private static final PacketType.Play.Client[] CLIENT_TYPES    = PacketType.Play.Client.values();
+    private static final ClientVersion[]          CLIENT_VERSIONS = ClientVersion.values();
+    private static final CheckType[]              CHECK_TYPES     = CheckType.values();
+
+    private static final List<String> DEFAULT_FREQUENCY_WINDOWS = Arrays.asList("50:10", "1000:1", "10000:1");
+
+    private final boolean      preventPacketFrequency;
+    private final boolean      preventTimerCheats;
+    private final boolean      preventProtocolPacket;
+    private final boolean      preventProtocolMove;
+    private final boolean      preventPostPackets;
+    private final boolean      preventCreativeCrasher;
+    private final boolean      preventBookCrasher;
+    private final boolean      disableBooksCompletely;
+    private final boolean      skipBookReadableCheck;
+    private final boolean      genericNbtLimit;
+    private final int          nbtMaxDepth;
+    private final int          nbtMaxNodes;
+    private final int          nbtMaxSize;
+    private final boolean      useVanillaAttributeMapping;
+    private final boolean      skipNegativeExperienceCheck;
+    private final boolean      allowNegativeEnchantments;
+    private final int          maxEnchantmentLevel;
+    private final boolean      blockDisallowedCommands;
+    private final List<String> disallowedCommands;
+    private final boolean      enableBypassPermission;
+    private final boolean      logViolationToConsole;
+    private final long         alertSummaryWindow;
+    private final long         consoleSummaryWindow;
+    private final boolean      blockConnectionsAfterBan;
+    private final int          genericPacketSizeLimit;
+    private final int          maxPacketSizeLimit;
+    private final boolean      preDecompressionGuard;
+    private final int          maxCompressionRatio;
+    private final int          slowPacketThreshold;
+    private final boolean      metricsEndpointEnabled;
+    private final int          metricsEndpointPort;
+    private final boolean      attackModeEnabled;
+    private final int          attackModeOffenderRate;
+    private final int          attackModeConnectionRate;
+    private final int          attackModeCooldown;
+    private final double       attackModeFrequencyFactor;
+    private final long         historySegmentSize;
+    private final int          historyMaxSegments;
+    private final int          historyMemoryEntries;
+    private final int          genericPacketFrequencyDefault;
+    private final int          frequencyWindowCount;
+
+    @Getter(AccessLevel.NONE)
+    private final int[] frequencyLimits;
+
+    @Getter(AccessLevel.NONE)
+    private final boolean[] excludedFromLimit;
+
+    @Getter(AccessLevel.NONE)
+    private final int[] packetSizeLimits;
+
+    @Getter(AccessLevel.NONE)
+    private final ViolationDecay[] violationDecays;
+
+    @Getter(AccessLevel.NONE)
+    private final int[] byteRatesSustained;
+
+    @Getter(AccessLevel.NONE)
+    private final int[] byteRatesBurst;
+
+    @Getter(AccessLevel.NONE)
+    private final long[] frequencyWindowDurations;
+
+    @Getter(AccessLevel.NONE)
+    private final double[] frequencyWindowMultipliers;
+
+    private SierraSettings(YamlConfiguration config) {
+        this.preventPacketFrequency = config.getBoolean("prevent-packet-frequency", true);
+        this.preventTimerCheats = config.getBoolean("prevent-timer-cheats", true);
+        this.preventProtocolPacket = config.getBoolean("prevent-protocol-packet", true);
+        this.preventProtocolMove = config.getBoolean("prevent-protocol-move", true);
+        this.preventPostPackets = config.getBoolean("prevent-post-packets", true);
+        this.preventCreativeCrasher = config.getBoolean("prevent-creative-crasher", true);
+        this.preventBookCrasher = config.getBoolean("prevent-book-crasher", true);
+        this.disableBooksCompletely = config.getBoolean("disable-books-completely", false);
+        this.skipBookReadableCheck = config.getBoolean("skip-book-readable-check", false);
+        this.genericNbtLimit = config.getBoolean("generic-nbt-limit", true);
+        this.nbtMaxDepth = config.getInt("nbt-max-depth", 64);
+        this.nbtMaxNodes = config.getInt("nbt-max-nodes", 16384);
+        this.nbtMaxSize = config.getInt("nbt-max-size", 262144);
+        this.useVanillaAttributeMapping = config.getBoolean("use-vanilla-attribute-mapping", true);
+        this.skipNegativeExperienceCheck = config.getBoolean("skip-negative-experience-check", false);
+        this.allowNegativeEnchantments = config.getBoolean("allow-negative-enchantments", false);
+        this.maxEnchantmentLevel = config.getInt("max-enchantment-level", 5);
+        this.blockDisallowedCommands = config.getBoolean("block-disallowed-commands", true);
+        this.disallowedCommands = Collections.unmodifiableList(
+            new ArrayList<>(config.getStringList("disallowed-commands")));
+        this.enableBypassPermission = config.getBoolean("enable-bypass-permission", false);
+        this.logViolationToConsole = config.getBoolean("log-violation-to-console", true);
+        this.alertSummaryWindow = Math.max(0, config.getLong("alert-summary-window", 1000));
+        this.consoleSummaryWindow = Math.max(0, config.getLong("console-summary-window", 1000));
+        this.blockConnectionsAfterBan = config.getBoolean("block-connections-after-ban", true);
+        this.genericPacketSizeLimit = config.getInt("generic-packet-size-limit", 6000);
+        this.preDecompressionGuard = config.getBoolean("pre-decompression-guard", true);
+        this.maxCompressionRatio = config.getInt("max-compression-ratio", 256);
+        this.packetSizeLimits = new int[CLIENT_TYPES.length];
+        this.maxPacketSizeLimit = compilePacketSizeLimits(config);
+        this.byteRatesSustained = new int[CLIENT_VERSIONS.length];
+        this.byteRatesBurst = new int[CLIENT_VERSIONS.length];
+        compileByteRates(config);
+        this.violationDecays = new ViolationDecay[CHECK_TYPES.length + 1];
+        compileViolationDecays(config);
+        this.slowPacketThreshold = config.getInt("slow-packet-threshold", 20);
+        this.metricsEndpointEnabled = config.getBoolean("metrics-endpoint-enabled", false);
+        this.metricsEndpointPort = config.getInt("metrics-endpoint-port", 9465);
+        this.historySegmentSize = Math.min(1 << 20, Math.max(16, config.getInt("history-segment-size", 1024))) * 1024L;
+        this.historyMaxSegments = Math.max(1, config.getInt("history-max-segments", 16));
+        this.historyMemoryEntries = Math.max(1, config.getInt("history-memory-entries", 500));
+        this.attackModeEnabled = config.getBoolean("attack-mode-enabled", true);
+        this.attackModeOffenderRate = config.getInt("attack-mode-offenders-per-second", 10);
+        this.attackModeConnectionRate = config.getInt("attack-mode-connections-per-second", 30);
+        this.attackModeCooldown = Math.max(1, config.getInt("attack-mode-cooldown", 15));
+        this.attackModeFrequencyFactor = Math.min(1, Math.max(0, config.getDouble("attack-mode-frequency-factor", 0.5)));
+        this.genericPacketFrequencyDefault = config.getInt("generic-packet-frequency-default", 50);
+
+        this.frequencyLimits = new int[CLIENT_TYPES.length];
+        this.excludedFromLimit = new boolean[CLIENT_TYPES.length];
+        compileFrequencyTables(config);
+
+        List<String> windows = config.getStringList("packet-frequency-windows");
+        if (windows.isEmpty()) windows = DEFAULT_FREQUENCY_WINDOWS;
+        int capacity = Math.max(windows.size(), DEFAULT_FREQUENCY_WINDOWS.size());
+        this.frequencyWindowDurations = new long[capacity];
+        this.frequencyWindowMultipliers = new double[capacity];
+        int compiled = compileFrequencyWindows(windows);
+        if (compiled == 0) {
+            compiled = compileFrequencyWindows(DEFAULT_FREQUENCY_WINDOWS);
+        }
+        this.frequencyWindowCount = compiled;
+    }
+
+    /**
+     * Compiles a new settings snapshot from the given configuration.
+     *
+     * @param config The sierra.yml configuration
+     * @return The compiled settings
+     */
+    public static SierraSettings compile(YamlConfiguration config) {
+        return new SierraSettings(config);
+    }
+
+    /**
+     * Retrieves the packets per second limit for the given packet type.
+     *
+     * @param packetType The packet type
+     * @return The configured limit, or the generic default if the packet type has no own limit
+     */
+    public int frequencyLimit(PacketTypeCommon packetType) {
+        return packetType instanceof PacketType.Play.Client
+            ? frequencyLimits[((PacketType.Play.Client) packetType).ordinal()]
+            : genericPacketFrequencyDefault;
+    }
+
+    /**
+     * Retrieves the packet limit of the given packet type for one of the frequency windows. The per second limit is
+     * scaled to the length of the window and multiplied by the configured multiplier of the window.
+     *
+     * @param packetType The packet type, or {@code null} for the generic default
+     * @param window     The index of the window, below {@link #getFrequencyWindowCount()}
+     * @return The maximum amount of packets allowed within the window, at least {@code 1}
+     */
+    public int frequencyLimit(PacketTypeCommon packetType, int window) {
+        int perSecond = packetType == null ? genericPacketFrequencyDefault : frequencyLimit(packetType);
+        double limit = perSecond * frequencyWindowDurations[window] / 1000.0 * frequencyWindowMultipliers[window];
+        return Math.max(1, (int) Math.ceil(limit));
+    }
+
+    /**
+     * Retrieves the size limit for the given packet type.
+     *
+     * @param packetType The packet type
+     * @return The configured limit in bytes, the generic limit if the packet type has no own limit, or {@code -1} if
+     * the packet type is not limited
+     */
+    public int packetSizeLimit(PacketTypeCommon packetType) {
+        return packetType instanceof PacketType.Play.Client
+            ? packetSizeLimits[((PacketType.Play.Client) packetType).ordinal()]
+            : genericPacketSizeLimit;
+    }
+
+    /**
+     * Retrieves the decay of the violation level of the given check type.
+     *
+     * @param checkType The check type, or {@code null} for the default decay
+     * @return The configured decay of the check type, or the default decay if it has no own decay
+     */
+    public ViolationDecay violationDecay(CheckType checkType) {
+        return violationDecays[checkType == null ? CHECK_TYPES.length : checkType.ordinal()];
+    }
+
+    /**
+     * Retrieves the amount of bytes per second a client of the given version may send in the long run.
+     *
+     * @param version The client version
+     * @return The sustained byte rate
+     */
+    public int byteRateSustained(ClientVersion version) {
+        return byteRatesSustained[version.ordinal()];
+    }
+
+    /**
+     * Retrieves the amount of bytes a client of the given version may send at once, after it was idle.
+     *
+     * @param version The client version
+     * @return The burst byte rate
+     */
+    public int byteRateBurst(ClientVersion version) {
+        return byteRatesBurst[version.ordinal()];
+    }
+
+    /**
+     * Retrieves the length of one of the frequency windows.
+     *
+     * @param window The index of the window, below {@link #getFrequencyWindowCount()}
+     * @return The length of the window in milliseconds
+     */
+    public long frequencyWindowDuration(int window) {
+        return frequencyWindowDurations[window];
+    }
+
+    /**
+     * Checks if the given packet type is excluded from the frequency limit.
+     *
+     * @param packetType The packet type
+     * @return {@code true} if the packet type is excluded, {@code false} otherwise
+     */
+    public boolean isExcludedFromLimit(PacketTypeCommon packetType) {
+        return packetType instanceof PacketType.Play.Client
+               && excludedFromLimit[((PacketType.Play.Client) packetType).ordinal()];
+    }
+
+    /**
+     * Compiles the size limits per packet type.
+     *
+     * @return The largest size limit of all packet types, or {@code -1} if any packet type is not limited
+     */
+    private int compilePacketSizeLimits(YamlConfiguration config) {
+        Map<String, PacketType.Play.Client> byName = new HashMap<>();
+        for (PacketType.Play.Client type : CLIENT_TYPES) {
+            byName.put(type.getName(), type);
+        }
+
+        Arrays.fill(packetSizeLimits, genericPacketSizeLimit);
+
+        Logger logger = Sierra.getPlugin().getLogger();
+        for (String entry : config.getStringList("packet-size-limits")) {
+            String[] parts = entry.split(":");
+            PacketType.Play.Client type = byName.get(parts[0]);
+            if (type == null || parts.length != 2) {
+                logger.warning("Ignoring invalid packet size limit: " + entry);
+                continue;
+            }
+            try {
+                packetSizeLimits[type.ordinal()] = Integer.parseInt(parts[1].trim());
+            } catch (NumberFormatException exception) {
+                logger.warning("Ignoring invalid packet size limit: " + entry);
+            }
+        }
+
+        int max = genericPacketSizeLimit;
+        for (int limit : packetSizeLimits) {
+            if (max == -1 || limit == -1) return -1;
+            max = Math.max(max, limit);
+        }
+        return max;
+    }
+
+    private void compileViolationDecays(YamlConfiguration config) {
+        long   delay  = config.getLong("violation-decay-delay", 4000);
+        Logger logger = Sierra.getPlugin().getLogger();
+
+        ViolationDecay fallback = new ViolationDecay(ViolationDecay.Profile.LINEAR, 20, delay);
+        String         text     = config.getString("violation-decay", "LINEAR:20");
+        try {
+            fallback = ViolationDecay.parse(text, delay);
+        } catch (IllegalArgumentException exception) {
+            logger.warning("Ignoring invalid violation decay: " + text);
+        }
+        Arrays.fill(violationDecays, fallback);
+
+        for (String entry : config.getStringList("violation-decay-checks")) {
+            int separator = entry.indexOf(':');
+            try {
+                CheckType type = CheckType.valueOf(entry.substring(0, Math.max(0, separator)).trim());
+                violationDecays[type.ordinal()] = ViolationDecay.parse(entry.substring(separator + 1), delay);
+            } catch (IllegalArgumentException exception) {
+                logger.warning("Ignoring invalid violation decay: " + entry);
+            }
+        }
+    }
+
+    private void compileByteRates(YamlConfiguration config) {
+        Arrays.fill(byteRatesSustained, config.getInt("byte-rate-sustained", 64000));
+        Arrays.fill(byteRatesBurst, config.getInt("byte-rate-burst", 64000));
+
+        Map<String, ClientVersion> byRelease = new HashMap<>();
+        for (ClientVersion version : CLIENT_VERSIONS) {
+            byRelease.put(version.getReleaseName(), version);
+        }
+
+        Logger logger = Sierra.getPlugin().getLogger();
+        for (String entry : config.getStringList("byte-rate-versions")) {
+            String[] parts = entry.split(":");
+            ClientVersion version = byRelease.get(parts[0].trim());
+            if (version == null || parts.length != 3) {
+                logger.warning("Ignoring invalid byte rate: " + entry);
+                continue;
+            }
+            try {
+                byteRatesSustained[version.ordinal()] = Integer.parseInt(parts[1].trim());
+                byteRatesBurst[version.ordinal()] = Integer.parseInt(parts[2].trim());
+            } catch (NumberFormatException exception) {
+                logger.warning("Ignoring invalid byte rate: " + entry);
+            }
+        }
+    }
+
+    private void compileFrequencyTables(YamlConfiguration config) {
+        Map<String, PacketType.Play.Client> byName = new HashMap<>();
+        for (PacketType.Play.Client type : CLIENT_TYPES) {
+            byName.put(type.getName(), type);
+        }
+
+        Arrays.fill(frequencyLimits, genericPacketFrequencyDefault);
+
+        Logger logger = Sierra.getPlugin().getLogger();
+        for (String entry : config.getStringList("generic-packet-frequency-limit")) {
+            String[] parts = entry.split(":");
+            PacketType.Play.Client type = byName.get(parts[0]);
+            if (type == null || parts.length != 2) {
+                logger.warning("Ignoring invalid packet frequency limit: " + entry);
+                continue;
+            }
+            try {
+                frequencyLimits[type.ordinal()] = Integer.parseInt(parts[1].trim());
+            } catch (NumberFormatException exception) {
+                logger.warning("Ignoring invalid packet frequency limit: " + entry);
+            }
+        }
+
+        for (String name : config.getStringList("excluded-packets-from-limit")) {
+            PacketType.Play.Client type = byName.get(name);
+            if (type != null) {
+                excludedFromLimit[type.ordinal()] = true;
+            }
+        }
+    }
+
+    private int compileFrequencyWindows(List<String> windows) {
+        int count = 0;
+        for (String entry : windows) {
+            String[] parts = entry.split(":");
+            try {
+                long   duration   = Long.parseLong(parts[0].trim());
+                double multiplier = parts.length > 1 ? Double.parseDouble(parts[1].trim()) : 1.0;
+                if (duration <= 0 || multiplier <= 0) {
+                    throw new NumberFormatException();
+                }
+                frequencyWindowDurations[count] = duration;
+                frequencyWindowMultipliers[count] = multiplier;
+                count++;
+            } catch (NumberFormatException exception) {
+                Sierra.getPlugin().getLogger().warning("Ignoring invalid packet frequency window: " + entry);
+            }
+        }
+        return count;
+    }
+}
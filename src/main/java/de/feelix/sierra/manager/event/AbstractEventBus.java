@@ -1,22 +1,46 @@
 package de.feelix.sierra.manager.event;
 
+import de.feelix.sierra.Sierra;
 import de.feelix.sierraapi.events.api.SierraAbstractEvent;
 import de.feelix.sierraapi.events.EventSubscriber;
 import de.feelix.sierraapi.events.priority.ListenerPriority;
 import de.feelix.sierraapi.events.EventBus;
+import io.github.retrooper.packetevents.util.folia.FoliaScheduler;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Consumer;
 
 /**
  * Represents an event bus that allows events to be published and subscribed to.
+ * <p>
+ * The subscribers of every event type are kept in an array that is sorted by priority when a subscriber is added and
+ * replaced instead of modified, so events are published without locking or sorting. The subscribers an event class is
+ * dispatched to, including the subscribers of its supertypes, are merged once and cached until the next subscription.
+ * <p>
+ * Batched subscriptions are delivered by a single async task, which runs once per tick while the plugin is enabled.
  */
 public class AbstractEventBus implements EventBus {
 
+    private static final EventSubscriber<?>[] NO_SUBSCRIBERS = new EventSubscriber<?>[0];
+    private static final Comparator<EventSubscriber<?>> BY_PRIORITY =
+        Comparator.comparingInt(EventSubscriber::getPriority);
+
+    /**
+     * Represents a map that holds the sorted event subscribers for each event type.
+     */
+    private final Map<Class<?>, EventSubscriber<?>[]> subscribers = new ConcurrentHashMap<>();
+
+    /**
+     * Represents a map that holds the subscribers an event class is dispatched to, including those of its supertypes.
+     */
+    private final Map<Class<?>, EventSubscriber<?>[]> dispatchCache = new ConcurrentHashMap<>();
+
     /**
-     * Represents a map that holds a list of event subscribers for each event type.
+     * Represents the list of batched subscriptions, which are delivered by the delivery task.
      */
-    private final Map<Class<?>, List<EventSubscriber<?>>> subscribers = new HashMap<>();
+    private final List<BatchedSubscriber<?>> batchedSubscribers = new CopyOnWriteArrayList<>();
 
     /**
      * Subscribes a consumer to handle events of a specific type.
@@ -38,39 +62,134 @@ public class AbstractEventBus implements EventBus {
      * @param priority  the priority of the listener
      */
     public <T extends SierraAbstractEvent> void subscribe(Class<T> eventType, Consumer<T> event, ListenerPriority priority) {
-        subscribers.computeIfAbsent(eventType, k -> new ArrayList<>())
-            .add(new EventSubscriber<>(event, priority.getScore()));
+        if (eventType == null || event == null || priority == null) {
+            throw new IllegalArgumentException("Event type, consumer and priority must not be null");
+        }
+        addSubscriber(eventType, new EventSubscriber<>(event, priority.getScore()));
+    }
+
+    /**
+     * Subscribes a consumer to receive the events of a specific type in batches. The events are queued by a
+     * subscriber that runs after all other subscribers of the event.
+     *
+     * @param <T>       the type of event to subscribe to, must extend {@link SierraAbstractEvent}
+     * @param eventType the class object representing the type of event to subscribe to
+     * @param batch     the consumer of the batches
+     * @param interval  the time between two batches in milliseconds
+     */
+    public <T extends SierraAbstractEvent> void subscribeBatched(Class<T> eventType, Consumer<List<T>> batch,
+                                                                 long interval) {
+        if (eventType == null || batch == null) {
+            throw new IllegalArgumentException("Event type and consumer must not be null");
+        }
+        BatchedSubscriber<T> subscriber = new BatchedSubscriber<>(batch, Math.max(50, interval));
+        batchedSubscribers.add(subscriber);
+        addSubscriber(eventType, new EventSubscriber<T>(subscriber::offer, Integer.MAX_VALUE));
+    }
+
+    private synchronized void addSubscriber(Class<?> eventType, EventSubscriber<?> subscriber) {
+        EventSubscriber<?>[] current = subscribers.getOrDefault(eventType, NO_SUBSCRIBERS);
+
+        // Insert behind all subscribers of the same priority, so they are called in the order they subscribed
+        int index = current.length;
+        while (index > 0 && current[index - 1].getPriority() > subscriber.getPriority()) {
+            index--;
+        }
+
+        EventSubscriber<?>[] updated = new EventSubscriber<?>[current.length + 1];
+        System.arraycopy(current, 0, updated, 0, index);
+        updated[index] = subscriber;
+        System.arraycopy(current, index, updated, index + 1, current.length - index);
+
+        subscribers.put(eventType, updated);
+        dispatchCache.clear();
+    }
+
+    /**
+     * Starts the task that delivers the batched subscriptions.
+     */
+    public void start() {
+        FoliaScheduler.getAsyncScheduler().runAtFixedRate(Sierra.getPlugin(), o -> deliverBatches(false), 1, 1);
     }
 
     /**
-     * Publishes an event to all the subscribers that are subscribed to the event type.
+     * Delivers the events of all batched subscriptions that are still queued. Only used when the plugin is disabled.
+     */
+    public void flush() {
+        deliverBatches(true);
+    }
+
+    private void deliverBatches(boolean force) {
+        if (batchedSubscribers.isEmpty()) return;
+
+        long now = System.currentTimeMillis();
+        for (BatchedSubscriber<?> subscriber : batchedSubscribers) {
+            subscriber.deliver(now, force);
+        }
+    }
+
+    /**
+     * Publishes an event to all the subscribers that are subscribed to the event type or one of its supertypes.
      * If no subscribers are found for the given event type, the method returns without any further action.
      *
      * @param <T>   the type of event to be published, must extend AbstractEvent
      * @param event the event to be published
      */
+    @SuppressWarnings("unchecked")
     public <T extends SierraAbstractEvent> void publish(T event) {
-        List<EventSubscriber<?>> eventSubscribers = subscribers.get(event.getClass());
+        if (event == null) throw new IllegalArgumentException("Event must not be null");
 
-        if (eventSubscribers == null) return;
+        EventSubscriber<?>[] eventSubscribers = dispatchCache.get(event.getClass());
+        if (eventSubscribers == null) eventSubscribers = resolve(event.getClass());
 
-        dispatchEventToSubscribers(event, eventSubscribers);
+        for (EventSubscriber<?> eventSubscriber : eventSubscribers) {
+            ((EventSubscriber<T>) eventSubscriber).getConsumer().accept(event);
+        }
     }
 
     /**
-     * Dispatches an event to all the subscribers that are subscribed to the event type.
+     * Merges the subscribers of an event class and all of its supertypes into one sorted array and caches it.
+     */
+    private synchronized EventSubscriber<?>[] resolve(Class<?> eventClass) {
+        EventSubscriber<?>[] cached = dispatchCache.get(eventClass);
+        if (cached != null) return cached;
+
+        List<EventSubscriber<?>> merged = new ArrayList<>();
+        Set<Class<?>>            visited = new HashSet<>();
+        collect(eventClass, merged, visited);
+        merged.sort(BY_PRIORITY);
+
+        EventSubscriber<?>[] resolved = merged.isEmpty() ? NO_SUBSCRIBERS : merged.toArray(NO_SUBSCRIBERS);
+        dispatchCache.put(eventClass, resolved);
+        return resolved;
+    }
+
+    private void collect(Class<?> type, List<EventSubscriber<?>> merged, Set<Class<?>> visited) {
+        if (type == null || !visited.add(type)) return;
+
+        EventSubscriber<?>[] own = subscribers.get(type);
+        if (own != null) Collections.addAll(merged, own);
+
+        collect(type.getSuperclass(), merged, visited);
+        for (Class<?> anInterface : type.getInterfaces()) {
+            collect(anInterface, merged, visited);
+        }
+    }
+
+    /**
+     * Dispatches an event to the given subscribers, in the order of the list. The list is not sorted, since
+     * {@link #publish} does not build it anymore.
      *
      * @param <T>              the type of the event, must extend {@link SierraAbstractEvent}
      * @param event            the event to be dispatched
      * @param eventSubscribers the list of event subscribers to send the event to
+     * @deprecated use {@link #publish(SierraAbstractEvent)} instead
      */
+    @Deprecated
+    @SuppressWarnings("unchecked")
     public <T extends SierraAbstractEvent> void dispatchEventToSubscribers(T event,
                                                                            List<EventSubscriber<?>> eventSubscribers) {
-
-        eventSubscribers.sort(Comparator.comparingInt(EventSubscriber::getPriority));
-
         for (EventSubscriber<?> eventSubscriber : eventSubscribers) {
-
             ((EventSubscriber<T>) eventSubscriber).getConsumer().accept(event);
         }
     }
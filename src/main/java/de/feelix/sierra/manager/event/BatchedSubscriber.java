@@ -0,0 +1,70 @@
+package de.feelix.sierra.manager.event;
+
+import de.feelix.sierra.Sierra;
+import de.feelix.sierra.utilities.MpscArrayQueue;
+import de.feelix.sierraapi.events.api.SierraAbstractEvent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * The BatchedSubscriber class collects the events of a batched subscription until they are delivered.
+ * <p>
+ * Publishing threads only put the events into a bounded queue. The delivery task of the {@link AbstractEventBus}
+ * drains the queue once the interval of the subscription is over and hands the events to the consumer in one list. If
+ * the queue is full, events are dropped instead of blocking the publishing thread.
+ *
+ * @param <T> the type of the events
+ */
+final class BatchedSubscriber<T extends SierraAbstractEvent> {
+
+    private static final int CAPACITY = 4096;
+
+    private final MpscArrayQueue<T> queue   = new MpscArrayQueue<>(CAPACITY);
+    private final AtomicLong        dropped = new AtomicLong();
+    private final Consumer<List<T>> consumer;
+    private final long              interval;
+    private       long              nextDelivery;
+
+    BatchedSubscriber(Consumer<List<T>> consumer, long interval) {
+        this.consumer = consumer;
+        this.interval = interval;
+    }
+
+    /**
+     * Queues a published event for the next batch. Can be called from any thread and never blocks.
+     *
+     * @param event The event
+     */
+    void offer(T event) {
+        if (!queue.offer(event)) dropped.incrementAndGet();
+    }
+
+    /**
+     * Delivers the queued events if the interval is over.
+     *
+     * @param now   The current time in milliseconds
+     * @param force Whether to deliver regardless of the interval
+     */
+    synchronized void deliver(long now, boolean force) {
+        if (!force && now < nextDelivery) return;
+        nextDelivery = now + interval;
+        if (queue.size() == 0) return;
+
+        List<T> events = new ArrayList<>(queue.size());
+        queue.drain(events::add, CAPACITY);
+        try {
+            consumer.accept(Collections.unmodifiableList(events));
+        } catch (Exception exception) {
+            Sierra.getPlugin().getLogger().warning("Unable to deliver batched events: " + exception.getMessage());
+        }
+
+        long amount = dropped.getAndSet(0);
+        if (amount > 0) {
+            Sierra.getPlugin().getLogger().warning("Dropped " + amount + " batched events, the batch is full");
+        }
+    }
+}
@@ -4,7 +4,14 @@ import java.util.ArrayList;
 import java.util.List;
 import de.feelix.sierra.manager.init.impl.load.InitPacketEvents;
 import de.feelix.sierra.manager.init.impl.start.*;
+import de.feelix.sierra.manager.init.impl.stop.CloseHistoryStore;
 import de.feelix.sierra.manager.init.impl.stop.DisablePacketEvents;
+import de.feelix.sierra.manager.init.impl.stop.DispatchQueuedBans;
+import de.feelix.sierra.manager.init.impl.stop.DrainViolationDispatcher;
+import de.feelix.sierra.manager.init.impl.stop.FlushEventBatches;
+import de.feelix.sierra.manager.init.impl.stop.StopMetricsEndpoint;
+import de.feelix.sierra.manager.init.impl.stop.StopPacketRecorders;
+import de.feelix.sierra.manager.init.impl.stop.StopLogWriter;
 
 /**
  * The InitManager class represents a manager for initializing various components of the Sierra plugin.
@@ -58,15 +65,28 @@ public class InitManager {
         initializersOnLoad.add(new InitPacketEvents());
 
         // On start
+        initializersOnStart.add(new InitLogWriter());
+        initializersOnStart.add(new InitHistoryStore());
         initializersOnStart.add(new InitPacketListeners());
         initializersOnStart.add(new InitBStats());
+        initializersOnStart.add(new InitMetrics());
         initializersOnStart.add(new InitCommand());
         initializersOnStart.add(new Ticker());
+        initializersOnStart.add(new InitViolationDispatcher());
+        initializersOnStart.add(new InitEventBus());
+        initializersOnStart.add(new InitAttackMode());
         initializersOnStart.add(new InitEnvironment());
         initializersOnStart.add(new InitUpdateChecker());
 
         // On stop
+        initializersOnStop.add(new StopMetricsEndpoint());
+        initializersOnStop.add(new StopPacketRecorders());
+        initializersOnStop.add(new DrainViolationDispatcher());
+        initializersOnStop.add(new FlushEventBatches());
+        initializersOnStop.add(new DispatchQueuedBans());
+        initializersOnStop.add(new CloseHistoryStore());
         initializersOnStop.add(new DisablePacketEvents());
+        initializersOnStop.add(new StopLogWriter());
     }
 
     /**
@@ -0,0 +1,21 @@
+package de.feelix.sierra.manager.init.impl.start;
+
+import de.feelix.sierra.Sierra;
+import de.feelix.sierra.manager.init.Initable;
+
+/**
+ * The InitAttackMode class implements the Initable interface.
+ * It starts the evaluation of the detection and connection rates, which switches the attack mode on and off.
+ *
+ * @see Initable
+ */
+public class InitAttackMode implements Initable {
+
+    /**
+     * Starts the evaluation of the attack mode.
+     */
+    @Override
+    public void start() {
+        Sierra.getPlugin().getAttackMode().start();
+    }
+}
@@ -2,7 +2,7 @@ package de.feelix.sierra.manager.init.impl.start;
 
 import de.feelix.sierra.Sierra;
 import de.feelix.sierra.manager.init.Initable;
-import de.feelix.sierra.manager.storage.SierraDataManager;
+import de.feelix.sierra.manager.metrics.MetricsRegistry;
 import io.github.retrooper.packetevents.bstats.Metrics;
 
 /**
@@ -20,6 +20,13 @@ public class InitBStats implements Initable {
      */
     private static final int PLUGIN_ID = 21527;
 
+    /**
+     * The counters of the registry only grow, but the charts show the bans and kicks since the last submission, so
+     * the values of the last submission are kept.
+     */
+    private long lastBans;
+    private long lastKicks;
+
     /**
      * The start() method initializes the bStats metrics for the Sierra plugin.
      * It sets up metrics for bans, kicks, and active check types.
@@ -27,26 +34,29 @@ public class InitBStats implements Initable {
     @Override
     public void start() {
         Metrics metrics = new Metrics(Sierra.getPlugin(), PLUGIN_ID);
+        MetricsRegistry registry = Sierra.getPlugin().getMetricsRegistry();
 
         metrics.addCustomChart(new Metrics.SingleLineChart(
             "bans",
             () -> {
-                int bans = SierraDataManager.BANS;
-                SierraDataManager.BANS = 0;
-                return bans;
+                long bans = registry.getBans().sum();
+                int reported = (int) (bans - lastBans);
+                lastBans = bans;
+                return reported;
             }
         ));
         metrics.addCustomChart(new Metrics.SingleLineChart(
             "kicks",
             () -> {
-                int kicks = SierraDataManager.KICKS;
-                SierraDataManager.KICKS = 0;
-                return kicks;
+                long kicks = registry.getKicks().sum();
+                int reported = (int) (kicks - lastKicks);
+                lastKicks = kicks;
+                return reported;
             }
         ));
         metrics.addCustomChart(new Metrics.AdvancedPie(
             "active_check_types",
-            () -> SierraDataManager.violationCount
+            registry::punishmentsPerCheck
         ));
     }
 }
@@ -2,10 +2,12 @@ package de.feelix.sierra.manager.init.impl.start;
 
 import de.feelix.sierra.Sierra;
 import de.feelix.sierra.listener.bukkit.BlockRedstoneListener;
+import de.feelix.sierra.listener.bukkit.PlayerStateListener;
 import de.feelix.sierra.manager.config.PunishmentConfig;
 import de.feelix.sierra.manager.init.Initable;
 import de.feelix.sierra.utilities.message.ConfigValue;
 import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
 
 /**
  * The InitEnvironment class implements the Initable interface and represents the initialization of the environment for the Sierra plugin.
@@ -23,13 +25,18 @@ public class InitEnvironment implements Initable {
 
     /**
      * The start method initializes various components of the Sierra plugin and registers event listeners.
-     * It sets the punishment configuration and registers the block redstone listener if the corresponding configuration option is enabled.
+     * It sets the punishment configuration, registers the player state listener for all players and registers the block redstone listener if the corresponding configuration option is enabled.
      */
     @Override
     public void start() {
         Sierra.getPlugin().setPunishmentConfig(PunishmentConfig.valueOf(
             new ConfigValue("internal-punishment-config", "HARD", false).message()));
 
+        Bukkit.getPluginManager().registerEvents(new PlayerStateListener(), Sierra.getPlugin());
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            PlayerStateListener.attach(player);
+        }
+
         if (Sierra.getPlugin().getSierraConfigEngine().config().getBoolean("block-redstone-loops", true)) {
             Bukkit.getPluginManager().registerEvents(new BlockRedstoneListener(), Sierra.getPlugin());
         }
@@ -0,0 +1,21 @@
+package de.feelix.sierra.manager.init.impl.start;
+
+import de.feelix.sierra.Sierra;
+import de.feelix.sierra.manager.init.Initable;
+
+/**
+ * The InitEventBus class implements the Initable interface.
+ * It starts the task that delivers the batched event subscriptions.
+ *
+ * @see Initable
+ */
+public class InitEventBus implements Initable {
+
+    /**
+     * Starts the delivery task of the event bus.
+     */
+    @Override
+    public void start() {
+        Sierra.getPlugin().getEventBus().start();
+    }
+}
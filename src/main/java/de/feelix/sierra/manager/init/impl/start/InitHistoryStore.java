@@ -0,0 +1,22 @@
+package de.feelix.sierra.manager.init.impl.start;
+
+import de.feelix.sierra.Sierra;
+import de.feelix.sierra.manager.init.Initable;
+
+/**
+ * The InitHistoryStore class implements the Initable interface.
+ * It opens the history log and indexes the entries of previous runs.
+ *
+ * @see Initable
+ */
+public class InitHistoryStore implements Initable {
+
+    /**
+     * Opens the history store.
+     */
+    @Override
+    public void start() {
+        Sierra.getPlugin().getSierraDataManager().getHistoryStore().open(
+            Sierra.getPlugin().getSierraConfigEngine().settings());
+    }
+}
@@ -0,0 +1,21 @@
+package de.feelix.sierra.manager.init.impl.start;
+
+import de.feelix.sierra.Sierra;
+import de.feelix.sierra.manager.init.Initable;
+
+/**
+ * The InitLogWriter class implements the Initable interface.
+ * It starts the background thread that writes the player logs.
+ *
+ * @see Initable
+ */
+public class InitLogWriter implements Initable {
+
+    /**
+     * Starts the thread of the log writer.
+     */
+    @Override
+    public void start() {
+        Sierra.getPlugin().getSierraLogWriter().start();
+    }
+}
@@ -0,0 +1,43 @@
+package de.feelix.sierra.manager.init.impl.start;
+
+import de.feelix.sierra.Sierra;
+import de.feelix.sierra.manager.config.SierraSettings;
+import de.feelix.sierra.manager.init.Initable;
+import de.feelix.sierra.manager.metrics.MetricsRegistry;
+
+import java.io.IOException;
+
+/**
+ * The InitMetrics class implements the Initable interface.
+ * It registers the gauges of the metrics registry and starts the metrics endpoint, if it is enabled.
+ *
+ * @see Initable
+ */
+public class InitMetrics implements Initable {
+
+    /**
+     * Registers the gauges and check timings and starts the metrics endpoint.
+     */
+    @Override
+    public void start() {
+        Sierra          plugin   = Sierra.getPlugin();
+        MetricsRegistry registry = plugin.getMetricsRegistry();
+
+        registry.registerGauge(
+            "players", "Players tracked by Sierra", () -> plugin.getSierraDataManager().getPlayerData().size());
+        registry.registerGauge("tps", "Ticks per second of the server", () -> plugin.server().tps());
+        registry.registerGauge(
+            "attack_mode", "Whether Sierra is in attack mode", () -> plugin.getAttackMode().isActive() ? 1 : 0);
+        registry.registerCheckTimings(() -> plugin.server().checkTimings());
+
+        SierraSettings settings = plugin.getSierraConfigEngine().settings();
+        if (!settings.isMetricsEndpointEnabled()) return;
+
+        try {
+            plugin.getMetricsEndpoint().start(registry, settings.getMetricsEndpointPort());
+            plugin.getLogger().info("Serving metrics on 127.0.0.1:" + settings.getMetricsEndpointPort());
+        } catch (IOException exception) {
+            plugin.getLogger().warning("Unable to start the metrics endpoint: " + exception.getMessage());
+        }
+    }
+}
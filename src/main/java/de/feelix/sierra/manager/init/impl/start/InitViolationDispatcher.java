@@ -0,0 +1,21 @@
+package de.feelix.sierra.manager.init.impl.start;
+
+import de.feelix.sierra.Sierra;
+import de.feelix.sierra.manager.init.Initable;
+
+/**
+ * The InitViolationDispatcher class implements the Initable interface.
+ * It starts the consumer that processes the detections queued by the checks.
+ *
+ * @see Initable
+ */
+public class InitViolationDispatcher implements Initable {
+
+    /**
+     * Starts the consumer of the violation dispatcher.
+     */
+    @Override
+    public void start() {
+        Sierra.getPlugin().getViolationDispatcher().start();
+    }
+}
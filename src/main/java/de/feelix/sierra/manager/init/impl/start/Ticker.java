@@ -1,15 +1,12 @@
 package de.feelix.sierra.manager.init.impl.start;
 
-import com.github.retrooper.packetevents.protocol.player.GameMode;
 import de.feelix.sierra.Sierra;
 import de.feelix.sierra.manager.init.Initable;
 import de.feelix.sierra.manager.storage.SierraDataManager;
 import de.feelix.sierra.manager.storage.PlayerData;
-import de.feelix.sierraapi.check.impl.SierraCheck;
 import io.github.retrooper.packetevents.util.folia.FoliaScheduler;
+import lombok.AccessLevel;
 import lombok.Getter;
-import org.bukkit.Bukkit;
-import org.bukkit.entity.Player;
 
 @Getter
 public class Ticker implements Initable {
@@ -17,53 +14,43 @@ public class Ticker implements Initable {
     @Getter
     private static Ticker instance;
 
+    private static final int SHARDS = 20;
+
     private int currentTick;
+    @Getter(AccessLevel.NONE)
+    private int shardCounter;
 
     @Override
     public void start() {
         instance = this;
         scheduleTickTask();
-        scheduleByteResetTask();
-        schedulePlayerDataPollTask();
+        schedulePlayerDataTask();
     }
 
     private void scheduleTickTask() {
         FoliaScheduler.getAsyncScheduler().runAtFixedRate(Sierra.getPlugin(), o -> currentTick++, 1, 1);
     }
 
-    private void scheduleByteResetTask() {
+    /**
+     * Sends a transaction to every joined player on every tick. Refreshing the bypass permission only has to happen
+     * once per second, so the players are split into one shard per tick of a second and every tick only handles the
+     * players of its shard. The shard counter is only used by this task, so every shard is visited once per second
+     * regardless of the tick task. The rest of the player state is pushed by the
+     * {@link de.feelix.sierra.listener.bukkit.PlayerStateListener} and the packet processors, and violation levels
+     * decay on read.
+     */
+    private void schedulePlayerDataTask() {
         FoliaScheduler.getAsyncScheduler().runAtFixedRate(Sierra.getPlugin(), o -> {
+            int shard = shardCounter;
+            shardCounter = (shardCounter + 1) % SHARDS;
             for (PlayerData value : SierraDataManager.getInstance().getPlayerData().values()) {
-                value.setBytesSent(0);
-            }
-        }, 0, 20);
-    }
+                if (value.getBukkitPlayer() == null) continue;
 
-    private void schedulePlayerDataPollTask() {
-        FoliaScheduler.getAsyncScheduler().runAtFixedRate(Sierra.getPlugin(), o -> {
-            for (PlayerData value : SierraDataManager.getInstance().getPlayerData().values()) {
-                if (isUserValid(value)) {
-                    Player player = Bukkit.getPlayer(value.getUser().getName());
-                    if (player != null) {
-                        value.setGameMode(GameMode.valueOf(player.getGameMode().name()));
-                        value.pollData(player);
-                    }
+                value.sendTransaction();
+                if (Math.floorMod(System.identityHashCode(value), SHARDS) == shard) {
+                    value.refreshPermissions();
                 }
-                handleCheckViolations(value);
             }
         }, 0, 1);
     }
-
-    private boolean isUserValid(PlayerData playerData) {
-        return playerData.getUser() != null && playerData.getUser().getName() != null;
-    }
-
-    private void handleCheckViolations(PlayerData playerData) {
-        for (SierraCheck sierraCheck : playerData.getCheckManager().availableChecks()) {
-            boolean timeSinceLastDetection = System.currentTimeMillis() - sierraCheck.lastDetection() > 4000;
-            if (sierraCheck.violations() > 0 && timeSinceLastDetection) {
-                sierraCheck.setViolations(sierraCheck.violations() - 1);
-            }
-        }
-    }
 }
@@ -0,0 +1,21 @@
+package de.feelix.sierra.manager.init.impl.stop;
+
+import de.feelix.sierra.Sierra;
+import de.feelix.sierra.manager.init.Initable;
+
+/**
+ * The CloseHistoryStore class implements the Initable interface.
+ * It writes the history log to disk and closes its files when the plugin is disabled.
+ *
+ * @see Initable
+ */
+public class CloseHistoryStore implements Initable {
+
+    /**
+     * Closes the history store.
+     */
+    @Override
+    public void start() {
+        Sierra.getPlugin().getSierraDataManager().getHistoryStore().close();
+    }
+}
@@ -0,0 +1,21 @@
+package de.feelix.sierra.manager.init.impl.stop;
+
+import de.feelix.sierra.Sierra;
+import de.feelix.sierra.manager.init.Initable;
+
+/**
+ * The DispatchQueuedBans class implements the Initable interface.
+ * It dispatches the ban commands that were queued by the attack mode and not dispatched yet.
+ *
+ * @see Initable
+ */
+public class DispatchQueuedBans implements Initable {
+
+    /**
+     * Dispatches the queued ban commands.
+     */
+    @Override
+    public void start() {
+        Sierra.getPlugin().getAttackMode().shutdown();
+    }
+}
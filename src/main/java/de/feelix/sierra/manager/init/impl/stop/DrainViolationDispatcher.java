@@ -0,0 +1,21 @@
+package de.feelix.sierra.manager.init.impl.stop;
+
+import de.feelix.sierra.Sierra;
+import de.feelix.sierra.manager.init.Initable;
+
+/**
+ * The DrainViolationDispatcher class implements the Initable interface.
+ * It processes the detections and summaries that are still pending when the plugin is disabled.
+ *
+ * @see Initable
+ */
+public class DrainViolationDispatcher implements Initable {
+
+    /**
+     * Drains the queue of the violation dispatcher and emits the pending summaries.
+     */
+    @Override
+    public void start() {
+        Sierra.getPlugin().getViolationDispatcher().shutdown();
+    }
+}
@@ -0,0 +1,21 @@
+package de.feelix.sierra.manager.init.impl.stop;
+
+import de.feelix.sierra.Sierra;
+import de.feelix.sierra.manager.init.Initable;
+
+/**
+ * The FlushEventBatches class implements the Initable interface.
+ * It delivers the events that are still queued for batched subscriptions when the plugin is disabled.
+ *
+ * @see Initable
+ */
+public class FlushEventBatches implements Initable {
+
+    /**
+     * Delivers the remaining batches of the event bus.
+     */
+    @Override
+    public void start() {
+        Sierra.getPlugin().getEventBus().flush();
+    }
+}
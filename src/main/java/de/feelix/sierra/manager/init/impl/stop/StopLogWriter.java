@@ -0,0 +1,21 @@
+package de.feelix.sierra.manager.init.impl.stop;
+
+import de.feelix.sierra.Sierra;
+import de.feelix.sierra.manager.init.Initable;
+
+/**
+ * The StopLogWriter class implements the Initable interface.
+ * It writes the remaining player log lines and closes all log files when the plugin is disabled.
+ *
+ * @see Initable
+ */
+public class StopLogWriter implements Initable {
+
+    /**
+     * Stops the thread of the log writer.
+     */
+    @Override
+    public void start() {
+        Sierra.getPlugin().getSierraLogWriter().stop();
+    }
+}
@@ -0,0 +1,21 @@
+package de.feelix.sierra.manager.init.impl.stop;
+
+import de.feelix.sierra.Sierra;
+import de.feelix.sierra.manager.init.Initable;
+
+/**
+ * The StopMetricsEndpoint class implements the Initable interface.
+ * It stops serving the metrics when the plugin is disabled.
+ *
+ * @see Initable
+ */
+public class StopMetricsEndpoint implements Initable {
+
+    /**
+     * Stops the metrics endpoint.
+     */
+    @Override
+    public void start() {
+        Sierra.getPlugin().getMetricsEndpoint().stop();
+    }
+}
@@ -0,0 +1,26 @@
+package de.feelix.sierra.manager.init.impl.stop;
+
+import de.feelix.sierra.Sierra;
+import de.feelix.sierra.manager.init.Initable;
+import de.feelix.sierra.manager.replay.PacketRecorder;
+import de.feelix.sierra.manager.storage.PlayerData;
+
+/**
+ * The StopPacketRecorders class implements the Initable interface.
+ * It stops all running packet recordings when the plugin is disabled, so their files are complete.
+ *
+ * @see Initable
+ */
+public class StopPacketRecorders implements Initable {
+
+    /**
+     * Stops the packet recorders of all players.
+     */
+    @Override
+    public void start() {
+        for (PlayerData playerData : Sierra.getPlugin().getSierraDataManager().getPlayerData().values()) {
+            PacketRecorder recorder = playerData.getPacketRecorder();
+            if (recorder != null) recorder.stop();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package de.feelix.sierra.manager.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import de.feelix.sierra.Sierra;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The MetricsEndpoint class serves the {@link MetricsRegistry} in the OpenMetrics text format over HTTP, so the
+ * metrics can be scraped without a plugin bridge.
+ * <p>
+ * The endpoint is bound to the loopback address only and answers on a single daemon thread. It is disabled by
+ * default and is only started or stopped with the plugin.
+ */
+public class MetricsEndpoint {
+
+    private static final String PATH         = "/metrics";
+    private static final String CONTENT_TYPE = "application/openmetrics-text; version=1.0.0; charset=utf-8";
+
+    private HttpServer      server;
+    private ExecutorService executor;
+
+    /**
+     * Starts serving the metrics on the given port of the loopback address.
+     *
+     * @param registry The registry to serve
+     * @param port     The port to bind to
+     * @throws IOException if the port cannot be bound
+     */
+    public synchronized void start(MetricsRegistry registry, int port) throws IOException {
+        if (server != null) return;
+
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext(PATH, exchange -> handle(exchange, registry));
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Sierra Metrics Endpoint");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * Stops serving the metrics.
+     */
+    public synchronized void stop() {
+        if (server == null) return;
+
+        server.stop(0);
+        executor.shutdownNow();
+        server = null;
+        executor = null;
+    }
+
+    private void handle(HttpExchange exchange, MetricsRegistry registry) throws IOException {
+        try {
+            if (!"GET".equalsIgnoreCase(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+
+            byte[] body;
+            try {
+                body = registry.scrape().getBytes(StandardCharsets.UTF_8);
+            } catch (Exception exception) {
+                Sierra.getPlugin().getLogger().warning("Unable to scrape metrics: " + exception.getMessage());
+                exchange.sendResponseHeaders(500, -1);
+                return;
+            }
+
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package de.feelix.sierra.manager.metrics;
+
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
+import de.feelix.sierraapi.check.CheckType;
+import de.feelix.sierraapi.timing.TimingStatistics;
+import de.feelix.sierraapi.violation.MitigationStrategy;
+import lombok.Getter;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+/**
+ * The MetricsRegistry class counts what Sierra does, for bStats and for the {@link MetricsEndpoint}.
+ * <p>
+ * Counters are {@link LongAdder}s, which spread concurrent increments over several cells, so the netty threads of
+ * many players can count without contending on a single value. Counters that are keyed by a check, a mitigation or
+ * a packet type live in arrays indexed by the ordinal of their enum, so counting is an array access and an
+ * increment. Gauges are read from their source when the metrics are scraped.
+ */
+public class MetricsRegistry {
+
+    private static final CheckType[]              CHECK_TYPES  = CheckType.values();
+    private static final MitigationStrategy[]     STRATEGIES   = MitigationStrategy.values();
+    private static final PacketType.Play.Client[] CLIENT_TYPES = PacketType.Play.Client.values();
+    private static final PacketType.Play.Server[] SERVER_TYPES = PacketType.Play.Server.values();
+
+    @Getter
+    private final LongAdder kicks              = new LongAdder();
+    @Getter
+    private final LongAdder bans               = new LongAdder();
+    @Getter
+    private final LongAdder blockedConnections = new LongAdder();
+    @Getter
+    private final LongAdder rejectedFrames     = new LongAdder();
+
+    private final LongAdder[][] detections  = adders(CHECK_TYPES.length, STRATEGIES.length);
+    private final LongAdder[]   punishments = adders(CHECK_TYPES.length);
+
+    private final LongAdder[] ingoingPackets  = adders(CLIENT_TYPES.length);
+    private final LongAdder[] ingoingBytes    = adders(CLIENT_TYPES.length);
+    private final LongAdder[] outgoingPackets = adders(SERVER_TYPES.length);
+    private final LongAdder[] outgoingBytes   = adders(SERVER_TYPES.length);
+
+    private final Map<String, Gauge> gauges = new LinkedHashMap<>();
+
+    private volatile Supplier<Map<String, TimingStatistics>> checkTimings;
+
+    /**
+     * Counts a detection of a check.
+     *
+     * @param checkType          The type of the check, detections without one are not counted
+     * @param mitigationStrategy The mitigation of the detection
+     */
+    public void recordDetection(CheckType checkType, MitigationStrategy mitigationStrategy) {
+        if (checkType == null) return;
+        detections[checkType.ordinal()][mitigationStrategy.ordinal()].increment();
+    }
+
+    /**
+     * Counts a punishment caused by a check.
+     *
+     * @param checkType The type of the check
+     */
+    public void recordPunishment(CheckType checkType) {
+        if (checkType == null) return;
+        punishments[checkType.ordinal()].increment();
+    }
+
+    /**
+     * Counts a handled packet and its size.
+     *
+     * @param packetType The type of the packet
+     * @param bytes      The size of the packet in bytes
+     */
+    public void recordPacket(PacketTypeCommon packetType, int bytes) {
+        if (packetType instanceof PacketType.Play.Client) {
+            int ordinal = ((PacketType.Play.Client) packetType).ordinal();
+            ingoingPackets[ordinal].increment();
+            ingoingBytes[ordinal].add(bytes);
+        } else if (packetType instanceof PacketType.Play.Server) {
+            int ordinal = ((PacketType.Play.Server) packetType).ordinal();
+            outgoingPackets[ordinal].increment();
+            outgoingBytes[ordinal].add(bytes);
+        }
+    }
+
+    /**
+     * Registers a gauge, which is read every time the metrics are scraped.
+     *
+     * @param name  The name of the metric, without the {@code sierra_} prefix
+     * @param help  The description of the metric
+     * @param value The source of the value
+     */
+    public synchronized void registerGauge(String name, String help, DoubleSupplier value) {
+        gauges.put(name, new Gauge(help, value));
+    }
+
+    /**
+     * Sets the source of the check timings, which are exported as a summary per check.
+     *
+     * @param checkTimings The source of the timings
+     */
+    public void registerCheckTimings(Supplier<Map<String, TimingStatistics>> checkTimings) {
+        this.checkTimings = checkTimings;
+    }
+
+    /**
+     * Counts the punishments per check, keyed by the name of the check without spaces.
+     *
+     * @return The punishments per check, including checks without punishments
+     */
+    public Map<String, Integer> punishmentsPerCheck() {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (CheckType checkType : CHECK_TYPES) {
+            counts.put(checkType.getFriendlyName().replace(" ", ""), (int) punishments[checkType.ordinal()].sum());
+        }
+        return counts;
+    }
+
+    /**
+     * Writes all metrics in the OpenMetrics text format.
+     *
+     * @return The exposition of all metrics, terminated by {@code # EOF}
+     */
+    public synchronized String scrape() {
+        OpenMetricsWriter writer = new OpenMetricsWriter();
+
+        writer.family("sierra_kicks", "counter", "Players kicked by Sierra");
+        writer.sample("sierra_kicks_total", kicks.sum());
+        writer.family("sierra_bans", "counter", "Players banned by Sierra");
+        writer.sample("sierra_bans_total", bans.sum());
+        writer.family("sierra_blocked_connections", "counter", "Connections blocked after a ban");
+        writer.sample("sierra_blocked_connections_total", blockedConnections.sum());
+        writer.family("sierra_rejected_frames", "counter", "Frames rejected before they were inflated");
+        writer.sample("sierra_rejected_frames_total", rejectedFrames.sum());
+
+        writer.family("sierra_detections", "counter", "Detections per check and mitigation");
+        for (CheckType checkType : CHECK_TYPES) {
+            for (MitigationStrategy strategy : STRATEGIES) {
+                writer.sample(
+                    "sierra_detections_total", detections[checkType.ordinal()][strategy.ordinal()].sum(),
+                    "check", checkType.getFriendlyName(), "mitigation", strategy.name().toLowerCase(Locale.ROOT)
+                );
+            }
+        }
+
+        writer.family("sierra_punishments", "counter", "Punishments per check");
+        for (CheckType checkType : CHECK_TYPES) {
+            writer.sample(
+                "sierra_punishments_total", punishments[checkType.ordinal()].sum(),
+                "check", checkType.getFriendlyName()
+            );
+        }
+
+        writePackets(writer, "sierra_packets", "Handled packets per packet type", ingoingPackets, outgoingPackets);
+        writePackets(writer, "sierra_packet_bytes", "Bytes of the handled packets per packet type", ingoingBytes,
+                     outgoingBytes
+        );
+
+        for (Map.Entry<String, Gauge> gauge : gauges.entrySet()) {
+            String name = "sierra_" + gauge.getKey();
+            writer.family(name, "gauge", gauge.getValue().help);
+            writer.sample(name, gauge.getValue().value.getAsDouble());
+        }
+
+        if (checkTimings != null) {
+            writeCheckTimings(writer, checkTimings.get());
+        }
+        return writer.finish();
+    }
+
+    private void writePackets(OpenMetricsWriter writer, String name, String help, LongAdder[] ingoing,
+                              LongAdder[] outgoing) {
+        writer.family(name, "counter", help);
+        for (int i = 0; i < ingoing.length; i++) {
+            long sum = ingoing[i].sum();
+            if (sum > 0) writer.sample(name + "_total", sum, "direction", "in", "type", CLIENT_TYPES[i].getName());
+        }
+        for (int i = 0; i < outgoing.length; i++) {
+            long sum = outgoing[i].sum();
+            if (sum > 0) writer.sample(name + "_total", sum, "direction", "out", "type", SERVER_TYPES[i].getName());
+        }
+    }
+
+    private void writeCheckTimings(OpenMetricsWriter writer, Map<String, TimingStatistics> timings) {
+        String name = "sierra_check_duration_seconds";
+        writer.family(name, "summary", "Time spent in every check and packet processor");
+        for (Map.Entry<String, TimingStatistics> entry : timings.entrySet()) {
+            TimingStatistics statistics = entry.getValue();
+            String           check      = entry.getKey();
+            writer.sample(name, statistics.p50() / 1e3, "check", check, "quantile", "0.5");
+            writer.sample(name, statistics.p99() / 1e3, "check", check, "quantile", "0.99");
+            writer.sample(name + "_sum", statistics.total() / 1e3, "check", check);
+            writer.sample(name + "_count", statistics.count(), "check", check);
+        }
+    }
+
+    private static LongAdder[] adders(int length) {
+        LongAdder[] adders = new LongAdder[length];
+        for (int i = 0; i < length; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    private static LongAdder[][] adders(int rows, int columns) {
+        LongAdder[][] adders = new LongAdder[rows][];
+        for (int i = 0; i < rows; i++) {
+            adders[i] = adders(columns);
+        }
+        return adders;
+    }
+
+    private static final class Gauge {
+
+        private final String         help;
+        private final DoubleSupplier value;
+
+        private Gauge(String help, DoubleSupplier value) {
+            this.help = help;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package de.feelix.sierra.manager.metrics;
+
+/**
+ * The OpenMetricsWriter class builds an exposition in the OpenMetrics text format, one metric family after another.
+ */
+class OpenMetricsWriter {
+
+    private final StringBuilder builder = new StringBuilder(16384);
+
+    /**
+     * Starts a metric family.
+     *
+     * @param name The name of the family
+     * @param type The type of the family, e.g. {@code counter}
+     * @param help The description of the family
+     */
+    void family(String name, String type, String help) {
+        builder.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        builder.append("# HELP ").append(name).append(' ').append(help).append('\n');
+    }
+
+    /**
+     * Writes a sample of the current family.
+     *
+     * @param name   The name of the sample
+     * @param value  The value of the sample
+     * @param labels The names and values of the labels, alternating
+     */
+    void sample(String name, long value, String... labels) {
+        appendName(name, labels);
+        builder.append(value).append('\n');
+    }
+
+    /**
+     * Writes a sample of the current family.
+     *
+     * @param name   The name of the sample
+     * @param value  The value of the sample
+     * @param labels The names and values of the labels, alternating
+     */
+    void sample(String name, double value, String... labels) {
+        appendName(name, labels);
+        if (Double.isNaN(value)) {
+            builder.append("NaN");
+        } else if (Double.isInfinite(value)) {
+            builder.append(value > 0 ? "+Inf" : "-Inf");
+        } else {
+            builder.append(value);
+        }
+        builder.append('\n');
+    }
+
+    /**
+     * Terminates the exposition.
+     *
+     * @return The exposition
+     */
+    String finish() {
+        return builder.append("# EOF\n").toString();
+    }
+
+    private void appendName(String name, String[] labels) {
+        builder.append(name);
+        if (labels.length > 0) {
+            builder.append('{');
+            for (int i = 0; i + 1 < labels.length; i += 2) {
+                if (i > 0) builder.append(',');
+                builder.append(labels[i]).append("=\"");
+                escape(labels[i + 1]);
+                builder.append('"');
+            }
+            builder.append('}');
+        }
+        builder.append(' ');
+    }
+
+    private void escape(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char character = value.charAt(i);
+            if (character == '\\') {
+                builder.append("\\\\");
+            } else if (character == '"') {
+                builder.append("\\\"");
+            } else if (character == '\n') {
+                builder.append("\\n");
+            } else {
+                builder.append(character);
+            }
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package de.feelix.sierra.manager.packet;
+
+import com.github.retrooper.packetevents.protocol.ConnectionState;
+import com.github.retrooper.packetevents.protocol.PacketSide;
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.protocol.player.User;
+import de.feelix.sierra.Sierra;
+import de.feelix.sierra.manager.config.SierraSettings;
+import de.feelix.sierra.manager.storage.PlayerData;
+import de.feelix.sierra.manager.storage.SierraDataManager;
+import de.feelix.sierra.manager.storage.logger.LogTag;
+import de.feelix.sierraapi.violation.MitigationStrategy;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelPipeline;
+
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * The FrameSizeGuard class is a channel handler that checks every incoming frame before the server inflates it.
+ * <p>
+ * It sits between the frame splitter and the decompressor of the server. A compressed frame starts with the declared
+ * size of the inflated packet, so a frame is rejected if that size exceeds the size limit of its packet type or if it
+ * is too large compared to the compressed size. The ratio is only checked for packets that inflate to more than a few
+ * kilobytes, since small packets of repeated content can legitimately compress far better than any sane limit. The
+ * packet id of a compressed frame is read by inflating only its first bytes. Uncompressed frames are checked against
+ * their actual size. Like the checks of the packet listener, the size limits only apply in the play state, while the
+ * compression ratio is checked in every state. Rejected frames are released without being passed on, and the player
+ * is kicked.
+ * <p>
+ * The guard is added when the connection is opened, before compression is enabled. Depending on the server version,
+ * the decompressor is then added behind or in front of the guard. In the latter case, the guard moves itself in front
+ * of the decompressor on the first frame that passed it.
+ */
+public class FrameSizeGuard extends ChannelInboundHandlerAdapter {
+
+    private static final String NAME         = "sierra_frame_guard";
+    private static final String SPLITTER     = "splitter";
+    private static final String DECOMPRESSOR = "decompress";
+
+    private static final int INFLATED_PEEK   = 5;
+    private static final int COMPRESSED_PEEK = 256;
+    private static final int RATIO_FLOOR     = 8192;
+
+    private final PlayerData playerData;
+    private       boolean    compressed;
+    private       boolean    settled;
+    private       boolean    rejected;
+    private       int        position;
+
+    private Inflater inflater;
+    private byte[]   compressedPeek;
+    private byte[]   inflatedPeek;
+
+    private FrameSizeGuard(PlayerData playerData, boolean compressed) {
+        this.playerData = playerData;
+        this.compressed = compressed;
+        this.settled = compressed;
+    }
+
+    /**
+     * Adds a guard behind the frame splitter of the connection of a user. Connections without a netty channel or
+     * without a splitter are not guarded.
+     *
+     * @param user       The user of the connection
+     * @param playerData The PlayerData of the connection
+     */
+    public static void install(User user, PlayerData playerData) {
+        Object channel = user.getChannel();
+        if (!(channel instanceof Channel)) return;
+
+        ChannelPipeline pipeline = ((Channel) channel).pipeline();
+        if (pipeline.get(SPLITTER) == null || pipeline.get(NAME) != null) return;
+        pipeline.addAfter(SPLITTER, NAME, new FrameSizeGuard(playerData, false));
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) {
+        if (!(msg instanceof ByteBuf)) {
+            ctx.fireChannelRead(msg);
+            return;
+        }
+
+        ByteBuf frame = (ByteBuf) msg;
+        if (rejected) {
+            frame.release();
+            return;
+        }
+
+        boolean inflated = !settled && settle(ctx);
+
+        SierraSettings settings = Sierra.getPlugin().getSierraConfigEngine().settings();
+        if (!settings.isPreDecompressionGuard()) {
+            ctx.fireChannelRead(msg);
+            return;
+        }
+
+        String violation = compressed && !inflated
+            ? inspectCompressed(frame, settings)
+            : inspectUncompressed(frame, frame.readerIndex(), settings);
+
+        if (violation == null) {
+            ctx.fireChannelRead(msg);
+            return;
+        }
+
+        rejected = true;
+        frame.release();
+        reject(violation);
+    }
+
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx) {
+        if (inflater != null) {
+            inflater.end();
+            inflater = null;
+        }
+    }
+
+    /**
+     * Looks up whether the server enabled compression. Compression is only enabled during the login, so once the
+     * connection is in the play state without a decompressor, it is never looked up again.
+     *
+     * @return true if the decompressor sits in front of this guard, so the current frame is already inflated
+     */
+    private boolean settle(ChannelHandlerContext ctx) {
+        ChannelPipeline pipeline     = ctx.pipeline();
+        List<String>    names        = pipeline.names();
+        int             decompressor = names.indexOf(DECOMPRESSOR);
+
+        if (decompressor == -1) {
+            settled = isPlaying();
+            return false;
+        }
+
+        compressed = true;
+        settled = true;
+        if (decompressor > names.indexOf(NAME)) return false;
+
+        // A handler can not be added twice, so a new guard takes the place in front of the decompressor
+        pipeline.remove(this);
+        pipeline.addBefore(DECOMPRESSOR, NAME, new FrameSizeGuard(playerData, true));
+        return true;
+    }
+
+    private String inspectCompressed(ByteBuf frame, SierraSettings settings) {
+        position = frame.readerIndex();
+        int declared = readVarInt(frame);
+        if (declared < 0) return null;
+        if (declared == 0) return inspectUncompressed(frame, position, settings);
+
+        int compressedSize = frame.writerIndex() - position;
+        int maxRatio       = settings.getMaxCompressionRatio();
+        if (maxRatio != -1 && declared > RATIO_FLOOR && declared > (long) compressedSize * maxRatio) {
+            return String.format("Packet inflates from %d to %d bytes, the ratio limit is %d",
+                                 compressedSize, declared, maxRatio
+            );
+        }
+
+        if (!isPlaying()) return null;
+
+        int maxSize = settings.getMaxPacketSizeLimit();
+        if (maxSize != -1 && declared > maxSize) {
+            return String.format("Packet declares %d bytes, the limit is %d", declared, maxSize);
+        }
+
+        PacketTypeCommon type = packetType(peekInflatedPacketId(frame, compressedSize));
+        return checkLimit(type, declared, settings);
+    }
+
+    private String inspectUncompressed(ByteBuf frame, int start, SierraSettings settings) {
+        int size = frame.writerIndex() - start;
+        position = start;
+        return checkLimit(packetType(readVarInt(frame)), size, settings);
+    }
+
+    private String checkLimit(PacketTypeCommon type, int size, SierraSettings settings) {
+        if (!isPlaying()) return null;
+
+        int limit = type != null ? settings.packetSizeLimit(type) : settings.getMaxPacketSizeLimit();
+        if (limit == -1 || size <= limit) return null;
+
+        return String.format("%s has %d bytes, the limit is %d", type != null ? type.getName() : "Packet", size,
+                             limit
+        );
+    }
+
+    /**
+     * Inflates the first bytes of a compressed frame to read the packet id. The rest of the frame is left to the
+     * decompressor of the server.
+     *
+     * @return The packet id, or {@code -1} if it could not be read
+     */
+    private int peekInflatedPacketId(ByteBuf frame, int compressedSize) {
+        if (inflater == null) {
+            inflater = new Inflater();
+            compressedPeek = new byte[COMPRESSED_PEEK];
+            inflatedPeek = new byte[INFLATED_PEEK];
+        }
+
+        int length = Math.min(compressedSize, COMPRESSED_PEEK);
+        frame.getBytes(position, compressedPeek, 0, length);
+        inflater.reset();
+        inflater.setInput(compressedPeek, 0, length);
+
+        int inflated;
+        try {
+            inflated = inflater.inflate(inflatedPeek);
+        } catch (DataFormatException exception) {
+            return -1;
+        }
+
+        int value = 0;
+        for (int i = 0; i < inflated; i++) {
+            value |= (inflatedPeek[i] & 0x7F) << (7 * i);
+            if ((inflatedPeek[i] & 0x80) == 0) return value;
+        }
+        return -1;
+    }
+
+    private int readVarInt(ByteBuf frame) {
+        int value = 0;
+        for (int i = 0; i < 5; i++) {
+            if (position >= frame.writerIndex()) return -1;
+            byte read = frame.getByte(position++);
+            value |= (read & 0x7F) << (7 * i);
+            if ((read & 0x80) == 0) return value;
+        }
+        return -1;
+    }
+
+    private boolean isPlaying() {
+        return playerData.getUser().getDecoderState() == ConnectionState.PLAY;
+    }
+
+    private PacketTypeCommon packetType(int packetId) {
+        if (packetId < 0 || !isPlaying()) return null;
+
+        ClientVersion version = playerData.getUser().getClientVersion();
+        if (version == null) return null;
+        PacketTypeCommon type = PacketType.getById(PacketSide.CLIENT, ConnectionState.PLAY, version, packetId);
+        return type instanceof PacketType.Play.Client ? type : null;
+    }
+
+    private void reject(String violation) {
+        Sierra.getPlugin().getMetricsRegistry().getRejectedFrames().increment();
+        playerData.getSierraLogger().log(LogTag.PRE, violation);
+        Sierra.getPlugin().getLogger().info(
+            String.format("Disconnecting %s before inflating, %s", playerData.username(), violation));
+
+        User user = playerData.getUser();
+        Sierra.getPlugin().getSierraDataManager().createMitigateHistory(
+            playerData.username(),
+            user.getClientVersion() != null ? playerData.version() : SierraDataManager.UNKNOWN_VERSION,
+            MitigationStrategy.KICK,
+            playerData.ping(),
+            violation
+        );
+        playerData.punish(MitigationStrategy.KICK);
+    }
+}
@@ -1,18 +1,30 @@
 package de.feelix.sierra.manager.packet;
 
-import com.github.retrooper.packetevents.event.PacketReceiveEvent;
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
 import de.feelix.sierra.manager.storage.PlayerData;
 
+import java.util.Collection;
+
 /**
  * The IngoingProcessor interface represents a processor for handling incoming packets.
  */
 public interface IngoingProcessor {
 
     /**
-     * The handle method is called to process a received packet event and perform necessary actions based on the player data.
+     * The handle method is called to process a received packet and perform necessary actions based on the player data.
      *
-     * @param event      The PacketReceiveEvent object representing the received packet event
+     * @param context    The PacketReceiveContext wrapping the received packet event
      * @param playerData The PlayerData object representing the data of the player who received the packet
      */
-    void handle(PacketReceiveEvent event, PlayerData playerData);
+    void handle(PacketReceiveContext context, PlayerData playerData);
+
+    /**
+     * Returns the packet types this processor is interested in. Only packets of these types are dispatched to
+     * {@link #handle}, all other incoming packets skip this processor entirely.
+     *
+     * @return The handled packet types, or {@code null} if the processor has to see every incoming packet
+     */
+    default Collection<PacketTypeCommon> ingoingPacketTypes() {
+        return null;
+    }
 }
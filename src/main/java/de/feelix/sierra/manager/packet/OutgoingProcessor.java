@@ -1,20 +1,31 @@
 package de.feelix.sierra.manager.packet;
 
-import com.github.retrooper.packetevents.event.PacketSendEvent;
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
 import de.feelix.sierra.manager.storage.PlayerData;
 
+import java.util.Collection;
+
 /**
  * The OutgoingProcessor interface represents a processor for handling outgoing packets.
  */
 public interface OutgoingProcessor {
 
     /**
-     * The handle method is responsible for handling a PacketSendEvent.
-     * It takes in a PacketSendEvent object representing the packet send event and a PlayerData object representing the player's data.
+     * The handle method is responsible for handling an outgoing packet.
+     * It takes in a PacketSendContext wrapping the packet send event and a PlayerData object representing the player's data.
      *
-     * @param event       The PacketSendEvent object representing the packet send event
+     * @param context     The PacketSendContext wrapping the packet send event
      * @param playerData  The PlayerData object representing the player's data
      */
-    void handle(PacketSendEvent event, PlayerData playerData);
+    void handle(PacketSendContext context, PlayerData playerData);
 
+    /**
+     * Returns the packet types this processor is interested in. Only packets of these types are dispatched to
+     * {@link #handle}, all other outgoing packets skip this processor entirely.
+     *
+     * @return The handled packet types, or {@code null} if the processor has to see every outgoing packet
+     */
+    default Collection<PacketTypeCommon> outgoingPacketTypes() {
+        return null;
+    }
 }
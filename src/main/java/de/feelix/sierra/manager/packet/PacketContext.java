@@ -0,0 +1,108 @@
+package de.feelix.sierra.manager.packet;
+
+import com.github.retrooper.packetevents.event.ProtocolPacketEvent;
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import de.feelix.sierra.manager.storage.PlayerData;
+import de.feelix.sierra.utilities.CastUtil;
+import lombok.Getter;
+
+import java.util.function.Function;
+
+/**
+ * The PacketContext class carries a single packet event through all processors and checks.
+ * <p>
+ * Everything that is derived from the packet is computed at most once per event: the wrapper is decoded on first
+ * access and handed out to every later caller, and the client version and clock readings are memoized as well.
+ * A context must only be used on the netty thread that fired the event.
+ *
+ * @param <E> The type of the packet event
+ */
+public abstract class PacketContext<E extends ProtocolPacketEvent> {
+
+    @Getter
+    private final E event;
+
+    @Getter
+    private final PlayerData playerData;
+
+    @Getter
+    private final PacketTypeCommon packetType;
+
+    private PacketWrapper<?> wrapper;
+    private boolean          decodeFailed;
+    private ClientVersion    clientVersion;
+    private long             timeMillis = -1;
+    private long             nanoTime   = -1;
+
+    protected PacketContext(E event, PlayerData playerData) {
+        this.event = event;
+        this.playerData = playerData;
+        this.packetType = event.getPacketType();
+    }
+
+    /**
+     * Retrieves the decoded wrapper of the packet. The packet is only decoded on the first call, every following call
+     * with the same wrapper type returns the same instance. If decoding fails, the player gets disconnected and
+     * {@code null} is returned for the remaining lifetime of this context.
+     *
+     * @param type    The class of the wrapper
+     * @param decoder The function that decodes the event, usually the constructor of the wrapper
+     * @param <W>     The type of the wrapper
+     * @return The decoded wrapper, or {@code null} if the packet could not be decoded
+     */
+    public <W extends PacketWrapper<?>> W wrapper(Class<W> type, Function<E, W> decoder) {
+        if (type.isInstance(wrapper)) {
+            return type.cast(wrapper);
+        }
+        if (decodeFailed) {
+            return null;
+        }
+        W decoded = CastUtil.getSupplier(() -> decoder.apply(event), exception -> {
+            decodeFailed = true;
+            playerData.exceptionDisconnect(exception);
+        });
+        this.wrapper = decoded;
+        return decoded;
+    }
+
+    /**
+     * Retrieves the client version of the connection that sent or receives the packet.
+     *
+     * @return The client version
+     */
+    public ClientVersion getClientVersion() {
+        if (clientVersion == null) {
+            clientVersion = event.getUser().getClientVersion();
+        }
+        return clientVersion;
+    }
+
+    /**
+     * Retrieves the wall clock time of this packet. The clock is read once, so every check sees the same value. During
+     * a replay, this is the time the packet was recorded at.
+     *
+     * @return The time in milliseconds
+     */
+    public long timeMillis() {
+        if (timeMillis == -1) {
+            timeMillis = playerData.getReplayReport() != null
+                ? playerData.getReplayReport().timeMillis()
+                : System.currentTimeMillis();
+        }
+        return timeMillis;
+    }
+
+    /**
+     * Retrieves the monotonic clock time of this packet. The clock is read once, so every check sees the same value.
+     *
+     * @return The time in nanoseconds
+     */
+    public long nanoTime() {
+        if (nanoTime == -1) {
+            nanoTime = System.nanoTime();
+        }
+        return nanoTime;
+    }
+}
@@ -0,0 +1,86 @@
+package de.feelix.sierra.manager.packet;
+
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * The PacketDispatchTable class maps packet types to the handlers that are interested in them.
+ * <p>
+ * Handlers are kept in one array per packet type, indexed by the ordinal of the packet type enum. Looking up the
+ * handlers for a packet is a single array access, so packets nobody cares about cost nothing beyond that lookup.
+ * The ordinal is used instead of the wire id because packet ids differ between client versions and the version of a
+ * connection is not known yet when the table is built.
+ *
+ * @param <T> The type of the handlers stored in this table
+ */
+public class PacketDispatchTable<T> {
+
+    private final Class<? extends Enum<?>> packetTypes;
+    private final T[][]                    handlers;
+    private       T[]                      everyHandler;
+
+    /**
+     * Creates an empty dispatch table.
+     *
+     * @param handlerType The class of the handlers stored in this table
+     * @param packetTypes The packet type enum this table is indexed by, e.g. {@code PacketType.Play.Client.class}
+     */
+    @SuppressWarnings("unchecked")
+    public PacketDispatchTable(Class<T> handlerType, Class<? extends Enum<?>> packetTypes) {
+        this.packetTypes = packetTypes;
+        this.handlers = (T[][]) Array.newInstance(handlerType, packetTypes.getEnumConstants().length, 0);
+        this.everyHandler = (T[]) Array.newInstance(handlerType, 0);
+    }
+
+    /**
+     * Registers a handler for the given packet types. Handlers run in the order they were registered.
+     *
+     * @param handler The handler to register
+     * @param types   The packet types the handler is interested in, or {@code null} for every packet type
+     * @throws IllegalArgumentException if a packet type does not belong to the enum of this table
+     */
+    public void register(T handler, Collection<? extends PacketTypeCommon> types) {
+        if (types == null) {
+            for (int i = 0; i < handlers.length; i++) {
+                handlers[i] = append(handlers[i], handler);
+            }
+        } else {
+            for (PacketTypeCommon type : types) {
+                int slot = slotOf(type);
+                if (slot == -1) {
+                    throw new IllegalArgumentException(
+                        "Packet type " + type.getName() + " is not a " + packetTypes.getSimpleName());
+                }
+                if (!Arrays.asList(handlers[slot]).contains(handler)) {
+                    handlers[slot] = append(handlers[slot], handler);
+                }
+            }
+        }
+        everyHandler = append(everyHandler, handler);
+    }
+
+    /**
+     * Retrieves the handlers for the given packet type. Packet types that do not belong to the enum of this table
+     * are dispatched to every registered handler.
+     *
+     * @param type The packet type
+     * @return The handlers for the packet type, never {@code null}
+     */
+    public T[] handlers(PacketTypeCommon type) {
+        int slot = slotOf(type);
+        return slot == -1 ? everyHandler : handlers[slot];
+    }
+
+    private int slotOf(PacketTypeCommon type) {
+        return packetTypes.isInstance(type) ? ((Enum<?>) type).ordinal() : -1;
+    }
+
+    private T[] append(T[] array, T handler) {
+        T[] copy = Arrays.copyOf(array, array.length + 1);
+        copy[array.length] = handler;
+        return copy;
+    }
+}
@@ -0,0 +1,117 @@
+package de.feelix.sierra.manager.packet;
+
+import com.github.retrooper.packetevents.event.PacketReceiveEvent;
+import com.github.retrooper.packetevents.protocol.item.ItemStack;
+import com.github.retrooper.packetevents.protocol.nbt.NBTCompound;
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.wrapper.play.client.WrapperPlayClientClickWindow;
+import com.github.retrooper.packetevents.wrapper.play.client.WrapperPlayClientCreativeInventoryAction;
+import com.github.retrooper.packetevents.wrapper.play.client.WrapperPlayClientPlayerBlockPlacement;
+import de.feelix.sierra.Sierra;
+import de.feelix.sierra.manager.storage.PlayerData;
+import de.feelix.sierra.utilities.nbt.NbtAnalysis;
+import de.feelix.sierra.utilities.nbt.NbtAnalyzer;
+import lombok.Getter;
+
+/**
+ * The PacketReceiveContext class is the {@link PacketContext} of an incoming packet. Besides the wrapper it memoizes
+ * the item stack a packet carries and the analysis of its NBT, since several checks inspect the same item.
+ * <p>
+ * The context also remembers whether the packet answered a transaction that Sierra sent itself. Such responses are
+ * consumed by the transaction processor, and the client has to send them no matter what, so the frequency limits
+ * do not count them.
+ */
+public class PacketReceiveContext extends PacketContext<PacketReceiveEvent> {
+
+    private ItemStack   itemStack;
+    private boolean     itemStackResolved;
+    private NbtAnalysis nbtAnalysis;
+
+    @Getter
+    private boolean transactionResponse;
+
+    public PacketReceiveContext(PacketReceiveEvent event, PlayerData playerData) {
+        super(event, playerData);
+    }
+
+    /**
+     * Retrieves the item stack carried by the packet. This is the carried item of a window click, the item of a
+     * creative inventory action or the item of a block placement.
+     *
+     * @return The item stack, or {@code null} if the packet does not carry one
+     */
+    public ItemStack getItemStack() {
+        if (!itemStackResolved) {
+            itemStack = resolveItemStack();
+            itemStackResolved = true;
+        }
+        return itemStack;
+    }
+
+    /**
+     * Retrieves the NBT compound of the item stack carried by the packet.
+     *
+     * @return The NBT compound, or {@code null} if the packet carries no item or the item has no NBT
+     */
+    public NBTCompound getNbt() {
+        ItemStack stack = getItemStack();
+        return stack != null ? stack.getNBT() : null;
+    }
+
+    /**
+     * Retrieves the analysis of the NBT compound of the item stack carried by the packet. The tree is analyzed once
+     * per packet with the budgets of the current settings.
+     *
+     * @return The analysis, or {@code null} if the packet carries no item or the item has no NBT
+     */
+    public NbtAnalysis getNbtAnalysis() {
+        if (nbtAnalysis == null) {
+            NBTCompound nbt = getNbt();
+            if (nbt == null) return null;
+            nbtAnalysis = NbtAnalyzer.analyze(nbt, Sierra.getPlugin().getSierraConfigEngine().settings());
+        }
+        return nbtAnalysis;
+    }
+
+    /**
+     * Marks the packet as the response to a transaction that Sierra sent itself.
+     */
+    public void markTransactionResponse() {
+        transactionResponse = true;
+    }
+
+    /**
+     * Discards the memoized analysis after a check modified the NBT of the item stack. The next call of
+     * {@link #getNbtAnalysis()} analyzes the modified tree.
+     */
+    public void invalidateNbtAnalysis() {
+        nbtAnalysis = null;
+    }
+
+    /**
+     * Retrieves the analysis of the NBT compound, but only if a check has already resolved the item stack. Unlike
+     * {@link #getNbtAnalysis()} this never decodes the packet.
+     *
+     * @return The analysis, or {@code null} if the item stack was not resolved or has no NBT
+     */
+    public NbtAnalysis peekNbtAnalysis() {
+        return itemStackResolved ? getNbtAnalysis() : null;
+    }
+
+    private ItemStack resolveItemStack() {
+        if (getPacketType() == PacketType.Play.Client.CLICK_WINDOW) {
+            WrapperPlayClientClickWindow wrapper = wrapper(
+                WrapperPlayClientClickWindow.class, WrapperPlayClientClickWindow::new);
+            return wrapper != null ? wrapper.getCarriedItemStack() : null;
+        } else if (getPacketType() == PacketType.Play.Client.CREATIVE_INVENTORY_ACTION) {
+            WrapperPlayClientCreativeInventoryAction wrapper = wrapper(
+                WrapperPlayClientCreativeInventoryAction.class, WrapperPlayClientCreativeInventoryAction::new);
+            return wrapper != null ? wrapper.getItemStack() : null;
+        } else if (getPacketType() == PacketType.Play.Client.PLAYER_BLOCK_PLACEMENT) {
+            WrapperPlayClientPlayerBlockPlacement wrapper = wrapper(
+                WrapperPlayClientPlayerBlockPlacement.class, WrapperPlayClientPlayerBlockPlacement::new);
+            return wrapper != null ? wrapper.getItemStack().orElse(null) : null;
+        }
+        return null;
+    }
+}
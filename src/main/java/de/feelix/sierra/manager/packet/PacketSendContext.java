@@ -0,0 +1,14 @@
+package de.feelix.sierra.manager.packet;
+
+import com.github.retrooper.packetevents.event.PacketSendEvent;
+import de.feelix.sierra.manager.storage.PlayerData;
+
+/**
+ * The PacketSendContext class is the {@link PacketContext} of an outgoing packet.
+ */
+public class PacketSendContext extends PacketContext<PacketSendEvent> {
+
+    public PacketSendContext(PacketSendEvent event, PlayerData playerData) {
+        super(event, playerData);
+    }
+}
@@ -0,0 +1,53 @@
+package de.feelix.sierra.manager.packet;
+
+import de.feelix.sierra.manager.storage.PlayerData;
+import de.feelix.sierra.manager.storage.timings.TimingHistogram;
+import lombok.Getter;
+
+/**
+ * The TimedProcessor class wraps a packet handler in a dispatch table and records how long every call of it takes,
+ * so the time spent on the netty thread can be attributed to the check or processor that spent it.
+ * <p>
+ * A check that handles both directions is wrapped once per direction, with the same histogram. Incoming packets are
+ * also recorded as a stage of the {@link de.feelix.sierra.manager.storage.timings.PacketStageTrace} of the player.
+ */
+@Getter
+public class TimedProcessor implements IngoingProcessor, OutgoingProcessor {
+
+    private final String            name;
+    private final TimingHistogram   histogram;
+    private final IngoingProcessor  ingoing;
+    private final OutgoingProcessor outgoing;
+
+    private TimedProcessor(String name, TimingHistogram histogram, IngoingProcessor ingoing,
+                           OutgoingProcessor outgoing) {
+        this.name = name;
+        this.histogram = histogram;
+        this.ingoing = ingoing;
+        this.outgoing = outgoing;
+    }
+
+    public static TimedProcessor ingoing(String name, TimingHistogram histogram, IngoingProcessor processor) {
+        return new TimedProcessor(name, histogram, processor, null);
+    }
+
+    public static TimedProcessor outgoing(String name, TimingHistogram histogram, OutgoingProcessor processor) {
+        return new TimedProcessor(name, histogram, null, processor);
+    }
+
+    @Override
+    public void handle(PacketReceiveContext context, PlayerData playerData) {
+        long start = System.nanoTime();
+        ingoing.handle(context, playerData);
+        long elapsed = System.nanoTime() - start;
+        histogram.record(elapsed);
+        playerData.getTimingProcessor().getStageTrace().stage(name, elapsed);
+    }
+
+    @Override
+    public void handle(PacketSendContext context, PlayerData playerData) {
+        long start = System.nanoTime();
+        outgoing.handle(context, playerData);
+        histogram.record(System.nanoTime() - start);
+    }
+}
@@ -0,0 +1,152 @@
+package de.feelix.sierra.manager.replay;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.event.ProtocolPacketEvent;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import de.feelix.sierra.Sierra;
+import de.feelix.sierra.manager.storage.PlayerData;
+import io.github.retrooper.packetevents.util.folia.FoliaScheduler;
+import io.github.retrooper.packetevents.util.folia.TaskWrapper;
+import lombok.Getter;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * The PacketRecorder class records the PLAY packets of a player into a file in the {@link RecordingFormat}.
+ * <p>
+ * The netty threads only append the packets to an in-memory buffer. Once per tick, an async task moves the buffer to
+ * the file, so recording never touches the disk on a netty thread. A recording stops by itself once it reaches
+ * {@link #MAX_BYTES}.
+ */
+public class PacketRecorder {
+
+    private static final long MAX_BYTES = 64L * 1024 * 1024;
+
+    @Getter
+    private final Path                  file;
+    private final OutputStream          output;
+    private final long                  startNanos  = System.nanoTime();
+    private final ByteArrayOutputStream pending     = new ByteArrayOutputStream(8192);
+    private final DataOutputStream      pendingData = new DataOutputStream(pending);
+    private final TaskWrapper           task;
+
+    private          long    lastNanos;
+    private          boolean closed;
+    @Getter
+    private volatile long    written;
+    @Getter
+    private volatile boolean stopped;
+
+    private PacketRecorder(Path file, PlayerData playerData) throws IOException {
+        this.file = file;
+        this.output = new BufferedOutputStream(Files.newOutputStream(file), 65536);
+
+        DataOutputStream header = new DataOutputStream(output);
+        header.writeInt(RecordingFormat.MAGIC);
+        header.writeByte(RecordingFormat.FORMAT_VERSION);
+        header.writeInt(playerData.getUser().getClientVersion().getProtocolVersion());
+        header.writeInt(PacketEvents.getAPI().getServerManager().getVersion().getProtocolVersion());
+        header.writeUTF(playerData.username());
+        header.writeByte(playerData.getGameMode() != null ? playerData.getGameMode().ordinal() : -1);
+        header.writeLong(System.currentTimeMillis());
+        this.written = header.size();
+
+        this.task = FoliaScheduler.getAsyncScheduler().runAtFixedRate(Sierra.getPlugin(), o -> flush(), 1, 1);
+    }
+
+    /**
+     * Starts a new recording of a player.
+     *
+     * @param playerData The player to record
+     * @return The recorder
+     * @throws IOException if the file of the recording could not be created
+     */
+    public static PacketRecorder start(PlayerData playerData) throws IOException {
+        Path directory = Paths.get(RecordingFormat.DIRECTORY);
+        Files.createDirectories(directory);
+        String timestamp = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss").format(new Date());
+        return new PacketRecorder(
+            directory.resolve(playerData.username() + "-" + timestamp + RecordingFormat.FILE_EXTENSION), playerData);
+    }
+
+    /**
+     * Records a packet. Called on the netty thread of the player.
+     *
+     * @param direction The direction of the packet
+     * @param event     The event of the packet, whose buffer is positioned after the packet id
+     */
+    public void record(RecordedPacket.Direction direction, ProtocolPacketEvent event) {
+        if (stopped) return;
+
+        byte[] payload = ByteBufHelper.copyBytes(event.getByteBuf());
+
+        synchronized (this) {
+            if (stopped) return;
+            long now = System.nanoTime() - startNanos;
+            try {
+                pendingData.writeByte(direction.ordinal());
+                RecordingFormat.writeVarInt(pendingData, event.getPacketId());
+                RecordingFormat.writeVarLong(pendingData, Math.max(0, now - lastNanos));
+                RecordingFormat.writeVarInt(pendingData, payload.length);
+                pendingData.write(payload);
+            } catch (IOException e) {
+                stopped = true;
+                return;
+            }
+            lastNanos = now;
+            if (written + pending.size() >= MAX_BYTES) {
+                stopped = true;
+            }
+        }
+    }
+
+    /**
+     * Stops the recording and writes the remaining packets to the file.
+     */
+    public void stop() {
+        stopped = true;
+        flush();
+    }
+
+    private void flush() {
+        synchronized (output) {
+            if (closed) return;
+
+            byte[] bytes;
+            boolean close;
+            synchronized (this) {
+                bytes = pending.toByteArray();
+                pending.reset();
+                close = stopped;
+            }
+
+            try {
+                output.write(bytes);
+                output.flush();
+                written += bytes.length;
+            } catch (IOException e) {
+                Sierra.getPlugin().getLogger().warning("Unable to write recording " + file + ": " + e.getMessage());
+                stopped = true;
+                close = true;
+            }
+
+            if (close) {
+                closed = true;
+                task.cancel();
+                try {
+                    output.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package de.feelix.sierra.manager.replay;
+
+import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.protocol.player.GameMode;
+import lombok.Getter;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * The PacketRecordingReader class reads the packets of a recording written by a {@link PacketRecorder}.
+ */
+public class PacketRecordingReader implements Closeable {
+
+    private static final RecordedPacket.Direction[] DIRECTIONS = RecordedPacket.Direction.values();
+
+    private final DataInputStream input;
+    @Getter
+    private final ClientVersion   clientVersion;
+    @Getter
+    private final ServerVersion   serverVersion;
+    @Getter
+    private final String          username;
+    @Getter
+    private final GameMode        gameMode;
+    @Getter
+    private final long            startedAt;
+    private       long            nanos;
+
+    /**
+     * Opens a recording and reads its header.
+     *
+     * @param file The file of the recording
+     * @throws IOException if the file could not be read or is no recording
+     */
+    public PacketRecordingReader(Path file) throws IOException {
+        this.input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 65536));
+        try {
+            if (input.readInt() != RecordingFormat.MAGIC) {
+                throw new IOException("Not a packet recording");
+            }
+            int formatVersion = input.readUnsignedByte();
+            if (formatVersion != RecordingFormat.FORMAT_VERSION) {
+                throw new IOException("Unsupported recording format " + formatVersion);
+            }
+            this.clientVersion = ClientVersion.getById(input.readInt());
+            this.serverVersion = ServerVersion.getById(input.readInt());
+            this.username = input.readUTF();
+            byte gameMode = input.readByte();
+            this.gameMode = gameMode >= 0 && gameMode < GameMode.values().length ? GameMode.values()[gameMode] : null;
+            this.startedAt = input.readLong();
+        } catch (IOException e) {
+            input.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads the next packet of the recording.
+     *
+     * @return The packet, or {@code null} if the end of the recording was reached
+     * @throws IOException if the recording is corrupted
+     */
+    public RecordedPacket next() throws IOException {
+        int direction;
+        try {
+            direction = input.readUnsignedByte();
+        } catch (EOFException e) {
+            return null;
+        }
+        if (direction >= DIRECTIONS.length) {
+            throw new IOException("Invalid direction " + direction);
+        }
+
+        int packetId = RecordingFormat.readVarInt(input);
+        nanos += RecordingFormat.readVarLong(input);
+        int length = RecordingFormat.readVarInt(input);
+        if (length < 0) {
+            throw new IOException("Invalid payload length " + length);
+        }
+
+        byte[] payload = new byte[length];
+        input.readFully(payload);
+        return new RecordedPacket(DIRECTIONS[direction], packetId, nanos, payload);
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+}
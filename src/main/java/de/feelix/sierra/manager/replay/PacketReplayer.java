@@ -0,0 +1,217 @@
+package de.feelix.sierra.manager.replay;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.event.PacketReceiveEvent;
+import com.github.retrooper.packetevents.event.PacketSendEvent;
+import com.github.retrooper.packetevents.exception.PacketProcessException;
+import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.netty.buffer.UnpooledByteBufAllocationHelper;
+import com.github.retrooper.packetevents.protocol.ConnectionState;
+import com.github.retrooper.packetevents.protocol.PacketSide;
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.protocol.player.User;
+import com.github.retrooper.packetevents.protocol.player.UserProfile;
+import de.feelix.sierra.check.CheckManager;
+import de.feelix.sierra.manager.packet.IngoingProcessor;
+import de.feelix.sierra.manager.packet.OutgoingProcessor;
+import de.feelix.sierra.manager.packet.PacketReceiveContext;
+import de.feelix.sierra.manager.packet.PacketSendContext;
+import de.feelix.sierra.manager.packet.TimedProcessor;
+import de.feelix.sierra.manager.storage.PlayerData;
+import de.feelix.sierra.manager.storage.logger.SierraLogger;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.UUID;
+
+/**
+ * The PacketReplayer class feeds a recording of a {@link PacketRecorder} through the checks, without a connection.
+ * <p>
+ * The packets are replayed against a detached {@link PlayerData} that is not registered in the
+ * {@link de.feelix.sierra.manager.storage.SierraDataManager}, so neither the ticker nor the alerts see it. Every
+ * packet runs through the transaction processor and the handlers of the {@link CheckManager} dispatch tables, just
+ * like a live packet, and every handler is timed on its own. Detections and punishments end up in the
+ * {@link ReplayReport} instead of the alerts, and nothing is sent to a player.
+ * <p>
+ * The packet context and the violation levels use the time a packet was recorded at, so the frequency limits and
+ * the decay of the violations see the timing of the recorded connection. Checks that read the clock themselves, like
+ * the timer check, see the time of the replay instead.
+ */
+public final class PacketReplayer {
+
+    private static final String TRANSACTIONS = "Transactions";
+    private static final String PROCESSORS   = "Processors";
+
+    private PacketReplayer() {
+    }
+
+    /**
+     * Resolves the name of a recording to its file, without leaving the recordings directory.
+     *
+     * @param name The name of the recording, with or without the file extension
+     * @return The file of the recording, or {@code null} if the name points outside the recordings directory
+     */
+    public static Path resolveRecording(String name) {
+        if (!name.endsWith(RecordingFormat.FILE_EXTENSION)) name += RecordingFormat.FILE_EXTENSION;
+
+        Path directory = Paths.get(RecordingFormat.DIRECTORY).toAbsolutePath().normalize();
+        Path file      = directory.resolve(name).normalize();
+        return directory.equals(file.getParent()) ? file : null;
+    }
+
+    /**
+     * Replays a recording.
+     *
+     * @param file                    The file of the recording
+     * @param continueAfterPunishment {@code true} to keep checking the packets after a punishment, {@code false} to
+     *                                drop them like a live connection does
+     * @return The report of the replay
+     * @throws IOException if the recording could not be read
+     */
+    public static ReplayReport replay(Path file, boolean continueAfterPunishment) throws IOException {
+        try (PacketRecordingReader reader = new PacketRecordingReader(file)) {
+            ClientVersion clientVersion = reader.getClientVersion();
+            ServerVersion serverVersion = reader.getServerVersion() != null
+                ? reader.getServerVersion()
+                : PacketEvents.getAPI().getServerManager().getVersion();
+
+            UUID uuid = UUID.nameUUIDFromBytes(("Replay:" + reader.getUsername()).getBytes(StandardCharsets.UTF_8));
+            User user = new User(null, ConnectionState.PLAY, clientVersion, new UserProfile(uuid, reader.getUsername()));
+
+            ReplayReport report     = new ReplayReport(
+                reader.getUsername(), clientVersion.getReleaseName(), reader.getStartedAt());
+            PlayerData   playerData = new PlayerData(user);
+            playerData.setReplayReport(report);
+            playerData.setGameMode(reader.getGameMode());
+            playerData.setSierraLogger(new SierraLogger("replay"));
+
+            long           start = System.nanoTime();
+            RecordedPacket packet;
+            while ((packet = reader.next()) != null) {
+                report.next(packet);
+
+                if (playerData.isReceivedPunishment()) {
+                    if (!continueAfterPunishment) {
+                        report.skip();
+                        continue;
+                    }
+                    playerData.setReceivedPunishment(false);
+                }
+
+                if (packet.getDirection() == RecordedPacket.Direction.INBOUND) {
+                    replayReceive(packet, playerData, serverVersion, report);
+                } else {
+                    replaySend(packet, playerData, serverVersion, report);
+                }
+            }
+            report.finish(System.nanoTime() - start);
+            playerData.getSierraLogger().close();
+            return report;
+        }
+    }
+
+    private static void replayReceive(RecordedPacket packet, PlayerData playerData, ServerVersion serverVersion,
+                                      ReplayReport report) {
+        User user = playerData.getUser();
+        PacketTypeCommon type = PacketType.getById(
+            PacketSide.CLIENT, ConnectionState.PLAY, user.getClientVersion(), packet.getPacketId());
+        if (type == null) {
+            report.unknown();
+            return;
+        }
+
+        Object buffer = UnpooledByteBufAllocationHelper.wrappedBuffer(packet.getPayload());
+        try {
+            PacketReceiveContext context = new PacketReceiveContext(
+                new ReplayReceiveEvent(packet.getPacketId(), type, serverVersion, user, buffer), playerData);
+
+            long begin = System.nanoTime();
+            try {
+                playerData.getTransactionProcessor().handleTransactionClient(context);
+            } catch (Exception exception) {
+                report.error(TRANSACTIONS, exception);
+            }
+            report.time(TRANSACTIONS, System.nanoTime() - begin);
+
+            for (IngoingProcessor processor : playerData.getCheckManager().getReceiveTable().handlers(type)) {
+                String name = nameOf(processor);
+                begin = System.nanoTime();
+                try {
+                    processor.handle(context, playerData);
+                } catch (Exception exception) {
+                    report.error(name, exception);
+                }
+                report.time(name, System.nanoTime() - begin);
+            }
+        } catch (PacketProcessException exception) {
+            report.error(type.getName(), exception);
+        } finally {
+            // A cancelled event has already released its buffer
+            if (ByteBufHelper.refCnt(buffer) > 0) ByteBufHelper.release(buffer);
+        }
+    }
+
+    private static void replaySend(RecordedPacket packet, PlayerData playerData, ServerVersion serverVersion,
+                                   ReplayReport report) {
+        User user = playerData.getUser();
+        PacketTypeCommon type = PacketType.getById(
+            PacketSide.SERVER, ConnectionState.PLAY, user.getClientVersion(), packet.getPacketId());
+        if (type == null) {
+            report.unknown();
+            return;
+        }
+
+        Object buffer = UnpooledByteBufAllocationHelper.wrappedBuffer(packet.getPayload());
+        try {
+            PacketSendContext context = new PacketSendContext(
+                new ReplaySendEvent(packet.getPacketId(), type, serverVersion, user, buffer), playerData);
+
+            for (OutgoingProcessor processor : playerData.getCheckManager().getSendTable().handlers(type)) {
+                String name = nameOf(processor);
+                long begin = System.nanoTime();
+                try {
+                    processor.handle(context, playerData);
+                } catch (Exception exception) {
+                    report.error(name, exception);
+                }
+                report.time(name, System.nanoTime() - begin);
+            }
+        } catch (PacketProcessException exception) {
+            report.error(type.getName(), exception);
+        } finally {
+            // A cancelled event has already released its buffer
+            if (ByteBufHelper.refCnt(buffer) > 0) ByteBufHelper.release(buffer);
+        }
+    }
+
+    private static String nameOf(Object processor) {
+        return processor instanceof TimedProcessor ? ((TimedProcessor) processor).getName() : PROCESSORS;
+    }
+
+    /**
+     * A received packet that is read from a recording instead of a channel.
+     */
+    private static final class ReplayReceiveEvent extends PacketReceiveEvent {
+
+        private ReplayReceiveEvent(int packetId, PacketTypeCommon type, ServerVersion serverVersion, User user,
+                                   Object buffer) throws PacketProcessException {
+            super(packetId, type, serverVersion, null, user, null, buffer);
+        }
+    }
+
+    /**
+     * A sent packet that is read from a recording instead of a channel.
+     */
+    private static final class ReplaySendEvent extends PacketSendEvent {
+
+        private ReplaySendEvent(int packetId, PacketTypeCommon type, ServerVersion serverVersion, User user,
+                                Object buffer) throws PacketProcessException {
+            super(packetId, type, serverVersion, null, user, null, buffer);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package de.feelix.sierra.manager.replay;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The RecordedPacket class represents a single packet of a recording.
+ */
+@Getter
+@AllArgsConstructor
+public class RecordedPacket {
+
+    /**
+     * The direction a packet travelled in.
+     */
+    public enum Direction {
+        INBOUND,
+        OUTBOUND
+    }
+
+    private final Direction direction;
+    private final int       packetId;
+
+    /**
+     * The time the packet was recorded, in nanoseconds since the start of the recording.
+     */
+    private final long nanos;
+
+    /**
+     * The raw bytes of the packet, without the packet id.
+     */
+    private final byte[] payload;
+}
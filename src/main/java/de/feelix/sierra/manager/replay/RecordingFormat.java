@@ -0,0 +1,60 @@
+package de.feelix.sierra.manager.replay;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * The RecordingFormat class describes the binary format of packet recordings.
+ * <p>
+ * A recording starts with a header: the magic number, the format version, the protocol versions of the client and the
+ * server, the name of the player, the ordinal of its game mode ({@code -1} if unknown) and the start time in epoch
+ * milliseconds. It is followed by one record per packet: the direction byte, the packet id, the nanoseconds since the
+ * previous record and the length of the payload as variable length integers, and the payload itself.
+ */
+final class RecordingFormat {
+
+    static final int    MAGIC          = 0x53524543;
+    static final int    FORMAT_VERSION = 1;
+    static final String DIRECTORY      = "plugins/Sierra/recordings/";
+    static final String FILE_EXTENSION = ".srec";
+
+    private RecordingFormat() {
+    }
+
+    static void writeVarInt(DataOutput output, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            output.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        output.writeByte(value);
+    }
+
+    static void writeVarLong(DataOutput output, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            output.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        output.writeByte((int) value);
+    }
+
+    static int readVarInt(DataInput input) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte current = input.readByte();
+            value |= (current & 0x7F) << shift;
+            if ((current & 0x80) == 0) return value;
+        }
+        throw new IOException("VarInt is too big");
+    }
+
+    static long readVarLong(DataInput input) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            byte current = input.readByte();
+            value |= (long) (current & 0x7F) << shift;
+            if ((current & 0x80) == 0) return value;
+        }
+        throw new IOException("VarLong is too big");
+    }
+}
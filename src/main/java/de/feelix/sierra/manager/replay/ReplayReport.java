@@ -0,0 +1,180 @@
+package de.feelix.sierra.manager.replay;
+
+import de.feelix.sierra.check.SierraDetection;
+import de.feelix.sierra.check.violation.ViolationDocument;
+import de.feelix.sierraapi.violation.MitigationStrategy;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The ReplayReport class collects the results of a replay: the verdicts of the checks and the time spent in every
+ * handler of the packets.
+ * <p>
+ * A report is attached to the {@link de.feelix.sierra.manager.storage.PlayerData} of a replay. While it is attached,
+ * detections are recorded here instead of being alerted, and punishments are recorded instead of being applied.
+ */
+@Getter
+public class ReplayReport {
+
+    /**
+     * A single detection of a check during the replay.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Verdict {
+
+        private final int                packet;
+        private final long               nanos;
+        private final String             check;
+        private final int                violations;
+        private final MitigationStrategy mitigationStrategy;
+        private final String             description;
+    }
+
+    /**
+     * The time spent in a handler during the replay.
+     */
+    @Getter
+    public static class Timing {
+
+        private final String name;
+        private       long   count;
+        private       long   totalNanos;
+        private       long   maxNanos;
+
+        private Timing(String name) {
+            this.name = name;
+        }
+
+        public long averageNanos() {
+            return count == 0 ? 0 : totalNanos / count;
+        }
+    }
+
+    private final String               username;
+    private final String               clientVersion;
+    private final long                 startedAt;
+    private final List<Verdict>        verdicts = new ArrayList<>();
+    private final Map<String, Timing>  timings  = new LinkedHashMap<>();
+    @Getter(AccessLevel.NONE)
+    private       int                  currentPacket;
+    @Getter(AccessLevel.NONE)
+    private       long                 currentNanos;
+    private       int                  inbound;
+    private       int                  outbound;
+    private       int                  skipped;
+    private       int                  unknown;
+    private       int                  errors;
+    private       String               firstError;
+    private       int                  punishedAt = -1;
+    private       MitigationStrategy   punishment;
+    private       long                 replayNanos;
+
+    ReplayReport(String username, String clientVersion, long startedAt) {
+        this.username = username;
+        this.clientVersion = clientVersion;
+        this.startedAt = startedAt;
+    }
+
+    void next(RecordedPacket packet) {
+        currentPacket++;
+        currentNanos = packet.getNanos();
+        if (packet.getDirection() == RecordedPacket.Direction.INBOUND) {
+            inbound++;
+        } else {
+            outbound++;
+        }
+    }
+
+    void finish(long replayNanos) {
+        this.replayNanos = replayNanos;
+    }
+
+    void skip() {
+        skipped++;
+    }
+
+    void unknown() {
+        unknown++;
+    }
+
+    void error(String handler, Exception exception) {
+        errors++;
+        if (firstError == null) {
+            firstError = String.format("#%d %s: %s", currentPacket, handler, exception);
+        }
+    }
+
+    void time(String handler, long nanos) {
+        Timing timing = timings.get(handler);
+        if (timing == null) {
+            timing = new Timing(handler);
+            timings.put(handler, timing);
+        }
+        timing.count++;
+        timing.totalNanos += nanos;
+        timing.maxNanos = Math.max(timing.maxNanos, nanos);
+    }
+
+    /**
+     * Records the detection of a check. Called by {@link SierraDetection#dispatch} instead of alerting.
+     *
+     * @param detection  The check
+     * @param document   The violation document of the detection
+     * @param violations The violation level of the check after the detection
+     */
+    public void verdict(SierraDetection detection, ViolationDocument document, int violations) {
+        verdicts.add(new Verdict(currentPacket, currentNanos, detection.getFriendlyName(), violations,
+                                 document.getMitigationStrategy(), document.getDescription()
+        ));
+    }
+
+    /**
+     * Records a punishment. Called by {@link de.feelix.sierra.manager.storage.PlayerData#punish} instead of kicking.
+     *
+     * @param mitigationStrategy The punishment
+     */
+    public void punish(MitigationStrategy mitigationStrategy) {
+        if (punishedAt == -1) {
+            punishedAt = currentPacket;
+            punishment = mitigationStrategy;
+        }
+    }
+
+    /**
+     * Retrieves the time the current packet was recorded at. The checks use it instead of the wall clock during a
+     * replay.
+     *
+     * @return The time in milliseconds
+     */
+    public long timeMillis() {
+        return startedAt + currentNanos / 1_000_000;
+    }
+
+    /**
+     * Retrieves the length of the recording.
+     *
+     * @return The nanoseconds between the start of the recording and its last packet
+     */
+    public long recordingNanos() {
+        return currentNanos;
+    }
+
+    /**
+     * Retrieves the timings of the handlers, the most expensive first.
+     *
+     * @return The sorted timings
+     */
+    public List<Timing> sortedTimings() {
+        List<Timing> sorted = new ArrayList<>(timings.values());
+        sorted.sort((first, second) -> Long.compare(second.totalNanos, first.totalNanos));
+        return Collections.unmodifiableList(sorted);
+    }
+}
@@ -1,8 +1,12 @@
 package de.feelix.sierra.manager.server;
 
+import de.feelix.sierra.Sierra;
+import de.feelix.sierra.manager.storage.SierraDataManager;
 import de.feelix.sierraapi.server.SierraServer;
+import de.feelix.sierraapi.timing.TimingStatistics;
 import io.github.retrooper.packetevents.util.SpigotReflectionUtil;
 
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -45,4 +49,36 @@ public class SierraServerManager implements SierraServer {
     public double tps() {
         return SpigotReflectionUtil.getTPS();
     }
+
+    /**
+     * Returns whether Sierra is in attack mode.
+     *
+     * @return true if the server is under attack
+     */
+    @Override
+    public boolean underAttack() {
+        return Sierra.getPlugin().getAttackMode().isActive();
+    }
+
+    /**
+     * Returns the time spent in every check and packet processor, summed up over all players.
+     *
+     * @return an unmodifiable map of the names of the checks to their timing statistics
+     */
+    @Override
+    public Map<String, TimingStatistics> checkTimings() {
+        SierraDataManager dataManager = SierraDataManager.getInstance();
+        return dataManager.getTimingAggregator().checkTimings(dataManager.getPlayerData().values());
+    }
+
+    /**
+     * Returns the time spent on every packet type, summed up over all players.
+     *
+     * @return an unmodifiable map of the packet types to their timing statistics
+     */
+    @Override
+    public Map<String, TimingStatistics> packetTimings() {
+        SierraDataManager dataManager = SierraDataManager.getInstance();
+        return dataManager.getTimingAggregator().packetTimings(dataManager.getPlayerData().values());
+    }
 }
@@ -7,6 +7,8 @@ import com.github.retrooper.packetevents.protocol.player.User;
 import com.github.retrooper.packetevents.protocol.world.Location;
 import de.feelix.sierra.Sierra;
 import de.feelix.sierra.check.CheckManager;
+import de.feelix.sierra.manager.replay.PacketRecorder;
+import de.feelix.sierra.manager.replay.ReplayReport;
 import de.feelix.sierra.manager.storage.alert.AbstractAlertSetting;
 import de.feelix.sierra.manager.storage.logger.SierraLogger;
 import de.feelix.sierra.manager.storage.processor.*;
@@ -17,6 +19,7 @@ import de.feelix.sierraapi.user.settings.AlertSettings;
 import io.github.retrooper.packetevents.util.folia.FoliaScheduler;
 import lombok.Data;
 import de.feelix.sierraapi.check.CheckRepository;
+import de.feelix.sierraapi.user.impl.LatencyDistribution;
 import de.feelix.sierraapi.user.impl.SierraUser;
 import de.feelix.sierraapi.violation.MitigationStrategy;
 import org.bukkit.Bukkit;
@@ -45,11 +48,15 @@ public class PlayerData implements SierraUser {
     private boolean exempt = false;
     private boolean nameChecked = false;
     private boolean bypassPermission = false;
+    private int attackModeSecond = -1;
 
-    private double bytesSent = 0;
+    private final AlertSettings alertSettings = new AbstractAlertSetting(
+        enabled -> Sierra.getPlugin().getViolationDispatcher().getSubscribers().setAlerts(this, enabled));
+    private final AlertSettings mitigationSettings = new AbstractAlertSetting(
+        enabled -> Sierra.getPlugin().getViolationDispatcher().getSubscribers().setMitigations(this, enabled));
 
-    private final AlertSettings alertSettings = new AbstractAlertSetting();
-    private final AlertSettings mitigationSettings = new AbstractAlertSetting();
+    private volatile PacketRecorder packetRecorder;
+    private ReplayReport replayReport;
 
     private SierraLogger sierraLogger;
     private final CheckManager checkManager = new CheckManager(this);
@@ -58,7 +65,7 @@ public class PlayerData implements SierraUser {
     private final PingProcessor pingProcessor = new PingProcessor(this);
     private final TeleportProcessor teleportProcessor = new TeleportProcessor(this);
     private final TransactionProcessor transactionProcessor = new TransactionProcessor(this);
-    private final TimingHandler timingProcessor = new TimingProcessor(this);
+    private final TimingProcessor timingProcessor = new TimingProcessor(this);
 
     public PlayerData(User user) {
         this.user = user;
@@ -66,14 +73,28 @@ public class PlayerData implements SierraUser {
         this.sierraLogger = new SierraLogger("INVALID");
     }
 
-    public void pollData(Player bukkitPlayer) {
+    /**
+     * Attaches the Bukkit player of this connection once it joined, and takes over its game mode and permissions.
+     *
+     * @param bukkitPlayer The Bukkit player
+     */
+    public void attach(Player bukkitPlayer) {
         this.bukkitPlayer = bukkitPlayer;
-        bypassPermission = bukkitPlayer.hasPermission("sierra.bypass");
+        this.gameMode = GameMode.valueOf(bukkitPlayer.getGameMode().name());
+        refreshPermissions();
         if (this.sierraLogger.getPlayerName().equalsIgnoreCase("INVALID")) {
             this.sierraLogger.close();
             sierraLogger = new SierraLogger(bukkitPlayer.getName());
         }
-        sendTransaction();
+    }
+
+    /**
+     * Looks up the bypass permission of the attached Bukkit player again.
+     */
+    public void refreshPermissions() {
+        if (bukkitPlayer instanceof Player) {
+            bypassPermission = ((Player) bukkitPlayer).hasPermission("sierra.bypass");
+        }
     }
 
     public void sendTransaction() {
@@ -92,6 +113,10 @@ public class PlayerData implements SierraUser {
 
     public void punish(MitigationStrategy mitigationStrategy) {
         setReceivedPunishment(true);
+        if (replayReport != null) {
+            replayReport.punish(mitigationStrategy);
+            return;
+        }
         if (mitigationStrategy == MitigationStrategy.BAN && Sierra.getPlugin().getPunishmentConfig().isBan()) {
             ban();
         }
@@ -99,13 +124,17 @@ public class PlayerData implements SierraUser {
     }
 
     private void ban() {
-        SierraDataManager.increaseBanValue();
-        FoliaScheduler.getGlobalRegionScheduler().run(Sierra.getPlugin(), o -> Bukkit.dispatchCommand(
-            Bukkit.getConsoleSender(),
-            new ConfigValue("punish-command", "ban {username} Crashing", false)
-                .replace("{username}", this.user.getName())
-                .message()
-        ));
+        Sierra.getPlugin().getMetricsRegistry().getBans().increment();
+        String command = new ConfigValue("punish-command", "ban {username} Crashing", false)
+            .replace("{username}", this.user.getName())
+            .message();
+
+        if (Sierra.getPlugin().getAttackMode().isActive()) {
+            Sierra.getPlugin().getAttackMode().queueBan(command);
+            return;
+        }
+        FoliaScheduler.getGlobalRegionScheduler().run(
+            Sierra.getPlugin(), o -> Bukkit.dispatchCommand(Bukkit.getConsoleSender(), command));
     }
 
     public void addRealTimeTask(int transaction, Runnable runnable) {
@@ -150,6 +179,16 @@ public class PlayerData implements SierraUser {
         return (int) this.getPingProcessor().getPing();
     }
 
+    @Override
+    public LatencyDistribution pingDistribution() {
+        return this.getPingProcessor().getPingDistribution();
+    }
+
+    @Override
+    public LatencyDistribution transactionDistribution() {
+        return this.getTransactionProcessor().getTransactionDistribution();
+    }
+
     @Override
     public int ticksExisted() {
         return this.getTicksExisted();
@@ -173,7 +212,7 @@ public class PlayerData implements SierraUser {
     @Override
     public boolean kick() {
         if (user != null) {
-            SierraDataManager.increaseKickValue();
+            Sierra.getPlugin().getMetricsRegistry().getKicks().increment();
             user.closeConnection();
             return true;
         }
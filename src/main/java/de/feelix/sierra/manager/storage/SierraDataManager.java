@@ -6,15 +6,21 @@ import com.github.retrooper.packetevents.event.UserConnectEvent;
 import com.github.retrooper.packetevents.event.UserDisconnectEvent;
 import com.github.retrooper.packetevents.protocol.player.User;
 import de.feelix.sierra.Sierra;
+import de.feelix.sierra.manager.packet.FrameSizeGuard;
 import de.feelix.sierra.manager.storage.history.HistoryDocument;
+import de.feelix.sierra.manager.storage.history.HistoryStore;
+import de.feelix.sierra.manager.storage.timings.TimingAggregator;
 import de.feelix.sierra.utilities.update.UpdateChecker;
-import de.feelix.sierraapi.check.CheckType;
 import de.feelix.sierraapi.events.impl.AsyncHistoryCreateEvent;
 import de.feelix.sierraapi.history.History;
+import de.feelix.sierraapi.history.HistoryPage;
 import de.feelix.sierraapi.history.HistoryType;
 import de.feelix.sierraapi.violation.MitigationStrategy;
 import io.github.retrooper.packetevents.adventure.serializer.legacy.LegacyComponentSerializer;
 import io.github.retrooper.packetevents.util.folia.FoliaScheduler;
+import io.netty.channel.Channel;
+import io.netty.util.AttributeKey;
+import lombok.AccessLevel;
 import lombok.Getter;
 import de.feelix.sierraapi.user.UserRepository;
 import de.feelix.sierraapi.user.impl.SierraUser;
@@ -24,7 +30,6 @@ import net.kyori.adventure.text.event.HoverEvent;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 
-import java.lang.ref.WeakReference;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
@@ -32,6 +37,12 @@ import java.util.concurrent.TimeUnit;
 /**
  * The SierraDataManager class represents a singleton instance that manages player data in the application.
  * It provides methods to manipulate and retrieve player data from the underlying data structures.
+ * <p>
+ * The PlayerData of a connection is attached to its netty channel, so the packet listeners find it without a map
+ * lookup or an allocation. Once the Bukkit player of a connection is known, it is also indexed by its UUID, entity id
+ * and lower-cased name for the {@link UserRepository} queries.
+ * <p>
+ * The action history is kept in a {@link HistoryStore}, which pages through it by cursor without sorting or copying.
  */
 @Getter
 public class SierraDataManager implements UserRepository {
@@ -40,10 +51,9 @@ public class SierraDataManager implements UserRepository {
     private static final String GITHUB_API_BASE_URL = "https://api.github.com/repos/";
     private static final String GITHUB_API_RELEASES = "/releases/latest";
 
+    private static final AttributeKey<PlayerData> PLAYER_DATA_KEY = AttributeKey.valueOf("sierra_player_data");
+
     public static final String UNKNOWN_VERSION = "UNKNOWN";
-    public static final Map<String, Integer> violationCount = new HashMap<>();
-    public static int KICKS = 0;
-    public static int BANS = 0;
     public static boolean skipSkullUUIDCheck = false;
     public static boolean skipModelCheck = false;
     public static boolean skipAnvilCheck = false;
@@ -52,7 +62,14 @@ public class SierraDataManager implements UserRepository {
     @Getter
     private static SierraDataManager instance;
     private final Map<User, PlayerData> playerData = new ConcurrentHashMap<>();
-    private final List<History> histories = new ArrayList<>();
+    @Getter(AccessLevel.NONE)
+    private final Map<UUID, PlayerData> playerDataByUuid = new ConcurrentHashMap<>();
+    @Getter(AccessLevel.NONE)
+    private final Map<Integer, PlayerData> playerDataByEntityId = new ConcurrentHashMap<>();
+    @Getter(AccessLevel.NONE)
+    private final Map<String, PlayerData> playerDataByName = new ConcurrentHashMap<>();
+    private final HistoryStore historyStore = new HistoryStore();
+    private final TimingAggregator timingAggregator = new TimingAggregator();
 
     public SierraDataManager() {
         instance = this;
@@ -64,7 +81,9 @@ public class SierraDataManager implements UserRepository {
             @Override
             public void onUserConnect(UserConnectEvent event) {
                 User user = event.getUser();
+                Sierra.getPlugin().getAttackMode().recordConnection();
                 addPlayerData(user);
+                FrameSizeGuard.install(user, getPlayerData(user));
                 checkIfBlocked(user);
                 checkForUpdate(user);
             }
@@ -77,14 +96,15 @@ public class SierraDataManager implements UserRepository {
     }
 
     private void checkIfBlocked(User user) {
-        if (Sierra.getPlugin().getSierraConfigEngine().config().getBoolean("block-connections-after-ban", true)) {
+        if (Sierra.getPlugin().getSierraConfigEngine().settings().isBlockConnectionsAfterBan()) {
             String hostAddress = user.getAddress().getAddress().getHostAddress();
             if (Sierra.getPlugin().getAddressStorage().invalid(hostAddress)) {
+                Sierra.getPlugin().getMetricsRegistry().getBlockedConnections().increment();
                 Sierra.getPlugin()
                     .getLogger()
                     .info("Connection of " + hostAddress + " got blocked, cause it was punished recently");
 
-                PlayerData data = getPlayerData(user).get();
+                PlayerData data = getPlayerData(user);
 
                 if (data != null) {
                     data.punish(MitigationStrategy.KICK);
@@ -136,11 +156,6 @@ public class SierraDataManager implements UserRepository {
         return player.hasPermission("sierra.update") || player.isOp();
     }
 
-    public void addKick(CheckType checkType) {
-        String name = checkType.getFriendlyName().replace(" ", "");
-        violationCount.merge(name, 1, Integer::sum);
-    }
-
     private void sendMessage(User user) {
         String localVersion = Sierra.getPlugin().getDescription().getVersion();
         String latestReleaseVersion = Sierra.getPlugin().getUpdateChecker().getLatestReleaseVersion();
@@ -172,72 +187,133 @@ public class SierraDataManager implements UserRepository {
                                String description, HistoryType type) {
 
         FoliaScheduler.getAsyncScheduler()
-            .runNow(Sierra.getPlugin(), o -> {
-
-                        HistoryDocument document = new HistoryDocument(
-                            username, description, clientVersion, ping, mitigationStrategy, type);
-
-                        AsyncHistoryCreateEvent event = new AsyncHistoryCreateEvent(document);
-                        Sierra.getPlugin().getEventBus().publish(event);
+            .runNow(Sierra.getPlugin(), o -> storeHistory(new HistoryDocument(
+                username, description, clientVersion, ping, mitigationStrategy, type)));
+    }
 
-                        if (!event.isCancelled()) {
-                            histories.add(document);
-                        }
-                    }
-            );
+    /**
+     * Publishes a history document and stores it, unless a listener cancelled it. Listeners run on the calling
+     * thread, so this must only be called from an async thread.
+     *
+     * @param document The history document
+     */
+    public void storeHistory(HistoryDocument document) {
+        AsyncHistoryCreateEvent event = new AsyncHistoryCreateEvent(document);
+        Sierra.getPlugin().getEventBus().publish(event);
+
+        if (!event.isCancelled()) {
+            historyStore.append(document);
+        }
     }
 
-    public WeakReference<PlayerData> getPlayerData(User user) {
-        return new WeakReference<>(playerData.get(user));
+    /**
+     * Retrieves the PlayerData of a connection. This runs for every packet, so it is a single attribute read on the
+     * channel of the user. Users without a netty channel fall back to the map of all players.
+     *
+     * @param user The user of the connection
+     * @return The PlayerData of the connection, or {@code null} if it has none
+     */
+    public PlayerData getPlayerData(User user) {
+        Object channel = user.getChannel();
+        if (channel instanceof Channel) {
+            return ((Channel) channel).attr(PLAYER_DATA_KEY).get();
+        }
+        return playerData.get(user);
     }
 
     public void addPlayerData(User user) {
-        playerData.put(user, new PlayerData(user));
+        PlayerData data = new PlayerData(user);
+        playerData.put(user, data);
+
+        Object channel = user.getChannel();
+        if (channel instanceof Channel) {
+            ((Channel) channel).attr(PLAYER_DATA_KEY).set(data);
+        }
+    }
+
+    /**
+     * Indexes the PlayerData of a connection once its Bukkit player is known, so it can be queried by UUID, entity id
+     * and name.
+     *
+     * @param data   The PlayerData of the connection
+     * @param player The Bukkit player of the connection
+     */
+    public void indexPlayerData(PlayerData data, Player player) {
+        if (playerData.get(data.getUser()) != data) return;
+
+        playerDataByUuid.put(player.getUniqueId(), data);
+        playerDataByEntityId.put(player.getEntityId(), data);
+        playerDataByName.put(player.getName().toLowerCase(Locale.ROOT), data);
     }
 
     public void removePlayerData(User user) {
-        PlayerData data = playerData.get(user);
+        PlayerData data = playerData.remove(user);
 
-        if (data != null && data.getSierraLogger() != null) {
-            data.getSierraLogger().close();
+        Object channel = user.getChannel();
+        if (channel instanceof Channel) {
+            ((Channel) channel).attr(PLAYER_DATA_KEY).set(null);
         }
-        playerData.remove(user);
-    }
 
-    public static void increaseKickValue() {
-        SierraDataManager.KICKS++;
+        if (data != null) {
+            removeIndexes(data);
+            timingAggregator.retire(data);
+            if (data.getSierraLogger() != null) {
+                data.getSierraLogger().close();
+            }
+            if (data.getPacketRecorder() != null) {
+                data.getPacketRecorder().stop();
+            }
+        }
+        Sierra.getPlugin().getViolationDispatcher().getSubscribers().remove(user);
     }
 
-    public static void increaseBanValue() {
-        SierraDataManager.BANS++;
+    private void removeIndexes(PlayerData data) {
+        Object player = data.getBukkitPlayer();
+        if (!(player instanceof Player)) return;
+
+        // Only remove the entries of this connection, the player may already have reconnected
+        playerDataByUuid.remove(((Player) player).getUniqueId(), data);
+        playerDataByEntityId.remove(((Player) player).getEntityId(), data);
+        playerDataByName.remove(((Player) player).getName().toLowerCase(Locale.ROOT), data);
     }
 
     @Override
     public Optional<SierraUser> queryUserByUuid(UUID uuid) {
-        return playerData.keySet().stream()
-            .filter(user -> user.getUUID().equals(uuid))
-            .map(user -> (SierraUser) playerData.get(user))
-            .findFirst();
+        return Optional.ofNullable(playerDataByUuid.get(uuid));
     }
 
     @Override
     public Optional<SierraUser> queryUserByEntityId(int id) {
-        return playerData.keySet().stream()
-            .filter(user -> user.getEntityId() == id)
-            .map(user -> (SierraUser) playerData.get(user))
-            .findFirst();
+        return Optional.ofNullable(playerDataByEntityId.get(id));
     }
 
     @Override
     public Optional<SierraUser> queryUserByName(String name) {
-        return playerData.keySet().stream()
-            .filter(user -> user.getName().equalsIgnoreCase(name))
-            .map(user -> (SierraUser) playerData.get(user))
-            .findFirst();
+        return Optional.ofNullable(playerDataByName.get(name.toLowerCase(Locale.ROOT)));
     }
 
     @Override
     public List<History> getLocalActionHistory() {
-        return histories;
+        return historyStore.view();
+    }
+
+    @Override
+    public HistoryPage getLocalActionHistory(long cursor, int limit) {
+        return historyStore.page((String) null, cursor, limit);
+    }
+
+    @Override
+    public HistoryPage getLocalActionHistory(String username, long cursor, int limit) {
+        return historyStore.page(Objects.requireNonNull(username, "username"), cursor, limit);
+    }
+
+    @Override
+    public HistoryPage getLocalActionHistory(HistoryType historyType, long cursor, int limit) {
+        return historyStore.page(historyType, cursor, limit);
+    }
+
+    @Override
+    public HistoryPage getLocalActionHistorySince(long timestamp, long cursor, int limit) {
+        return historyStore.since(timestamp, cursor, limit);
     }
 }
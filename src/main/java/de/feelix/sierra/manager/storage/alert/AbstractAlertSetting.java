@@ -2,6 +2,8 @@ package de.feelix.sierra.manager.storage.alert;
 
 import de.feelix.sierraapi.user.settings.AlertSettings;
 
+import java.util.function.Consumer;
+
 /**
  * {@code AbstractAlertSetting} is a class that implements the {@code AlertSettings} interface.
  * It provides a basic implementation of the methods in the {@code AlertSettings} interface.
@@ -22,6 +24,28 @@ public class AbstractAlertSetting implements AlertSettings {
      */
     private boolean enabled = false;
 
+    /**
+     * Is notified with the new state whenever the alert is toggled.
+     */
+    private final Consumer<Boolean> listener;
+
+    /**
+     * Creates a disabled alert setting.
+     */
+    public AbstractAlertSetting() {
+        this(enabled -> {
+        });
+    }
+
+    /**
+     * Creates a disabled alert setting that notifies a listener whenever it is toggled.
+     *
+     * @param listener the listener receiving the new state
+     */
+    public AbstractAlertSetting(Consumer<Boolean> listener) {
+        this.listener = listener;
+    }
+
     /**
      * Returns whether the alert is enabled or disabled.
      *
@@ -40,5 +64,6 @@ public class AbstractAlertSetting implements AlertSettings {
     @Override
     public void toggle(boolean enabled) {
         this.enabled = enabled;
+        listener.accept(enabled);
     }
 }
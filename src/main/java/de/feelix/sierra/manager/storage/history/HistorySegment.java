@@ -0,0 +1,284 @@
+package de.feelix.sierra.manager.storage.history;
+
+import de.feelix.sierraapi.history.HistoryType;
+import de.feelix.sierraapi.violation.MitigationStrategy;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * The HistorySegment class is a single file of the history log. Entries are only ever appended to a segment, and
+ * once the segment is full, it is sealed and never written again.
+ * <p>
+ * A record is its length, followed by the timestamp, the ping, the ordinals of the mitigation strategy and the history
+ * type, and the UTF-8 encoded username, client version and description. The segment knows the offset of every record,
+ * so an entry is read by its sequence number without scanning the file. The segment that is still written to is read
+ * with positional reads of single records. Once a segment is sealed, it does not change anymore and is mapped into
+ * memory once, so its entries are read from the mapping.
+ */
+final class HistorySegment {
+
+    private static final MitigationStrategy[] STRATEGIES = MitigationStrategy.values();
+    private static final HistoryType[]        TYPES      = HistoryType.values();
+
+    private static final int HEADER      = 4;
+    private static final int FIXED       = 8 + 8 + 1 + 1;
+    private static final int MIN_RECORD  = FIXED + 3 * 4;
+    private static final int TYPE_OFFSET = HEADER + 8 + 8 + 1;
+
+    private final Path             path;
+    private final long             first;
+    private       FileChannel      channel;
+    private       MappedByteBuffer mapped;
+    private       int[]            offsets = new int[64];
+    private       int              count;
+    private       long             size;
+
+    private HistorySegment(Path path, long first, FileChannel channel, long size) {
+        this.path = path;
+        this.first = first;
+        this.channel = channel;
+        this.size = size;
+    }
+
+    /**
+     * Creates an empty segment, which is open for appending.
+     *
+     * @param path  The file of the segment
+     * @param first The sequence number of the first entry of the segment
+     * @return The segment
+     * @throws IOException if the file could not be created
+     */
+    static HistorySegment create(Path path, long first) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                                               StandardOpenOption.WRITE
+        );
+        return new HistorySegment(path, first, channel, 0);
+    }
+
+    /**
+     * Opens an existing segment and reads the offsets of its records. A record that was cut off, for example by a
+     * crash while it was written, is removed from the file together with everything after it.
+     *
+     * @param path    The file of the segment
+     * @param first   The sequence number of the first entry of the segment
+     * @param visitor Receives the index fields of every record, in order
+     * @return The segment, open for appending
+     * @throws IOException if the file could not be read
+     */
+    static HistorySegment open(Path path, long first, Visitor visitor) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        HistorySegment segment = new HistorySegment(path, first, channel, channel.size());
+        segment.scan(visitor);
+        return segment;
+    }
+
+    private void scan(Visitor visitor) throws IOException {
+        ByteBuffer header   = ByteBuffer.allocate(HEADER);
+        int        position = 0;
+
+        while (position + HEADER <= size) {
+            header.clear();
+            readFully(header, position);
+            int length = header.getInt(0);
+            if (length < MIN_RECORD || position + HEADER + (long) length > size) break;
+
+            ByteBuffer record = ByteBuffer.allocate(HEADER + length);
+            readFully(record, position);
+            if (!valid(record, 0, record.capacity())) break;
+
+            addOffset(position);
+            visitor.visit(first + count - 1, record.getLong(HEADER), TYPES[record.get(TYPE_OFFSET)],
+                          readUsername(record)
+            );
+            position += HEADER + length;
+        }
+
+        if (position < size) {
+            channel.truncate(position);
+            size = position;
+        }
+    }
+
+    private static boolean valid(ByteBuffer buffer, int position, int end) {
+        int strategy = buffer.get(position + TYPE_OFFSET - 1);
+        int type     = buffer.get(position + TYPE_OFFSET);
+        if (strategy < 0 || strategy >= STRATEGIES.length || type < 0 || type >= TYPES.length) return false;
+
+        int field = position + HEADER + FIXED;
+        for (int i = 0; i < 3; i++) {
+            int length = buffer.getInt(field);
+            if (length < 0 || field + 4 + (long) length > end) return false;
+            field += 4 + length;
+        }
+        return field == end;
+    }
+
+    /**
+     * Appends a record to the end of the segment.
+     *
+     * @param record The encoded record
+     * @throws IOException if the record could not be written
+     */
+    void append(ByteBuffer record) throws IOException {
+        int  position = (int) size;
+        long written  = 0;
+        while (record.hasRemaining()) {
+            written += channel.write(record, size + written);
+        }
+        addOffset(position);
+        size += written;
+    }
+
+    /**
+     * Reads an entry of this segment.
+     *
+     * @param sequence The sequence number of the entry
+     * @return The entry
+     * @throws IOException if the entry could not be read
+     */
+    HistoryDocument read(long sequence) throws IOException {
+        int        index    = (int) (sequence - first);
+        int        position = offsets[index];
+        ByteBuffer buffer;
+        if (mapped != null) {
+            buffer = mapped.duplicate();
+            buffer.position(position + HEADER);
+        } else {
+            if (channel == null) throw new IOException("Segment " + path.getFileName() + " is closed");
+            int end = index + 1 < count ? offsets[index + 1] : (int) size;
+            buffer = ByteBuffer.allocate(end - position);
+            readFully(buffer, position);
+            buffer.position(HEADER);
+        }
+
+        long               timestamp     = buffer.getLong();
+        long               ping          = buffer.getLong();
+        MitigationStrategy strategy      = STRATEGIES[buffer.get()];
+        HistoryType        type          = TYPES[buffer.get()];
+        String             username      = readString(buffer);
+        String             clientVersion = readString(buffer);
+        String             description   = readString(buffer);
+        return new HistoryDocument(username, description, clientVersion, ping, strategy, type, timestamp);
+    }
+
+    /**
+     * Seals the segment. It is mapped for reads and not written anymore.
+     */
+    void seal() {
+        if (channel == null) return;
+        try {
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        } catch (IOException ignored) {
+        }
+        close();
+    }
+
+    /**
+     * Writes the segment to disk and closes its file, without mapping it.
+     */
+    void close() {
+        if (channel == null) return;
+        try {
+            channel.force(false);
+            channel.close();
+        } catch (IOException ignored) {
+        }
+        channel = null;
+    }
+
+    /**
+     * Closes the segment and drops its mapping, so the file can be deleted once the mapping was released.
+     *
+     * @return The file of the segment
+     */
+    Path release() {
+        close();
+        mapped = null;
+        return path;
+    }
+
+    long first() {
+        return first;
+    }
+
+    long end() {
+        return first + count;
+    }
+
+    int count() {
+        return count;
+    }
+
+    long size() {
+        return size;
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Segment " + path.getFileName() + " ends early");
+            }
+        }
+    }
+
+    private void addOffset(int position) {
+        if (count == offsets.length) offsets = Arrays.copyOf(offsets, count * 2);
+        offsets[count++] = position;
+    }
+
+    /**
+     * Encodes an entry into a record.
+     *
+     * @param document The entry
+     * @return The record, ready to be written
+     */
+    static ByteBuffer encode(HistoryDocument document) {
+        byte[] username      = bytes(document.username());
+        byte[] clientVersion = bytes(document.clientVersion());
+        byte[] description   = bytes(document.description());
+
+        int        length = MIN_RECORD + username.length + clientVersion.length + description.length;
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER + length);
+        buffer.putInt(length)
+            .putLong(document.timestamp())
+            .putLong(document.ping())
+            .put((byte) document.mitigationStrategy().ordinal())
+            .put((byte) document.historyType().ordinal());
+        buffer.putInt(username.length).put(username);
+        buffer.putInt(clientVersion.length).put(clientVersion);
+        buffer.putInt(description.length).put(description);
+        buffer.flip();
+        return buffer;
+    }
+
+    private static byte[] bytes(String value) {
+        return value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String readUsername(ByteBuffer record) {
+        record.position(HEADER + FIXED);
+        return readString(record);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Receives the fields of a record that the history is indexed by.
+     */
+    interface Visitor {
+
+        void visit(long sequence, long timestamp, HistoryType historyType, String username);
+    }
+}
@@ -0,0 +1,38 @@
+package de.feelix.sierra.manager.storage.history;
+
+import de.feelix.sierraapi.history.History;
+import de.feelix.sierraapi.history.HistoryPage;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The HistorySlice class is a page of the {@link HistoryStore}, as returned to the API and the history command.
+ */
+final class HistorySlice implements HistoryPage {
+
+    private final List<History> entries;
+    private final long          cursor;
+    private final boolean       hasMore;
+
+    HistorySlice(List<History> entries, long cursor, boolean hasMore) {
+        this.entries = Collections.unmodifiableList(entries);
+        this.cursor = cursor;
+        this.hasMore = hasMore;
+    }
+
+    @Override
+    public List<History> entries() {
+        return entries;
+    }
+
+    @Override
+    public long cursor() {
+        return cursor;
+    }
+
+    @Override
+    public boolean hasMore() {
+        return hasMore;
+    }
+}
@@ -0,0 +1,449 @@
+package de.feelix.sierra.manager.storage.history;
+
+import de.feelix.sierra.Sierra;
+import de.feelix.sierra.manager.config.SierraSettings;
+import de.feelix.sierraapi.history.History;
+import de.feelix.sierraapi.history.HistoryPage;
+import de.feelix.sierraapi.history.HistoryType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * The HistoryStore class keeps the action history in an append-only log on disk.
+ * <p>
+ * Every entry gets a sequence number and is appended to the newest {@link HistorySegment}. Once a segment reached the
+ * configured size, a new one is started, and the oldest segment is deleted when there are more than the configured
+ * number, so the log is bounded on disk. A deleted segment may still be mapped until its mapping is released, which
+ * prevents the deletion on some systems, so failed deletions are retried whenever a segment is started. The newest
+ * entries are also kept in a ring in memory; older entries are read from the segments when they are requested.
+ * <p>
+ * The sequence numbers of all entries, of every username and of every {@link HistoryType} are indexed in sorted
+ * primitive arrays, together with the timestamps of all entries. A page is found by a binary search for its cursor
+ * in one of these arrays, so no query sorts or copies the history.
+ * <p>
+ * All methods are synchronized. Entries are appended from async threads, and a page only holds the lock while its
+ * few entries are read.
+ */
+public class HistoryStore {
+
+    private static final String DIRECTORY = "plugins/Sierra/history/";
+    private static final String PREFIX    = "history-";
+    private static final String SUFFIX    = ".log";
+
+    private static final HistoryType[] TYPES = HistoryType.values();
+
+    private final List<HistorySegment>      segments   = new ArrayList<>();
+    private final SequenceList              all        = new SequenceList();
+    private final SequenceList              timestamps = new SequenceList();
+    private final SequenceList[]            byType     = new SequenceList[TYPES.length];
+    private final Map<String, SequenceList> byUsername = new HashMap<>();
+    private final List<Path>                pending    = new ArrayList<>();
+
+    private HistoryDocument[] tail = new HistoryDocument[500];
+    private HistorySegment    active;
+    private Path              directory;
+    private boolean           persistent;
+    private long              segmentSize;
+    private int               maxSegments;
+    private long              next;
+    private long              tailStart;
+    private long              lastTimestamp = Long.MIN_VALUE;
+
+    public HistoryStore() {
+        for (int i = 0; i < byType.length; i++) {
+            byType[i] = new SequenceList();
+        }
+    }
+
+    /**
+     * Opens the log on disk and indexes the entries of previous runs. Must be called before the first entry is
+     * appended. If the log can not be opened, the history is only kept in memory.
+     *
+     * @param settings The current settings snapshot
+     */
+    public synchronized void open(SierraSettings settings) {
+        segmentSize = settings.getHistorySegmentSize();
+        maxSegments = settings.getHistoryMaxSegments();
+        tail = new HistoryDocument[settings.getHistoryMemoryEntries()];
+        directory = Paths.get(DIRECTORY);
+
+        try {
+            Files.createDirectories(directory);
+            load();
+            persistent = true;
+        } catch (IOException e) {
+            Sierra.getPlugin().getLogger().warning("Unable to open the history log: " + e.getMessage());
+            closeSegments();
+            evict(next);
+        }
+        tailStart = next;
+    }
+
+    private void load() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            for (Path file : stream) {
+                if (firstSequence(file) >= 0) files.add(file);
+            }
+        }
+        files.sort((a, b) -> Long.compare(firstSequence(a), firstSequence(b)));
+
+        // Delete the segments that are over the limit before they are mapped
+        while (files.size() > maxSegments) {
+            pending.add(files.remove(0));
+        }
+        deletePending();
+
+        for (Path file : files) {
+            long first = firstSequence(file);
+            if (first < next) {
+                Sierra.getPlugin().getLogger().warning("Ignoring overlapping history segment " + file.getFileName());
+                continue;
+            }
+            if (active != null) active.seal();
+            active = HistorySegment.open(file, first, this::index);
+            segments.add(active);
+            next = active.end();
+        }
+    }
+
+    /**
+     * Appends an entry to the history.
+     *
+     * @param document The entry
+     */
+    public synchronized void append(HistoryDocument document) {
+        long sequence = next++;
+        tail[(int) (sequence % tail.length)] = document;
+        index(sequence, document.timestamp(), document.historyType(), document.username());
+
+        if (persistent) {
+            write(sequence, document);
+        } else if (all.size() >= 2 * tail.length) {
+            // Without a log, entries that left the ring can not be read anymore
+            evict(next - tail.length);
+        }
+    }
+
+    private void write(long sequence, HistoryDocument document) {
+        ByteBuffer record = HistorySegment.encode(document);
+        try {
+            if (active == null || active.count() > 0 && active.size() + record.remaining() > segmentSize) {
+                roll(sequence);
+            }
+            active.append(record);
+        } catch (IOException e) {
+            Sierra.getPlugin().getLogger().warning("Unable to write the history log: " + e.getMessage());
+            persistent = false;
+            if (active != null) active.close();
+        }
+    }
+
+    private void roll(long sequence) throws IOException {
+        if (active != null) active.seal();
+        Path file = directory.resolve(String.format("%s%019d%s", PREFIX, sequence, SUFFIX));
+        active = HistorySegment.create(file, sequence);
+        segments.add(active);
+
+        while (segments.size() > maxSegments) {
+            evictSegment();
+        }
+        deletePending();
+    }
+
+    private void evictSegment() {
+        pending.add(segments.remove(0).release());
+        evict(segments.isEmpty() ? next : segments.get(0).first());
+    }
+
+    private void deletePending() {
+        Iterator<Path> iterator = pending.iterator();
+        while (iterator.hasNext()) {
+            try {
+                Files.deleteIfExists(iterator.next());
+                iterator.remove();
+            } catch (IOException ignored) {
+                // Still mapped, retried with the next segment or deleted on the next start
+            }
+        }
+    }
+
+    /**
+     * Removes all sequence numbers below a bound from the indexes.
+     */
+    private void evict(long bound) {
+        int dropped = all.lowerBound(bound);
+        all.dropFirst(dropped);
+        timestamps.dropFirst(dropped);
+
+        for (SequenceList sequences : byType) {
+            sequences.dropFirst(sequences.lowerBound(bound));
+        }
+        Iterator<SequenceList> iterator = byUsername.values().iterator();
+        while (iterator.hasNext()) {
+            SequenceList sequences = iterator.next();
+            sequences.dropFirst(sequences.lowerBound(bound));
+            if (sequences.size() == 0) iterator.remove();
+        }
+    }
+
+    private void index(long sequence, long timestamp, HistoryType historyType, String username) {
+        // Entries are created on different threads, so their timestamps are only nearly sorted. The index holds the
+        // highest timestamp up to every entry instead, which is sorted and never less than the entry's own timestamp,
+        // so no entry before the first indexed timestamp at or after a point in time happened after it.
+        lastTimestamp = Math.max(lastTimestamp, timestamp);
+        all.add(sequence);
+        timestamps.add(lastTimestamp);
+        byType[historyType.ordinal()].add(sequence);
+        byUsername.computeIfAbsent(key(username), k -> new SequenceList()).add(sequence);
+    }
+
+    /**
+     * Retrieves a page of the history, newest entries first.
+     *
+     * @param username The name of the player, or {@code null} for the entries of all players
+     * @param cursor   The cursor of the page, {@link HistoryPage#FIRST} for the newest entries
+     * @param limit    The maximum number of entries on the page
+     * @return The page
+     */
+    public synchronized HistoryPage page(String username, long cursor, int limit) {
+        return slice(sequences(username), 0, cursor, limit, Long.MIN_VALUE);
+    }
+
+    /**
+     * Retrieves a page of the entries of a history type, newest entries first.
+     *
+     * @param historyType The type of the entries
+     * @param cursor      The cursor of the page, {@link HistoryPage#FIRST} for the newest entries
+     * @param limit       The maximum number of entries on the page
+     * @return The page
+     */
+    public synchronized HistoryPage page(HistoryType historyType, long cursor, int limit) {
+        return slice(byType[historyType.ordinal()], 0, cursor, limit, Long.MIN_VALUE);
+    }
+
+    /**
+     * Retrieves a page of the entries created at or after a point in time, newest entries first.
+     *
+     * @param timestamp The earliest time of the entries in milliseconds
+     * @param cursor    The cursor of the page, {@link HistoryPage#FIRST} for the newest entries
+     * @param limit     The maximum number of entries on the page
+     * @return The page
+     */
+    public synchronized HistoryPage since(long timestamp, long cursor, int limit) {
+        return slice(all, timestamps.lowerBound(timestamp), cursor, limit, timestamp);
+    }
+
+    /**
+     * Counts the entries of a player.
+     *
+     * @param username The name of the player, or {@code null} to count the entries of all players
+     * @return The number of entries
+     */
+    public synchronized int count(String username) {
+        SequenceList sequences = sequences(username);
+        return sequences == null ? 0 : sequences.size();
+    }
+
+    /**
+     * Retrieves the cursor of the page that starts after skipping the newest entries of a player. This lets the
+     * history command show numbered pages with a single lookup.
+     *
+     * @param username The name of the player, or {@code null} for the entries of all players
+     * @param skipped  The number of entries to skip
+     * @return The cursor
+     */
+    public synchronized long cursor(String username, int skipped) {
+        SequenceList sequences = sequences(username);
+        if (sequences == null || skipped <= 0) return HistoryPage.FIRST;
+        if (skipped >= sequences.size()) return sequences.size() == 0 ? HistoryPage.FIRST : sequences.get(0);
+        return sequences.get(sequences.size() - skipped);
+    }
+
+    /**
+     * Creates a list view of all entries in the order they were appended. The view is not copied; its entries are
+     * read from the store when they are accessed. Entries appended after the view was created are not part of it.
+     *
+     * @return The view of all entries
+     */
+    public synchronized List<History> view() {
+        return new HistoryView(all.size() == 0 ? next : all.get(0), all.size());
+    }
+
+    /**
+     * Writes all pending data and closes the log. The entries appended afterward are only kept in memory.
+     */
+    public synchronized void close() {
+        closeSegments();
+        deletePending();
+        for (Path file : pending) {
+            Sierra.getPlugin().getLogger().warning(
+                "Unable to delete history segment " + file.getFileName() + ", it is deleted on the next start");
+        }
+        pending.clear();
+        persistent = false;
+    }
+
+    private void closeSegments() {
+        for (HistorySegment segment : segments) {
+            segment.close();
+        }
+        segments.clear();
+        active = null;
+    }
+
+    private HistorySlice slice(SequenceList sequences, int floor, long cursor, int limit, long since) {
+        List<History> entries = new ArrayList<>(Math.max(0, Math.min(limit, 64)));
+        if (sequences == null) return new HistorySlice(entries, cursor, false);
+
+        int  index = sequences.lowerBound(cursor) - 1;
+        long last  = cursor;
+        while (index >= floor && entries.size() < limit) {
+            long            sequence = sequences.get(index--);
+            HistoryDocument document = read(sequence);
+            last = sequence;
+            if (document != null && document.timestamp() >= since) entries.add(document);
+        }
+        return new HistorySlice(entries, last, index >= floor);
+    }
+
+    private HistoryDocument read(long sequence) {
+        if (sequence >= tailStart && sequence >= next - tail.length && sequence < next) {
+            return tail[(int) (sequence % tail.length)];
+        }
+
+        HistorySegment segment = segment(sequence);
+        if (segment == null) return null;
+        try {
+            return segment.read(sequence);
+        } catch (IOException e) {
+            Sierra.getPlugin().getLogger().warning("Unable to read the history: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private HistorySegment segment(long sequence) {
+        int low  = 0;
+        int high = segments.size() - 1;
+        while (low <= high) {
+            int            middle  = (low + high) >>> 1;
+            HistorySegment segment = segments.get(middle);
+            if (sequence < segment.first()) {
+                high = middle - 1;
+            } else if (sequence >= segment.end()) {
+                low = middle + 1;
+            } else {
+                return segment;
+            }
+        }
+        return null;
+    }
+
+    private SequenceList sequences(String username) {
+        return username == null ? all : byUsername.get(key(username));
+    }
+
+    private static String key(String username) {
+        return username == null ? "" : username.toLowerCase(Locale.ROOT);
+    }
+
+    private static long firstSequence(Path file) {
+        String name = file.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * A growing array of ascending longs. Values are only added at the end and removed at the start.
+     */
+    private static final class SequenceList {
+
+        private long[] values = new long[16];
+        private int    head;
+        private int    end;
+
+        private void add(long value) {
+            if (end == values.length) {
+                int    size  = size();
+                long[] array = size * 2 > values.length ? new long[values.length * 2] : values;
+                System.arraycopy(values, head, array, 0, size);
+                values = array;
+                head = 0;
+                end = size;
+            }
+            values[end++] = value;
+        }
+
+        private long get(int index) {
+            return values[head + index];
+        }
+
+        private int size() {
+            return end - head;
+        }
+
+        /**
+         * Finds the index of the first value that is not less than the given value.
+         */
+        private int lowerBound(long value) {
+            int low  = head;
+            int high = end;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (values[middle] < value) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low - head;
+        }
+
+        private void dropFirst(int count) {
+            head += count;
+        }
+    }
+
+    private final class HistoryView extends AbstractList<History> implements RandomAccess {
+
+        private final long first;
+        private final int  size;
+
+        private HistoryView(long first, int size) {
+            this.first = first;
+            this.size = size;
+        }
+
+        @Override
+        public History get(int index) {
+            if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+
+            synchronized (HistoryStore.this) {
+                if (all.size() == 0 || all.get(0) > first) throw new ConcurrentModificationException();
+                return read(all.get(all.lowerBound(first) + index));
+            }
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
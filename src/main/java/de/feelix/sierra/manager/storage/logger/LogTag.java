@@ -2,5 +2,6 @@ package de.feelix.sierra.manager.storage.logger;
 
 public enum LogTag {
 
-    PRE, DETECTION, EXCEPTION, BLOCK_PLACE, PAYLOAD, EXCEP_PAYLOAD, CREATIVE, WINDOW_CLICK, SKIP, TRANS_EXCEP, INTERACT
+    PRE, DETECTION, EXCEPTION, BLOCK_PLACE, PAYLOAD, EXCEP_PAYLOAD, CREATIVE, WINDOW_CLICK, SKIP, TRANS_EXCEP, INTERACT,
+    SLOW_PACKET
 }
@@ -0,0 +1,292 @@
+package de.feelix.sierra.manager.storage.logger;
+
+import de.feelix.sierra.Sierra;
+import de.feelix.sierra.utilities.MpscArrayQueue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The SierraLogWriter class writes the player logs of all {@link SierraLogger}s on a single background thread.
+ * <p>
+ * Loggers only put their lines into a bounded ring buffer, so logging never touches the disk on the calling thread.
+ * The writer thread drains the buffer in batches, groups the lines of a batch by player and appends each group to
+ * the player's file with a single {@link FileChannel} write. Timestamps are formatted once per second.
+ * <p>
+ * Files are opened on their first write. At most {@link #MAX_OPEN_FILES} files stay open; the least recently used
+ * file is closed when another one is needed, and files without writes for {@link #IDLE_TIMEOUT} are closed as well.
+ * The file of a player who left is closed once the lines queued before have been written. If the buffer is full at
+ * that moment, the player is remembered instead and the file is closed after the next batch.
+ */
+public class SierraLogWriter {
+
+    private static final String LOG_DIRECTORY  = "plugins/Sierra/logs/";
+    private static final String LOG_FILE       = "logs.sierra";
+    private static final int    CAPACITY       = 16384;
+    private static final int    BATCH_SIZE     = 4096;
+    private static final int    MAX_OPEN_FILES = 64;
+    private static final long   IDLE_TIMEOUT   = TimeUnit.SECONDS.toMillis(30);
+    private static final long   PARK_NANOS     = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final MpscArrayQueue<Entry>      queue    = new MpscArrayQueue<>(CAPACITY);
+    private final Set<String>                releases = ConcurrentHashMap.newKeySet();
+    private final AtomicLong                 dropped  = new AtomicLong();
+    private final List<Entry>                batch    = new ArrayList<>(BATCH_SIZE);
+    private final Map<String, StringBuilder> grouped  = new HashMap<>();
+    private final Map<String, OpenFile>      files    = new LinkedHashMap<>(16, 0.75f, true);
+    private final SimpleDateFormat           format   = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+
+    private volatile boolean running;
+    private          Thread  thread;
+    private          long    cachedSecond = -1;
+    private          String  cachedPrefix;
+    private          long    lastSweep;
+
+    /**
+     * Starts the writer thread.
+     */
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        thread = new Thread(this::run, "Sierra Log Writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops the writer thread, writes all remaining lines and closes all files.
+     */
+    public synchronized void stop() {
+        if (!running) return;
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Queues a line for the log of a player. Can be called from any thread and never blocks.
+     *
+     * @param playerName The name of the player
+     * @param tag        The tag of the line
+     * @param message    The message of the line
+     */
+    void submit(String playerName, LogTag tag, String message) {
+        if (!queue.offer(new Entry(playerName, tag, message, System.currentTimeMillis()))) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    /**
+     * Queues the closing of the log file of a player, after all lines queued before have been written.
+     *
+     * @param playerName The name of the player
+     */
+    void release(String playerName) {
+        if (!queue.offer(new Entry(playerName, null, null, 0))) {
+            releases.add(playerName);
+        }
+    }
+
+    private void run() {
+        while (running) {
+            if (writeBatch() == 0) {
+                LockSupport.parkNanos(this, PARK_NANOS);
+            }
+            closeReleased();
+            sweep(System.currentTimeMillis());
+        }
+
+        while (writeBatch() > 0) {
+            // Write everything that was queued before the writer stopped
+        }
+        for (OpenFile file : files.values()) {
+            file.close();
+        }
+        files.clear();
+        reportDropped();
+    }
+
+    private int writeBatch() {
+        int drained = queue.drain(batch::add, BATCH_SIZE);
+        if (drained == 0) return 0;
+
+        for (Entry entry : batch) {
+            if (entry.tag == null) {
+                flush(entry.playerName);
+                closeFile(entry.playerName);
+                continue;
+            }
+            StringBuilder builder = grouped.get(entry.playerName);
+            if (builder == null) {
+                builder = new StringBuilder(256);
+                grouped.put(entry.playerName, builder);
+            }
+            builder.append(prefix(entry.timestamp)).append(entry.tag.name()).append(": ")
+                .append(entry.message).append(System.lineSeparator());
+        }
+        batch.clear();
+
+        for (Map.Entry<String, StringBuilder> group : grouped.entrySet()) {
+            write(group.getKey(), group.getValue());
+        }
+        grouped.clear();
+        return drained;
+    }
+
+    /**
+     * Closes the files of the players whose release did not fit into the buffer. Their lines of the last batch have
+     * already been written, a line still in the buffer opens the file again.
+     */
+    private void closeReleased() {
+        if (releases.isEmpty()) return;
+
+        Iterator<String> iterator = releases.iterator();
+        while (iterator.hasNext()) {
+            closeFile(iterator.next());
+            iterator.remove();
+        }
+    }
+
+    private void closeFile(String playerName) {
+        OpenFile file = files.remove(playerName);
+        if (file != null) file.close();
+    }
+
+    private void flush(String playerName) {
+        StringBuilder builder = grouped.remove(playerName);
+        if (builder != null) write(playerName, builder);
+    }
+
+    private void write(String playerName, StringBuilder builder) {
+        if (builder.length() == 0) return;
+
+        OpenFile file = open(playerName);
+        if (file == null) return;
+
+        ByteBuffer buffer = ByteBuffer.wrap(builder.toString().getBytes(StandardCharsets.UTF_8));
+        try {
+            while (buffer.hasRemaining()) {
+                file.channel.write(buffer);
+            }
+            file.lastUse = System.currentTimeMillis();
+        } catch (IOException e) {
+            Sierra.getPlugin().getLogger().warning("Unable to write log: " + e.getMessage());
+            files.remove(playerName);
+            file.close();
+        }
+    }
+
+    private OpenFile open(String playerName) {
+        OpenFile file = files.get(playerName);
+        if (file != null) return file;
+
+        if (files.size() >= MAX_OPEN_FILES) {
+            Iterator<OpenFile> eldest = files.values().iterator();
+            eldest.next().close();
+            eldest.remove();
+        }
+
+        try {
+            Path directory = Paths.get(LOG_DIRECTORY, playerName);
+            Files.createDirectories(directory);
+            FileChannel channel = FileChannel.open(directory.resolve(LOG_FILE), StandardOpenOption.CREATE,
+                                                   StandardOpenOption.WRITE, StandardOpenOption.APPEND
+            );
+            file = new OpenFile(channel);
+            files.put(playerName, file);
+            return file;
+        } catch (IOException e) {
+            Sierra.getPlugin().getLogger().warning("Unable to open log of " + playerName + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Closes the files that have not been written to for a while. Runs at most once per second.
+     */
+    private void sweep(long now) {
+        if (now - lastSweep < 1000) return;
+        lastSweep = now;
+
+        // The map is in access order, so the idle files are at its start
+        Iterator<OpenFile> iterator = files.values().iterator();
+        while (iterator.hasNext()) {
+            OpenFile file = iterator.next();
+            if (now - file.lastUse < IDLE_TIMEOUT) break;
+            file.close();
+            iterator.remove();
+        }
+        reportDropped();
+    }
+
+    private String prefix(long timestamp) {
+        long second = timestamp / 1000;
+        if (second != cachedSecond) {
+            cachedSecond = second;
+            cachedPrefix = "[" + format.format(new Date(timestamp)) + "] ";
+        }
+        return cachedPrefix;
+    }
+
+    private void reportDropped() {
+        long amount = dropped.getAndSet(0);
+        if (amount > 0) {
+            Sierra.getPlugin().getLogger().warning("Dropped " + amount + " log lines, the log queue is full");
+        }
+    }
+
+    private static final class Entry {
+
+        private final String playerName;
+        private final LogTag tag;
+        private final String message;
+        private final long   timestamp;
+
+        private Entry(String playerName, LogTag tag, String message, long timestamp) {
+            this.playerName = playerName;
+            this.tag = tag;
+            this.message = message;
+            this.timestamp = timestamp;
+        }
+    }
+
+    private static final class OpenFile {
+
+        private final FileChannel channel;
+        private       long        lastUse = System.currentTimeMillis();
+
+        private OpenFile(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        private void close() {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+}
@@ -1,72 +1,34 @@
 package de.feelix.sierra.manager.storage.logger;
 
 import de.feelix.sierra.Sierra;
-import de.feelix.sierraapi.exceptions.SierraException;
 import lombok.Data;
 
-import java.io.BufferedWriter;
-import java.io.File;
-import java.io.FileWriter;
-import java.io.IOException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-
+/**
+ * The SierraLogger class writes the log of a single player.
+ * <p>
+ * Lines are handed to the shared {@link SierraLogWriter}, which writes them on its own thread. The logger itself
+ * holds no file, so creating one is free and its file is only opened once something is logged.
+ */
 @Data
 public class SierraLogger {
 
-    private BufferedWriter writer;
-    private String playerName;
+    private final String playerName;
 
     public SierraLogger(String playerName) {
         this.playerName = playerName;
-
-        File sierraLogs = new File("plugins/Sierra/logs/");
-
-        if (!sierraLogs.exists()) {
-            if (!sierraLogs.mkdirs()) {
-                throw new SierraException("Failed to create directory " + sierraLogs.getAbsolutePath());
-            }
-        }
-
-        File pluginDir = new File("plugins/Sierra/logs/" + playerName);
-        if (!pluginDir.exists()) {
-            if (!pluginDir.mkdirs()) {
-                throw new RuntimeException("Failed to create plugin directory: " + pluginDir);
-            }
-        }
-        try {
-            writer = new BufferedWriter(new FileWriter(new File(pluginDir, "logs.sierra"), true));
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
     }
 
-    public synchronized void log(LogTag tag, String message) {
+    public void log(LogTag tag, String message) {
 
         // Don't log empty ItemStack NBT Tags
         if (message.equalsIgnoreCase("{}")) {
             return;
         }
 
-        String timestamp = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date());
-        String logMessage = String.format("[%s] %s: %s", timestamp, tag.name(), message);
-
-        try {
-            writer.write(logMessage);
-            writer.newLine();
-            writer.flush();
-        } catch (IOException e) {
-            Sierra.getPlugin().getLogger().warning("Unable to write log: " + e.getMessage());
-        }
+        Sierra.getPlugin().getSierraLogWriter().submit(playerName, tag, message);
     }
 
     public void close() {
-        try {
-            if (writer != null) {
-                writer.close();
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+        Sierra.getPlugin().getSierraLogWriter().release(playerName);
     }
 }
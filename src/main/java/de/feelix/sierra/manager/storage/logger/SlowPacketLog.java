@@ -0,0 +1,56 @@
+package de.feelix.sierra.manager.storage.logger;
+
+import de.feelix.sierra.Sierra;
+import de.feelix.sierra.check.violation.Debug;
+import de.feelix.sierra.manager.packet.PacketReceiveContext;
+import de.feelix.sierra.manager.storage.timings.PacketStageTrace;
+import de.feelix.sierra.utilities.FormatUtils;
+import de.feelix.sierra.utilities.nbt.NbtAnalysis;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * The SlowPacketLog class writes the incoming packets that took longer than the configured threshold to a log of
+ * their own, together with the stages that took the time.
+ * <p>
+ * Lines go through the {@link SierraLogWriter} like the player logs. The log is named {@value #LOG_NAME}, which can
+ * never be the name of a player, since player names cannot contain a hyphen.
+ */
+public final class SlowPacketLog {
+
+    private static final String LOG_NAME = "slow-packets";
+
+    private SlowPacketLog() {
+    }
+
+    /**
+     * Writes a slow packet to the log.
+     *
+     * @param context The context of the packet
+     * @param bytes   The size of the packet in bytes
+     * @param elapsed The time the packet took in nanoseconds
+     * @param trace   The stages of the packet
+     */
+    public static void log(PacketReceiveContext context, int bytes, long elapsed, PacketStageTrace trace) {
+        String message = FormatUtils.chainDebugs(Arrays.asList(
+            new Debug<>("Player", context.getPlayerData().username()),
+            new Debug<>("Packet", context.getPacketType().getName()),
+            new Debug<>("Bytes", bytes),
+            new Debug<>("Total", String.format(Locale.ROOT, "%.3fms", elapsed / 1e6)),
+            new Debug<>("NBT", summarize(context.peekNbtAnalysis())),
+            new Debug<>("Stages", trace.describe())
+        ));
+        Sierra.getPlugin().getSierraLogWriter().submit(LOG_NAME, LogTag.SLOW_PACKET, message);
+    }
+
+    private static String summarize(NbtAnalysis analysis) {
+        if (analysis == null) return "none";
+
+        String summary = String.format(
+            "depth %d; %d nodes; %d bytes; longest string %d", analysis.getDepth(), analysis.getNodes(),
+            analysis.getEncodedSize(), analysis.getMaxStringLength()
+        );
+        return analysis.isExceeded() ? summary + "; exceeds " + analysis.getExceededBudget() : summary;
+    }
+}
@@ -1,11 +1,10 @@
 package de.feelix.sierra.manager.storage.processor;
 
-import com.github.retrooper.packetevents.event.PacketReceiveEvent;
 import com.github.retrooper.packetevents.protocol.packettype.PacketType;
 import com.github.retrooper.packetevents.wrapper.play.client.WrapperPlayClientPluginMessage;
 import de.feelix.sierra.Sierra;
+import de.feelix.sierra.manager.packet.PacketReceiveContext;
 import de.feelix.sierra.manager.storage.PlayerData;
-import de.feelix.sierra.utilities.CastUtil;
 import de.feelix.sierraapi.events.impl.UserBrandEvent;
 import lombok.Getter;
 
@@ -19,12 +18,11 @@ public class BrandProcessor {
         this.playerData = playerData;
     }
 
-    public void process(PacketReceiveEvent event) {
-        if (event.getPacketType() == PacketType.Play.Client.PLUGIN_MESSAGE) {
-            WrapperPlayClientPluginMessage wrapper = CastUtil.getSupplier(
-                () -> new WrapperPlayClientPluginMessage(event),
-                playerData::exceptionDisconnect
-            );
+    public void process(PacketReceiveContext context) {
+        if (context.getPacketType() == PacketType.Play.Client.PLUGIN_MESSAGE) {
+            WrapperPlayClientPluginMessage wrapper = context.wrapper(
+                WrapperPlayClientPluginMessage.class, WrapperPlayClientPluginMessage::new);
+            if (wrapper == null) return;
             handleChannelMessage(wrapper.getChannelName(), wrapper.getData());
         }
     }
@@ -1,14 +1,13 @@
 package de.feelix.sierra.manager.storage.processor;
 
-import com.github.retrooper.packetevents.event.PacketSendEvent;
 import com.github.retrooper.packetevents.protocol.packettype.PacketType;
 import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
 import com.github.retrooper.packetevents.protocol.player.GameMode;
 import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerChangeGameState;
 import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerJoinGame;
 import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerRespawn;
+import de.feelix.sierra.manager.packet.PacketSendContext;
 import de.feelix.sierra.manager.storage.PlayerData;
-import de.feelix.sierra.utilities.CastUtil;
 import lombok.Getter;
 
 @Getter
@@ -20,23 +19,22 @@ public class GameModeProcessor {
         this.playerData = playerData;
     }
 
-    public void process(PacketSendEvent event) {
-        PacketTypeCommon typeCommon = event.getPacketType();
+    public void process(PacketSendContext context) {
+        PacketTypeCommon typeCommon = context.getPacketType();
 
         if (typeCommon.equals(PacketType.Play.Server.CHANGE_GAME_STATE)) {
-            handleGameStateChange(event);
+            handleGameStateChange(context);
         } else if (typeCommon.equals(PacketType.Play.Server.JOIN_GAME)) {
-            handleJoinGame(event);
+            handleJoinGame(context);
         } else if (typeCommon.equals(PacketType.Play.Server.RESPAWN)) {
-            handleRespawn(event);
+            handleRespawn(context);
         }
     }
 
-    private void handleGameStateChange(PacketSendEvent event) {
-        WrapperPlayServerChangeGameState packet = CastUtil.getSupplier(
-            () -> new WrapperPlayServerChangeGameState(event),
-            playerData::exceptionDisconnect
-        );
+    private void handleGameStateChange(PacketSendContext context) {
+        WrapperPlayServerChangeGameState packet = context.wrapper(
+            WrapperPlayServerChangeGameState.class, WrapperPlayServerChangeGameState::new);
+        if (packet == null) return;
 
         if (packet.getReason() == WrapperPlayServerChangeGameState.Reason.CHANGE_GAME_MODE) {
             int gameModeValue = (int) packet.getValue();
@@ -50,19 +48,17 @@ public class GameModeProcessor {
         }
     }
 
-    private void handleJoinGame(PacketSendEvent event) {
-        WrapperPlayServerJoinGame joinGame = CastUtil.getSupplier(
-            () -> new WrapperPlayServerJoinGame(event),
-            playerData::exceptionDisconnect
-        );
+    private void handleJoinGame(PacketSendContext context) {
+        WrapperPlayServerJoinGame joinGame = context.wrapper(
+            WrapperPlayServerJoinGame.class, WrapperPlayServerJoinGame::new);
+        if (joinGame == null) return;
         playerData.setGameMode(joinGame.getGameMode());
     }
 
-    private void handleRespawn(PacketSendEvent event) {
-        WrapperPlayServerRespawn respawn = CastUtil.getSupplier(
-            () -> new WrapperPlayServerRespawn(event),
-            playerData::exceptionDisconnect
-        );
+    private void handleRespawn(PacketSendContext context) {
+        WrapperPlayServerRespawn respawn = context.wrapper(
+            WrapperPlayServerRespawn.class, WrapperPlayServerRespawn::new);
+        if (respawn == null) return;
         playerData.setGameMode(respawn.getGameMode());
     }
 }
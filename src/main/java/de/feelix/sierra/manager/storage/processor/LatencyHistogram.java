@@ -0,0 +1,137 @@
+package de.feelix.sierra.manager.storage.processor;
+
+import de.feelix.sierraapi.user.impl.LatencyDistribution;
+
+/**
+ * The LatencyHistogram class keeps the distribution of the last latency samples of a player in a fixed amount of
+ * memory. Samples are counted in log-scaled buckets, exact up to 15ms and with eight buckets per power of two above,
+ * so a percentile is off by at most an eighth of its value. A ring of the samples in the window removes the oldest
+ * one from its bucket once the window is full.
+ * <p>
+ * Samples are recorded on the netty thread of the player, but the distribution may be read from any thread, so all
+ * methods are synchronized. The lock is uncontended in the common case.
+ */
+public class LatencyHistogram implements LatencyDistribution {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS     = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_VALUE       = 0xFFFF;
+    private static final int BUCKETS         = bucket(MAX_VALUE) + 1;
+
+    private final int[] counts = new int[BUCKETS];
+    private final int[] window;
+    private       int   head;
+    private       int   size;
+    private       long  jitterSum;
+
+    private boolean dirty = true;
+    private int     p50   = -1;
+    private int     p95   = -1;
+    private int     p99   = -1;
+
+    /**
+     * Creates a new histogram.
+     *
+     * @param windowSize The number of latest samples the distribution is made of
+     */
+    public LatencyHistogram(int windowSize) {
+        this.window = new int[windowSize];
+    }
+
+    /**
+     * Records a sample, removing the oldest one if the window is full. Negative samples are ignored.
+     *
+     * @param millis The latency in milliseconds
+     */
+    public synchronized void record(long millis) {
+        if (millis < 0) return;
+        int value = (int) Math.min(millis, MAX_VALUE);
+
+        if (size == window.length) {
+            int oldest = window[head];
+            counts[bucket(oldest)]--;
+            if (size > 1) jitterSum -= Math.abs(window[(head + 1) % window.length] - oldest);
+            head = (head + 1) % window.length;
+            size--;
+        }
+
+        if (size > 0) jitterSum += Math.abs(value - window[(head + size - 1) % window.length]);
+        window[(head + size) % window.length] = value;
+        counts[bucket(value)]++;
+        size++;
+        dirty = true;
+    }
+
+    @Override
+    public synchronized int samples() {
+        return size;
+    }
+
+    @Override
+    public synchronized int latest() {
+        return size == 0 ? -1 : window[(head + size - 1) % window.length];
+    }
+
+    @Override
+    public synchronized int percentile(double percentile) {
+        if (size == 0) return -1;
+
+        int rank       = Math.max(1, (int) Math.ceil(percentile / 100 * size));
+        int cumulative = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            cumulative += counts[bucket];
+            if (cumulative >= rank) return upperBound(bucket);
+        }
+        return MAX_VALUE;
+    }
+
+    @Override
+    public synchronized int p50() {
+        updatePercentiles();
+        return p50;
+    }
+
+    @Override
+    public synchronized int p95() {
+        updatePercentiles();
+        return p95;
+    }
+
+    @Override
+    public synchronized int p99() {
+        updatePercentiles();
+        return p99;
+    }
+
+    @Override
+    public synchronized double jitter() {
+        return size < 2 ? (size == 0 ? -1 : 0) : (double) jitterSum / (size - 1);
+    }
+
+    /**
+     * The checks read the percentiles on every movement, but they only change once per sample, so they are
+     * recalculated on the first read after a new sample.
+     */
+    private void updatePercentiles() {
+        if (!dirty) return;
+        p50 = percentile(50);
+        p95 = percentile(95);
+        p99 = percentile(99);
+        dirty = false;
+    }
+
+    private static int bucket(int value) {
+        if (value < SUB_BUCKETS * 2) return value;
+        int exponent = 31 - Integer.numberOfLeadingZeros(value);
+        int sub      = (value >> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    private static int upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS * 2) return bucket;
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int shift    = exponent - SUB_BUCKET_BITS;
+        int lower    = (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lower + (1 << shift) - 1;
+    }
+}
@@ -1,12 +1,11 @@
 package de.feelix.sierra.manager.storage.processor;
 
-import com.github.retrooper.packetevents.event.PacketReceiveEvent;
-import com.github.retrooper.packetevents.event.PacketSendEvent;
 import com.github.retrooper.packetevents.protocol.packettype.PacketType;
 import com.github.retrooper.packetevents.wrapper.play.client.WrapperPlayClientKeepAlive;
 import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerKeepAlive;
+import de.feelix.sierra.manager.packet.PacketReceiveContext;
+import de.feelix.sierra.manager.packet.PacketSendContext;
 import de.feelix.sierra.manager.storage.PlayerData;
-import de.feelix.sierra.utilities.CastUtil;
 import lombok.Getter;
 
 @Getter
@@ -16,30 +15,30 @@ public class PingProcessor {
     private long ping = -1;
     private long lastId = -1;
     private long lastTime = -1;
+    private final LatencyHistogram pingDistribution = new LatencyHistogram(20);
 
     public PingProcessor(PlayerData playerData) {
         this.playerData = playerData;
     }
 
-    public void handlePacketSend(PacketSendEvent event) {
-        if (event.getPacketType() == PacketType.Play.Server.KEEP_ALIVE) {
-            WrapperPlayServerKeepAlive wrapper = CastUtil.getSupplier(
-                () -> new WrapperPlayServerKeepAlive(event),
-                playerData::exceptionDisconnect
-            );
+    public void handlePacketSend(PacketSendContext context) {
+        if (context.getPacketType() == PacketType.Play.Server.KEEP_ALIVE) {
+            WrapperPlayServerKeepAlive wrapper = context.wrapper(
+                WrapperPlayServerKeepAlive.class, WrapperPlayServerKeepAlive::new);
+            if (wrapper == null) return;
             this.lastId = wrapper.getId();
-            this.lastTime = System.currentTimeMillis();
+            this.lastTime = context.timeMillis();
         }
     }
 
-    public void handlePacketReceive(PacketReceiveEvent event) {
-        if (event.getPacketType() == PacketType.Play.Client.KEEP_ALIVE) {
-            WrapperPlayClientKeepAlive wrapper = CastUtil.getSupplier(
-                () -> new WrapperPlayClientKeepAlive(event),
-                playerData::exceptionDisconnect
-            );
+    public void handlePacketReceive(PacketReceiveContext context) {
+        if (context.getPacketType() == PacketType.Play.Client.KEEP_ALIVE) {
+            WrapperPlayClientKeepAlive wrapper = context.wrapper(
+                WrapperPlayClientKeepAlive.class, WrapperPlayClientKeepAlive::new);
+            if (wrapper == null) return;
             if (wrapper.getId() == this.lastId) {
-                this.ping = System.currentTimeMillis() - this.lastTime;
+                this.ping = context.timeMillis() - this.lastTime;
+                this.pingDistribution.record(this.ping);
             }
         }
     }
@@ -0,0 +1,74 @@
+package de.feelix.sierra.manager.storage.processor;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * The RealTimeTaskQueue class holds the tasks that wait for the response to a transaction, in the order they were
+ * added, in an array of transaction numbers and an array of tasks.
+ * <p>
+ * It is only used on the netty thread of its player, so it needs no locks. Adding and running tasks allocate nothing,
+ * the arrays only grow if more tasks are waiting than ever before.
+ */
+class RealTimeTaskQueue {
+
+    private final Consumer<Exception> errorHandler;
+    private       int[]               transactions = new int[8];
+    private       Runnable[]          tasks        = new Runnable[8];
+    private       int                 size;
+
+    RealTimeTaskQueue(Consumer<Exception> errorHandler) {
+        this.errorHandler = errorHandler;
+    }
+
+    void add(int transaction, Runnable task) {
+        if (size == tasks.length) {
+            transactions = Arrays.copyOf(transactions, size << 1);
+            tasks = Arrays.copyOf(tasks, size << 1);
+        }
+        transactions[size] = transaction;
+        tasks[size] = task;
+        size++;
+    }
+
+    /**
+     * Runs the tasks of all transactions up to the given one and removes them. Tasks of the next transaction are
+     * kept, and the tasks after the first one that is further ahead are not looked at.
+     *
+     * @param transaction The number of the last answered transaction
+     */
+    void run(int transaction) {
+        if (size == 0) return;
+
+        int kept = 0;
+        int index = 0;
+        for (; index < size; index++) {
+            int waitingFor = transactions[index];
+
+            // We are at most a tick ahead when running tasks based on transactions, meaning this is too far
+            if (transaction + 1 < waitingFor) break;
+
+            // This is at most tick ahead of what we want
+            if (transaction == waitingFor - 1) {
+                transactions[kept] = waitingFor;
+                tasks[kept] = tasks[index];
+                kept++;
+                continue;
+            }
+
+            try {
+                tasks[index].run();
+            } catch (Exception exception) {
+                errorHandler.accept(exception);
+            }
+        }
+
+        int remaining = size - index;
+        System.arraycopy(transactions, index, transactions, kept, remaining);
+        System.arraycopy(tasks, index, tasks, kept, remaining);
+
+        int newSize = kept + remaining;
+        Arrays.fill(tasks, newSize, size, null);
+        size = newSize;
+    }
+}
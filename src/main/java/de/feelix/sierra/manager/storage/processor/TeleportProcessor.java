@@ -1,11 +1,10 @@
 package de.feelix.sierra.manager.storage.processor;
 
-import com.github.retrooper.packetevents.event.PacketSendEvent;
 import com.github.retrooper.packetevents.protocol.packettype.PacketType;
 import com.github.retrooper.packetevents.util.Vector3d;
 import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerPlayerPositionAndLook;
+import de.feelix.sierra.manager.packet.PacketSendContext;
 import de.feelix.sierra.manager.storage.PlayerData;
-import de.feelix.sierra.utilities.CastUtil;
 import de.feelix.sierra.utilities.Teleport;
 import lombok.Getter;
 
@@ -19,11 +18,12 @@ public class TeleportProcessor {
         this.playerData = playerData;
     }
 
-    public void handle(PacketSendEvent event) {
-        if (event.getPacketType() == PacketType.Play.Server.PLAYER_POSITION_AND_LOOK) {
+    public void handle(PacketSendContext context) {
+        if (context.getPacketType() == PacketType.Play.Server.PLAYER_POSITION_AND_LOOK) {
 
-            WrapperPlayServerPlayerPositionAndLook wrapper = CastUtil.getSupplier(
-                () -> new WrapperPlayServerPlayerPositionAndLook(event), playerData::exceptionDisconnect);
+            WrapperPlayServerPlayerPositionAndLook wrapper = context.wrapper(
+                WrapperPlayServerPlayerPositionAndLook.class, WrapperPlayServerPlayerPositionAndLook::new);
+            if (wrapper == null) return;
 
             this.teleport = new Teleport(
                 wrapper.getTeleportId(),
@@ -1,11 +1,21 @@
 package de.feelix.sierra.manager.storage.processor;
 
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
 import de.feelix.sierra.manager.storage.PlayerData;
+import de.feelix.sierra.manager.storage.timings.PacketStageTrace;
 import de.feelix.sierra.manager.storage.timings.SierraTiming;
+import de.feelix.sierra.manager.storage.timings.TimingHistogram;
 import de.feelix.sierraapi.timing.Timing;
 import de.feelix.sierraapi.timing.TimingHandler;
+import de.feelix.sierraapi.timing.TimingStatistics;
+import lombok.AccessLevel;
 import lombok.Getter;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * The TimingProcessor class is responsible for processing timing information related to player actions.
  */
@@ -59,6 +69,20 @@ public class TimingProcessor implements TimingHandler {
      */
     private final Timing movementProcessor = new SierraTiming();
 
+    /**
+     * The stageTrace variable holds the duration of every stage of the incoming packet currently handled.
+     */
+    private final PacketStageTrace stageTrace = new PacketStageTrace();
+
+    /**
+     * The time spent on every ingoing and outgoing packet type, indexed by the ordinal of the packet type. The
+     * histograms are created when a packet type is handled for the first time.
+     */
+    @Getter(AccessLevel.NONE)
+    private final TimingHistogram[] ingoingPacketTimings = new TimingHistogram[PacketType.Play.Client.values().length];
+    @Getter(AccessLevel.NONE)
+    private final TimingHistogram[] outgoingPacketTimings = new TimingHistogram[PacketType.Play.Server.values().length];
+
     /**
      * Constructs a TimingProcessor object with the given PlayerData.
      *
@@ -116,4 +140,75 @@ public class TimingProcessor implements TimingHandler {
     public Timing getFrequencyTask() {
         return frequencyTiming;
     }
+
+    /**
+     * Records the delay of a timing as the time spent on a packet type.
+     *
+     * @param packetType the type of the handled packet
+     * @param timing     the Timing object that measured the handling of the packet
+     */
+    public void recordPacket(PacketTypeCommon packetType, Timing timing) {
+        TimingHistogram[] histograms;
+        if (packetType instanceof PacketType.Play.Client) {
+            histograms = ingoingPacketTimings;
+        } else if (packetType instanceof PacketType.Play.Server) {
+            histograms = outgoingPacketTimings;
+        } else {
+            return;
+        }
+
+        int ordinal = ((Enum<?>) packetType).ordinal();
+        TimingHistogram histogram = histograms[ordinal];
+        if (histogram == null) {
+            histogram = new TimingHistogram();
+            histograms[ordinal] = histogram;
+        }
+        histogram.record((long) (timing.delay() * 1e6));
+    }
+
+    /**
+     * Retrieves the time spent in every check and packet processor of the player.
+     *
+     * @return an unmodifiable map of the names of the checks to their timing statistics
+     *
+     * @see TimingHandler#checkTimings()
+     */
+    @Override
+    public Map<String, TimingStatistics> checkTimings() {
+        return Collections.unmodifiableMap(playerData.getCheckManager().getCheckTimings());
+    }
+
+    /**
+     * Retrieves the time spent on every packet type of the player.
+     *
+     * @return an unmodifiable map of the packet types to their timing statistics
+     *
+     * @see TimingHandler#packetTimings()
+     */
+    @Override
+    public Map<String, TimingStatistics> packetTimings() {
+        return Collections.unmodifiableMap(packetHistograms());
+    }
+
+    /**
+     * Retrieves the histograms of every packet type that has been handled, keyed by the direction and name of the
+     * packet type.
+     *
+     * @return a new map of the packet types to their histograms
+     */
+    public Map<String, TimingHistogram> packetHistograms() {
+        Map<String, TimingHistogram> timings = new LinkedHashMap<>();
+        addPacketTimings(timings, "Ingoing ", PacketType.Play.Client.values(), ingoingPacketTimings);
+        addPacketTimings(timings, "Outgoing ", PacketType.Play.Server.values(), outgoingPacketTimings);
+        return timings;
+    }
+
+    private void addPacketTimings(Map<String, TimingHistogram> timings, String direction,
+                                  PacketTypeCommon[] packetTypes, TimingHistogram[] histograms) {
+        for (int i = 0; i < histograms.length; i++) {
+            if (histograms[i] != null) {
+                timings.put(direction + packetTypes[i].getName(), histograms[i]);
+            }
+        }
+    }
 }
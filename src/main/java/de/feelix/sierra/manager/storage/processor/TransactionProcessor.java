@@ -1,8 +1,6 @@
 package de.feelix.sierra.manager.storage.processor;
 
 import com.github.retrooper.packetevents.PacketEvents;
-import com.github.retrooper.packetevents.event.PacketReceiveEvent;
-import com.github.retrooper.packetevents.event.PacketSendEvent;
 import com.github.retrooper.packetevents.manager.server.ServerVersion;
 import com.github.retrooper.packetevents.netty.channel.ChannelHelper;
 import com.github.retrooper.packetevents.protocol.ConnectionState;
@@ -14,30 +12,47 @@ import com.github.retrooper.packetevents.wrapper.play.client.WrapperPlayClientWi
 import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerPing;
 import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerWindowConfirmation;
 import de.feelix.sierra.Sierra;
+import de.feelix.sierra.manager.packet.PacketReceiveContext;
+import de.feelix.sierra.manager.packet.PacketSendContext;
 import de.feelix.sierra.manager.storage.PlayerData;
 import de.feelix.sierra.manager.storage.logger.LogTag;
 import de.feelix.sierra.utilities.CastUtil;
-import de.feelix.sierra.utilities.Pair;
+import de.feelix.sierra.utilities.ShortLongRingBuffer;
+import io.netty.channel.Channel;
+import lombok.AccessLevel;
 import lombok.Getter;
 
-import java.util.*;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.BitSet;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * The TransactionProcessor class sends a transaction to its player every tick and matches the responses, to measure
+ * the latency of the player and to run tasks once the player has received everything sent before a transaction.
+ * <p>
+ * Transactions are written, encoded and answered on the netty thread of the player, so the tracking state is only
+ * touched by that thread and needs no locks. The ids we wrote are a bitmap, the transactions in flight are a ring
+ * buffer of primitive ids and send times, and the waiting tasks are an array ordered by insertion. None of them
+ * allocate in the steady state.
+ */
 @Getter
 public class TransactionProcessor {
 
+    private static final int MAX_TRANSACTION_ID = 0x7FFF;
+
     private final PlayerData player;
 
-    public final Queue<Pair<Short, Long>> transactionsSent = new ConcurrentLinkedQueue<>();
-    public final Queue<Pair<Long, Long>> keepAlivesSent = new ConcurrentLinkedQueue<>();
-    private final LinkedList<Pair<Integer, Runnable>> transactionMap = new LinkedList<>();
-    public final List<Short> didWeSendThatTrans = Collections.synchronizedList(new ArrayList<>());
+    private final ShortLongRingBuffer transactionsSent   = new ShortLongRingBuffer(64);
+    private final BitSet              didWeSendThatTrans = new BitSet(MAX_TRANSACTION_ID + 1);
+    @Getter(AccessLevel.NONE)
+    private final RealTimeTaskQueue   realTimeTasks      = new RealTimeTaskQueue(this::handleTaskException);
 
     private final AtomicInteger transactionIDCounter = new AtomicInteger(0);
     public AtomicInteger lastTransactionSent = new AtomicInteger(0);
     public AtomicInteger lastTransactionReceived = new AtomicInteger(0);
 
+    private final LatencyHistogram transactionDistribution = new LatencyHistogram(200);
+
     private long transactionPing = 0;
     public long lastTransSent = 0;
     public long lastTransReceived = 0;
@@ -52,38 +67,28 @@ public class TransactionProcessor {
     // But if some error made a client miss a packet, then it won't hurt them too bad.
     // Also it forces players to take knockback
     public boolean addTransactionResponse(short id) {
-        Pair<Short, Long> data = null;
-        boolean hasID = false;
-        int skipped = 0;
-        for (Pair<Short, Long> iterator : transactionsSent) {
-            if (iterator.getFirst() == id) {
-                hasID = true;
-                break;
-            }
-            skipped++;
-        }
-
-        if (hasID) {
+        int skipped = transactionsSent.indexOf(id);
+        if (skipped == -1) return false;
 
-            if (skipped > 0 && System.currentTimeMillis() - player.getJoinTime() > 5000) {
-                player.getSierraLogger().log(LogTag.SKIP, "Skipped transaction: " + id + " (" + skipped + ")");
-            }
+        if (skipped > 0 && System.currentTimeMillis() - player.getJoinTime() > 5000) {
+            player.getSierraLogger().log(LogTag.SKIP, "Skipped transaction: " + id + " (" + skipped + ")");
+        }
 
-            do {
-                data = transactionsSent.poll();
-                if (data == null) break;
+        long sentAt = 0;
+        for (int i = 0; i <= skipped; i++) {
+            sentAt = transactionsSent.poll();
+            lastTransactionReceived.incrementAndGet();
+        }
 
-                lastTransactionReceived.incrementAndGet();
-                lastTransReceived = System.currentTimeMillis();
-                transactionPing = (System.nanoTime() - data.getSecond());
-                playerClockAtLeast = data.getSecond();
-            } while (data.getFirst() != id);
+        lastTransReceived = System.currentTimeMillis();
+        transactionPing = (System.nanoTime() - sentAt);
+        transactionDistribution.record(TimeUnit.NANOSECONDS.toMillis(transactionPing));
+        playerClockAtLeast = sentAt;
 
-            handleNettySyncTransaction(lastTransactionReceived.get());
-        }
+        handleNettySyncTransaction(lastTransactionReceived.get());
 
-        // Were we the ones who sent the packet?
-        return data != null && data.getFirst() == id;
+        // We were the ones who sent the packet
+        return true;
     }
 
     public void sendTransaction() {
@@ -130,74 +135,92 @@ public class TransactionProcessor {
         }
     }
 
-    public void handleTransactionClient(PacketReceiveEvent event) {
-        PacketTypeCommon packetType = event.getPacketType();
+    public void handleTransactionClient(PacketReceiveContext context) {
+        PacketTypeCommon packetType = context.getPacketType();
         if (packetType == PacketType.Play.Client.WINDOW_CONFIRMATION) {
-            handleWindowConfirmation(event);
+            handleWindowConfirmation(context);
         } else if (packetType == PacketType.Play.Client.PONG) {
-            handlePong(event);
+            handlePong(context);
         }
     }
 
-    private void handleWindowConfirmation(PacketReceiveEvent event) {
-        WrapperPlayClientWindowConfirmation wrapper = CastUtil.getSupplier(
-            () -> new WrapperPlayClientWindowConfirmation(event), player::exceptionDisconnect);
+    private void handleWindowConfirmation(PacketReceiveContext context) {
+        WrapperPlayClientWindowConfirmation wrapper = context.wrapper(
+            WrapperPlayClientWindowConfirmation.class, WrapperPlayClientWindowConfirmation::new);
+        if (wrapper == null) return;
         short id = wrapper.getActionId();
         if (id <= 0 && addTransactionResponse(id)) {
-            event.setCancelled(true);
+            context.markTransactionResponse();
+            context.getEvent().setCancelled(true);
         }
     }
 
-    private void handlePong(PacketReceiveEvent event) {
-        WrapperPlayClientPong wrapper = CastUtil.getSupplier(
-            () -> new WrapperPlayClientPong(event), player::exceptionDisconnect);
+    private void handlePong(PacketReceiveContext context) {
+        WrapperPlayClientPong wrapper = context.wrapper(WrapperPlayClientPong.class, WrapperPlayClientPong::new);
+        if (wrapper == null) return;
         int id = wrapper.getId();
         if (id == (short) id && addTransactionResponse((short) id)) {
-            event.setCancelled(true);
+            context.markTransactionResponse();
+            context.getEvent().setCancelled(true);
         }
     }
 
-    public void handleTransactionSend(PacketSendEvent event) {
-        if (event.getPacketType() == PacketType.Play.Server.PING) {
-            handlePingTransaction(event);
-        } else if (event.getPacketType() == PacketType.Play.Server.WINDOW_CONFIRMATION) {
-            handleWindowConfirmationTransaction(event);
+    public void handleTransactionSend(PacketSendContext context) {
+        if (context.getPacketType() == PacketType.Play.Server.PING) {
+            handlePingTransaction(context);
+        } else if (context.getPacketType() == PacketType.Play.Server.WINDOW_CONFIRMATION) {
+            handleWindowConfirmationTransaction(context);
         }
     }
 
-    private void handlePingTransaction(PacketSendEvent event) {
-        WrapperPlayServerPing wrapper = CastUtil.getSupplier(
-            () -> new WrapperPlayServerPing(event), player::exceptionDisconnect);
+    private void handlePingTransaction(PacketSendContext context) {
+        WrapperPlayServerPing wrapper = context.wrapper(WrapperPlayServerPing.class, WrapperPlayServerPing::new);
+        if (wrapper == null) return;
 
         int id = wrapper.getId();
         // Check if in the short range, we only use short range
         if (id == (short) id) {
-            // Cast ID twice so we can use the list
-            Short shortID = ((short) id);
-            if (didWeSendThatTrans.remove(shortID)) {
-                Pair<Short, Long> solarPair = new Pair<>(shortID, System.nanoTime());
-                transactionsSent.add(solarPair);
-                lastTransactionSent.getAndIncrement();
-            }
+            confirmTransactionSend((short) id);
         }
     }
 
-    private void handleWindowConfirmationTransaction(PacketSendEvent event) {
-        WrapperPlayServerWindowConfirmation wrapper = CastUtil.getSupplier(
-            () -> new WrapperPlayServerWindowConfirmation(event), player::exceptionDisconnect);
+    private void handleWindowConfirmationTransaction(PacketSendContext context) {
+        WrapperPlayServerWindowConfirmation wrapper = context.wrapper(
+            WrapperPlayServerWindowConfirmation.class, WrapperPlayServerWindowConfirmation::new);
+        if (wrapper == null) return;
 
         short id = wrapper.getActionId();
 
         // Vanilla always uses an ID starting from 1
         if (id <= 0) {
-            if (didWeSendThatTrans.remove((Short) id)) {
-                Pair<Short, Long> solarPair = new Pair<>(id, System.nanoTime());
-                transactionsSent.add(solarPair);
-                lastTransactionSent.getAndIncrement();
-            }
+            confirmTransactionSend(id);
         }
     }
 
+    /**
+     * Starts tracking a transaction once its packet is encoded, if we were the ones who wrote it.
+     *
+     * @param id The id of the transaction
+     * @return {@code true} if we wrote the transaction, {@code false} otherwise
+     */
+    public boolean confirmTransactionSend(short id) {
+        int bit = -id;
+        if (bit < 0 || bit > MAX_TRANSACTION_ID || !didWeSendThatTrans.get(bit)) return false;
+
+        didWeSendThatTrans.clear(bit);
+        transactionsSent.add(id, System.nanoTime());
+        lastTransactionSent.getAndIncrement();
+        return true;
+    }
+
+    /**
+     * Runs a task once the player has answered the given transaction. Tasks are queued on the netty thread of the
+     * player, calls from other threads are handed over to it.
+     *
+     * @param transaction The number of the transaction
+     * @param async       {@code true} to run a due task on the netty thread, {@code false} to run it right away
+     * @param runnable    The task
+     */
     public void addRealTimeTask(int transaction, boolean async, Runnable runnable) {
         if (lastTransactionReceived.get() >= transaction) { // If the player already responded to this transaction
             if (async) {
@@ -207,38 +230,29 @@ public class TransactionProcessor {
             }
             return;
         }
-        synchronized (this) {
-            transactionMap.add(new Pair<>(transaction, runnable));
+
+        Object channel = player.getUser().getChannel();
+        if (channel instanceof Channel && !((Channel) channel).eventLoop().inEventLoop()) {
+            ((Channel) channel).eventLoop().execute(() -> addRealTimeTask(transaction, async, runnable));
+            return;
         }
+        realTimeTasks.add(transaction, runnable);
     }
 
     public void handleNettySyncTransaction(int transaction) {
-        synchronized (this) {
-            for (ListIterator<Pair<Integer, Runnable>> iterator = transactionMap.listIterator(); iterator.hasNext(); ) {
-                Pair<Integer, Runnable> pair = iterator.next();
-
-                // We are at most a tick ahead when running tasks based on transactions, meaning this is too far
-                if (transaction + 1 < pair.getFirst()) return;
-
-                // This is at most tick ahead of what we want
-                if (transaction == pair.getFirst() - 1) continue;
-
-
-                try {
-                    // Run the task
-                    pair.getSecond().run();
-                } catch (Exception e) {
-                    Sierra.getPlugin().getLogger().severe("An error has occurred when running "
-                                                          + "transactions for player: " + player.username());
-                    e.printStackTrace();
-                }
-                // We ran a task, remove it from the list
-                iterator.remove();
-            }
-        }
+        realTimeTasks.run(transaction);
+    }
+
+    private void handleTaskException(Exception exception) {
+        Sierra.getPlugin().getLogger().severe("An error has occurred when running "
+                                              + "transactions for player: " + player.username());
+        exception.printStackTrace();
     }
 
     public void addTransactionSend(short id) {
-        didWeSendThatTrans.add(id);
+        int bit = -id;
+        if (bit >= 0 && bit <= MAX_TRANSACTION_ID) {
+            didWeSendThatTrans.set(bit);
+        }
     }
 }
@@ -0,0 +1,62 @@
+package de.feelix.sierra.manager.storage.timings;
+
+import java.util.Locale;
+
+/**
+ * The PacketStageTrace class holds the duration of every stage of the incoming packet that is currently handled, so
+ * a slow packet can be broken down into the stages that made it slow.
+ * <p>
+ * A trace belongs to the netty thread of its player and is overwritten by every packet. Recording a stage is two
+ * array stores, so the trace costs next to nothing as long as no packet is slow.
+ */
+public class PacketStageTrace {
+
+    private static final int CAPACITY = 32;
+
+    private final String[] names = new String[CAPACITY];
+    private final long[]   nanos = new long[CAPACITY];
+    private       int      size;
+    private       boolean  active;
+
+    /**
+     * Starts the trace of a new packet and forgets the stages of the previous one.
+     */
+    public void begin() {
+        size = 0;
+        active = true;
+    }
+
+    /**
+     * Records the duration of a stage, if a packet is traced.
+     *
+     * @param name    The name of the stage
+     * @param elapsed The duration of the stage in nanoseconds
+     */
+    public void stage(String name, long elapsed) {
+        if (!active || size == CAPACITY) return;
+        names[size] = name;
+        nanos[size] = elapsed;
+        size++;
+    }
+
+    /**
+     * Stops the trace, later stages are ignored until the next packet begins.
+     */
+    public void end() {
+        active = false;
+    }
+
+    /**
+     * Describes the recorded stages in the order they ran.
+     *
+     * @return The stages with their durations in milliseconds
+     */
+    public String describe() {
+        StringBuilder builder = new StringBuilder(size * 24);
+        for (int i = 0; i < size; i++) {
+            if (i > 0) builder.append("; ");
+            builder.append(names[i]).append(' ').append(String.format(Locale.ROOT, "%.3fms", nanos[i] / 1e6));
+        }
+        return builder.toString();
+    }
+}
@@ -1,6 +1,7 @@
 package de.feelix.sierra.manager.storage.timings;
 
 import de.feelix.sierraapi.timing.Timing;
+import de.feelix.sierraapi.timing.TimingStatistics;
 
 /**
  * The SierraTiming class is an implementation of the Timing interface.
@@ -23,6 +24,11 @@ public class SierraTiming implements Timing {
      */
     private long startTime = -1;
 
+    /**
+     * The statistics variable holds the distribution of all delays measured so far.
+     */
+    private final TimingHistogram statistics = new TimingHistogram();
+
     /**
      * Prepares the Timing object for measuring the timing of an event.
      * This method should be called before starting the event that needs to be timed.
@@ -42,6 +48,7 @@ public class SierraTiming implements Timing {
     @Override
     public void end() {
         this.delay = System.nanoTime() - startTime;
+        this.statistics.record((long) this.delay);
     }
 
     /**
@@ -56,4 +63,14 @@ public class SierraTiming implements Timing {
     public double delay() {
         return (this.delay / 1000000);
     }
+
+    /**
+     * Returns the distribution of all delays measured so far.
+     *
+     * @return the statistics of all measured delays
+     */
+    @Override
+    public TimingStatistics statistics() {
+        return statistics;
+    }
 }
@@ -0,0 +1,66 @@
+package de.feelix.sierra.manager.storage.timings;
+
+import de.feelix.sierra.manager.storage.PlayerData;
+import de.feelix.sierraapi.timing.TimingStatistics;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The TimingAggregator class sums up the timing histograms of all players for the server-wide view. The histograms
+ * of online players are added up when they are requested, so recording a timing never touches shared state. The
+ * histograms of a player who leaves are added to the retired histograms, so their timings are not lost.
+ */
+public class TimingAggregator {
+
+    private final Map<String, TimingHistogram> retiredCheckTimings  = new LinkedHashMap<>();
+    private final Map<String, TimingHistogram> retiredPacketTimings = new LinkedHashMap<>();
+
+    /**
+     * Adds the timings of a player who leaves to the retired timings.
+     *
+     * @param playerData the PlayerData of the player
+     */
+    public synchronized void retire(PlayerData playerData) {
+        merge(retiredCheckTimings, playerData.getCheckManager().getCheckTimings());
+        merge(retiredPacketTimings, playerData.getTimingProcessor().packetHistograms());
+    }
+
+    /**
+     * Sums up the time spent in every check of the retired and the given players.
+     *
+     * @param players the online players
+     * @return an unmodifiable map of the names of the checks to their summed up timing statistics
+     */
+    public synchronized Map<String, TimingStatistics> checkTimings(Collection<PlayerData> players) {
+        Map<String, TimingHistogram> timings = new LinkedHashMap<>();
+        merge(timings, retiredCheckTimings);
+        for (PlayerData player : players) {
+            merge(timings, player.getCheckManager().getCheckTimings());
+        }
+        return Collections.unmodifiableMap(timings);
+    }
+
+    /**
+     * Sums up the time spent on every packet type of the retired and the given players.
+     *
+     * @param players the online players
+     * @return an unmodifiable map of the packet types to their summed up timing statistics
+     */
+    public synchronized Map<String, TimingStatistics> packetTimings(Collection<PlayerData> players) {
+        Map<String, TimingHistogram> timings = new LinkedHashMap<>();
+        merge(timings, retiredPacketTimings);
+        for (PlayerData player : players) {
+            merge(timings, player.getTimingProcessor().packetHistograms());
+        }
+        return Collections.unmodifiableMap(timings);
+    }
+
+    private static void merge(Map<String, TimingHistogram> target, Map<String, TimingHistogram> source) {
+        for (Map.Entry<String, TimingHistogram> entry : source.entrySet()) {
+            target.computeIfAbsent(entry.getKey(), key -> new TimingHistogram()).merge(entry.getValue());
+        }
+    }
+}
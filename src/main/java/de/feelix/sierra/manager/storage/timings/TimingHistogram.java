@@ -0,0 +1,108 @@
+package de.feelix.sierra.manager.storage.timings;
+
+import de.feelix.sierraapi.timing.TimingStatistics;
+
+/**
+ * The TimingHistogram class counts measured durations in log-scaled buckets, exact up to 7ns and with four buckets
+ * per power of two above, up to about four seconds. Recording a duration is a few arithmetic operations and an array
+ * increment, so it is cheap enough to run around every check on every packet.
+ * <p>
+ * A histogram is recorded by a single thread, the netty thread of its player. Other threads read it without locks,
+ * so they may see a slightly outdated state, which is good enough for monitoring.
+ */
+public class TimingHistogram implements TimingStatistics {
+
+    private static final int  SUB_BUCKET_BITS = 2;
+    private static final int  SUB_BUCKETS     = 1 << SUB_BUCKET_BITS;
+    private static final long MAX_NANOS       = 0xFFFFFFFFL;
+    private static final int  BUCKETS         = bucket(MAX_NANOS) + 1;
+
+    private final long[] counts = new long[BUCKETS];
+    private       long   count;
+    private       long   totalNanos;
+    private       long   maxNanos;
+
+    /**
+     * Records a measured duration.
+     *
+     * @param nanos The duration in nanoseconds
+     */
+    public void record(long nanos) {
+        if (nanos < 0) return;
+        counts[bucket(Math.min(nanos, MAX_NANOS))]++;
+        count++;
+        totalNanos += nanos;
+        if (nanos > maxNanos) maxNanos = nanos;
+    }
+
+    /**
+     * Adds all durations of another histogram to this one.
+     *
+     * @param other The histogram to add
+     */
+    public void merge(TimingHistogram other) {
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            counts[bucket] += other.counts[bucket];
+        }
+        count += other.count;
+        totalNanos += other.totalNanos;
+        maxNanos = Math.max(maxNanos, other.maxNanos);
+    }
+
+    @Override
+    public long count() {
+        return count;
+    }
+
+    @Override
+    public double mean() {
+        return count == 0 ? 0 : totalNanos / 1e6 / count;
+    }
+
+    @Override
+    public double p50() {
+        return percentile(0.5);
+    }
+
+    @Override
+    public double p99() {
+        return percentile(0.99);
+    }
+
+    @Override
+    public double max() {
+        return maxNanos / 1e6;
+    }
+
+    @Override
+    public double total() {
+        return totalNanos / 1e6;
+    }
+
+    private double percentile(double quantile) {
+        long samples = count;
+        if (samples == 0) return 0;
+
+        long rank       = Math.max(1, (long) Math.ceil(quantile * samples));
+        long cumulative = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            cumulative += counts[bucket];
+            if (cumulative >= rank) return Math.min(midpoint(bucket), maxNanos) / 1e6;
+        }
+        return maxNanos / 1e6;
+    }
+
+    private static int bucket(long nanos) {
+        if (nanos < SUB_BUCKETS * 2) return (int) nanos;
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        int sub      = (int) (nanos >> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    private static long midpoint(int bucket) {
+        if (bucket < SUB_BUCKETS * 2) return bucket;
+        int  shift = bucket / SUB_BUCKETS - 1;
+        long lower = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lower + (1L << shift) / 2;
+    }
+}
@@ -0,0 +1,112 @@
+package de.feelix.sierra.utilities;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * The MpscArrayQueue class is a bounded, lock-free queue for many producers and a single consumer.
+ * <p>
+ * Producers claim a slot by advancing the producer index with a compare-and-set and then publish their element into
+ * it. The single consumer takes elements in claim order and frees their slots. Offering to a full queue fails instead
+ * of blocking, so producers never wait for the consumer.
+ *
+ * @param <E> The type of the elements
+ */
+public class MpscArrayQueue<E> {
+
+    private final AtomicReferenceArray<E> buffer;
+    private final int                     mask;
+    private final AtomicLong              producerIndex = new AtomicLong();
+    private volatile long                 consumerIndex;
+
+    /**
+     * Creates a new queue.
+     *
+     * @param capacity The minimum capacity, rounded up to the next power of two
+     */
+    public MpscArrayQueue(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.buffer = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Adds an element to the queue. Can be called from any thread.
+     *
+     * @param element The element, must not be {@code null}
+     * @return {@code true} if the element was added, {@code false} if the queue is full
+     */
+    public boolean offer(E element) {
+        long capacity = mask + 1L;
+        while (true) {
+            long index = producerIndex.get();
+            if (index - consumerIndex >= capacity) return false;
+            if (producerIndex.compareAndSet(index, index + 1)) {
+                buffer.lazySet((int) (index & mask), element);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Removes the oldest element from the queue. Must only be called from the consumer.
+     *
+     * @return The oldest element, or {@code null} if the queue is empty
+     */
+    public E poll() {
+        long index  = consumerIndex;
+        int  offset = (int) (index & mask);
+
+        E element = buffer.get(offset);
+        if (element == null) {
+            if (index == producerIndex.get()) return null;
+
+            // The slot was claimed, but its producer has not published the element yet
+            do {
+                element = buffer.get(offset);
+            } while (element == null);
+        }
+
+        buffer.lazySet(offset, null);
+        consumerIndex = index + 1;
+        return element;
+    }
+
+    /**
+     * Removes up to the given amount of elements and hands them to the consumer. Must only be called from the
+     * consumer.
+     *
+     * @param consumer The consumer of the elements
+     * @param limit    The maximum amount of elements to remove
+     * @return The amount of removed elements
+     */
+    public int drain(Consumer<E> consumer, int limit) {
+        int drained = 0;
+        while (drained < limit) {
+            E element = poll();
+            if (element == null) break;
+            consumer.accept(element);
+            drained++;
+        }
+        return drained;
+    }
+
+    /**
+     * Retrieves the approximate amount of elements in the queue.
+     *
+     * @return The amount of elements
+     */
+    public int size() {
+        return (int) Math.max(0, producerIndex.get() - consumerIndex);
+    }
+
+    /**
+     * Retrieves the capacity of the queue.
+     *
+     * @return The capacity
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,104 @@
+package de.feelix.sierra.utilities;
+
+/**
+ * The ShortLongRingBuffer class is a first-in-first-out queue of {@code short} keys with a {@code long} value each,
+ * stored in primitive arrays.
+ * <p>
+ * It is meant for a single thread. Adding and polling allocate nothing, the arrays only grow if more elements are
+ * queued than ever before.
+ */
+public class ShortLongRingBuffer {
+
+    private short[] keys;
+    private long[]  values;
+    private int     mask;
+    private int     head;
+    private int     size;
+
+    /**
+     * Creates a new buffer.
+     *
+     * @param capacity The initial capacity, rounded up to the next power of two
+     */
+    public ShortLongRingBuffer(int capacity) {
+        int length = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.keys = new short[length];
+        this.values = new long[length];
+        this.mask = length - 1;
+    }
+
+    /**
+     * Adds an element at the end of the buffer.
+     *
+     * @param key   The key of the element
+     * @param value The value of the element
+     */
+    public void add(short key, long value) {
+        if (size == keys.length) grow();
+
+        int index = (head + size) & mask;
+        keys[index] = key;
+        values[index] = value;
+        size++;
+    }
+
+    /**
+     * Finds the first element with the given key.
+     *
+     * @param key The key to search for
+     * @return The position of the element counted from the oldest one, or {@code -1} if no element has the key
+     */
+    public int indexOf(short key) {
+        for (int i = 0; i < size; i++) {
+            if (keys[(head + i) & mask] == key) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Retrieves the key of the oldest element.
+     *
+     * @return The key of the oldest element
+     * @throws IllegalStateException if the buffer is empty
+     */
+    public short peekKey() {
+        if (size == 0) throw new IllegalStateException("Buffer is empty");
+        return keys[head];
+    }
+
+    /**
+     * Removes the oldest element.
+     *
+     * @return The value of the removed element
+     * @throws IllegalStateException if the buffer is empty
+     */
+    public long poll() {
+        if (size == 0) throw new IllegalStateException("Buffer is empty");
+
+        long value = values[head];
+        head = (head + 1) & mask;
+        size--;
+        return value;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    private void grow() {
+        short[] grownKeys   = new short[keys.length << 1];
+        long[]  grownValues = new long[values.length << 1];
+        for (int i = 0; i < size; i++) {
+            grownKeys[i] = keys[(head + i) & mask];
+            grownValues[i] = values[(head + i) & mask];
+        }
+        keys = grownKeys;
+        values = grownValues;
+        mask = grownKeys.length - 1;
+        head = 0;
+    }
+}
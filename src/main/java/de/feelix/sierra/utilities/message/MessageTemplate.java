@@ -0,0 +1,130 @@
+package de.feelix.sierra.utilities.message;
+
+import org.bukkit.ChatColor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The MessageTemplate class is a message layout that has been split into literal text and placeholders once, so it
+ * can be rendered many times without searching and replacing.
+ * <p>
+ * The literal text is colorized when the template is compiled. Placeholder values are colorized while they are
+ * appended, so a rendered template equals a {@link ConfigValue} whose placeholders were replaced before colorizing.
+ * Placeholders that were not declared stay in the text as they are.
+ */
+public final class MessageTemplate {
+
+    private static final String COLOR_CODES = "0123456789AaBbCcDdEeFfKkLlMmNnOoRrXx";
+
+    private final String[] literals;
+    private final int[]    slots;
+    private final int      length;
+
+    private MessageTemplate(String[] literals, int[] slots) {
+        this.literals = literals;
+        this.slots = slots;
+
+        int literalLength = 0;
+        for (String literal : literals) {
+            literalLength += literal.length();
+        }
+        this.length = literalLength;
+    }
+
+    /**
+     * Compiles a message layout.
+     *
+     * @param layout       The layout, containing placeholders like {@code {username}}
+     * @param placeholders The names of the placeholders, in the order their values are passed to {@link #render}
+     * @return The compiled template
+     */
+    public static MessageTemplate compile(String layout, String... placeholders) {
+        List<String>  literals = new ArrayList<>();
+        List<Integer> slots    = new ArrayList<>();
+        StringBuilder literal  = new StringBuilder();
+
+        int index = 0;
+        while (index < layout.length()) {
+            int open  = layout.indexOf('{', index);
+            int close = open == -1 ? -1 : layout.indexOf('}', open);
+            if (close == -1) {
+                literal.append(layout, index, layout.length());
+                break;
+            }
+
+            int slot = slotOf(layout.substring(open + 1, close), placeholders);
+            if (slot == -1) {
+                literal.append(layout, index, open + 1);
+                index = open + 1;
+                continue;
+            }
+
+            literal.append(layout, index, open);
+            literals.add(ChatColor.translateAlternateColorCodes('&', literal.toString()));
+            slots.add(slot);
+            literal.setLength(0);
+            index = close + 1;
+        }
+        literals.add(ChatColor.translateAlternateColorCodes('&', literal.toString()));
+
+        int[] slotArray = new int[slots.size()];
+        for (int i = 0; i < slotArray.length; i++) {
+            slotArray[i] = slots.get(i);
+        }
+        return new MessageTemplate(literals.toArray(new String[0]), slotArray);
+    }
+
+    /**
+     * Renders the template into a builder.
+     *
+     * @param builder The builder to append to
+     * @param values  The values of the placeholders, in the order they were declared
+     * @return The builder
+     */
+    public StringBuilder render(StringBuilder builder, String... values) {
+        builder.ensureCapacity(builder.length() + length);
+        for (int i = 0; i < slots.length; i++) {
+            builder.append(literals[i]);
+            appendColorized(builder, values[slots[i]]);
+        }
+        return builder.append(literals[slots.length]);
+    }
+
+    /**
+     * Renders the template into a new string.
+     *
+     * @param values The values of the placeholders, in the order they were declared
+     * @return The rendered message
+     */
+    public String render(String... values) {
+        return render(new StringBuilder(length + 32), values).toString();
+    }
+
+    private static int slotOf(String name, String[] placeholders) {
+        for (int i = 0; i < placeholders.length; i++) {
+            if (placeholders[i].equals(name)) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Appends a value the same way {@link ChatColor#translateAlternateColorCodes} would translate it.
+     */
+    private static void appendColorized(StringBuilder builder, String value) {
+        if (value == null) {
+            builder.append("null");
+            return;
+        }
+
+        int last = value.length() - 1;
+        for (int i = 0; i <= last; i++) {
+            char c = value.charAt(i);
+            if (c == '&' && i < last && COLOR_CODES.indexOf(value.charAt(i + 1)) > -1) {
+                builder.append(ChatColor.COLOR_CHAR).append(Character.toLowerCase(value.charAt(++i)));
+            } else {
+                builder.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package de.feelix.sierra.utilities.nbt;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * The NbtAnalysis class holds the metrics the {@link NbtAnalyzer} collected in a single walk over an NBT tree.
+ * <p>
+ * Lengths are measured in the text form the item checks have always used, i.e. the top-level tags rendered as
+ * {@code {key=value, ...}} with packetevents' {@code toString()} format for each value. They are computed while
+ * walking, so the text itself is never built. The list and array metrics only cover lists that are direct children
+ * of the root compound.
+ * <p>
+ * If the analysis exceeded one of its budgets, the walk stopped early and all metrics are lower bounds.
+ */
+@Getter
+public class NbtAnalysis {
+
+    /**
+     * The kinds of primitive arrays an NBT tree can contain.
+     */
+    public enum ArrayKind {
+        BYTE, INT, LONG
+    }
+
+    /**
+     * The budget that was exceeded, or {@code null} if the whole tree was analyzed.
+     */
+    String exceededBudget;
+
+    int renderedLength;
+    int renderedBytes;
+    int encodedSize;
+    int depth;
+    int nodes;
+    int maxStringLength;
+
+    int topLevelLists;
+    int compoundListMaxSize;
+    int compoundListMaxElementLength;
+    int nestedListCount;
+    int nestedListMaxSize;
+    int nestedListMaxElementLength;
+
+    @Getter(AccessLevel.NONE)
+    final int[] tokenHits = new int[NbtToken.values().length];
+
+    @Getter(AccessLevel.NONE)
+    final int[] arrayListMaxSize = new int[ArrayKind.values().length];
+
+    @Getter(AccessLevel.NONE)
+    final int[] arrayMaxLength = new int[ArrayKind.values().length];
+
+    @Getter(AccessLevel.NONE)
+    final int[] arrayExtremes = new int[ArrayKind.values().length];
+
+    NbtAnalysis() {
+    }
+
+    /**
+     * Checks if the walk stopped early because a budget was exceeded.
+     *
+     * @return {@code true} if a budget was exceeded, {@code false} otherwise
+     */
+    public boolean isExceeded() {
+        return exceededBudget != null;
+    }
+
+    /**
+     * Retrieves how often a token occurs in the keys and string values of the tree.
+     *
+     * @param token The token
+     * @return The amount of occurrences
+     */
+    public int hits(NbtToken token) {
+        return tokenHits[token.ordinal()];
+    }
+
+    /**
+     * Retrieves the largest size of a top-level list holding arrays of the given kind.
+     *
+     * @param kind The kind of array
+     * @return The largest list size, or {@code 0} if there is no such list
+     */
+    public int arrayListMaxSize(ArrayKind kind) {
+        return arrayListMaxSize[kind.ordinal()];
+    }
+
+    /**
+     * Retrieves the largest length of an array of the given kind inside a top-level list.
+     *
+     * @param kind The kind of array
+     * @return The largest array length
+     */
+    public int arrayMaxLength(ArrayKind kind) {
+        return arrayMaxLength[kind.ordinal()];
+    }
+
+    /**
+     * Retrieves how many values of arrays of the given kind inside top-level lists are the minimum or maximum value
+     * of their type.
+     *
+     * @param kind The kind of array
+     * @return The amount of extreme values
+     */
+    public int arrayExtremes(ArrayKind kind) {
+        return arrayExtremes[kind.ordinal()];
+    }
+}
@@ -0,0 +1,310 @@
+package de.feelix.sierra.utilities.nbt;
+
+import com.github.retrooper.packetevents.protocol.nbt.*;
+import de.feelix.sierra.manager.config.SierraSettings;
+import de.feelix.sierra.utilities.FormatUtils;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The NbtAnalyzer class walks an NBT tree exactly once and collects everything the item checks need into an
+ * {@link NbtAnalysis}.
+ * <p>
+ * The walk is budgeted: it stops as soon as the tree is deeper, has more nodes or would encode to more bytes than
+ * allowed. Crafted items therefore cost at most the budget, no matter how they are shaped.
+ */
+public final class NbtAnalyzer {
+
+    private static final NbtToken[] TOKENS = NbtToken.values();
+
+    private final int         maxDepth;
+    private final int         maxNodes;
+    private final int         maxSize;
+    private final NbtAnalysis analysis = new NbtAnalysis();
+
+    private NbtAnalyzer(int maxDepth, int maxNodes, int maxSize) {
+        this.maxDepth = maxDepth;
+        this.maxNodes = maxNodes;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Analyzes an NBT tree with the budgets of the given settings.
+     *
+     * @param compound The root compound of the tree
+     * @param settings The settings holding the budgets
+     * @return The analysis of the tree
+     */
+    public static NbtAnalysis analyze(NBTCompound compound, SierraSettings settings) {
+        return analyze(compound, settings.getNbtMaxDepth(), settings.getNbtMaxNodes(), settings.getNbtMaxSize());
+    }
+
+    /**
+     * Analyzes an NBT tree.
+     *
+     * @param compound The root compound of the tree
+     * @param maxDepth The maximum depth of the tree
+     * @param maxNodes The maximum amount of tags in the tree
+     * @param maxSize  The maximum encoded size of the tree in bytes
+     * @return The analysis of the tree
+     */
+    public static NbtAnalysis analyze(NBTCompound compound, int maxDepth, int maxNodes, int maxSize) {
+        NbtAnalyzer analyzer = new NbtAnalyzer(maxDepth, maxNodes, maxSize);
+        analyzer.visitRoot(compound);
+        return analyzer.analysis;
+    }
+
+    private void visitRoot(NBTCompound root) {
+        analysis.nodes = 1;
+        analysis.depth = 1;
+        analysis.encodedSize = 4;
+        render(2);
+
+        boolean first = true;
+        for (Map.Entry<String, NBT> entry : root.getTags().entrySet()) {
+            if (!first) render(2);
+            first = false;
+
+            NBT tag = entry.getValue();
+            if (!visitKey(entry.getKey()) || !visit(tag, 2, false)) return;
+
+            if (tag instanceof NBTList) {
+                visitTopLevelList((NBTList<?>) tag);
+            }
+        }
+    }
+
+    private void visitTopLevelList(NBTList<?> list) {
+        analysis.topLevelLists++;
+        NBTType<?> type = list.getTagsType();
+        int        size = list.size();
+
+        if (type == NBTType.COMPOUND) {
+            analysis.compoundListMaxSize = Math.max(analysis.compoundListMaxSize, size);
+        } else if (type == NBTType.LIST) {
+            analysis.nestedListCount++;
+            analysis.nestedListMaxSize = Math.max(analysis.nestedListMaxSize, size);
+        } else if (type == NBTType.BYTE_ARRAY) {
+            maxArrayListSize(NbtAnalysis.ArrayKind.BYTE, size);
+        } else if (type == NBTType.INT_ARRAY) {
+            maxArrayListSize(NbtAnalysis.ArrayKind.INT, size);
+        } else if (type == NBTType.LONG_ARRAY) {
+            maxArrayListSize(NbtAnalysis.ArrayKind.LONG, size);
+        }
+    }
+
+    private boolean visitKey(String key) {
+        int bytes = utf8Length(key);
+        analysis.renderedLength += key.length() + 1;
+        analysis.renderedBytes += bytes + 1;
+        analysis.encodedSize += 3 + bytes;
+        scanTokens(key);
+        return analysis.encodedSize <= maxSize || exceed("Size");
+    }
+
+    private boolean visit(NBT tag, int depth, boolean inTopLevelList) {
+        if (++analysis.nodes > maxNodes) return exceed("Nodes");
+        if (depth > analysis.depth) {
+            analysis.depth = depth;
+            if (depth > maxDepth) return exceed("Depth");
+        }
+
+        if (tag instanceof NBTCompound) {
+            return visitCompound((NBTCompound) tag, depth);
+        } else if (tag instanceof NBTList) {
+            return visitList((NBTList<?>) tag, depth, depth == 2);
+        } else if (tag instanceof NBTString) {
+            return visitString(((NBTString) tag).getValue());
+        } else if (tag instanceof NBTByte) {
+            return number("Byte(", ((NBTByte) tag).getAsByte(), 1);
+        } else if (tag instanceof NBTShort) {
+            return number("Short(", ((NBTShort) tag).getAsShort(), 2);
+        } else if (tag instanceof NBTInt) {
+            return number("Int(", ((NBTInt) tag).getAsInt(), 4);
+        } else if (tag instanceof NBTLong) {
+            return number("Long(", ((NBTLong) tag).getAsLong(), 8);
+        } else if (tag instanceof NBTFloat) {
+            render(7 + String.valueOf(((NBTFloat) tag).getAsFloat()).length());
+            return encode(4);
+        } else if (tag instanceof NBTDouble) {
+            render(8 + String.valueOf(((NBTDouble) tag).getAsDouble()).length());
+            return encode(8);
+        } else if (tag instanceof NBTByteArray) {
+            byte[] value = ((NBTByteArray) tag).getValue();
+            if (!encode(4 + value.length)) return false;
+            int extremes = 0;
+            int digits   = 0;
+            for (byte element : value) {
+                digits += digits(element);
+                if (element == Byte.MAX_VALUE || element == Byte.MIN_VALUE) extremes++;
+            }
+            render(11 + arrayLength(value.length, digits));
+            if (inTopLevelList) array(NbtAnalysis.ArrayKind.BYTE, value.length, extremes);
+            return true;
+        } else if (tag instanceof NBTIntArray) {
+            int[] value = ((NBTIntArray) tag).getValue();
+            if (!encode(4 + value.length * 4)) return false;
+            int extremes = 0;
+            int digits   = 0;
+            for (int element : value) {
+                digits += digits(element);
+                if (element == Integer.MAX_VALUE || element == Integer.MIN_VALUE) extremes++;
+            }
+            render(10 + arrayLength(value.length, digits));
+            if (inTopLevelList) array(NbtAnalysis.ArrayKind.INT, value.length, extremes);
+            return true;
+        } else if (tag instanceof NBTLongArray) {
+            long[] value = ((NBTLongArray) tag).getValue();
+            if (!encode(4 + value.length * 8)) return false;
+            int extremes = 0;
+            int digits   = 0;
+            for (long element : value) {
+                digits += digits(element);
+                if (element == Long.MAX_VALUE || element == Long.MIN_VALUE) extremes++;
+            }
+            render(11 + arrayLength(value.length, digits));
+            if (inTopLevelList) array(NbtAnalysis.ArrayKind.LONG, value.length, extremes);
+            return true;
+        } else if (tag instanceof NBTEnd) {
+            render(3);
+            return true;
+        }
+
+        String rendered = String.valueOf(tag);
+        render(rendered.length());
+        return encode(rendered.length());
+    }
+
+    private boolean visitCompound(NBTCompound compound, int depth) {
+        // Compound{{key=value, ...}}
+        render(12);
+        if (!encode(1)) return false;
+
+        boolean first = true;
+        for (Map.Entry<String, NBT> entry : compound.getTags().entrySet()) {
+            if (!first) render(2);
+            first = false;
+            if (!visitKey(entry.getKey()) || !visit(entry.getValue(), depth + 1, false)) return false;
+        }
+        return true;
+    }
+
+    private boolean visitList(NBTList<?> list, int depth, boolean topLevel) {
+        // List([value, ...])
+        render(8);
+        if (!encode(5)) return false;
+
+        NBTType<?> type = list.getTagsType();
+        List<?>    tags = list.getTags();
+        for (int i = 0; i < tags.size(); i++) {
+            if (i > 0) render(2);
+
+            int before = analysis.renderedLength;
+            if (!visit((NBT) tags.get(i), depth + 1, topLevel)) return false;
+
+            if (topLevel) {
+                int length = analysis.renderedLength - before;
+                if (type == NBTType.COMPOUND) {
+                    analysis.compoundListMaxElementLength = Math.max(analysis.compoundListMaxElementLength, length);
+                } else if (type == NBTType.LIST) {
+                    analysis.nestedListMaxElementLength = Math.max(analysis.nestedListMaxElementLength, length);
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean visitString(String value) {
+        // String(value)
+        int bytes = utf8Length(value);
+        analysis.renderedLength += 8 + value.length();
+        analysis.renderedBytes += 8 + bytes;
+        analysis.maxStringLength = Math.max(analysis.maxStringLength, value.length());
+        if (!encode(2 + bytes)) return false;
+        scanTokens(value);
+        return true;
+    }
+
+    private boolean number(String prefix, long value, int size) {
+        render(prefix.length() + digits(value) + 1);
+        return encode(size);
+    }
+
+    private void array(NbtAnalysis.ArrayKind kind, int length, int extremes) {
+        int index = kind.ordinal();
+        analysis.arrayMaxLength[index] = Math.max(analysis.arrayMaxLength[index], length);
+        analysis.arrayExtremes[index] += extremes;
+    }
+
+    private void maxArrayListSize(NbtAnalysis.ArrayKind kind, int size) {
+        int index = kind.ordinal();
+        analysis.arrayListMaxSize[index] = Math.max(analysis.arrayListMaxSize[index], size);
+    }
+
+    private void scanTokens(String value) {
+        for (NbtToken token : TOKENS) {
+            analysis.tokenHits[token.ordinal()] += FormatUtils.countOccurrences(value, token.getToken());
+        }
+    }
+
+    private void render(int length) {
+        analysis.renderedLength += length;
+        analysis.renderedBytes += length;
+    }
+
+    private boolean encode(int size) {
+        analysis.encodedSize += size;
+        return analysis.encodedSize <= maxSize || exceed("Size");
+    }
+
+    private boolean exceed(String budget) {
+        analysis.exceededBudget = budget;
+        return false;
+    }
+
+    /**
+     * Calculates the length of {@link java.util.Arrays#toString} for an array whose elements render to the given
+     * amount of digits in total.
+     */
+    private static int arrayLength(int elements, int digits) {
+        return elements == 0 ? 2 : 2 + digits + 2 * (elements - 1);
+    }
+
+    private static int digits(long value) {
+        if (value == Long.MIN_VALUE) return 20;
+
+        int  length    = value < 0 ? 2 : 1;
+        long remaining = Math.abs(value);
+        while (remaining >= 10) {
+            remaining /= 10;
+            length++;
+        }
+        return length;
+    }
+
+    /**
+     * Calculates the amount of bytes {@link String#getBytes} produces for the given string in UTF-8, without
+     * encoding it.
+     */
+    private static int utf8Length(String value) {
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                       && Character.isLowSurrogate(value.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                length++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+}
@@ -0,0 +1,321 @@
+package de.feelix.sierra.utilities.nbt;
+
+import com.github.retrooper.packetevents.event.PacketReceiveEvent;
+import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
+import de.feelix.sierra.manager.config.SierraSettings;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The NbtPreScanner class walks the NBT of the items in an inbound packet directly in its buffer, before any wrapper
+ * decodes it.
+ * <p>
+ * The walk only reads bytes at absolute positions, so it neither copies the buffer nor moves its reader index. It
+ * applies the same depth, node and size budgets as the {@link NbtAnalyzer}, but an item that breaks them is rejected
+ * before a single tag was materialized.
+ * <p>
+ * Only definite budget overruns are reported. Truncated or otherwise malformed buffers, unknown layouts and servers
+ * whose items carry data components instead of NBT (1.20.5 and newer) pass, and are left to the regular decoding and
+ * checks.
+ */
+public final class NbtPreScanner {
+
+    private static final byte[] BOOK_EDIT_CHANNEL = "MC|BEdit".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] BOOK_SIGN_CHANNEL = "MC|BSign".getBytes(StandardCharsets.US_ASCII);
+
+    private static final int TAG_END        = 0;
+    private static final int TAG_BYTE       = 1;
+    private static final int TAG_SHORT      = 2;
+    private static final int TAG_INT        = 3;
+    private static final int TAG_LONG       = 4;
+    private static final int TAG_FLOAT      = 5;
+    private static final int TAG_DOUBLE     = 6;
+    private static final int TAG_BYTE_ARRAY = 7;
+    private static final int TAG_STRING     = 8;
+    private static final int TAG_LIST       = 9;
+    private static final int TAG_COMPOUND   = 10;
+    private static final int TAG_INT_ARRAY  = 11;
+    private static final int TAG_LONG_ARRAY = 12;
+
+    private final Object  buffer;
+    private final int     end;
+    private final int     maxDepth;
+    private final int     maxNodes;
+    private final int     maxSize;
+    private final boolean legacyItems;
+    private final boolean legacyDamage;
+    private final boolean namedRoot;
+
+    private int     index;
+    private int     start;
+    private int     nodes;
+    private boolean malformed;
+    private String  exceededBudget;
+
+    private NbtPreScanner(Object buffer, ServerVersion version, SierraSettings settings) {
+        this.buffer = buffer;
+        this.index = ByteBufHelper.readerIndex(buffer);
+        this.end = ByteBufHelper.writerIndex(buffer);
+        this.maxDepth = settings.getNbtMaxDepth();
+        this.maxNodes = settings.getNbtMaxNodes();
+        this.maxSize = settings.getNbtMaxSize();
+        this.legacyItems = version.isOlderThan(ServerVersion.V_1_13_2);
+        this.legacyDamage = version.isOlderThan(ServerVersion.V_1_13);
+        this.namedRoot = version.isOlderThan(ServerVersion.V_1_20_2);
+    }
+
+    /**
+     * Scans the items of a packet that has not been decoded yet.
+     * <p>
+     * Click window, creative inventory action, legacy block placement and legacy book plugin messages are scanned,
+     * every other packet passes.
+     *
+     * @param event    The event of the received packet
+     * @param settings The settings holding the budgets
+     * @return The budget an item exceeded, or {@code null} if all items are within their budgets
+     */
+    public static String scan(PacketReceiveEvent event, SierraSettings settings) {
+        if (event.getLastUsedWrapper() != null) return null;
+
+        ServerVersion version = event.getServerVersion();
+        if (version == null
+            || version.isOlderThan(ServerVersion.V_1_8)
+            || version.isNewerThanOrEquals(ServerVersion.V_1_20_5)) {
+            return null;
+        }
+
+        PacketTypeCommon packetType = event.getPacketType();
+        if (packetType != PacketType.Play.Client.CLICK_WINDOW
+            && packetType != PacketType.Play.Client.CREATIVE_INVENTORY_ACTION
+            && packetType != PacketType.Play.Client.PLAYER_BLOCK_PLACEMENT
+            && packetType != PacketType.Play.Client.PLUGIN_MESSAGE) {
+            return null;
+        }
+
+        NbtPreScanner scanner = new NbtPreScanner(event.getByteBuf(), version, settings);
+        scanner.scanPacket(packetType, version);
+        return scanner.malformed ? null : scanner.exceededBudget;
+    }
+
+    private void scanPacket(PacketTypeCommon packetType, ServerVersion version) {
+        if (packetType == PacketType.Play.Client.CREATIVE_INVENTORY_ACTION) {
+            // short slot, item
+            if (skipRaw(2)) item();
+        } else if (packetType == PacketType.Play.Client.PLAYER_BLOCK_PLACEMENT) {
+            // long position, byte face, item (only before 1.9)
+            if (version.isOlderThan(ServerVersion.V_1_9) && skipRaw(9)) item();
+        } else if (packetType == PacketType.Play.Client.PLUGIN_MESSAGE) {
+            // string channel, item (book channels only exist before 1.13)
+            if (version.isOlderThan(ServerVersion.V_1_13) && bookChannel()) item();
+        } else {
+            scanClickWindow(version);
+        }
+    }
+
+    private void scanClickWindow(ServerVersion version) {
+        boolean modern = version.isNewerThanOrEquals(ServerVersion.V_1_17);
+
+        // window id, state id (1.17.1+), slot, button, action number (before 1.17), mode
+        if (!skipRaw(1)) return;
+        if (version.isNewerThanOrEquals(ServerVersion.V_1_17_1) && readVarInt() < 0) return;
+        if (!skipRaw(modern ? 3 : 5) || readVarInt() < 0) return;
+
+        if (modern) {
+            int changedSlots = readVarInt();
+            for (int i = 0; i < changedSlots; i++) {
+                if (!skipRaw(2) || !item()) return;
+            }
+        }
+        item();
+    }
+
+    private boolean bookChannel() {
+        int length = readVarInt();
+        if (length < 0 || !available(length)) return false;
+
+        boolean matches = matches(BOOK_EDIT_CHANNEL, length) || matches(BOOK_SIGN_CHANNEL, length);
+        index += length;
+        return matches;
+    }
+
+    private boolean matches(byte[] channel, int length) {
+        if (channel.length != length) return false;
+        for (int i = 0; i < length; i++) {
+            if (ByteBufHelper.getUnsignedByte(buffer, index + i) != channel[i]) return false;
+        }
+        return true;
+    }
+
+    private boolean item() {
+        if (legacyItems) {
+            // short id (negative if empty), byte count, short damage before 1.13, nbt
+            if (!available(2)) return false;
+            if ((short) readUnsignedShort() < 0) return true;
+            if (!skipRaw(legacyDamage ? 3 : 1)) return false;
+        } else {
+            // boolean present, varint id, byte count, nbt
+            if (!available(1)) return false;
+            if (readUnsignedByte() == 0) return true;
+            if (readVarInt() < 0 || !skipRaw(1)) return false;
+        }
+        return root();
+    }
+
+    private boolean root() {
+        start = index;
+        nodes = 0;
+
+        if (!available(1)) return false;
+        int type = readUnsignedByte();
+        if (type == TAG_END) return true;
+        if (namedRoot && !string()) return false;
+        return payload(type, 1);
+    }
+
+    private boolean payload(int type, int depth) {
+        if (++nodes > maxNodes) return exceed("Nodes");
+        if (depth > maxDepth) return exceed("Depth");
+
+        switch (type) {
+            case TAG_BYTE:
+                return skip(1);
+            case TAG_SHORT:
+                return skip(2);
+            case TAG_INT:
+            case TAG_FLOAT:
+                return skip(4);
+            case TAG_LONG:
+            case TAG_DOUBLE:
+                return skip(8);
+            case TAG_BYTE_ARRAY:
+                return array(1);
+            case TAG_INT_ARRAY:
+                return array(4);
+            case TAG_LONG_ARRAY:
+                return array(8);
+            case TAG_STRING:
+                return string();
+            case TAG_LIST:
+                return list(depth);
+            case TAG_COMPOUND:
+                return compound(depth);
+            default:
+                return malformed();
+        }
+    }
+
+    private boolean compound(int depth) {
+        while (true) {
+            if (!available(1)) return false;
+            int type = readUnsignedByte();
+            if (type == TAG_END) return true;
+            if (!string() || !payload(type, depth + 1)) return false;
+        }
+    }
+
+    private boolean list(int depth) {
+        if (!available(5)) return false;
+        int type   = readUnsignedByte();
+        int length = readInt();
+        if (length < 0 || (length > 0 && type == TAG_END)) return malformed();
+        if (length == 0) return true;
+
+        int width = width(type);
+        if (width == 0) {
+            for (int i = 0; i < length; i++) {
+                if (!payload(type, depth + 1)) return false;
+            }
+            return true;
+        }
+
+        // Fixed width elements are budgeted as a whole instead of one by one
+        if ((long) nodes + length > maxNodes) return exceed("Nodes");
+        if (depth + 1 > maxDepth) return exceed("Depth");
+        nodes += length;
+        return skip((long) length * width);
+    }
+
+    private boolean array(int width) {
+        if (!available(4)) return false;
+        int length = readInt();
+        if (length < 0) return malformed();
+        return skip((long) length * width);
+    }
+
+    private boolean string() {
+        if (!available(2)) return false;
+        return skip(readUnsignedShort());
+    }
+
+    private boolean skip(long bytes) {
+        if (index - start + bytes > maxSize) return exceed("Size");
+        return skipRaw(bytes);
+    }
+
+    private boolean skipRaw(long bytes) {
+        if (!available(bytes)) return false;
+        index += (int) bytes;
+        return true;
+    }
+
+    private boolean available(long bytes) {
+        return end - index >= bytes || malformed();
+    }
+
+    private boolean malformed() {
+        malformed = true;
+        return false;
+    }
+
+    private boolean exceed(String budget) {
+        exceededBudget = budget;
+        return false;
+    }
+
+    private int readUnsignedByte() {
+        return ByteBufHelper.getUnsignedByte(buffer, index++);
+    }
+
+    private int readUnsignedShort() {
+        return readUnsignedByte() << 8 | readUnsignedByte();
+    }
+
+    private int readInt() {
+        return readUnsignedShort() << 16 | readUnsignedShort();
+    }
+
+    /**
+     * Reads a var int, or returns {@code -1} and marks the buffer as malformed if it is truncated or too long.
+     */
+    private int readVarInt() {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            if (!available(1)) return -1;
+            int current = readUnsignedByte();
+            value |= (current & 0x7F) << shift;
+            if ((current & 0x80) == 0) return value;
+        }
+        malformed();
+        return -1;
+    }
+
+    private static int width(int type) {
+        switch (type) {
+            case TAG_BYTE:
+                return 1;
+            case TAG_SHORT:
+                return 2;
+            case TAG_INT:
+            case TAG_FLOAT:
+                return 4;
+            case TAG_LONG:
+            case TAG_DOUBLE:
+                return 8;
+            default:
+                return 0;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package de.feelix.sierra.utilities.nbt;
+
+import lombok.Getter;
+
+/**
+ * The NbtToken enum lists the tokens the {@link NbtAnalyzer} searches for in every key and string value of an NBT
+ * tree.
+ */
+@Getter
+public enum NbtToken {
+
+    TRANSLATE("translate"),
+    SNOOPER("options.snooper.desc"),
+    EXTRA_ARRAY(":[{extra:[{"),
+    WURST_CLIENT("www.wurstclient.net");
+
+    private final String token;
+
+    NbtToken(String token) {
+        this.token = token;
+    }
+}
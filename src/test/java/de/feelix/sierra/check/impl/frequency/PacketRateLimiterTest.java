@@ -0,0 +1,72 @@
+package de.feelix.sierra.check.impl.frequency;
+
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
+import de.feelix.sierra.Sierra;
+import de.feelix.sierra.manager.config.SierraSettings;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import sun.misc.Unsafe;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PacketRateLimiterTest {
+
+    private static final long START = 1_700_000_000_000L;
+
+    private static SierraSettings settings;
+
+    @BeforeAll
+    static void compileSettings() throws Exception {
+        // The settings only reach for the plugin to log invalid entries, so an empty instance is enough
+        Field theUnsafe = Unsafe.class.getDeclaredField("theUnsafe");
+        theUnsafe.setAccessible(true);
+        Field plugin = Sierra.class.getDeclaredField("plugin");
+        plugin.setAccessible(true);
+        plugin.set(null, ((Unsafe) theUnsafe.get(null)).allocateInstance(Sierra.class));
+
+        try (Reader reader = new InputStreamReader(
+            PacketRateLimiterTest.class.getResourceAsStream("/sierra.yml"), StandardCharsets.UTF_8)) {
+            settings = SierraSettings.compile(YamlConfiguration.loadConfiguration(reader));
+        }
+    }
+
+    @Test
+    void transactionResponsesStayWithinAttackLimits() {
+        assertWithinLimits(PacketType.Play.Client.WINDOW_CONFIRMATION);
+        assertWithinLimits(PacketType.Play.Client.PONG);
+    }
+
+    @Test
+    void attackModeTightensOtherLimits() {
+        PacketRateLimiter regular = new PacketRateLimiter();
+        PacketRateLimiter attack  = new PacketRateLimiter();
+        boolean           exceeded = false;
+
+        // 40 animations per second are within the regular limit of 50, but above the halved one
+        for (int i = 0; i < 80; i++) {
+            long now = START + i * 25L;
+            assertEquals(-1, regular.acquire(settings, PacketType.Play.Client.ANIMATION, now, false));
+            exceeded |= attack.acquire(settings, PacketType.Play.Client.ANIMATION, now, true) != -1;
+        }
+        assertTrue(exceeded);
+    }
+
+    /**
+     * Answers one transaction per tick for a minute, the way every client does while the server sends them.
+     */
+    private static void assertWithinLimits(PacketTypeCommon packetType) {
+        PacketRateLimiter limiter = new PacketRateLimiter();
+        for (int i = 0; i < 20 * 60; i++) {
+            long now = START + i * 50L;
+            assertEquals(-1, limiter.acquire(settings, packetType, now, true), packetType.getName() + " at " + i);
+        }
+    }
+}